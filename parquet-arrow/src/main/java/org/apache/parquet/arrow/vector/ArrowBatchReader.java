@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.arrow.vector;
+
+import static org.apache.parquet.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.parquet.VersionParser;
+import org.apache.parquet.VersionParser.ParsedVersion;
+import org.apache.parquet.VersionParser.VersionParseException;
+import org.apache.parquet.arrow.schema.SchemaMapping;
+import org.apache.parquet.arrow.schema.SchemaMapping.ListTypeMapping;
+import org.apache.parquet.arrow.schema.SchemaMapping.PrimitiveTypeMapping;
+import org.apache.parquet.arrow.schema.SchemaMapping.RepeatedTypeMapping;
+import org.apache.parquet.arrow.schema.SchemaMapping.StructTypeMapping;
+import org.apache.parquet.arrow.schema.SchemaMapping.TypeMapping;
+import org.apache.parquet.arrow.schema.SchemaMapping.TypeMappingVisitor;
+import org.apache.parquet.arrow.schema.SchemaMapping.UnionTypeMapping;
+import org.apache.parquet.arrow.vector.ArrowColumnReader.ListStep;
+import org.apache.parquet.arrow.vector.ArrowColumnReader.Step;
+import org.apache.parquet.arrow.vector.ArrowColumnReader.StructStep;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.column.vector.ColumnChunkPageDecoder;
+import org.apache.parquet.io.ParquetDecodingException;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Type.Repetition;
+
+/**
+ * Reads the rows of a row group into Arrow {@link VectorSchemaRoot} batches. The pages are decoded directly into the
+ * buffers of the vectors: the values are written to the leaf vectors while the validity and offsets of the struct and
+ * list vectors are computed from the repetition and definition levels. No record is materialized.
+ * <p>
+ * The binary columns having a dictionary in the row group may be read as dictionary encoded vectors: their leaf
+ * vector contains the ids of the Parquet dictionary and the Arrow dictionary, available from this reader as a
+ * {@link DictionaryProvider}, contains its entries. The values of the pages that are not dictionary encoded (e.g. the
+ * writer fell back to plain encoding as the dictionary grew too large) are appended to the Arrow dictionary. The
+ * dictionaries belong to the reader; they are valid until it is closed.
+ * <p>
+ * The row indexes of the page store (see {@link PageReadStore#getRowIndexes()}) are not supported as the columns
+ * would have different rows. Unions are not supported either.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class ArrowBatchReader implements DictionaryProvider, AutoCloseable {
+
+  private static final ArrowType.Int DICTIONARY_INDEX_TYPE = new ArrowType.Int(32, true);
+
+  private final SchemaMapping mapping;
+  private final BufferAllocator allocator;
+  private final boolean dictionaryEncoding;
+  private final ColumnChunkPageDecoder[] decoders;
+  private final Map<Long, Dictionary> dictionaries = new HashMap<>();
+  private final List<ArrowColumnReader> readers = new ArrayList<>();
+  private final VectorSchemaRoot root;
+  private long remainingRowCount;
+
+  /**
+   * Creates a reader which reads the binary columns having a dictionary as dictionary encoded vectors.
+   *
+   * @param mapping the mapping of the schema to read; its Parquet schema is the projection of the file schema to the
+   *                requested columns
+   * @param pages the pages of the row group
+   * @param createdBy writer version string from the Parquet file being read
+   * @param allocator the allocator of the vectors
+   */
+  public ArrowBatchReader(SchemaMapping mapping, PageReadStore pages, String createdBy, BufferAllocator allocator) {
+    this(mapping, pages, createdBy, allocator, true);
+  }
+
+  /**
+   * @param mapping the mapping of the schema to read; its Parquet schema is the projection of the file schema to the
+   *                requested columns
+   * @param pages the pages of the row group
+   * @param createdBy writer version string from the Parquet file being read
+   * @param allocator the allocator of the vectors
+   * @param dictionaryEncoding whether the binary columns having a dictionary shall be read as dictionary encoded
+   *                           vectors; otherwise the values are decoded
+   */
+  public ArrowBatchReader(SchemaMapping mapping, PageReadStore pages, String createdBy, BufferAllocator allocator,
+      boolean dictionaryEncoding) {
+    checkArgument(!pages.getRowIndexes().isPresent(), "Filtered row groups are not supported");
+    this.mapping = mapping;
+    this.allocator = allocator;
+    this.dictionaryEncoding = dictionaryEncoding;
+    ParsedVersion writerVersion;
+    try {
+      writerVersion = VersionParser.parse(createdBy);
+    } catch (RuntimeException | VersionParseException e) {
+      writerVersion = null;
+    }
+    List<ColumnDescriptor> columns = mapping.getParquetSchema().getColumns();
+    this.decoders = new ColumnChunkPageDecoder[columns.size()];
+    for (int i = 0; i < decoders.length; ++i) {
+      ColumnDescriptor column = columns.get(i);
+      decoders[i] = new ColumnChunkPageDecoder(column, pages.getPageReader(column), writerVersion);
+    }
+
+    List<Field> fields = new ArrayList<>();
+    int[] leafIndex = { 0 };
+    for (TypeMapping child : mapping.getChildren()) {
+      fields.add(toField(child, leafIndex));
+    }
+    this.root = VectorSchemaRoot.create(new Schema(fields, mapping.getArrowSchema().getCustomMetadata()), allocator);
+    try {
+      leafIndex[0] = 0;
+      List<TypeMapping> children = mapping.getChildren();
+      for (int i = 0; i < children.size(); ++i) {
+        TypeMapping child = children.get(i);
+        new ReaderBuilder(root.getFieldVectors().get(i), new ArrayList<>(), 0, 0, false, leafIndex).build(child);
+      }
+    } catch (RuntimeException e) {
+      close();
+      throw e;
+    }
+    this.remainingRowCount = pages.getRowCount();
+  }
+
+  public SchemaMapping getSchemaMapping() {
+    return mapping;
+  }
+
+  /**
+   * @return the root of the vectors the batches are read into; its schema is the Arrow schema of the mapping except
+   *         the dictionary encoded fields
+   */
+  public VectorSchemaRoot getVectorSchemaRoot() {
+    return root;
+  }
+
+  /**
+   * @return the number of rows not read yet
+   */
+  public long getRemainingRowCount() {
+    return remainingRowCount;
+  }
+
+  /**
+   * Reads the next rows into the vectors of the root replacing their content.
+   *
+   * @param maxRows the maximum number of rows to read
+   * @return the number of rows read; 0 if all the rows have been read already
+   */
+  public int readBatch(int maxRows) {
+    int rows = (int) Math.min(maxRows, remainingRowCount);
+    for (FieldVector vector : root.getFieldVectors()) {
+      vector.reset();
+    }
+    for (ArrowColumnReader reader : readers) {
+      int read = reader.readBatch(rows);
+      if (read != rows) {
+        throw new ParquetDecodingException("A column has fewer rows than the row group: " + read + " instead of "
+            + rows);
+      }
+    }
+    root.setRowCount(rows);
+    remainingRowCount -= rows;
+    return rows;
+  }
+
+  @Override
+  public Dictionary lookup(long id) {
+    return dictionaries.get(id);
+  }
+
+  @Override
+  public void close() {
+    root.close();
+    for (Dictionary dictionary : dictionaries.values()) {
+      dictionary.getVector().close();
+    }
+  }
+
+  // the dictionary ids are the indexes of the columns
+  private boolean isDictionaryEncoded(int columnIndex, Field field) {
+    if (!dictionaryEncoding || decoders[columnIndex].getDictionary() == null) {
+      return false;
+    }
+    PrimitiveTypeName type = decoders[columnIndex].getDescriptor().getPrimitiveType().getPrimitiveTypeName();
+    ArrowType.ArrowTypeID typeId = field.getType().getTypeID();
+    return (type == PrimitiveTypeName.BINARY || type == PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY)
+        && (typeId == ArrowType.ArrowTypeID.Utf8 || typeId == ArrowType.ArrowTypeID.Binary);
+  }
+
+  // the Arrow field of the mapping with the dictionary encoded leaves replaced by their index
+  private Field toField(TypeMapping mapping, int[] leafIndex) {
+    Field field = mapping.getArrowField();
+    String name = field.getName();
+    if (mapping instanceof PrimitiveTypeMapping) {
+      int columnIndex = leafIndex[0]++;
+      if (isDictionaryEncoded(columnIndex, field)) {
+        DictionaryEncoding encoding = new DictionaryEncoding(columnIndex, false, DICTIONARY_INDEX_TYPE);
+        return new Field(name, field.isNullable(), DICTIONARY_INDEX_TYPE, encoding, null);
+      }
+      return new Field(name, field.isNullable(), field.getType(), null);
+    }
+    List<Field> childFields = new ArrayList<>();
+    for (TypeMapping child : mapping.getChildren()) {
+      childFields.add(toField(child, leafIndex));
+    }
+    return new Field(name, field.isNullable(), field.getType(), childFields);
+  }
+
+  /**
+   * Creates the column readers of a field: it follows the mapping down to the leaves along with the vectors and the
+   * levels of the Parquet types.
+   */
+  private class ReaderBuilder implements TypeMappingVisitor<Void> {
+    private final FieldVector vector;
+    private final List<Step> path;
+    private final int repetitionLevel;
+    private final int definitionLevel;
+    // whether the repetition of the Parquet type is taken into account by the parent (repeated fields)
+    private final boolean repeatedByParent;
+    private final int[] leafIndex;
+
+    ReaderBuilder(FieldVector vector, List<Step> path, int repetitionLevel, int definitionLevel,
+        boolean repeatedByParent, int[] leafIndex) {
+      this.vector = vector;
+      this.path = path;
+      this.repetitionLevel = repetitionLevel;
+      this.definitionLevel = definitionLevel;
+      this.repeatedByParent = repeatedByParent;
+      this.leafIndex = leafIndex;
+    }
+
+    void build(TypeMapping mapping) {
+      mapping.accept(this);
+    }
+
+    private int definitionLevel(Type type) {
+      return !repeatedByParent && type.isRepetition(Repetition.OPTIONAL) ? definitionLevel + 1 : definitionLevel;
+    }
+
+    @Override
+    public Void visit(PrimitiveTypeMapping primitiveTypeMapping) {
+      int columnIndex = leafIndex[0]++;
+      ColumnChunkPageDecoder decoder = decoders[columnIndex];
+      ColumnDescriptor column = decoder.getDescriptor();
+      if (column.getMaxDefinitionLevel() != definitionLevel(primitiveTypeMapping.getParquetType())
+          || column.getMaxRepetitionLevel() != repetitionLevel) {
+        throw new IllegalArgumentException("The mapping does not match the Parquet schema at column " + column);
+      }
+      ValueLoader loader;
+      if (vector.getField().getDictionary() != null) {
+        Field field = primitiveTypeMapping.getArrowField();
+        FieldVector dictionaryVector = new Field(field.getName(), false, field.getType(), null).createVector(allocator);
+        DictionaryEncoding encoding = vector.getField().getDictionary();
+        dictionaries.put(encoding.getId(), new Dictionary(dictionaryVector, encoding));
+        loader = new DictionaryIdLoader(decoder, (IntVector) vector, dictionaryVector);
+      } else {
+        loader = ValueLoader.create(column, vector);
+      }
+      readers.add(new ArrowColumnReader(decoder, path, loader));
+      return null;
+    }
+
+    @Override
+    public Void visit(StructTypeMapping structTypeMapping) {
+      int childDefinitionLevel = definitionLevel(structTypeMapping.getParquetType());
+      List<TypeMapping> children = structTypeMapping.getChildren();
+      List<FieldVector> childVectors = vector.getChildrenFromFields();
+      for (int i = 0; i < children.size(); ++i) {
+        List<Step> childPath;
+        if (i == 0) {
+          // the first column below the struct fills it and the vectors above it
+          childPath = new ArrayList<>(path);
+          childPath.add(new StructStep((StructVector) vector, repetitionLevel, childDefinitionLevel));
+        } else {
+          // the other columns only follow the lists above them
+          childPath = new ArrayList<>();
+          for (Step step : path) {
+            if (step instanceof ListStep) {
+              childPath.add(((ListStep) step).withoutVector());
+            }
+          }
+        }
+        new ReaderBuilder(childVectors.get(i), childPath, repetitionLevel, childDefinitionLevel, false, leafIndex)
+            .build(children.get(i));
+      }
+      return null;
+    }
+
+    @Override
+    public Void visit(UnionTypeMapping unionTypeMapping) {
+      throw new UnsupportedOperationException("Unions are not supported: " + unionTypeMapping.getArrowField());
+    }
+
+    @Override
+    public Void visit(ListTypeMapping listTypeMapping) {
+      // optional or required list of a repeated group of one element
+      int listDefinitionLevel = definitionLevel(listTypeMapping.getParquetType());
+      return visitList(listDefinitionLevel, listTypeMapping.getChild(), false);
+    }
+
+    @Override
+    public Void visit(RepeatedTypeMapping repeatedTypeMapping) {
+      // the repeated type is both the list and its element
+      return visitList(definitionLevel, repeatedTypeMapping.getChild(), true);
+    }
+
+    private Void visitList(int listDefinitionLevel, TypeMapping child, boolean elementRepeatedByParent) {
+      List<Step> childPath = new ArrayList<>(path);
+      ListVector listVector = (ListVector) vector;
+      int elementDefinitionLevel = listDefinitionLevel + 1;
+      childPath.add(new ListStep(listVector, repetitionLevel, listDefinitionLevel, elementDefinitionLevel));
+      new ReaderBuilder(listVector.getDataVector(), childPath, repetitionLevel + 1, elementDefinitionLevel,
+          elementRepeatedByParent, leafIndex).build(child);
+      return null;
+    }
+  }
+}
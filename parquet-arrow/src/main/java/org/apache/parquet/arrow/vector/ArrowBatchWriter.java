@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.arrow.vector;
+
+import static org.apache.parquet.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.parquet.arrow.schema.SchemaMapping;
+import org.apache.parquet.arrow.schema.SchemaMapping.ListTypeMapping;
+import org.apache.parquet.arrow.schema.SchemaMapping.PrimitiveTypeMapping;
+import org.apache.parquet.arrow.schema.SchemaMapping.RepeatedTypeMapping;
+import org.apache.parquet.arrow.schema.SchemaMapping.StructTypeMapping;
+import org.apache.parquet.arrow.schema.SchemaMapping.TypeMapping;
+import org.apache.parquet.arrow.schema.SchemaMapping.TypeMappingVisitor;
+import org.apache.parquet.arrow.schema.SchemaMapping.UnionTypeMapping;
+import org.apache.parquet.arrow.vector.ArrowColumnWriter.LeafNode;
+import org.apache.parquet.arrow.vector.ArrowColumnWriter.ListNode;
+import org.apache.parquet.arrow.vector.ArrowColumnWriter.Node;
+import org.apache.parquet.arrow.vector.ArrowColumnWriter.StructNode;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnWriteStore;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Type.Repetition;
+
+/**
+ * Writes Arrow {@link VectorSchemaRoot} batches to the column writers of a {@link ColumnWriteStore}. The batches are
+ * written column by column: the values are read from the buffers of the leaf vectors while the repetition and
+ * definition levels are computed from the validity of the struct and list vectors and from the offsets of the lists.
+ * No record is materialized and no {@link org.apache.parquet.io.api.RecordConsumer} is involved.
+ * <p>
+ * The mapping is usually created from the Arrow schema with {@link org.apache.parquet.arrow.schema.SchemaConverter};
+ * the store shall have been created for its Parquet schema. The rows are written in slices of
+ * {@value #ROWS_PER_SLICE}: all the columns of a slice are written before the store is notified of the end of its
+ * records so the page size checks happen between slices. Flushing and closing the store remains the responsibility of
+ * the caller.
+ * <p>
+ * Dictionary encoded vectors are written as the values of their dictionary which are looked up in the
+ * {@link DictionaryProvider} of the batch. Unions are not supported.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class ArrowBatchWriter {
+
+  static final int ROWS_PER_SLICE = 128;
+
+  private final SchemaMapping mapping;
+  private final ColumnWriteStore store;
+  private final List<ColumnDescriptor> columns;
+  private long rowCount;
+
+  /**
+   * @param mapping the mapping of the schema of the batches
+   * @param store the store of the column writers; it shall have been created for the Parquet schema of the mapping
+   */
+  public ArrowBatchWriter(SchemaMapping mapping, ColumnWriteStore store) {
+    this.mapping = mapping;
+    this.store = store;
+    this.columns = mapping.getParquetSchema().getColumns();
+  }
+
+  public SchemaMapping getSchemaMapping() {
+    return mapping;
+  }
+
+  /**
+   * @return the number of rows written so far
+   */
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Writes the rows of a batch without dictionary encoded vectors.
+   *
+   * @param root the batch to write; its fields shall be the ones of the Arrow schema of the mapping
+   */
+  public void write(VectorSchemaRoot root) {
+    write(root, null);
+  }
+
+  /**
+   * Writes the rows of a batch.
+   *
+   * @param root the batch to write; its fields shall be the ones of the Arrow schema of the mapping except the
+   *             dictionary encoded ones which have the index type
+   * @param dictionaries the dictionaries of the dictionary encoded vectors of the batch; may be {@code null} if there
+   *                     is none
+   */
+  public void write(VectorSchemaRoot root, DictionaryProvider dictionaries) {
+    List<TypeMapping> children = mapping.getChildren();
+    List<FieldVector> vectors = root.getFieldVectors();
+    checkArgument(vectors.size() == children.size(), "The batch has %s fields instead of %s", vectors.size(),
+        children.size());
+    List<ArrowColumnWriter> writers = new ArrayList<>(columns.size());
+    int[] leafIndex = { 0 };
+    for (int i = 0; i < children.size(); ++i) {
+      new WriterBuilder(vectors.get(i), new ArrayList<>(), 0, 0, false, leafIndex, dictionaries, writers)
+          .build(children.get(i));
+    }
+
+    int rows = root.getRowCount();
+    for (int start = 0; start < rows; start += ROWS_PER_SLICE) {
+      int end = Math.min(rows, start + ROWS_PER_SLICE);
+      for (ArrowColumnWriter writer : writers) {
+        writer.writeRows(start, end);
+      }
+      for (int row = start; row < end; ++row) {
+        store.endRecord();
+      }
+    }
+    rowCount += rows;
+  }
+
+  /**
+   * Creates the column writers of a field: it follows the mapping down to the leaves along with the vectors and the
+   * levels of the Parquet types. The nodes of the vectors on the path are created from the leaf up.
+   */
+  private class WriterBuilder implements TypeMappingVisitor<Void> {
+    private final FieldVector vector;
+    private final List<UnaryOperator<Node>> path;
+    private final int repetitionLevel;
+    private final int definitionLevel;
+    // whether the repetition of the Parquet type is taken into account by the parent (repeated fields)
+    private final boolean repeatedByParent;
+    private final int[] leafIndex;
+    private final DictionaryProvider dictionaries;
+    private final List<ArrowColumnWriter> writers;
+
+    WriterBuilder(FieldVector vector, List<UnaryOperator<Node>> path, int repetitionLevel, int definitionLevel,
+        boolean repeatedByParent, int[] leafIndex, DictionaryProvider dictionaries, List<ArrowColumnWriter> writers) {
+      this.vector = vector;
+      this.path = path;
+      this.repetitionLevel = repetitionLevel;
+      this.definitionLevel = definitionLevel;
+      this.repeatedByParent = repeatedByParent;
+      this.leafIndex = leafIndex;
+      this.dictionaries = dictionaries;
+      this.writers = writers;
+    }
+
+    void build(TypeMapping mapping) {
+      mapping.accept(this);
+    }
+
+    private WriterBuilder child(FieldVector childVector, List<UnaryOperator<Node>> childPath,
+        int childRepetitionLevel, int childDefinitionLevel, boolean childRepeatedByParent) {
+      return new WriterBuilder(childVector, childPath, childRepetitionLevel, childDefinitionLevel,
+          childRepeatedByParent, leafIndex, dictionaries, writers);
+    }
+
+    private int definitionLevel(Type type) {
+      return !repeatedByParent && type.isRepetition(Repetition.OPTIONAL) ? definitionLevel + 1 : definitionLevel;
+    }
+
+    @Override
+    public Void visit(PrimitiveTypeMapping primitiveTypeMapping) {
+      ColumnDescriptor column = columns.get(leafIndex[0]++);
+      int leafDefinitionLevel = definitionLevel(primitiveTypeMapping.getParquetType());
+      if (column.getMaxDefinitionLevel() != leafDefinitionLevel || column.getMaxRepetitionLevel() != repetitionLevel) {
+        throw new IllegalArgumentException("The mapping does not match the Parquet schema at column " + column);
+      }
+      ValueWriter values;
+      DictionaryEncoding encoding = vector.getField().getDictionary();
+      if (encoding != null) {
+        Dictionary dictionary = dictionaries == null ? null : dictionaries.lookup(encoding.getId());
+        checkArgument(dictionary != null, "Missing dictionary %s of column %s", encoding.getId(), column);
+        values = ValueWriter.dictionaryEncoded((IntVector) vector,
+            ValueWriter.create(column, dictionary.getVector()));
+      } else {
+        values = ValueWriter.create(column, vector);
+      }
+      Node node = new LeafNode(values, leafDefinitionLevel);
+      for (int i = path.size() - 1; i >= 0; --i) {
+        node = path.get(i).apply(node);
+      }
+      writers.add(new ArrowColumnWriter(column, store.getColumnWriter(column), node));
+      return null;
+    }
+
+    @Override
+    public Void visit(StructTypeMapping structTypeMapping) {
+      int childDefinitionLevel = definitionLevel(structTypeMapping.getParquetType());
+      List<TypeMapping> children = structTypeMapping.getChildren();
+      List<FieldVector> childVectors = vector.getChildrenFromFields();
+      FieldVector structVector = vector;
+      for (int i = 0; i < children.size(); ++i) {
+        List<UnaryOperator<Node>> childPath = new ArrayList<>(path);
+        childPath.add(child -> new StructNode(structVector, childDefinitionLevel, child));
+        child(childVectors.get(i), childPath, repetitionLevel, childDefinitionLevel, false).build(children.get(i));
+      }
+      return null;
+    }
+
+    @Override
+    public Void visit(UnionTypeMapping unionTypeMapping) {
+      throw new UnsupportedOperationException("Unions are not supported: " + unionTypeMapping.getArrowField());
+    }
+
+    @Override
+    public Void visit(ListTypeMapping listTypeMapping) {
+      // optional or required list of a repeated group of one element
+      int listDefinitionLevel = definitionLevel(listTypeMapping.getParquetType());
+      return visitList(listDefinitionLevel, listTypeMapping.getChild(), false);
+    }
+
+    @Override
+    public Void visit(RepeatedTypeMapping repeatedTypeMapping) {
+      // the repeated type is both the list and its element
+      return visitList(definitionLevel, repeatedTypeMapping.getChild(), true);
+    }
+
+    private Void visitList(int listDefinitionLevel, TypeMapping child, boolean elementRepeatedByParent) {
+      ListVector listVector = (ListVector) vector;
+      int elementRepetitionLevel = repetitionLevel + 1;
+      int elementDefinitionLevel = listDefinitionLevel + 1;
+      List<UnaryOperator<Node>> childPath = new ArrayList<>(path);
+      childPath.add(element -> new ListNode(listVector, listDefinitionLevel, elementRepetitionLevel,
+          elementDefinitionLevel, element));
+      child(listVector.getDataVector(), childPath, elementRepetitionLevel, elementDefinitionLevel,
+          elementRepeatedByParent).build(child);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.arrow.vector;
+
+import java.util.List;
+
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.parquet.column.vector.ColumnChunkPageDecoder;
+import org.apache.parquet.column.vector.ColumnChunkPageDecoder.LevelDecoder;
+
+/**
+ * Reads a Parquet column chunk into the Arrow vectors on the path from a top level field to the leaf vector of the
+ * column. The leaf vector receives the values while the struct and list vectors of the path get their validity and
+ * offsets from the levels. As the struct and list vectors are shared by all the columns below them only the first
+ * column below a vector fills it; the other ones just follow the levels.
+ */
+class ArrowColumnReader {
+
+  private final ColumnChunkPageDecoder decoder;
+  private final Step[] steps;
+  private final ValueLoader loader;
+  private final int maxDefinitionLevel;
+  private final boolean repeated;
+
+  // the number of entries of the vectors on the path in the current batch; the last one is the leaf vector
+  private final int[] counts;
+  private int[] levels = new int[0];
+  // the repetition level of the next entry if it has been read already; -1 otherwise
+  private int nextRepetitionLevel = -1;
+
+  /**
+   * @param decoder the decoder of the column chunk
+   * @param steps the struct and list vectors on the path to the leaf vector from the top
+   * @param loader the loader of the values into the leaf vector
+   */
+  ArrowColumnReader(ColumnChunkPageDecoder decoder, List<Step> steps, ValueLoader loader) {
+    this.decoder = decoder;
+    this.steps = steps.toArray(new Step[0]);
+    this.loader = loader;
+    this.maxDefinitionLevel = decoder.getDescriptor().getMaxDefinitionLevel();
+    this.repeated = decoder.getDescriptor().getMaxRepetitionLevel() > 0;
+    this.counts = new int[this.steps.length + 1];
+  }
+
+  /**
+   * Reads the next records into the vectors. The vectors shall have been reset.
+   *
+   * @param maxRecords the maximum number of records to read
+   * @return the number of records read
+   */
+  int readBatch(int maxRecords) {
+    for (int i = 0; i < counts.length; ++i) {
+      counts[i] = 0;
+    }
+    int records = repeated ? readRepeatedBatch(maxRecords) : readFlatBatch(maxRecords);
+    for (int i = 0; i < steps.length; ++i) {
+      steps[i].finish(counts[i], counts[i + 1]);
+    }
+    loader.vector.setValueCount(counts[steps.length]);
+    return records;
+  }
+
+  private int readFlatBatch(int maxRecords) {
+    int records = 0;
+    while (records < maxRecords && decoder.hasMoreValues()) {
+      if (decoder.getPageRemaining() == 0) {
+        decoder.readPage();
+      }
+      int n = Math.min(maxRecords - records, decoder.getPageRemaining());
+      if (maxDefinitionLevel == 0) {
+        for (Step step : steps) {
+          for (int i = records, end = records + n; i < end; ++i) {
+            step.start(i, 0, 0);
+          }
+        }
+        loader.load(decoder.getValues(), records, n);
+      } else {
+        readFlatLevels(records, n);
+      }
+      records += n;
+      decoder.consume(n);
+    }
+    for (int i = 0; i < counts.length; ++i) {
+      counts[i] = records;
+    }
+    return records;
+  }
+
+  private void readFlatLevels(int start, int n) {
+    if (levels.length < n) {
+      levels = new int[n];
+    }
+    LevelDecoder definitionLevels = decoder.getDefinitionLevels();
+    for (int i = 0; i < n; ) {
+      int run = definitionLevels.nextRun(levels, i, n - i);
+      if (definitionLevels.isRepeatedRun() && levels[i] == maxDefinitionLevel) {
+        // all the entries of an RLE run are defined; no need to look at the levels one by one
+        loader.load(decoder.getValues(), start + i, run);
+      } else {
+        for (int j = i, end = i + run; j < end; ++j) {
+          if (levels[j] == maxDefinitionLevel) {
+            loader.load(decoder.getValues(), start + j);
+          }
+        }
+      }
+      i += run;
+    }
+    for (Step step : steps) {
+      for (int i = 0; i < n; ++i) {
+        step.start(start + i, levels[i], 0);
+      }
+    }
+  }
+
+  private int readRepeatedBatch(int maxRecords) {
+    int records = 0;
+    while (true) {
+      if (nextRepetitionLevel < 0) {
+        if (!decoder.hasMoreValues()) {
+          break;
+        }
+        if (decoder.getPageRemaining() == 0) {
+          decoder.readPage();
+        }
+        nextRepetitionLevel = decoder.getRepetitionLevels().next();
+      }
+      if (nextRepetitionLevel == 0) {
+        if (records == maxRecords) {
+          // keep the start of the next record for the next batch
+          break;
+        }
+        ++records;
+      }
+      int repetitionLevel = nextRepetitionLevel;
+      nextRepetitionLevel = -1;
+      append(repetitionLevel, decoder.getDefinitionLevels().next());
+      decoder.consume(1);
+    }
+    return records;
+  }
+
+  // an entry starts a new value in the vectors from the one of its repetition level down to the leaf; the values of
+  // these vectors are nested in each other until a null or an empty list
+  private void append(int repetitionLevel, int definitionLevel) {
+    for (int i = 0; i < steps.length; ++i) {
+      Step step = steps[i];
+      if (repetitionLevel <= step.repetitionLevel) {
+        if (!step.start(counts[i]++, definitionLevel, counts[i + 1])) {
+          return;
+        }
+      }
+    }
+    int index = counts[steps.length]++;
+    if (definitionLevel == maxDefinitionLevel) {
+      loader.load(decoder.getValues(), index);
+    }
+  }
+
+  /**
+   * A struct or list vector on the path of a column. The vector is {@code null} if another column fills it.
+   */
+  abstract static class Step {
+    // the entries up to this repetition level start a new value of the vector
+    final int repetitionLevel;
+    // the entries from this definition level are non-null values of the vector
+    final int definitionLevel;
+
+    Step(int repetitionLevel, int definitionLevel) {
+      this.repetitionLevel = repetitionLevel;
+      this.definitionLevel = definitionLevel;
+    }
+
+    /**
+     * Starts a new value of the vector.
+     *
+     * @param index the index of the value in the vector
+     * @param definitionLevel the definition level of the entry
+     * @param childCount the current number of values in the child vector
+     * @return whether the entry starts a value in the child vector too
+     */
+    abstract boolean start(int index, int definitionLevel, int childCount);
+
+    /**
+     * Sets the number of values of the vector at the end of a batch.
+     *
+     * @param count the number of values of the vector
+     * @param childCount the number of values of the child vector
+     */
+    abstract void finish(int count, int childCount);
+  }
+
+  static class StructStep extends Step {
+    private final StructVector vector;
+
+    StructStep(StructVector vector, int repetitionLevel, int definitionLevel) {
+      super(repetitionLevel, definitionLevel);
+      this.vector = vector;
+    }
+
+    @Override
+    boolean start(int index, int definitionLevel, int childCount) {
+      if (definitionLevel >= this.definitionLevel) {
+        vector.setIndexDefined(index);
+      } else {
+        vector.setNull(index);
+      }
+      // the children of a null struct have null values
+      return true;
+    }
+
+    @Override
+    void finish(int count, int childCount) {
+      vector.setValueCount(count);
+    }
+  }
+
+  static class ListStep extends Step {
+    private final ListVector vector;
+    // the entries from this definition level have an element
+    private final int elementDefinitionLevel;
+
+    ListStep(ListVector vector, int repetitionLevel, int definitionLevel, int elementDefinitionLevel) {
+      super(repetitionLevel, definitionLevel);
+      this.vector = vector;
+      this.elementDefinitionLevel = elementDefinitionLevel;
+    }
+
+    ListStep withoutVector() {
+      return new ListStep(null, repetitionLevel, definitionLevel, elementDefinitionLevel);
+    }
+
+    @Override
+    boolean start(int index, int definitionLevel, int childCount) {
+      if (vector != null) {
+        // extends the buffers and marks the value as non-null
+        vector.startNewValue(index);
+        vector.getOffsetBuffer().setInt(index * ListVector.OFFSET_WIDTH, childCount);
+        if (definitionLevel < this.definitionLevel) {
+          BitVectorHelper.setValidityBit(vector.getValidityBuffer(), index, 0);
+        }
+      }
+      return definitionLevel >= elementDefinitionLevel;
+    }
+
+    @Override
+    void finish(int count, int childCount) {
+      if (vector != null) {
+        if (count > 0) {
+          vector.getOffsetBuffer().setInt(count * ListVector.OFFSET_WIDTH, childCount);
+        }
+        // the last set of a list vector is the number of values set; the offsets of the values after it are reset
+        vector.setLastSet(count);
+        vector.setValueCount(count);
+      }
+    }
+  }
+}
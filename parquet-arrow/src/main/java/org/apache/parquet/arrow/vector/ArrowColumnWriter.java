@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.arrow.vector;
+
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnWriter;
+import org.apache.parquet.io.ParquetEncodingException;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Writes the values of the leaf vector of a column to its Parquet column writer. The repetition and definition levels
+ * are computed from the validity of the vectors on the path from the top level field to the leaf vector and from the
+ * offsets of the list vectors of this path.
+ */
+class ArrowColumnWriter {
+
+  private final ColumnDescriptor column;
+  private final ColumnWriter writer;
+  private final Node root;
+
+  /**
+   * @param column the column to write
+   * @param writer the writer of the column
+   * @param root the node of the top level vector of the path to the leaf vector
+   */
+  ArrowColumnWriter(ColumnDescriptor column, ColumnWriter writer, Node root) {
+    this.column = column;
+    this.writer = writer;
+    this.root = root;
+  }
+
+  /**
+   * Writes the values of the specified rows.
+   *
+   * @param start the index of the first row to write in the top level vector
+   * @param end the index after the last row to write
+   */
+  void writeRows(int start, int end) {
+    for (int row = start; row < end; ++row) {
+      root.write(this, row, 0, 0);
+    }
+  }
+
+  void writeNull(int repetitionLevel, int definitionLevel, int nodeDefinitionLevel) {
+    if (definitionLevel >= nodeDefinitionLevel) {
+      throw new ParquetEncodingException("Null value for a required field of column " + column);
+    }
+    writer.writeNull(repetitionLevel, definitionLevel);
+  }
+
+  /**
+   * A vector on the path of a column.
+   */
+  abstract static class Node {
+    // the definition level of the non-null values of the vector
+    final int definitionLevel;
+
+    Node(int definitionLevel) {
+      this.definitionLevel = definitionLevel;
+    }
+
+    /**
+     * Writes the levels and values of an entry of the vector.
+     *
+     * @param columnWriter the column writer
+     * @param index the index of the entry in the vector
+     * @param repetitionLevel the repetition level of the entry
+     * @param definitionLevel the definition level of the parent of the entry; the one of a null entry
+     */
+    abstract void write(ArrowColumnWriter columnWriter, int index, int repetitionLevel, int definitionLevel);
+  }
+
+  static class StructNode extends Node {
+    private final FieldVector vector;
+    private final Node child;
+
+    StructNode(FieldVector vector, int definitionLevel, Node child) {
+      super(definitionLevel);
+      this.vector = vector;
+      this.child = child;
+    }
+
+    @Override
+    void write(ArrowColumnWriter columnWriter, int index, int repetitionLevel, int definitionLevel) {
+      if (vector.isNull(index)) {
+        columnWriter.writeNull(repetitionLevel, definitionLevel, this.definitionLevel);
+      } else {
+        child.write(columnWriter, index, repetitionLevel, this.definitionLevel);
+      }
+    }
+  }
+
+  static class ListNode extends Node {
+    private final ListVector vector;
+    // the repetition level of the elements after the first one
+    private final int elementRepetitionLevel;
+    // the definition level of the parent of the elements; one more than the one of an empty list
+    private final int elementDefinitionLevel;
+    private final Node element;
+
+    ListNode(ListVector vector, int definitionLevel, int elementRepetitionLevel, int elementDefinitionLevel,
+        Node element) {
+      super(definitionLevel);
+      this.vector = vector;
+      this.elementRepetitionLevel = elementRepetitionLevel;
+      this.elementDefinitionLevel = elementDefinitionLevel;
+      this.element = element;
+    }
+
+    @Override
+    void write(ArrowColumnWriter columnWriter, int index, int repetitionLevel, int definitionLevel) {
+      if (vector.isNull(index)) {
+        columnWriter.writeNull(repetitionLevel, definitionLevel, this.definitionLevel);
+        return;
+      }
+      ArrowBuf offsets = vector.getOffsetBuffer();
+      int start = offsets.getInt(index * ListVector.OFFSET_WIDTH);
+      int end = offsets.getInt((index + 1) * ListVector.OFFSET_WIDTH);
+      if (start == end) {
+        // an empty list has no element: its entry is a null value defined up to the list
+        columnWriter.writer.writeNull(repetitionLevel, this.definitionLevel);
+        return;
+      }
+      element.write(columnWriter, start, repetitionLevel, elementDefinitionLevel);
+      for (int i = start + 1; i < end; ++i) {
+        element.write(columnWriter, i, elementRepetitionLevel, elementDefinitionLevel);
+      }
+    }
+  }
+
+  static class LeafNode extends Node {
+    private final ValueWriter values;
+
+    LeafNode(ValueWriter values, int definitionLevel) {
+      super(definitionLevel);
+      this.values = values;
+    }
+
+    @Override
+    void write(ArrowColumnWriter columnWriter, int index, int repetitionLevel, int definitionLevel) {
+      if (values.isNull(index)) {
+        columnWriter.writeNull(repetitionLevel, definitionLevel, this.definitionLevel);
+      } else {
+        values.write(columnWriter.writer, index, repetitionLevel, this.definitionLevel);
+      }
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.arrow.vector;
+
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.parquet.arrow.vector.ValueLoader.BinaryLoader;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.values.ValuesReader;
+import org.apache.parquet.column.vector.ColumnChunkPageDecoder;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Loads the dictionary ids of a binary column into the index vector of a dictionary encoded Arrow vector. The Arrow
+ * dictionary starts with the entries of the Parquet dictionary so the ids of the dictionary encoded pages are copied
+ * as is; the values of the pages which fell back to another encoding are appended to the Arrow dictionary.
+ */
+class DictionaryIdLoader extends ValueLoader {
+
+  private final ColumnChunkPageDecoder decoder;
+  private final BinaryLoader dictionaryLoader;
+  private int dictionarySize;
+  private int[] buffer = new int[0];
+
+  /**
+   * @param decoder the decoder of the column chunk; it shall have a dictionary
+   * @param vector the index vector to load the ids into
+   * @param dictionaryVector the vector of the Arrow dictionary; it is filled with the entries of the Parquet dictionary
+   */
+  DictionaryIdLoader(ColumnChunkPageDecoder decoder, IntVector vector, FieldVector dictionaryVector) {
+    super(vector);
+    this.decoder = decoder;
+    this.dictionaryLoader = new BinaryLoader(dictionaryVector);
+    Dictionary dictionary = decoder.getDictionary();
+    this.dictionarySize = dictionary.getMaxId() + 1;
+    for (int id = 0; id < dictionarySize; ++id) {
+      dictionaryLoader.set(id, dictionary.decodeToBinary(id));
+    }
+    dictionaryVector.setValueCount(dictionarySize);
+  }
+
+  @Override
+  void load(ValuesReader values, int index) {
+    int id;
+    if (decoder.isDictionaryEncoded()) {
+      id = values.readValueDictionaryId();
+    } else {
+      id = appendToDictionary(values);
+    }
+    ensureCapacity(index + 1);
+    vector.getDataBuffer().setInt(index * 4, id);
+    BitVectorHelper.setValidityBitToOne(vector.getValidityBuffer(), index);
+  }
+
+  @Override
+  void load(ValuesReader values, int index, int count) {
+    if (!decoder.isDictionaryEncoded()) {
+      super.load(values, index, count);
+      return;
+    }
+    if (buffer.length < count) {
+      buffer = new int[count];
+    }
+    values.readDictionaryIds(buffer, 0, count);
+    ensureCapacity(index + count);
+    ArrowBuf data = vector.getDataBuffer();
+    for (int i = 0; i < count; ++i) {
+      data.setInt((index + i) * 4, buffer[i]);
+    }
+    setDefined(index, count);
+  }
+
+  private int appendToDictionary(ValuesReader values) {
+    int id = dictionarySize++;
+    dictionaryLoader.load(values, id);
+    dictionaryLoader.vector.setValueCount(dictionarySize);
+    return id;
+  }
+}
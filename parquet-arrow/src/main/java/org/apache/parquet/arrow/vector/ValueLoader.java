@@ -0,0 +1,382 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.arrow.vector;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.values.ValuesReader;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Loads the values of a Parquet column into an Arrow vector. The values are read from the {@link ValuesReader} of the
+ * current page and written to the buffers of the vector at the specified indexes which are marked as non-null. The
+ * vectors are extended as needed.
+ */
+abstract class ValueLoader {
+
+  static final long NANOS_PER_DAY = TimeUnit.DAYS.toNanos(1);
+  static final int JULIAN_EPOCH_OFFSET_DAYS = 2_440_588;
+
+  final FieldVector vector;
+
+  ValueLoader(FieldVector vector) {
+    this.vector = vector;
+  }
+
+  /**
+   * @param column the Parquet column to load
+   * @param vector the Arrow vector to load the values into
+   * @return the loader of the values of the column into the vector
+   * @throws UnsupportedOperationException if the values of the column cannot be converted to the vector type
+   */
+  static ValueLoader create(ColumnDescriptor column, FieldVector vector) {
+    PrimitiveTypeName type = column.getPrimitiveType().getPrimitiveTypeName();
+    MinorType minorType = vector.getMinorType();
+    switch (type) {
+      case INT32:
+        return new IntLoader(vector, typeWidth(column, minorType));
+      case INT64:
+        return new LongLoader(vector, typeWidth(column, minorType));
+      case FLOAT:
+        if (minorType == MinorType.FLOAT4) {
+          return new FloatLoader(vector);
+        }
+        break;
+      case DOUBLE:
+        if (minorType == MinorType.FLOAT8) {
+          return new DoubleLoader(vector);
+        }
+        break;
+      case BOOLEAN:
+        if (minorType == MinorType.BIT) {
+          return new BooleanLoader(vector);
+        }
+        break;
+      case INT96:
+        if (minorType == MinorType.TIMESTAMPNANO || minorType == MinorType.TIMESTAMPNANOTZ) {
+          return new Int96TimestampLoader(vector);
+        }
+        // fall through
+      case BINARY:
+      case FIXED_LEN_BYTE_ARRAY:
+        if (minorType == MinorType.VARCHAR || minorType == MinorType.VARBINARY) {
+          return new BinaryLoader(vector);
+        }
+        if (minorType == MinorType.DECIMAL && type != PrimitiveTypeName.INT96) {
+          return new DecimalBinaryLoader(vector);
+        }
+        break;
+    }
+    throw new UnsupportedOperationException("Cannot load column " + column + " into a vector of type " + minorType);
+  }
+
+  static int typeWidth(ColumnDescriptor column, MinorType minorType) {
+    switch (minorType) {
+      case TINYINT:
+      case UINT1:
+        return 1;
+      case SMALLINT:
+      case UINT2:
+        return 2;
+      case INT:
+      case UINT4:
+      case DATEDAY:
+      case TIMESEC:
+      case TIMEMILLI:
+        return 4;
+      case BIGINT:
+      case UINT8:
+      case TIMEMICRO:
+      case TIMENANO:
+      case TIMESTAMPSEC:
+      case TIMESTAMPSECTZ:
+      case TIMESTAMPMILLI:
+      case TIMESTAMPMILLITZ:
+      case TIMESTAMPMICRO:
+      case TIMESTAMPMICROTZ:
+      case TIMESTAMPNANO:
+      case TIMESTAMPNANOTZ:
+        return 8;
+      case DECIMAL:
+        return DecimalVector.TYPE_WIDTH;
+      default:
+        throw new UnsupportedOperationException(
+            "Cannot load column " + column + " into a vector of type " + minorType);
+    }
+  }
+
+  /**
+   * Reads the next value and writes it at the specified index.
+   *
+   * @param values the values of the current page
+   * @param index the index of the entry in the vector
+   */
+  abstract void load(ValuesReader values, int index);
+
+  /**
+   * Reads the next values and writes them at consecutive indexes.
+   *
+   * @param values the values of the current page
+   * @param index the index of the first entry in the vector
+   * @param count the number of values to load
+   */
+  void load(ValuesReader values, int index, int count) {
+    for (int i = index, end = index + count; i < end; ++i) {
+      load(values, i);
+    }
+  }
+
+  void ensureCapacity(int size) {
+    while (vector.getValueCapacity() < size) {
+      vector.reAlloc();
+    }
+  }
+
+  void setDefined(int index, int count) {
+    ArrowBuf validity = vector.getValidityBuffer();
+    for (int i = index, end = index + count; i < end; ++i) {
+      BitVectorHelper.setValidityBitToOne(validity, i);
+    }
+  }
+
+  // writes the integer to the data buffer in the specified width; the decimals are sign-extended to 16 bytes
+  static void store(ArrowBuf data, int index, long value, int width) {
+    switch (width) {
+      case 1:
+        data.setByte(index, (int) value);
+        break;
+      case 2:
+        data.setShort(index * 2, (int) value);
+        break;
+      case 4:
+        data.setInt(index * 4, (int) value);
+        break;
+      case 8:
+        data.setLong(index * 8, value);
+        break;
+      default:
+        data.setLong(index * 16, value);
+        data.setLong(index * 16 + 8, value >> 63);
+        break;
+    }
+  }
+
+  private static class IntLoader extends ValueLoader {
+    private final int width;
+    private int[] buffer = new int[0];
+
+    IntLoader(FieldVector vector, int width) {
+      super(vector);
+      this.width = width;
+    }
+
+    @Override
+    void load(ValuesReader values, int index) {
+      ensureCapacity(index + 1);
+      store(vector.getDataBuffer(), index, values.readInteger(), width);
+      BitVectorHelper.setValidityBitToOne(vector.getValidityBuffer(), index);
+    }
+
+    @Override
+    void load(ValuesReader values, int index, int count) {
+      if (buffer.length < count) {
+        buffer = new int[count];
+      }
+      values.readIntegers(buffer, 0, count);
+      ensureCapacity(index + count);
+      ArrowBuf data = vector.getDataBuffer();
+      for (int i = 0; i < count; ++i) {
+        store(data, index + i, buffer[i], width);
+      }
+      setDefined(index, count);
+    }
+  }
+
+  private static class LongLoader extends ValueLoader {
+    private final int width;
+    private long[] buffer = new long[0];
+
+    LongLoader(FieldVector vector, int width) {
+      super(vector);
+      this.width = width;
+    }
+
+    @Override
+    void load(ValuesReader values, int index) {
+      ensureCapacity(index + 1);
+      store(vector.getDataBuffer(), index, values.readLong(), width);
+      BitVectorHelper.setValidityBitToOne(vector.getValidityBuffer(), index);
+    }
+
+    @Override
+    void load(ValuesReader values, int index, int count) {
+      if (buffer.length < count) {
+        buffer = new long[count];
+      }
+      values.readLongs(buffer, 0, count);
+      ensureCapacity(index + count);
+      ArrowBuf data = vector.getDataBuffer();
+      for (int i = 0; i < count; ++i) {
+        store(data, index + i, buffer[i], width);
+      }
+      setDefined(index, count);
+    }
+  }
+
+  private static class FloatLoader extends ValueLoader {
+    private float[] buffer = new float[0];
+
+    FloatLoader(FieldVector vector) {
+      super(vector);
+    }
+
+    @Override
+    void load(ValuesReader values, int index) {
+      ensureCapacity(index + 1);
+      vector.getDataBuffer().setFloat(index * 4, values.readFloat());
+      BitVectorHelper.setValidityBitToOne(vector.getValidityBuffer(), index);
+    }
+
+    @Override
+    void load(ValuesReader values, int index, int count) {
+      if (buffer.length < count) {
+        buffer = new float[count];
+      }
+      values.readFloats(buffer, 0, count);
+      ensureCapacity(index + count);
+      ArrowBuf data = vector.getDataBuffer();
+      for (int i = 0; i < count; ++i) {
+        data.setFloat((index + i) * 4, buffer[i]);
+      }
+      setDefined(index, count);
+    }
+  }
+
+  private static class DoubleLoader extends ValueLoader {
+    private double[] buffer = new double[0];
+
+    DoubleLoader(FieldVector vector) {
+      super(vector);
+    }
+
+    @Override
+    void load(ValuesReader values, int index) {
+      ensureCapacity(index + 1);
+      vector.getDataBuffer().setDouble(index * 8, values.readDouble());
+      BitVectorHelper.setValidityBitToOne(vector.getValidityBuffer(), index);
+    }
+
+    @Override
+    void load(ValuesReader values, int index, int count) {
+      if (buffer.length < count) {
+        buffer = new double[count];
+      }
+      values.readDoubles(buffer, 0, count);
+      ensureCapacity(index + count);
+      ArrowBuf data = vector.getDataBuffer();
+      for (int i = 0; i < count; ++i) {
+        data.setDouble((index + i) * 8, buffer[i]);
+      }
+      setDefined(index, count);
+    }
+  }
+
+  private static class BooleanLoader extends ValueLoader {
+    private boolean[] buffer = new boolean[0];
+
+    BooleanLoader(FieldVector vector) {
+      super(vector);
+    }
+
+    @Override
+    void load(ValuesReader values, int index) {
+      ensureCapacity(index + 1);
+      BitVectorHelper.setValidityBit(vector.getDataBuffer(), index, values.readBoolean() ? 1 : 0);
+      BitVectorHelper.setValidityBitToOne(vector.getValidityBuffer(), index);
+    }
+
+    @Override
+    void load(ValuesReader values, int index, int count) {
+      if (buffer.length < count) {
+        buffer = new boolean[count];
+      }
+      values.readBooleans(buffer, 0, count);
+      ensureCapacity(index + count);
+      ArrowBuf data = vector.getDataBuffer();
+      for (int i = 0; i < count; ++i) {
+        BitVectorHelper.setValidityBit(data, index + i, buffer[i] ? 1 : 0);
+      }
+      setDefined(index, count);
+    }
+  }
+
+  static class BinaryLoader extends ValueLoader {
+    BinaryLoader(FieldVector vector) {
+      super(vector);
+    }
+
+    @Override
+    void load(ValuesReader values, int index) {
+      set(index, values.readBytes());
+    }
+
+    void set(int index, Binary value) {
+      ByteBuffer bytes = value.toByteBuffer();
+      ((BaseVariableWidthVector) vector).setSafe(index, bytes, bytes.position(), bytes.remaining());
+    }
+  }
+
+  private static class DecimalBinaryLoader extends ValueLoader {
+    DecimalBinaryLoader(FieldVector vector) {
+      super(vector);
+    }
+
+    @Override
+    void load(ValuesReader values, int index) {
+      ((DecimalVector) vector).setBigEndianSafe(index, values.readBytes().getBytesUnsafe());
+    }
+  }
+
+  private static class Int96TimestampLoader extends ValueLoader {
+    Int96TimestampLoader(FieldVector vector) {
+      super(vector);
+    }
+
+    @Override
+    void load(ValuesReader values, int index) {
+      ByteBuffer bytes = values.readBytes().toByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+      long nanosOfDay = bytes.getLong(bytes.position());
+      int julianDay = bytes.getInt(bytes.position() + 8);
+      ensureCapacity(index + 1);
+      vector.getDataBuffer().setLong(index * 8, (julianDay - JULIAN_EPOCH_OFFSET_DAYS) * NANOS_PER_DAY + nanosOfDay);
+      BitVectorHelper.setValidityBitToOne(vector.getValidityBuffer(), index);
+    }
+  }
+}
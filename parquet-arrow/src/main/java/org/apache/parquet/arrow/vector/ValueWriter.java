@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.arrow.vector;
+
+import static org.apache.parquet.arrow.vector.ValueLoader.JULIAN_EPOCH_OFFSET_DAYS;
+import static org.apache.parquet.arrow.vector.ValueLoader.NANOS_PER_DAY;
+
+import org.apache.arrow.vector.BitVectorHelper;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FixedSizeBinaryVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnWriter;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Writes the values of an Arrow vector to a Parquet column. The values are read from the buffers of the vector; the
+ * binary values are copied to a buffer reused from one value to the next so the only allocation is the
+ * {@link Binary} wrapper the column writers expect.
+ */
+abstract class ValueWriter {
+
+  final FieldVector vector;
+
+  ValueWriter(FieldVector vector) {
+    this.vector = vector;
+  }
+
+  /**
+   * @param column the Parquet column to write
+   * @param vector the Arrow vector to write the values of
+   * @return the writer of the values of the vector to the column
+   * @throws UnsupportedOperationException if the values of the vector cannot be converted to the column type
+   */
+  static ValueWriter create(ColumnDescriptor column, FieldVector vector) {
+    PrimitiveTypeName type = column.getPrimitiveType().getPrimitiveTypeName();
+    MinorType minorType = vector.getMinorType();
+    switch (type) {
+      case INT32:
+        return new IntWriter(vector, ValueLoader.typeWidth(column, minorType), isUnsigned(minorType));
+      case INT64:
+        return new LongWriter(vector, ValueLoader.typeWidth(column, minorType), isUnsigned(minorType));
+      case FLOAT:
+        if (minorType == MinorType.FLOAT4) {
+          return new FloatWriter(vector);
+        }
+        break;
+      case DOUBLE:
+        if (minorType == MinorType.FLOAT8) {
+          return new DoubleWriter(vector);
+        }
+        break;
+      case BOOLEAN:
+        if (minorType == MinorType.BIT) {
+          return new BooleanWriter(vector);
+        }
+        break;
+      case INT96:
+        if (minorType == MinorType.TIMESTAMPNANO || minorType == MinorType.TIMESTAMPNANOTZ) {
+          return new Int96TimestampWriter(vector);
+        }
+        // fall through
+      case BINARY:
+      case FIXED_LEN_BYTE_ARRAY:
+        if (minorType == MinorType.VARCHAR || minorType == MinorType.VARBINARY) {
+          return new BinaryWriter(vector);
+        }
+        if (minorType == MinorType.FIXEDSIZEBINARY) {
+          return new FixedBinaryWriter(vector);
+        }
+        if (minorType == MinorType.DECIMAL && type != PrimitiveTypeName.INT96) {
+          int length = type == PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY
+              ? column.getPrimitiveType().getTypeLength()
+              : DecimalVector.TYPE_WIDTH;
+          return new DecimalBinaryWriter(vector, length);
+        }
+        break;
+    }
+    throw new UnsupportedOperationException("Cannot write a vector of type " + minorType + " to column " + column);
+  }
+
+  /**
+   * @param vector the index vector of a dictionary encoded vector
+   * @param dictionaryValues the writer of the values of the dictionary
+   * @return the writer of the values of the dictionary referenced by the ids of the index vector
+   */
+  static ValueWriter dictionaryEncoded(IntVector vector, ValueWriter dictionaryValues) {
+    return new DictionaryValueWriter(vector, dictionaryValues);
+  }
+
+  private static boolean isUnsigned(MinorType minorType) {
+    return minorType == MinorType.UINT1 || minorType == MinorType.UINT2;
+  }
+
+  boolean isNull(int index) {
+    return vector.isNull(index);
+  }
+
+  /**
+   * Writes the non-null value at the specified index.
+   *
+   * @param writer the writer of the column
+   * @param index the index of the entry in the vector
+   * @param repetitionLevel the repetition level of the value
+   * @param definitionLevel the definition level of the value
+   */
+  abstract void write(ColumnWriter writer, int index, int repetitionLevel, int definitionLevel);
+
+  // reads the integer of the data buffer stored in the specified width; only the low 8 bytes of the decimals are read
+  static long load(ArrowBuf data, int index, int width, boolean unsigned) {
+    switch (width) {
+      case 1:
+        return unsigned ? data.getByte(index) & 0xFF : data.getByte(index);
+      case 2:
+        return unsigned ? data.getShort(index * 2) & 0xFFFF : data.getShort(index * 2);
+      case 4:
+        return data.getInt(index * 4);
+      case 8:
+        return data.getLong(index * 8);
+      default:
+        return data.getLong(index * 16);
+    }
+  }
+
+  private static class IntWriter extends ValueWriter {
+    private final int width;
+    private final boolean unsigned;
+
+    IntWriter(FieldVector vector, int width, boolean unsigned) {
+      super(vector);
+      this.width = width;
+      this.unsigned = unsigned;
+    }
+
+    @Override
+    void write(ColumnWriter writer, int index, int repetitionLevel, int definitionLevel) {
+      writer.write((int) load(vector.getDataBuffer(), index, width, unsigned), repetitionLevel, definitionLevel);
+    }
+  }
+
+  private static class LongWriter extends ValueWriter {
+    private final int width;
+    private final boolean unsigned;
+
+    LongWriter(FieldVector vector, int width, boolean unsigned) {
+      super(vector);
+      this.width = width;
+      this.unsigned = unsigned;
+    }
+
+    @Override
+    void write(ColumnWriter writer, int index, int repetitionLevel, int definitionLevel) {
+      writer.write(load(vector.getDataBuffer(), index, width, unsigned), repetitionLevel, definitionLevel);
+    }
+  }
+
+  private static class FloatWriter extends ValueWriter {
+    FloatWriter(FieldVector vector) {
+      super(vector);
+    }
+
+    @Override
+    void write(ColumnWriter writer, int index, int repetitionLevel, int definitionLevel) {
+      writer.write(vector.getDataBuffer().getFloat(index * 4), repetitionLevel, definitionLevel);
+    }
+  }
+
+  private static class DoubleWriter extends ValueWriter {
+    DoubleWriter(FieldVector vector) {
+      super(vector);
+    }
+
+    @Override
+    void write(ColumnWriter writer, int index, int repetitionLevel, int definitionLevel) {
+      writer.write(vector.getDataBuffer().getDouble(index * 8), repetitionLevel, definitionLevel);
+    }
+  }
+
+  private static class BooleanWriter extends ValueWriter {
+    BooleanWriter(FieldVector vector) {
+      super(vector);
+    }
+
+    @Override
+    void write(ColumnWriter writer, int index, int repetitionLevel, int definitionLevel) {
+      writer.write(BitVectorHelper.get(vector.getDataBuffer(), index) != 0, repetitionLevel, definitionLevel);
+    }
+  }
+
+  /**
+   * Copies the bytes of the values to a reused buffer. The column writers copy the values they keep (dictionary
+   * entries, statistics) so the buffer may be overwritten by the next value.
+   */
+  private abstract static class BytesWriter extends ValueWriter {
+    byte[] buffer = new byte[16];
+
+    BytesWriter(FieldVector vector) {
+      super(vector);
+    }
+
+    void write(ColumnWriter writer, ArrowBuf data, int start, int length, int repetitionLevel, int definitionLevel) {
+      if (buffer.length < length) {
+        buffer = new byte[Math.max(length, buffer.length * 2)];
+      }
+      data.getBytes(start, buffer, 0, length);
+      writer.write(Binary.fromReusedByteArray(buffer, 0, length), repetitionLevel, definitionLevel);
+    }
+  }
+
+  private static class BinaryWriter extends BytesWriter {
+    BinaryWriter(FieldVector vector) {
+      super(vector);
+    }
+
+    @Override
+    void write(ColumnWriter writer, int index, int repetitionLevel, int definitionLevel) {
+      ArrowBuf offsets = vector.getOffsetBuffer();
+      int start = offsets.getInt(index * 4);
+      int end = offsets.getInt((index + 1) * 4);
+      write(writer, vector.getDataBuffer(), start, end - start, repetitionLevel, definitionLevel);
+    }
+  }
+
+  private static class FixedBinaryWriter extends BytesWriter {
+    private final int width;
+
+    FixedBinaryWriter(FieldVector vector) {
+      super(vector);
+      this.width = ((FixedSizeBinaryVector) vector).getByteWidth();
+    }
+
+    @Override
+    void write(ColumnWriter writer, int index, int repetitionLevel, int definitionLevel) {
+      write(writer, vector.getDataBuffer(), index * width, width, repetitionLevel, definitionLevel);
+    }
+  }
+
+  // the decimals are stored as 16 bytes little endian integers in Arrow and big endian ones in Parquet
+  private static class DecimalBinaryWriter extends ValueWriter {
+    private final byte[] buffer;
+
+    DecimalBinaryWriter(FieldVector vector, int length) {
+      super(vector);
+      this.buffer = new byte[length];
+    }
+
+    @Override
+    void write(ColumnWriter writer, int index, int repetitionLevel, int definitionLevel) {
+      ArrowBuf data = vector.getDataBuffer();
+      int start = index * DecimalVector.TYPE_WIDTH;
+      byte sign = (byte) (data.getByte(start + DecimalVector.TYPE_WIDTH - 1) >> 7);
+      for (int i = 0, n = buffer.length; i < n; ++i) {
+        int position = n - 1 - i;
+        buffer[i] = position < DecimalVector.TYPE_WIDTH ? data.getByte(start + position) : sign;
+      }
+      writer.write(Binary.fromReusedByteArray(buffer), repetitionLevel, definitionLevel);
+    }
+  }
+
+  private static class Int96TimestampWriter extends ValueWriter {
+    private final byte[] buffer = new byte[12];
+
+    Int96TimestampWriter(FieldVector vector) {
+      super(vector);
+    }
+
+    @Override
+    void write(ColumnWriter writer, int index, int repetitionLevel, int definitionLevel) {
+      long nanos = vector.getDataBuffer().getLong(index * 8);
+      long nanosOfDay = Math.floorMod(nanos, NANOS_PER_DAY);
+      long julianDay = Math.floorDiv(nanos, NANOS_PER_DAY) + JULIAN_EPOCH_OFFSET_DAYS;
+      for (int i = 0; i < 8; ++i) {
+        buffer[i] = (byte) (nanosOfDay >>> (i * 8));
+      }
+      for (int i = 0; i < 4; ++i) {
+        buffer[8 + i] = (byte) (julianDay >>> (i * 8));
+      }
+      writer.write(Binary.fromReusedByteArray(buffer), repetitionLevel, definitionLevel);
+    }
+  }
+
+  private static class DictionaryValueWriter extends ValueWriter {
+    private final ValueWriter dictionaryValues;
+
+    DictionaryValueWriter(IntVector vector, ValueWriter dictionaryValues) {
+      super(vector);
+      this.dictionaryValues = dictionaryValues;
+    }
+
+    @Override
+    void write(ColumnWriter writer, int index, int repetitionLevel, int definitionLevel) {
+      int id = vector.getDataBuffer().getInt(index * 4);
+      dictionaryValues.write(writer, id, repetitionLevel, definitionLevel);
+    }
+  }
+}
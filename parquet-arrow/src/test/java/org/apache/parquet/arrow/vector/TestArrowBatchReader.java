@@ -0,0 +1,375 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.arrow.vector;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.util.Text;
+import org.apache.parquet.Version;
+import org.apache.parquet.arrow.schema.SchemaConverter;
+import org.apache.parquet.arrow.schema.SchemaMapping;
+import org.apache.parquet.column.ColumnWriteStore;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.ParquetProperties.WriterVersion;
+import org.apache.parquet.column.impl.ColumnWriteStoreV1;
+import org.apache.parquet.column.impl.ColumnWriteStoreV2;
+import org.apache.parquet.column.page.mem.MemPageStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.GroupWriter;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Test;
+
+import io.netty.buffer.ArrowBuf;
+
+public class TestArrowBatchReader {
+  static final int ROW_COUNT = 3000;
+  static final MessageType SCHEMA = MessageTypeParser.parseMessageType(
+      "message msg {\n"
+          + "  required int32 id;\n"
+          + "  optional binary name (UTF8);\n"
+          + "  optional binary text (UTF8);\n"
+          + "  optional int32 small (INT_8);\n"
+          + "  required int32 price (DECIMAL(9,2));\n"
+          + "  optional int64 amount;\n"
+          + "  optional double ratio;\n"
+          + "  required boolean flag;\n"
+          + "  optional fixed_len_byte_array(5) big (DECIMAL(10,3));\n"
+          + "  optional group tags (LIST) {\n"
+          + "    repeated group list {\n"
+          + "      optional binary element (UTF8);\n"
+          + "    }\n"
+          + "  }\n"
+          + "  optional group point {\n"
+          + "    required int32 x;\n"
+          + "    optional group inner {\n"
+          + "      optional double y;\n"
+          + "    }\n"
+          + "  }\n"
+          + "  repeated group pairs {\n"
+          + "    required int32 k;\n"
+          + "    optional binary v (UTF8);\n"
+          + "  }\n"
+          + "  repeated int32 numbers;\n"
+          + "  optional group matrix (LIST) {\n"
+          + "    repeated group list {\n"
+          + "      optional group element (LIST) {\n"
+          + "        repeated group list {\n"
+          + "          required int32 element;\n"
+          + "        }\n"
+          + "      }\n"
+          + "    }\n"
+          + "  }\n"
+          + "}");
+
+  private static String tag(int row, int index) {
+    return (row + index) % 5 == 0 ? null : "tag-" + (row + index) % 8;
+  }
+
+  // repeated texts in the first pages so they are dictionary encoded then unique ones filling up the dictionary
+  private static String text(int row) {
+    return row < 500 ? "text-" + row % 20 : "text-" + row;
+  }
+
+  private static byte[] big(int row) {
+    byte[] bytes = BigInteger.valueOf((row - 1500) * 123_456L).toByteArray();
+    byte[] padded = new byte[5];
+    Arrays.fill(padded, bytes[0] < 0 ? (byte) -1 : 0);
+    System.arraycopy(bytes, 0, padded, padded.length - bytes.length, bytes.length);
+    return padded;
+  }
+
+  private static Group record(SimpleGroupFactory factory, int row) {
+    Group group = factory.newGroup();
+    group.append("id", row);
+    if (row % 7 != 0) {
+      group.append("name", "name-" + row % 10);
+    }
+    if (row % 11 != 0) {
+      group.append("text", text(row));
+    }
+    if (row % 5 != 0) {
+      group.append("small", row % 100 - 50);
+    }
+    group.append("price", row * 7 - 5000);
+    if (row % 3 != 0) {
+      group.append("amount", row * 1_000_000_007L);
+    }
+    group.append("ratio", row / 4.0);
+    group.append("flag", row % 2 == 0);
+    if (row % 13 != 0) {
+      group.append("big", Binary.fromConstantByteArray(big(row)));
+    }
+    if (row % 6 != 0) {
+      Group tags = group.addGroup("tags");
+      for (int i = 0, n = row % 6 == 1 ? 0 : row % 4 + 1; i < n; ++i) {
+        Group element = tags.addGroup("list");
+        if (tag(row, i) != null) {
+          element.append("element", tag(row, i));
+        }
+      }
+    }
+    if (row % 9 != 0) {
+      Group point = group.addGroup("point");
+      point.append("x", row);
+      if (row % 4 != 1) {
+        Group inner = point.addGroup("inner");
+        if (row % 3 != 2) {
+          inner.append("y", row * 1.5);
+        }
+      }
+    }
+    for (int i = 0; i < row % 3; ++i) {
+      Group pair = group.addGroup("pairs");
+      pair.append("k", row + i);
+      if (i != 1) {
+        pair.append("v", "v" + i);
+      }
+    }
+    for (int i = 0; i < row % 4; ++i) {
+      group.append("numbers", row * 10 + i);
+    }
+    if (row % 8 != 3) {
+      Group matrix = group.addGroup("matrix");
+      for (int i = 0; i < row % 3; ++i) {
+        Group list = matrix.addGroup("list");
+        if (i != 1 || row % 2 != 0) {
+          Group element = list.addGroup("element");
+          for (int j = 0; j < (row + i) % 3; ++j) {
+            element.addGroup("list").append("element", row + i * 100 + j);
+          }
+        }
+      }
+    }
+    return group;
+  }
+
+  // the Arrow values of the record with the nulls as null values
+  static Map<String, Object> expected(int row) {
+    Map<String, Object> values = new LinkedHashMap<>();
+    values.put("id", row);
+    values.put("name", row % 7 != 0 ? "name-" + row % 10 : null);
+    values.put("text", row % 11 != 0 ? text(row) : null);
+    values.put("small", row % 5 != 0 ? (byte) (row % 100 - 50) : null);
+    values.put("price", BigDecimal.valueOf(row * 7 - 5000, 2));
+    values.put("amount", row % 3 != 0 ? row * 1_000_000_007L : null);
+    values.put("ratio", row / 4.0);
+    values.put("flag", row % 2 == 0);
+    values.put("big", row % 13 != 0 ? BigDecimal.valueOf((row - 1500) * 123_456L, 3) : null);
+    List<Object> tags = null;
+    if (row % 6 != 0) {
+      tags = new ArrayList<>();
+      for (int i = 0, n = row % 6 == 1 ? 0 : row % 4 + 1; i < n; ++i) {
+        tags.add(tag(row, i));
+      }
+    }
+    values.put("tags", tags);
+    Map<String, Object> point = null;
+    if (row % 9 != 0) {
+      point = new LinkedHashMap<>();
+      point.put("x", row);
+      Map<String, Object> inner = null;
+      if (row % 4 != 1) {
+        inner = new LinkedHashMap<>();
+        inner.put("y", row % 3 != 2 ? row * 1.5 : null);
+      }
+      point.put("inner", inner);
+    }
+    values.put("point", point);
+    List<Object> pairs = new ArrayList<>();
+    for (int i = 0; i < row % 3; ++i) {
+      Map<String, Object> pair = new LinkedHashMap<>();
+      pair.put("k", row + i);
+      pair.put("v", i != 1 ? "v" + i : null);
+      pairs.add(pair);
+    }
+    values.put("pairs", pairs);
+    List<Object> numbers = new ArrayList<>();
+    for (int i = 0; i < row % 4; ++i) {
+      numbers.add(row * 10 + i);
+    }
+    values.put("numbers", numbers);
+    List<Object> matrix = null;
+    if (row % 8 != 3) {
+      matrix = new ArrayList<>();
+      for (int i = 0; i < row % 3; ++i) {
+        List<Object> elements = null;
+        if (i != 1 || row % 2 != 0) {
+          elements = new ArrayList<>();
+          for (int j = 0; j < (row + i) % 3; ++j) {
+            elements.add(row + i * 100 + j);
+          }
+        }
+        matrix.add(elements);
+      }
+    }
+    values.put("matrix", matrix);
+    return values;
+  }
+
+  static MemPageStore write(WriterVersion version) {
+    MemPageStore pageStore = new MemPageStore(ROW_COUNT);
+    ParquetProperties props = ParquetProperties.builder()
+        .withWriterVersion(version)
+        .withPageSize(1024)
+        .withDictionaryPageSize(4096)
+        .build();
+    ColumnWriteStore store = version == WriterVersion.PARQUET_1_0
+        ? new ColumnWriteStoreV1(SCHEMA, pageStore, props)
+        : new ColumnWriteStoreV2(SCHEMA, pageStore, props);
+    GroupWriter writer = new GroupWriter(new ColumnIOFactory().getColumnIO(SCHEMA).getRecordWriter(store), SCHEMA);
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    for (int i = 0; i < ROW_COUNT; ++i) {
+      writer.write(record(factory, i));
+    }
+    store.flush();
+    return pageStore;
+  }
+
+  // the value of the vector with the dictionary ids decoded and the nulls of the structs as null values
+  static Object value(ArrowBatchReader reader, FieldVector vector, int index) {
+    if (vector.isNull(index)) {
+      return null;
+    }
+    DictionaryEncoding encoding = vector.getField().getDictionary();
+    if (encoding != null) {
+      return value(reader, reader.lookup(encoding.getId()).getVector(), ((IntVector) vector).get(index));
+    }
+    if (vector instanceof ListVector) {
+      ListVector list = (ListVector) vector;
+      ArrowBuf offsets = list.getOffsetBuffer();
+      List<Object> values = new ArrayList<>();
+      for (int i = offsets.getInt(index * 4), end = offsets.getInt((index + 1) * 4); i < end; ++i) {
+        values.add(value(reader, list.getDataVector(), i));
+      }
+      return values;
+    }
+    if (vector instanceof StructVector) {
+      Map<String, Object> values = new LinkedHashMap<>();
+      for (FieldVector child : vector.getChildrenFromFields()) {
+        values.put(child.getField().getName(), value(reader, child, index));
+      }
+      return values;
+    }
+    Object value = vector.getObject(index);
+    return value instanceof Text ? value.toString() : value;
+  }
+
+  private static void checkRead(WriterVersion version, boolean dictionaryEncoding, int batchSize) {
+    MemPageStore pages = write(version);
+    SchemaMapping mapping = new SchemaConverter().fromParquet(SCHEMA);
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         ArrowBatchReader reader = new ArrowBatchReader(mapping, pages, Version.FULL_VERSION, allocator,
+             dictionaryEncoding)) {
+      VectorSchemaRoot root = reader.getVectorSchemaRoot();
+      for (String name : asList("name", "text")) {
+        DictionaryEncoding encoding = root.getVector(name).getField().getDictionary();
+        assertEquals(dictionaryEncoding, encoding != null);
+        if (encoding != null) {
+          assertNotNull(reader.lookup(encoding.getId()));
+        }
+      }
+      assertNull(root.getVector("id").getField().getDictionary());
+
+      int row = 0;
+      for (int rows = reader.readBatch(batchSize); rows > 0; rows = reader.readBatch(batchSize)) {
+        assertEquals(Math.min(batchSize, ROW_COUNT - row), rows);
+        assertEquals(rows, root.getRowCount());
+        for (int i = 0; i < rows; ++i, ++row) {
+          Map<String, Object> actual = new LinkedHashMap<>();
+          for (FieldVector vector : root.getFieldVectors()) {
+            actual.put(vector.getField().getName(), value(reader, vector, i));
+          }
+          assertEquals("row " + row, expected(row), actual);
+        }
+      }
+      assertEquals(ROW_COUNT, row);
+      assertEquals(0, reader.getRemainingRowCount());
+    }
+  }
+
+  @Test
+  public void testReadV1() {
+    checkRead(WriterVersion.PARQUET_1_0, true, 1000);
+    checkRead(WriterVersion.PARQUET_1_0, false, 777);
+  }
+
+  @Test
+  public void testReadV2() {
+    checkRead(WriterVersion.PARQUET_2_0, true, 777);
+    checkRead(WriterVersion.PARQUET_2_0, false, 1000);
+  }
+
+  @Test
+  public void testSingleRowBatches() {
+    checkRead(WriterVersion.PARQUET_1_0, true, 1);
+  }
+
+  @Test
+  public void testFallbackValuesAppendedToDictionary() {
+    MemPageStore pages = write(WriterVersion.PARQUET_1_0);
+    SchemaMapping mapping = new SchemaConverter().fromParquet(SCHEMA);
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         ArrowBatchReader reader = new ArrowBatchReader(mapping, pages, Version.FULL_VERSION, allocator)) {
+      VectorSchemaRoot root = reader.getVectorSchemaRoot();
+      long nameId = root.getVector("name").getField().getDictionary().getId();
+      long textId = root.getVector("text").getField().getDictionary().getId();
+      int parquetDictionarySize = reader.lookup(textId).getVector().getValueCount();
+      while (reader.readBatch(1000) > 0) {
+      }
+      Set<String> texts = new HashSet<>();
+      for (int row = 0; row < ROW_COUNT; ++row) {
+        if (row % 11 != 0) {
+          texts.add(text(row));
+        }
+      }
+      // the dictionary of the names holds the 10 distinct values only while the texts of the pages after the
+      // fallback are appended to the dictionary
+      assertEquals(10, reader.lookup(nameId).getVector().getValueCount());
+      int arrowDictionarySize = reader.lookup(textId).getVector().getValueCount();
+      assertTrue(parquetDictionarySize < texts.size());
+      assertTrue(arrowDictionarySize >= texts.size());
+    }
+  }
+}
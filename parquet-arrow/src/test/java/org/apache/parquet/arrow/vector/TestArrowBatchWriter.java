@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.arrow.vector;
+
+import static java.util.Collections.singletonList;
+import static org.apache.parquet.arrow.vector.TestArrowBatchReader.ROW_COUNT;
+import static org.apache.parquet.arrow.vector.TestArrowBatchReader.SCHEMA;
+import static org.apache.parquet.arrow.vector.TestArrowBatchReader.expected;
+import static org.apache.parquet.arrow.vector.TestArrowBatchReader.value;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.parquet.Version;
+import org.apache.parquet.arrow.schema.SchemaConverter;
+import org.apache.parquet.arrow.schema.SchemaMapping;
+import org.apache.parquet.column.ColumnWriteStore;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.ParquetProperties.WriterVersion;
+import org.apache.parquet.column.impl.ColumnWriteStoreV1;
+import org.apache.parquet.column.impl.ColumnWriteStoreV2;
+import org.apache.parquet.column.page.mem.MemPageStore;
+import org.apache.parquet.io.ParquetEncodingException;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Test;
+
+public class TestArrowBatchWriter {
+
+  private static ColumnWriteStore newStore(MessageType schema, MemPageStore pageStore, WriterVersion version) {
+    ParquetProperties props = ParquetProperties.builder()
+        .withWriterVersion(version)
+        .withPageSize(1024)
+        .withDictionaryPageSize(4096)
+        .build();
+    return version == WriterVersion.PARQUET_1_0
+        ? new ColumnWriteStoreV1(schema, pageStore, props)
+        : new ColumnWriteStoreV2(schema, pageStore, props);
+  }
+
+  // reads the rows of the reader test and writes them back with the specified mapping
+  private static MemPageStore rewrite(WriterVersion version, boolean dictionaryEncoding, boolean fromArrowSchema,
+      BufferAllocator allocator, SchemaMapping[] writtenMapping) {
+    MemPageStore source = TestArrowBatchReader.write(WriterVersion.PARQUET_1_0);
+    MemPageStore target = new MemPageStore(ROW_COUNT);
+    try (ArrowBatchReader reader = new ArrowBatchReader(new SchemaConverter().fromParquet(SCHEMA), source,
+        Version.FULL_VERSION, allocator, dictionaryEncoding)) {
+      VectorSchemaRoot root = reader.getVectorSchemaRoot();
+      // the dictionary encoded fields of the root have the index type; the mapping has the types of the values
+      SchemaMapping mapping = fromArrowSchema
+          ? new SchemaConverter().fromArrow(reader.getSchemaMapping().getArrowSchema())
+          : reader.getSchemaMapping();
+      ColumnWriteStore store = newStore(mapping.getParquetSchema(), target, version);
+      ArrowBatchWriter writer = new ArrowBatchWriter(mapping, store);
+      while (reader.readBatch(700) > 0) {
+        writer.write(root, reader);
+      }
+      store.flush();
+      assertEquals(ROW_COUNT, writer.getRowCount());
+      writtenMapping[0] = mapping;
+    }
+    return target;
+  }
+
+  private static void checkRewrite(WriterVersion version, boolean dictionaryEncoding, boolean fromArrowSchema) {
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      SchemaMapping[] mapping = new SchemaMapping[1];
+      MemPageStore pages = rewrite(version, dictionaryEncoding, fromArrowSchema, allocator, mapping);
+      try (ArrowBatchReader reader = new ArrowBatchReader(mapping[0], pages, Version.FULL_VERSION, allocator)) {
+        VectorSchemaRoot root = reader.getVectorSchemaRoot();
+        int row = 0;
+        for (int rows = reader.readBatch(1000); rows > 0; rows = reader.readBatch(1000)) {
+          for (int i = 0; i < rows; ++i, ++row) {
+            Map<String, Object> actual = new LinkedHashMap<>();
+            for (FieldVector vector : root.getFieldVectors()) {
+              actual.put(vector.getField().getName(), value(reader, vector, i));
+            }
+            assertEquals("row " + row, expected(row), actual);
+          }
+        }
+        assertEquals(ROW_COUNT, row);
+      }
+    }
+  }
+
+  @Test
+  public void testWriteV1() {
+    checkRewrite(WriterVersion.PARQUET_1_0, false, false);
+  }
+
+  @Test
+  public void testWriteV2() {
+    checkRewrite(WriterVersion.PARQUET_2_0, false, false);
+  }
+
+  @Test
+  public void testWriteDictionaryEncodedVectors() {
+    checkRewrite(WriterVersion.PARQUET_1_0, true, false);
+  }
+
+  @Test
+  public void testWriteWithMappingFromArrowSchema() {
+    checkRewrite(WriterVersion.PARQUET_1_0, false, true);
+    checkRewrite(WriterVersion.PARQUET_2_0, true, true);
+  }
+
+  @Test
+  public void testNullInRequiredField() {
+    MessageType schema = MessageTypeParser.parseMessageType("message msg { required int32 id; }");
+    SchemaMapping mapping = new SchemaConverter().fromParquet(schema);
+    Schema arrowSchema = new Schema(singletonList(new Field("id", true, new ArrowType.Int(32, true), null)));
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+         VectorSchemaRoot root = VectorSchemaRoot.create(arrowSchema, allocator)) {
+      IntVector ids = (IntVector) root.getVector("id");
+      ids.setSafe(0, 42);
+      ids.setNull(1);
+      root.setRowCount(2);
+      ArrowBatchWriter writer = new ArrowBatchWriter(mapping,
+          newStore(schema, new MemPageStore(2), WriterVersion.PARQUET_1_0));
+      try {
+        writer.write(root);
+        fail("A null id shall not be written");
+      } catch (ParquetEncodingException e) {
+        assertNotNull(e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.benchmarks;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.openjdk.jmh.annotations.Mode.Throughput;
+import static org.openjdk.jmh.annotations.Scope.Benchmark;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.bytes.DirectByteBufferAllocator;
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.hadoop.CodecFactory;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks compressing and decompressing a page by the Hadoop codecs of {@link CodecFactory} and by the codecs
+ * working on ByteBuffers directly (see {@link CodecFactory#createByteBufferCodecFactory}).
+ * <p>
+ * To execute this benchmark a jar file shall be created of this module. Then the jar file can be executed using the JMH
+ * framework.<br>
+ * The following one-liner (shall be executed in the parquet-benchmarks submodule) generates result statistics in the
+ * file {@code jmh-result.json}. This json might be visualized by using the tool at
+ * <a href="https://jmh.morethan.io">https://jmh.morethan.io</a>.
+ *
+ * <pre>
+ * mvn clean package &amp;&amp; java -jar target/parquet-benchmarks.jar org.apache.parquet.benchmarks.CompressionBenchmarks -rf json
+ * </pre>
+ */
+@BenchmarkMode(Throughput)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(SECONDS)
+@State(Benchmark)
+public class CompressionBenchmarks {
+  private static final int PAGE_SIZE = 1024 * 1024;
+
+  public enum Factory {
+    HADOOP {
+      @Override
+      CodecFactory create() {
+        return new CodecFactory(new Configuration(), PAGE_SIZE);
+      }
+    },
+    BYTE_BUFFER_HEAP {
+      @Override
+      CodecFactory create() {
+        return CodecFactory.createByteBufferCodecFactory(new Configuration(), new HeapByteBufferAllocator(), PAGE_SIZE);
+      }
+    },
+    BYTE_BUFFER_DIRECT {
+      @Override
+      CodecFactory create() {
+        return CodecFactory.createByteBufferCodecFactory(new Configuration(), new DirectByteBufferAllocator(),
+            PAGE_SIZE);
+      }
+    };
+
+    abstract CodecFactory create();
+  }
+
+  @Param({ "SNAPPY", "GZIP" })
+  private CompressionCodecName codec;
+
+  @Param({ "HADOOP", "BYTE_BUFFER_HEAP", "BYTE_BUFFER_DIRECT" })
+  private Factory factory;
+
+  private CodecFactory codecFactory;
+  private CodecFactory.BytesCompressor compressor;
+  private CodecFactory.BytesDecompressor decompressor;
+  private byte[] page;
+  private byte[] compressedPage;
+
+  @Setup
+  public void setup() throws IOException {
+    // a page of moderately compressible values: random words from a small vocabulary with random numbers
+    Random random = new Random(42);
+    StringBuilder builder = new StringBuilder(PAGE_SIZE);
+    while (builder.length() < PAGE_SIZE) {
+      builder.append("value-").append(random.nextInt(1000)).append(';').append(random.nextLong()).append('\n');
+    }
+    page = builder.substring(0, PAGE_SIZE).getBytes("US-ASCII");
+
+    codecFactory = factory.create();
+    compressor = codecFactory.getCompressor(codec);
+    decompressor = codecFactory.getDecompressor(codec);
+    compressedPage = compressor.compress(BytesInput.from(page)).toByteArray();
+  }
+
+  @TearDown
+  public void release() {
+    codecFactory.release();
+  }
+
+  @Benchmark
+  public void compress(Blackhole blackhole) throws IOException {
+    blackhole.consume(compressor.compress(BytesInput.from(page)).size());
+  }
+
+  @Benchmark
+  public void decompress(Blackhole blackhole) throws IOException {
+    // the decompressed bytes are materialized as the Hadoop codecs decompress lazily
+    blackhole.consume(decompressor.decompress(BytesInput.from(compressedPage), PAGE_SIZE).toByteBuffer());
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.benchmarks;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.parquet.hadoop.ParquetFileWriter.Mode.OVERWRITE;
+import static org.apache.parquet.schema.LogicalTypeAnnotation.stringType;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.openjdk.jmh.annotations.Mode.SingleShotTime;
+import static org.openjdk.jmh.annotations.Scope.Benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroup;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.example.GroupWriteSupport;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Types;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks reading a projection of a wide file where the requested column chunks are not consecutive, so every
+ * chunk is a separate read. The latency of remote storages is simulated by delaying every seek of the streams.
+ * <p>
+ * To execute this benchmark a jar file shall be created of this module. Then the jar file can be executed using the JMH
+ * framework.<br>
+ * The following one-liner (shall be executed in the parquet-benchmarks submodule) generates result statistics in the
+ * file {@code jmh-result.json}. This json might be visualized by using the tool at
+ * <a href="https://jmh.morethan.io">https://jmh.morethan.io</a>.
+ *
+ * <pre>
+ * mvn clean package &amp;&amp; java -jar target/parquet-benchmarks.jar org.apache.parquet.benchmarks.ConcurrentReadBenchmarks -rf json
+ * </pre>
+ */
+@BenchmarkMode(SingleShotTime)
+@Fork(1)
+@Warmup(iterations = 5, batchSize = 1)
+@Measurement(iterations = 20, batchSize = 1)
+@OutputTimeUnit(MILLISECONDS)
+@State(Benchmark)
+public class ConcurrentReadBenchmarks {
+  private static final int RECORD_COUNT = 100_000;
+  private static final int COLUMN_COUNT = 32;
+  private static final MessageType SCHEMA;
+  private static final MessageType PROJECTION;
+  static {
+    Types.MessageTypeBuilder schemaBuilder = Types.buildMessage();
+    Types.MessageTypeBuilder projectionBuilder = Types.buildMessage();
+    for (int i = 0; i < COLUMN_COUNT; ++i) {
+      schemaBuilder.required(BINARY).as(stringType()).named("col_" + i);
+      // Every other column is read so none of the requested chunks are consecutive
+      if (i % 2 == 0) {
+        projectionBuilder.required(BINARY).as(stringType()).named("col_" + i);
+      }
+    }
+    SCHEMA = schemaBuilder.named("schema");
+    PROJECTION = projectionBuilder.named("schema");
+  }
+
+  /*
+   * Simulates the latency of a remote storage by delaying every seek to a different position
+   */
+  private static class LatencyInputFile implements InputFile {
+    private final InputFile file;
+    private final long latencyMillis;
+
+    LatencyInputFile(InputFile file, long latencyMillis) {
+      this.file = file;
+      this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public long getLength() throws IOException {
+      return file.getLength();
+    }
+
+    @Override
+    public SeekableInputStream newStream() throws IOException {
+      SeekableInputStream stream = file.newStream();
+      return new SeekableInputStream() {
+        @Override
+        public long getPos() throws IOException {
+          return stream.getPos();
+        }
+
+        @Override
+        public void seek(long newPos) throws IOException {
+          if (newPos != stream.getPos()) {
+            try {
+              Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              throw new IOException("Interrupted while simulating latency", e);
+            }
+          }
+          stream.seek(newPos);
+        }
+
+        @Override
+        public void readFully(byte[] bytes) throws IOException {
+          stream.readFully(bytes);
+        }
+
+        @Override
+        public void readFully(byte[] bytes, int start, int len) throws IOException {
+          stream.readFully(bytes, start, len);
+        }
+
+        @Override
+        public int read(ByteBuffer buf) throws IOException {
+          return stream.read(buf);
+        }
+
+        @Override
+        public void readFully(ByteBuffer buf) throws IOException {
+          stream.readFully(buf);
+        }
+
+        @Override
+        public int read() throws IOException {
+          return stream.read();
+        }
+
+        @Override
+        public void close() throws IOException {
+          stream.close();
+        }
+      };
+    }
+  }
+
+  @Param({ "0", "10" })
+  private long latencyMillis;
+
+  @Param({ "1", "4", "16" })
+  private int readParallelism;
+
+  private Path file;
+
+  @Setup
+  public void writeFile() throws IOException {
+    file = new Path(Files.createTempFile("benchmark-concurrent-read_", ".parquet").toAbsolutePath().toString());
+    Random random = new Random(42);
+    try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(file)
+        .config(GroupWriteSupport.PARQUET_EXAMPLE_SCHEMA, SCHEMA.toString())
+        .withWriteMode(OVERWRITE)
+        .build()) {
+      for (int i = 0; i < RECORD_COUNT; ++i) {
+        Group group = new SimpleGroup(SCHEMA);
+        for (int j = 0; j < COLUMN_COUNT; ++j) {
+          group.add(j, Binary.fromString(Long.toHexString(random.nextLong())));
+        }
+        writer.write(group);
+      }
+    }
+  }
+
+  @TearDown
+  public void deleteFile() throws IOException {
+    file.getFileSystem(new Configuration()).delete(file, false);
+  }
+
+  @Benchmark
+  public void readProjection(Blackhole blackhole) throws IOException {
+    InputFile inputFile = new LatencyInputFile(HadoopInputFile.fromPath(file, new Configuration()), latencyMillis);
+    try (ParquetReader<Group> reader = new ParquetReader.Builder<Group>(inputFile) {
+          @Override
+          protected ReadSupport<Group> getReadSupport() {
+            return new GroupReadSupport();
+          }
+        }
+        .set(ReadSupport.PARQUET_READ_SCHEMA, PROJECTION.toString())
+        .withReadParallelism(readParallelism)
+        .build()) {
+      for (Group group = reader.read(); group != null; group = reader.read()) {
+        blackhole.consume(group);
+      }
+    }
+  }
+}
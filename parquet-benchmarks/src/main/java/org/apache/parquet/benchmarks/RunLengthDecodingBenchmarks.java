@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.benchmarks;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.openjdk.jmh.annotations.Mode.Throughput;
+import static org.openjdk.jmh.annotations.Scope.Benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridBufferDecoder;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridDecoder;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks decoding the definition levels of a nullable column by the stream based
+ * {@link RunLengthBitPackingHybridDecoder} one by one and by the {@link RunLengthBitPackingHybridBufferDecoder} in
+ * batches and run by run.
+ * <p>
+ * To execute this benchmark a jar file shall be created of this module. Then the jar file can be executed using the JMH
+ * framework.<br>
+ * The following one-liner (shall be executed in the parquet-benchmarks submodule) generates result statistics in the
+ * file {@code jmh-result.json}. This json might be visualized by using the tool at
+ * <a href="https://jmh.morethan.io">https://jmh.morethan.io</a>.
+ *
+ * <pre>
+ * mvn clean package &amp;&amp; java -jar target/parquet-benchmarks.jar org.apache.parquet.benchmarks.RunLengthDecodingBenchmarks -rf json
+ * </pre>
+ */
+@BenchmarkMode(Throughput)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(SECONDS)
+@State(Benchmark)
+public class RunLengthDecodingBenchmarks {
+  private static final int VALUE_COUNT = 100_000;
+  private static final int BATCH_SIZE = 8192;
+
+  /**
+   * The ratio of the null values among the definition levels (0 or 1).
+   */
+  @Param({ "0.0", "0.01", "0.5" })
+  private double nullRatio;
+
+  private byte[] encoded;
+  private final int[] levels = new int[BATCH_SIZE];
+  private final RunLengthBitPackingHybridBufferDecoder bufferDecoder = new RunLengthBitPackingHybridBufferDecoder(1);
+
+  @Setup
+  public void setup() throws IOException {
+    Random random = new Random(42);
+    RunLengthBitPackingHybridEncoder encoder = new RunLengthBitPackingHybridEncoder(1, 64 * 1024, 1024 * 1024,
+        new HeapByteBufferAllocator());
+    for (int i = 0; i < VALUE_COUNT; ++i) {
+      encoder.writeInt(random.nextDouble() < nullRatio ? 0 : 1);
+    }
+    encoded = encoder.toBytes().toByteArray();
+  }
+
+  @Benchmark
+  public void streamDecoder(Blackhole blackhole) throws IOException {
+    RunLengthBitPackingHybridDecoder decoder = new RunLengthBitPackingHybridDecoder(1,
+        new ByteArrayInputStream(encoded));
+    for (int i = 0; i < VALUE_COUNT; ++i) {
+      blackhole.consume(decoder.readInt());
+    }
+  }
+
+  @Benchmark
+  public void bufferDecoderBatches(Blackhole blackhole) {
+    bufferDecoder.init(ByteBuffer.wrap(encoded));
+    for (int i = 0; i < VALUE_COUNT; i += BATCH_SIZE) {
+      bufferDecoder.readInts(levels, 0, Math.min(BATCH_SIZE, VALUE_COUNT - i));
+      blackhole.consume(levels);
+    }
+  }
+
+  @Benchmark
+  public void bufferDecoderRuns(Blackhole blackhole) {
+    // counts the defined values; the levels of the RLE runs are not looked at one by one
+    bufferDecoder.init(ByteBuffer.wrap(encoded));
+    int defined = 0;
+    for (int i = 0; i < VALUE_COUNT; ) {
+      int n = Math.min(bufferDecoder.getRunRemaining(), VALUE_COUNT - i);
+      if (bufferDecoder.isRepeatedRun()) {
+        defined += bufferDecoder.getRepeatedValue() * n;
+        bufferDecoder.skip(n);
+      } else {
+        bufferDecoder.readInts(levels, 0, n);
+        for (int j = 0; j < n; ++j) {
+          defined += levels[j];
+        }
+      }
+      i += n;
+    }
+    blackhole.consume(defined);
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.benchmarks;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.parquet.column.Encoding.PLAIN_DICTIONARY;
+import static org.apache.parquet.column.values.bitpacking.Packer.BIG_ENDIAN;
+import static org.openjdk.jmh.annotations.Mode.Throughput;
+import static org.openjdk.jmh.annotations.Scope.Benchmark;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.column.values.ValuesReader;
+import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.column.values.bitpacking.ByteBitPackingValuesReader;
+import org.apache.parquet.column.values.bitpacking.ByteBitPackingValuesWriter;
+import org.apache.parquet.column.values.delta.DeltaBinaryPackingValuesReader;
+import org.apache.parquet.column.values.delta.DeltaBinaryPackingValuesWriterForInteger;
+import org.apache.parquet.column.values.dictionary.DictionaryValuesReader;
+import org.apache.parquet.column.values.dictionary.DictionaryValuesWriter.PlainIntegerDictionaryValuesWriter;
+import org.apache.parquet.column.values.plain.PlainValuesReader.IntegerPlainValuesReader;
+import org.apache.parquet.column.values.plain.PlainValuesWriter;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridValuesReader;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridValuesWriter;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks decoding a page of integers by the {@link ValuesReader} implementations of the different encodings one
+ * value at a time, by the bulk method {@link ValuesReader#readIntegers(int[], int, int)} and skipping the values.
+ * <p>
+ * To execute this benchmark a jar file shall be created of this module. Then the jar file can be executed using the JMH
+ * framework.<br>
+ * The following one-liner (shall be executed in the parquet-benchmarks submodule) generates result statistics in the
+ * file {@code jmh-result.json}. This json might be visualized by using the tool at
+ * <a href="https://jmh.morethan.io">https://jmh.morethan.io</a>.
+ *
+ * <pre>
+ * mvn clean package &amp;&amp; java -jar target/parquet-benchmarks.jar org.apache.parquet.benchmarks.ValuesReaderBenchmarks -rf json
+ * </pre>
+ */
+@BenchmarkMode(Throughput)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@OutputTimeUnit(SECONDS)
+@State(Benchmark)
+public class ValuesReaderBenchmarks {
+  private static final int VALUE_COUNT = 100_000;
+  private static final int BATCH_SIZE = 1024;
+  private static final int MAX_VALUE = 255;
+
+  public enum PageEncoding {
+    PLAIN {
+      @Override
+      ValuesWriter newWriter() {
+        return new PlainValuesWriter(64 * 1024, 1024 * 1024, new HeapByteBufferAllocator());
+      }
+
+      @Override
+      ValuesReader newReader(Dictionary dictionary) {
+        return new IntegerPlainValuesReader();
+      }
+    },
+    RLE {
+      @Override
+      ValuesWriter newWriter() {
+        return new RunLengthBitPackingHybridValuesWriter(8, 64 * 1024, 1024 * 1024, new HeapByteBufferAllocator());
+      }
+
+      @Override
+      ValuesReader newReader(Dictionary dictionary) {
+        return new RunLengthBitPackingHybridValuesReader(8);
+      }
+    },
+    BIT_PACKED {
+      @Override
+      ValuesWriter newWriter() {
+        return new ByteBitPackingValuesWriter(MAX_VALUE, BIG_ENDIAN);
+      }
+
+      @Override
+      ValuesReader newReader(Dictionary dictionary) {
+        return new ByteBitPackingValuesReader(MAX_VALUE, BIG_ENDIAN);
+      }
+    },
+    DELTA_BINARY_PACKED {
+      @Override
+      ValuesWriter newWriter() {
+        return new DeltaBinaryPackingValuesWriterForInteger(64 * 1024, 1024 * 1024, new HeapByteBufferAllocator());
+      }
+
+      @Override
+      ValuesReader newReader(Dictionary dictionary) {
+        return new DeltaBinaryPackingValuesReader();
+      }
+    },
+    DICTIONARY {
+      @Override
+      ValuesWriter newWriter() {
+        return new PlainIntegerDictionaryValuesWriter(Integer.MAX_VALUE, PLAIN_DICTIONARY, PLAIN_DICTIONARY,
+            new HeapByteBufferAllocator());
+      }
+
+      @Override
+      ValuesReader newReader(Dictionary dictionary) {
+        return new DictionaryValuesReader(dictionary);
+      }
+    };
+
+    abstract ValuesWriter newWriter();
+
+    abstract ValuesReader newReader(Dictionary dictionary);
+  }
+
+  @Param({ "PLAIN", "RLE", "BIT_PACKED", "DELTA_BINARY_PACKED", "DICTIONARY" })
+  private PageEncoding encoding;
+
+  private BytesInput page;
+  private Dictionary dictionary;
+  private final int[] values = new int[BATCH_SIZE];
+
+  @Setup
+  public void setup() throws IOException {
+    // runs of repeated values mixed with random ones so both RLE and bit-packed runs are written
+    Random random = new Random(42);
+    ValuesWriter writer = encoding.newWriter();
+    for (int i = 0; i < VALUE_COUNT; ) {
+      int n = Math.min(VALUE_COUNT - i, 1 + random.nextInt(32));
+      boolean repeated = random.nextBoolean();
+      int value = random.nextInt(MAX_VALUE + 1);
+      for (int end = i + n; i < end; ++i) {
+        writer.writeInteger(repeated ? value : random.nextInt(MAX_VALUE + 1));
+      }
+    }
+    page = BytesInput.copy(writer.getBytes());
+    DictionaryPage dictionaryPage = writer.toDictPageAndClose();
+    if (dictionaryPage != null) {
+      dictionary = Encoding.PLAIN.initDictionary(
+          new ColumnDescriptor(new String[] { "value" }, PrimitiveTypeName.INT32, 0, 0), dictionaryPage.copy());
+    }
+  }
+
+  private ValuesReader newReader() throws IOException {
+    ValuesReader reader = encoding.newReader(dictionary);
+    reader.initFromPage(VALUE_COUNT, page.toInputStream());
+    return reader;
+  }
+
+  @Benchmark
+  public void readOneByOne(Blackhole blackhole) throws IOException {
+    ValuesReader reader = newReader();
+    for (int i = 0; i < VALUE_COUNT; ++i) {
+      blackhole.consume(reader.readInteger());
+    }
+  }
+
+  @Benchmark
+  public void readBulk(Blackhole blackhole) throws IOException {
+    ValuesReader reader = newReader();
+    for (int i = 0; i < VALUE_COUNT; i += BATCH_SIZE) {
+      reader.readIntegers(values, 0, Math.min(BATCH_SIZE, VALUE_COUNT - i));
+      blackhole.consume(values);
+    }
+  }
+
+  @Benchmark
+  public void skipHalf(Blackhole blackhole) throws IOException {
+    // skips every other batch of values
+    ValuesReader reader = newReader();
+    for (int i = 0; i < VALUE_COUNT; i += BATCH_SIZE) {
+      int n = Math.min(BATCH_SIZE, VALUE_COUNT - i);
+      if ((i / BATCH_SIZE & 1) == 0) {
+        reader.skip(n);
+      } else {
+        reader.readIntegers(values, 0, n);
+        blackhole.consume(values);
+      }
+    }
+  }
+}
@@ -0,0 +1,188 @@
+/* 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+
+/**
+ * A writer property having a default value and overrides for some columns. An override is set either for the dot
+ * separated path of a column or for a glob pattern of paths where {@code *} matches any characters within a path
+ * element, {@code **} matches any characters across the elements and {@code ?} matches one character within an element.
+ * The override for the exact path of a column wins over the patterns; the pattern set last wins among the patterns.
+ *
+ * @param <T> the type of the values
+ */
+class ColumnProperty<T> {
+
+  private final T defaultValue;
+  private final Map<ColumnPath, T> values;
+  private final List<Pattern> patterns;
+  private final List<T> patternValues;
+
+  private ColumnProperty(T defaultValue, Map<ColumnPath, T> values, Map<String, T> patterns) {
+    this.defaultValue = defaultValue;
+    this.values = Collections.unmodifiableMap(new HashMap<>(values));
+    this.patterns = new ArrayList<>(patterns.size());
+    this.patternValues = new ArrayList<>(patterns.size());
+    for (Map.Entry<String, T> entry : patterns.entrySet()) {
+      this.patterns.add(Pattern.compile(entry.getKey()));
+      this.patternValues.add(entry.getValue());
+    }
+  }
+
+  static <T> Builder<T> builder(T defaultValue) {
+    return new Builder<>(defaultValue);
+  }
+
+  static <T> Builder<T> copy(ColumnProperty<T> toCopy) {
+    Builder<T> builder = new Builder<>(toCopy.defaultValue);
+    builder.values.putAll(toCopy.values);
+    for (int i = 0; i < toCopy.patterns.size(); ++i) {
+      builder.patterns.put(toCopy.patterns.get(i).pattern(), toCopy.patternValues.get(i));
+    }
+    return builder;
+  }
+
+  T getDefaultValue() {
+    return defaultValue;
+  }
+
+  T getValue(ColumnDescriptor column) {
+    if (!hasOverrides()) {
+      return defaultValue;
+    }
+    return getValue(ColumnPath.get(column.getPath()));
+  }
+
+  T getValue(ColumnPath path) {
+    T value = values.get(path);
+    if (value != null || values.containsKey(path)) {
+      return value;
+    }
+    if (!patterns.isEmpty()) {
+      String dotPath = path.toDotString();
+      for (int i = patterns.size() - 1; i >= 0; --i) {
+        if (patterns.get(i).matcher(dotPath).matches()) {
+          return patternValues.get(i);
+        }
+      }
+    }
+    return defaultValue;
+  }
+
+  /**
+   * @return whether any column has an override
+   */
+  boolean hasOverrides() {
+    return !values.isEmpty() || !patterns.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    if (!hasOverrides()) {
+      return String.valueOf(defaultValue);
+    }
+    StringBuilder b = new StringBuilder().append(defaultValue).append(" {");
+    String separator = "";
+    for (Map.Entry<ColumnPath, T> entry : values.entrySet()) {
+      b.append(separator).append(entry.getKey().toDotString()).append(": ").append(entry.getValue());
+      separator = ", ";
+    }
+    for (int i = 0; i < patterns.size(); ++i) {
+      b.append(separator).append(patterns.get(i)).append(": ").append(patternValues.get(i));
+      separator = ", ";
+    }
+    return b.append('}').toString();
+  }
+
+  private static boolean isGlob(String columnPath) {
+    return columnPath.indexOf('*') >= 0 || columnPath.indexOf('?') >= 0;
+  }
+
+  private static String globToRegex(String glob) {
+    StringBuilder regex = new StringBuilder();
+    int literalStart = 0;
+    for (int i = 0; i < glob.length(); ++i) {
+      char c = glob.charAt(i);
+      if (c == '*' || c == '?') {
+        if (literalStart < i) {
+          regex.append(Pattern.quote(glob.substring(literalStart, i)));
+        }
+        if (c == '?') {
+          regex.append("[^.]");
+        } else if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+          regex.append(".*");
+          ++i;
+        } else {
+          regex.append("[^.]*");
+        }
+        literalStart = i + 1;
+      }
+    }
+    if (literalStart < glob.length()) {
+      regex.append(Pattern.quote(glob.substring(literalStart)));
+    }
+    return regex.toString();
+  }
+
+  static class Builder<T> {
+    private T defaultValue;
+    private final Map<ColumnPath, T> values = new HashMap<>();
+    // the regex forms of the patterns in the order they were set
+    private final Map<String, T> patterns = new LinkedHashMap<>();
+
+    private Builder(T defaultValue) {
+      this.defaultValue = defaultValue;
+    }
+
+    Builder<T> withDefaultValue(T value) {
+      this.defaultValue = value;
+      return this;
+    }
+
+    /**
+     * @param columnPath the dot separated path of a column or a glob pattern of paths
+     * @param value the value for the matching columns
+     * @return this builder
+     */
+    Builder<T> withValue(String columnPath, T value) {
+      if (isGlob(columnPath)) {
+        String regex = globToRegex(columnPath);
+        // a pattern set again moves to the end so it wins over the ones set before
+        patterns.remove(regex);
+        patterns.put(regex, value);
+      } else {
+        values.put(ColumnPath.fromDotString(columnPath), value);
+      }
+      return this;
+    }
+
+    ColumnProperty<T> build() {
+      return new ColumnProperty<>(defaultValue, values, patterns);
+    }
+  }
+}
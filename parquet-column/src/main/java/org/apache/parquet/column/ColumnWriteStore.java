@@ -18,6 +18,8 @@
  */
 package org.apache.parquet.column;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * Container which can construct writers for multiple columns to be stored
  * together.
@@ -34,11 +36,46 @@ public interface ColumnWriteStore {
    */
   abstract public void flush();
 
+  /**
+   * Flushes the columns to the underlying storage as {@link #flush()} does but the columns are finalized concurrently
+   * by tasks submitted to the specified executor. It returns once all the columns are flushed. The page writers of the
+   * columns shall be independent of each other as they are called by different threads.
+   *
+   * @param executor the executor running the flush of the columns
+   */
+  default void flush(ExecutorService executor) {
+    flush();
+  }
+
   /**
    * called to notify of record boundaries
    */
   abstract public void endRecord();
 
+  /**
+   * Notifies of the end of several records at once as if {@link #endRecord()} were called for each of them. It is to be
+   * used after writing batches of entries to the column writers.
+   *
+   * @param count the number of records ended
+   * @see #getRecordCountBeforeSizeCheck()
+   */
+  default void endRecords(int count) {
+    for (int i = 0; i < count; ++i) {
+      endRecord();
+    }
+  }
+
+  /**
+   * Returns the number of records which can be written before the pages shall be checked for their size. The pages are
+   * checked at the end of the records so the batches written to the column writers shall not hold more records than
+   * this to keep the pages within their limits.
+   *
+   * @return the number of records to write before calling {@link #endRecords(int)}; at least 1
+   */
+  default int getRecordCountBeforeSizeCheck() {
+    return 1;
+  }
+
   /**
    * used for information
    * @return approximate size used in memory
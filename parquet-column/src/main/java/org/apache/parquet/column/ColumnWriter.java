@@ -80,6 +80,116 @@ public interface ColumnWriter {
    */
   void writeNull(int repetitionLevel, int definitionLevel);
 
+  /**
+   * Writes a batch of entries at once. An entry is a repetition/definition level pair and the value belonging to it if
+   * the definition level is the maximum one of the column; the values are aligned to the entries so the values of the
+   * entries without a value are ignored. The entries shall end on a record boundary. Implementations may override it
+   * to write the entries in bulk; by default, {@link #write(int, int, int)} or {@link #writeNull(int, int)} is invoked
+   * for each entry.
+   *
+   * @param values the values of the entries
+   * @param repetitionLevels the repetition levels of the entries; {@code null} means that all of them are 0
+   * @param definitionLevels the definition levels of the entries; {@code null} means that all the entries have a value
+   * @param maxDefinitionLevel the maximum definition level of the column
+   * @param offset the index of the first entry in the arrays
+   * @param count the number of entries to write
+   */
+  default void writeIntegers(int[] values, int[] repetitionLevels, int[] definitionLevels, int maxDefinitionLevel,
+      int offset, int count) {
+    ColumnWriterBatch.writeEntries(this, repetitionLevels, definitionLevels, maxDefinitionLevel, offset, count,
+        (i, repetitionLevel, definitionLevel) -> write(values[i], repetitionLevel, definitionLevel));
+  }
+
+  /**
+   * Writes a batch of entries at once. By default, {@link #write(long, int, int)} or {@link #writeNull(int, int)} is
+   * invoked for each entry.
+   *
+   * @param values the values of the entries
+   * @param repetitionLevels the repetition levels of the entries; {@code null} means that all of them are 0
+   * @param definitionLevels the definition levels of the entries; {@code null} means that all the entries have a value
+   * @param maxDefinitionLevel the maximum definition level of the column
+   * @param offset the index of the first entry in the arrays
+   * @param count the number of entries to write
+   * @see #writeIntegers(int[], int[], int[], int, int, int)
+   */
+  default void writeLongs(long[] values, int[] repetitionLevels, int[] definitionLevels, int maxDefinitionLevel,
+      int offset, int count) {
+    ColumnWriterBatch.writeEntries(this, repetitionLevels, definitionLevels, maxDefinitionLevel, offset, count,
+        (i, repetitionLevel, definitionLevel) -> write(values[i], repetitionLevel, definitionLevel));
+  }
+
+  /**
+   * Writes a batch of entries at once. By default, {@link #write(float, int, int)} or {@link #writeNull(int, int)} is
+   * invoked for each entry.
+   *
+   * @param values the values of the entries
+   * @param repetitionLevels the repetition levels of the entries; {@code null} means that all of them are 0
+   * @param definitionLevels the definition levels of the entries; {@code null} means that all the entries have a value
+   * @param maxDefinitionLevel the maximum definition level of the column
+   * @param offset the index of the first entry in the arrays
+   * @param count the number of entries to write
+   * @see #writeIntegers(int[], int[], int[], int, int, int)
+   */
+  default void writeFloats(float[] values, int[] repetitionLevels, int[] definitionLevels, int maxDefinitionLevel,
+      int offset, int count) {
+    ColumnWriterBatch.writeEntries(this, repetitionLevels, definitionLevels, maxDefinitionLevel, offset, count,
+        (i, repetitionLevel, definitionLevel) -> write(values[i], repetitionLevel, definitionLevel));
+  }
+
+  /**
+   * Writes a batch of entries at once. By default, {@link #write(double, int, int)} or {@link #writeNull(int, int)} is
+   * invoked for each entry.
+   *
+   * @param values the values of the entries
+   * @param repetitionLevels the repetition levels of the entries; {@code null} means that all of them are 0
+   * @param definitionLevels the definition levels of the entries; {@code null} means that all the entries have a value
+   * @param maxDefinitionLevel the maximum definition level of the column
+   * @param offset the index of the first entry in the arrays
+   * @param count the number of entries to write
+   * @see #writeIntegers(int[], int[], int[], int, int, int)
+   */
+  default void writeDoubles(double[] values, int[] repetitionLevels, int[] definitionLevels, int maxDefinitionLevel,
+      int offset, int count) {
+    ColumnWriterBatch.writeEntries(this, repetitionLevels, definitionLevels, maxDefinitionLevel, offset, count,
+        (i, repetitionLevel, definitionLevel) -> write(values[i], repetitionLevel, definitionLevel));
+  }
+
+  /**
+   * Writes a batch of entries at once. By default, {@link #write(boolean, int, int)} or {@link #writeNull(int, int)} is
+   * invoked for each entry.
+   *
+   * @param values the values of the entries
+   * @param repetitionLevels the repetition levels of the entries; {@code null} means that all of them are 0
+   * @param definitionLevels the definition levels of the entries; {@code null} means that all the entries have a value
+   * @param maxDefinitionLevel the maximum definition level of the column
+   * @param offset the index of the first entry in the arrays
+   * @param count the number of entries to write
+   * @see #writeIntegers(int[], int[], int[], int, int, int)
+   */
+  default void writeBooleans(boolean[] values, int[] repetitionLevels, int[] definitionLevels, int maxDefinitionLevel,
+      int offset, int count) {
+    ColumnWriterBatch.writeEntries(this, repetitionLevels, definitionLevels, maxDefinitionLevel, offset, count,
+        (i, repetitionLevel, definitionLevel) -> write(values[i], repetitionLevel, definitionLevel));
+  }
+
+  /**
+   * Writes a batch of entries at once. By default, {@link #write(Binary, int, int)} or {@link #writeNull(int, int)} is
+   * invoked for each entry.
+   *
+   * @param values the values of the entries
+   * @param repetitionLevels the repetition levels of the entries; {@code null} means that all of them are 0
+   * @param definitionLevels the definition levels of the entries; {@code null} means that all the entries have a value
+   * @param maxDefinitionLevel the maximum definition level of the column
+   * @param offset the index of the first entry in the arrays
+   * @param count the number of entries to write
+   * @see #writeIntegers(int[], int[], int[], int, int, int)
+   */
+  default void writeBinaries(Binary[] values, int[] repetitionLevels, int[] definitionLevels, int maxDefinitionLevel,
+      int offset, int count) {
+    ColumnWriterBatch.writeEntries(this, repetitionLevels, definitionLevels, maxDefinitionLevel, offset, count,
+        (i, repetitionLevel, definitionLevel) -> write(values[i], repetitionLevel, definitionLevel));
+  }
+
  /**
   * Close the underlying store. This should be called when there are no
   * more data to be written.
@@ -0,0 +1,54 @@
+/* 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column;
+
+/**
+ * The entry by entry writing of the batches shared by the default batch methods of {@link ColumnWriter}.
+ */
+final class ColumnWriterBatch {
+
+  /**
+   * Writes the value of an entry having a value by the typed write method of the writer.
+   */
+  interface ValueWriter {
+    void write(int index, int repetitionLevel, int definitionLevel);
+  }
+
+  private ColumnWriterBatch() {
+  }
+
+  /**
+   * Writes the entries of a batch one by one: the entries having a value by the specified value writer, the other
+   * ones by {@link ColumnWriter#writeNull(int, int)}.
+   *
+   * @see ColumnWriter#writeIntegers(int[], int[], int[], int, int, int)
+   */
+  static void writeEntries(ColumnWriter writer, int[] repetitionLevels, int[] definitionLevels,
+      int maxDefinitionLevel, int offset, int count, ValueWriter values) {
+    for (int i = offset, end = offset + count; i < end; ++i) {
+      int repetitionLevel = repetitionLevels == null ? 0 : repetitionLevels[i];
+      int definitionLevel = definitionLevels == null ? maxDefinitionLevel : definitionLevels[i];
+      if (definitionLevel == maxDefinitionLevel) {
+        values.write(i, repetitionLevel, definitionLevel);
+      } else {
+        writer.writeNull(repetitionLevel, definitionLevel);
+      }
+    }
+  }
+}
@@ -18,10 +18,16 @@
  */
 package org.apache.parquet.column;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.apache.parquet.Preconditions;
 import org.apache.parquet.bytes.ByteBufferAllocator;
 import org.apache.parquet.bytes.CapacityByteArrayOutputStream;
 import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 
 import static org.apache.parquet.bytes.BytesUtils.getWidthFromMaxInt;
 import org.apache.parquet.column.impl.ColumnWriteStoreV1;
@@ -29,11 +35,14 @@ import org.apache.parquet.column.impl.ColumnWriteStoreV2;
 import org.apache.parquet.column.page.PageWriteStore;
 import org.apache.parquet.column.values.ValuesWriter;
 import org.apache.parquet.column.values.bitpacking.DevNullValuesWriter;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
 import org.apache.parquet.column.values.factory.DefaultValuesWriterFactory;
 import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridEncoder;
 import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridValuesWriter;
 import org.apache.parquet.column.values.factory.ValuesWriterFactory;
+import org.apache.parquet.column.values.fallback.DictionaryDecisions;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 
 /**
  * This class represents all the configurable Parquet properties.
@@ -49,6 +58,13 @@ public class ParquetProperties {
   public static final int DEFAULT_MAXIMUM_RECORD_COUNT_FOR_CHECK = 10000;
   public static final int DEFAULT_COLUMN_INDEX_TRUNCATE_LENGTH = 64;
   public static final int DEFAULT_PAGE_ROW_COUNT_LIMIT = 20_000;
+  public static final int DEFAULT_FLUSH_PARALLELISM = 1;
+  public static final int DEFAULT_PAGE_COMPRESSION_THREADS = 0;
+  public static final int DEFAULT_PAGE_COMPRESSION_QUEUE_SIZE = 16;
+  public static final double DEFAULT_BLOOM_FILTER_FPP = 0.01;
+  public static final int DEFAULT_MAX_BLOOM_FILTER_BYTES = BlockSplitBloomFilter.DEFAULT_MAXIMUM_BYTES;
+  public static final int DEFAULT_ADAPTIVE_DICTIONARY_SAMPLE_SIZE = 0;
+  public static final double DEFAULT_ADAPTIVE_DICTIONARY_MAX_DISTINCT_RATIO = 0.5;
 
   public static final ValuesWriterFactory DEFAULT_VALUES_WRITER_FACTORY = new DefaultValuesWriterFactory();
 
@@ -76,24 +92,45 @@ public class ParquetProperties {
   }
 
   private final int initialSlabSize;
-  private final int pageSizeThreshold;
+  private final ColumnProperty<Integer> pageSizeThreshold;
   private final int dictionaryPageSizeThreshold;
   private final WriterVersion writerVersion;
-  private final boolean enableDictionary;
+  private final ColumnProperty<Boolean> enableDictionary;
   private final int minRowCountForPageSizeCheck;
   private final int maxRowCountForPageSizeCheck;
   private final boolean estimateNextSizeCheck;
   private final ByteBufferAllocator allocator;
   private final ValuesWriterFactory valuesWriterFactory;
-  private final int columnIndexTruncateLength;
-  private final int pageRowCountLimit;
-
-  private ParquetProperties(WriterVersion writerVersion, int pageSize, int dictPageSize, boolean enableDict, int minRowCountForPageSizeCheck,
+  private final ColumnProperty<Integer> columnIndexTruncateLength;
+  private final ColumnProperty<Integer> pageRowCountLimit;
+  // the encodings of the values of the columns not dictionary encoded; null for the default ones of the writer version
+  private final ColumnProperty<Encoding> encodings;
+  // the compression codecs of the columns; null for the codec of the writer
+  private final ColumnProperty<CompressionCodecName> compressionCodecs;
+  private final int flushParallelism;
+  private final int pageCompressionThreads;
+  private final int pageCompressionQueueSize;
+  // the expected number of distinct values of the columns having a Bloom filter; 0 if it is unknown
+  private final Map<ColumnPath, Long> bloomFilterNDVs;
+  private final double bloomFilterFPP;
+  private final int maxBloomFilterBytes;
+  private final int adaptiveDictionarySampleSize;
+  private final double adaptiveDictionaryMaxDistinctRatio;
+  // the decisions of the adaptive dictionary mode kept for all the row groups written with these properties
+  private final DictionaryDecisions dictionaryDecisions;
+
+  private ParquetProperties(WriterVersion writerVersion, ColumnProperty<Integer> pageSize, int dictPageSize,
+                            ColumnProperty<Boolean> enableDict, int minRowCountForPageSizeCheck,
                             int maxRowCountForPageSizeCheck, boolean estimateNextSizeCheck, ByteBufferAllocator allocator,
-                            ValuesWriterFactory writerFactory, int columnIndexMinMaxTruncateLength, int pageRowCountLimit) {
+                            ValuesWriterFactory writerFactory, ColumnProperty<Integer> columnIndexMinMaxTruncateLength,
+                            ColumnProperty<Integer> pageRowCountLimit, ColumnProperty<Encoding> encodings,
+                            ColumnProperty<CompressionCodecName> compressionCodecs,
+                            int flushParallelism, int pageCompressionThreads, int pageCompressionQueueSize,
+                            Map<ColumnPath, Long> bloomFilterNDVs, double bloomFilterFPP, int maxBloomFilterBytes,
+                            int adaptiveDictionarySampleSize, double adaptiveDictionaryMaxDistinctRatio) {
     this.pageSizeThreshold = pageSize;
     this.initialSlabSize = CapacityByteArrayOutputStream
-      .initialSlabSizeHeuristic(MIN_SLAB_SIZE, pageSizeThreshold, 10);
+      .initialSlabSizeHeuristic(MIN_SLAB_SIZE, pageSizeThreshold.getDefaultValue(), 10);
     this.dictionaryPageSizeThreshold = dictPageSize;
     this.writerVersion = writerVersion;
     this.enableDictionary = enableDict;
@@ -105,6 +142,19 @@ public class ParquetProperties {
     this.valuesWriterFactory = writerFactory;
     this.columnIndexTruncateLength = columnIndexMinMaxTruncateLength;
     this.pageRowCountLimit = pageRowCountLimit;
+    this.encodings = encodings;
+    this.compressionCodecs = compressionCodecs;
+    this.flushParallelism = flushParallelism;
+    this.pageCompressionThreads = pageCompressionThreads;
+    this.pageCompressionQueueSize = pageCompressionQueueSize;
+    this.bloomFilterNDVs = Collections.unmodifiableMap(new HashMap<>(bloomFilterNDVs));
+    this.bloomFilterFPP = bloomFilterFPP;
+    this.maxBloomFilterBytes = maxBloomFilterBytes;
+    this.adaptiveDictionarySampleSize = adaptiveDictionarySampleSize;
+    this.adaptiveDictionaryMaxDistinctRatio = adaptiveDictionaryMaxDistinctRatio;
+    this.dictionaryDecisions = adaptiveDictionarySampleSize > 0
+        ? new DictionaryDecisions(adaptiveDictionarySampleSize, adaptiveDictionaryMaxDistinctRatio)
+        : null;
   }
 
   public ValuesWriter newRepetitionLevelWriter(ColumnDescriptor path) {
@@ -120,7 +170,7 @@ public class ParquetProperties {
       return new DevNullValuesWriter();
     } else {
       return new RunLengthBitPackingHybridValuesWriter(
-          getWidthFromMaxInt(maxLevel), MIN_SLAB_SIZE, pageSizeThreshold, allocator);
+          getWidthFromMaxInt(maxLevel), MIN_SLAB_SIZE, getPageSizeThreshold(), allocator);
     }
   }
 
@@ -134,15 +184,40 @@ public class ParquetProperties {
 
   private RunLengthBitPackingHybridEncoder newLevelEncoder(int maxLevel) {
     return new RunLengthBitPackingHybridEncoder(
-        getWidthFromMaxInt(maxLevel), MIN_SLAB_SIZE, pageSizeThreshold, allocator);
+        getWidthFromMaxInt(maxLevel), MIN_SLAB_SIZE, getPageSizeThreshold(), allocator);
   }
 
   public ValuesWriter newValuesWriter(ColumnDescriptor path) {
     return valuesWriterFactory.newValuesWriter(path);
   }
 
+  /**
+   * @param path the column
+   * @return a new Bloom filter sized for the expected number of distinct values of the column or {@code null} if the
+   *         column shall not have a Bloom filter
+   */
+  public BlockSplitBloomFilter newBloomFilter(ColumnDescriptor path) {
+    Long ndv = bloomFilterNDVs.get(ColumnPath.get(path.getPath()));
+    // a Bloom filter is no use for the two values of a boolean column
+    if (ndv == null || path.getPrimitiveType().getPrimitiveTypeName() == PrimitiveTypeName.BOOLEAN) {
+      return null;
+    }
+    if (ndv == 0) {
+      return new BlockSplitBloomFilter(maxBloomFilterBytes);
+    }
+    return new BlockSplitBloomFilter(BlockSplitBloomFilter.optimalNumOfBytes(ndv, bloomFilterFPP, maxBloomFilterBytes));
+  }
+
   public int getPageSizeThreshold() {
-    return pageSizeThreshold;
+    return pageSizeThreshold.getDefaultValue();
+  }
+
+  /**
+   * @param column the column
+   * @return the page size threshold of the column
+   */
+  public int getPageSizeThreshold(ColumnDescriptor column) {
+    return pageSizeThreshold.getValue(column);
   }
 
   public int getInitialSlabSize() {
@@ -158,7 +233,32 @@ public class ParquetProperties {
   }
 
   public boolean isEnableDictionary() {
-    return enableDictionary;
+    return enableDictionary.getDefaultValue();
+  }
+
+  /**
+   * @param column the column
+   * @return whether the column shall be dictionary encoded
+   */
+  public boolean isDictionaryEnabled(ColumnDescriptor column) {
+    return enableDictionary.getValue(column);
+  }
+
+  /**
+   * @param column the column
+   * @return the encoding of the values of the column when it is not dictionary encoded or {@code null} if it is the
+   *         default one of the writer version for the type of the column
+   */
+  public Encoding getEncoding(ColumnDescriptor column) {
+    return encodings.getValue(column);
+  }
+
+  /**
+   * @param column the column
+   * @return the compression codec of the column or {@code null} if the column is compressed by the codec of the writer
+   */
+  public CompressionCodecName getCompressionCodec(ColumnDescriptor column) {
+    return compressionCodecs.getValue(column);
   }
 
   public ByteBufferAllocator getAllocator() {
@@ -190,7 +290,15 @@ public class ParquetProperties {
   }
 
   public int getColumnIndexTruncateLength() {
-    return columnIndexTruncateLength;
+    return columnIndexTruncateLength.getDefaultValue();
+  }
+
+  /**
+   * @param column the column
+   * @return the length the min/max values of the column index of the column are truncated to
+   */
+  public int getColumnIndexTruncateLength(ColumnDescriptor column) {
+    return columnIndexTruncateLength.getValue(column);
   }
 
   public boolean estimateNextSizeCheck() {
@@ -198,7 +306,74 @@ public class ParquetProperties {
   }
 
   public int getPageRowCountLimit() {
-    return pageRowCountLimit;
+    return pageRowCountLimit.getDefaultValue();
+  }
+
+  /**
+   * @param column the column
+   * @return the maximum number of rows in a page of the column
+   */
+  public int getPageRowCountLimit(ColumnDescriptor column) {
+    return pageRowCountLimit.getValue(column);
+  }
+
+  /**
+   * @return the number of columns to be finalized and compressed concurrently when a row group is flushed; the columns
+   *         are flushed one by one by the writer thread if it is 1
+   */
+  public int getFlushParallelism() {
+    return flushParallelism;
+  }
+
+  /**
+   * @return the number of threads compressing the data pages in the background; the pages are compressed by the
+   *         thread writing them if it is 0
+   */
+  public int getPageCompressionThreads() {
+    return pageCompressionThreads;
+  }
+
+  /**
+   * @return the maximum number of data pages waiting to be compressed in the background
+   */
+  public int getPageCompressionQueueSize() {
+    return pageCompressionQueueSize;
+  }
+
+  /**
+   * @return the expected number of distinct values of the columns having a Bloom filter by their paths; 0 if it is
+   *         unknown
+   */
+  public Map<ColumnPath, Long> getBloomFilterNDVs() {
+    return bloomFilterNDVs;
+  }
+
+  public double getBloomFilterFPP() {
+    return bloomFilterFPP;
+  }
+
+  public int getMaxBloomFilterBytes() {
+    return maxBloomFilterBytes;
+  }
+
+  /**
+   * @return the number of the first values of a column the adaptive dictionary mode decides on the dictionary encoding
+   *         from; 0 if the adaptive mode is disabled
+   */
+  public int getAdaptiveDictionarySampleSize() {
+    return adaptiveDictionarySampleSize;
+  }
+
+  public double getAdaptiveDictionaryMaxDistinctRatio() {
+    return adaptiveDictionaryMaxDistinctRatio;
+  }
+
+  /**
+   * @return the decisions of the adaptive dictionary mode shared by the row groups written with these properties;
+   *         {@code null} if the adaptive mode is disabled
+   */
+  public DictionaryDecisions getDictionaryDecisions() {
+    return dictionaryDecisions;
   }
 
   public static Builder builder() {
@@ -210,24 +385,35 @@ public class ParquetProperties {
   }
 
   public static class Builder {
-    private int pageSize = DEFAULT_PAGE_SIZE;
+    private ColumnProperty.Builder<Integer> pageSize = ColumnProperty.builder(DEFAULT_PAGE_SIZE);
     private int dictPageSize = DEFAULT_DICTIONARY_PAGE_SIZE;
-    private boolean enableDict = DEFAULT_IS_DICTIONARY_ENABLED;
+    private ColumnProperty.Builder<Boolean> enableDict = ColumnProperty.builder(DEFAULT_IS_DICTIONARY_ENABLED);
     private WriterVersion writerVersion = DEFAULT_WRITER_VERSION;
     private int minRowCountForPageSizeCheck = DEFAULT_MINIMUM_RECORD_COUNT_FOR_CHECK;
     private int maxRowCountForPageSizeCheck = DEFAULT_MAXIMUM_RECORD_COUNT_FOR_CHECK;
     private boolean estimateNextSizeCheck = DEFAULT_ESTIMATE_ROW_COUNT_FOR_PAGE_SIZE_CHECK;
     private ByteBufferAllocator allocator = new HeapByteBufferAllocator();
     private ValuesWriterFactory valuesWriterFactory = DEFAULT_VALUES_WRITER_FACTORY;
-    private int columnIndexTruncateLength = DEFAULT_COLUMN_INDEX_TRUNCATE_LENGTH;
-    private int pageRowCountLimit = DEFAULT_PAGE_ROW_COUNT_LIMIT;
+    private ColumnProperty.Builder<Integer> columnIndexTruncateLength =
+        ColumnProperty.builder(DEFAULT_COLUMN_INDEX_TRUNCATE_LENGTH);
+    private ColumnProperty.Builder<Integer> pageRowCountLimit = ColumnProperty.builder(DEFAULT_PAGE_ROW_COUNT_LIMIT);
+    private ColumnProperty.Builder<Encoding> encodings = ColumnProperty.builder(null);
+    private ColumnProperty.Builder<CompressionCodecName> compressionCodecs = ColumnProperty.builder(null);
+    private int flushParallelism = DEFAULT_FLUSH_PARALLELISM;
+    private int pageCompressionThreads = DEFAULT_PAGE_COMPRESSION_THREADS;
+    private int pageCompressionQueueSize = DEFAULT_PAGE_COMPRESSION_QUEUE_SIZE;
+    private final Map<ColumnPath, Long> bloomFilterNDVs = new HashMap<>();
+    private double bloomFilterFPP = DEFAULT_BLOOM_FILTER_FPP;
+    private int maxBloomFilterBytes = DEFAULT_MAX_BLOOM_FILTER_BYTES;
+    private int adaptiveDictionarySampleSize = DEFAULT_ADAPTIVE_DICTIONARY_SAMPLE_SIZE;
+    private double adaptiveDictionaryMaxDistinctRatio = DEFAULT_ADAPTIVE_DICTIONARY_MAX_DISTINCT_RATIO;
 
     private Builder() {
     }
 
     private Builder(ParquetProperties toCopy) {
-      this.pageSize = toCopy.pageSizeThreshold;
-      this.enableDict = toCopy.enableDictionary;
+      this.pageSize = ColumnProperty.copy(toCopy.pageSizeThreshold);
+      this.enableDict = ColumnProperty.copy(toCopy.enableDictionary);
       this.dictPageSize = toCopy.dictionaryPageSizeThreshold;
       this.writerVersion = toCopy.writerVersion;
       this.minRowCountForPageSizeCheck = toCopy.minRowCountForPageSizeCheck;
@@ -235,7 +421,18 @@ public class ParquetProperties {
       this.estimateNextSizeCheck = toCopy.estimateNextSizeCheck;
       this.valuesWriterFactory = toCopy.valuesWriterFactory;
       this.allocator = toCopy.allocator;
-      this.pageRowCountLimit = toCopy.pageRowCountLimit;
+      this.pageRowCountLimit = ColumnProperty.copy(toCopy.pageRowCountLimit);
+      this.columnIndexTruncateLength = ColumnProperty.copy(toCopy.columnIndexTruncateLength);
+      this.encodings = ColumnProperty.copy(toCopy.encodings);
+      this.compressionCodecs = ColumnProperty.copy(toCopy.compressionCodecs);
+      this.flushParallelism = toCopy.flushParallelism;
+      this.pageCompressionThreads = toCopy.pageCompressionThreads;
+      this.pageCompressionQueueSize = toCopy.pageCompressionQueueSize;
+      this.bloomFilterNDVs.putAll(toCopy.bloomFilterNDVs);
+      this.bloomFilterFPP = toCopy.bloomFilterFPP;
+      this.maxBloomFilterBytes = toCopy.maxBloomFilterBytes;
+      this.adaptiveDictionarySampleSize = toCopy.adaptiveDictionarySampleSize;
+      this.adaptiveDictionaryMaxDistinctRatio = toCopy.adaptiveDictionaryMaxDistinctRatio;
     }
 
     /**
@@ -247,7 +444,21 @@ public class ParquetProperties {
     public Builder withPageSize(int pageSize) {
       Preconditions.checkArgument(pageSize > 0,
           "Invalid page size (negative): %s", pageSize);
-      this.pageSize = pageSize;
+      this.pageSize.withDefaultValue(pageSize);
+      return this;
+    }
+
+    /**
+     * Set the Parquet format page size of a column.
+     *
+     * @param columnPath the dot separated path of the column or a glob pattern of paths
+     * @param pageSize an integer size in bytes
+     * @return this builder for method chaining.
+     */
+    public Builder withPageSize(String columnPath, int pageSize) {
+      Preconditions.checkArgument(pageSize > 0,
+          "Invalid page size (negative): %s", pageSize);
+      this.pageSize.withValue(columnPath, pageSize);
       return this;
     }
 
@@ -258,7 +469,51 @@ public class ParquetProperties {
      * @return this builder for method chaining.
      */
     public Builder withDictionaryEncoding(boolean enableDictionary) {
-      this.enableDict = enableDictionary;
+      this.enableDict.withDefaultValue(enableDictionary);
+      return this;
+    }
+
+    /**
+     * Enable or disable dictionary encoding of a column.
+     *
+     * @param columnPath the dot separated path of the column or a glob pattern of paths
+     * @param enableDictionary whether dictionary encoding should be enabled for the column
+     * @return this builder for method chaining.
+     */
+    public Builder withDictionaryEncoding(String columnPath, boolean enableDictionary) {
+      this.enableDict.withValue(columnPath, enableDictionary);
+      return this;
+    }
+
+    /**
+     * Set the encoding of the values of a column when it is not dictionary encoded, either because the dictionary is
+     * disabled or because the writer falls back from it. The encoding shall support the type of the column; the
+     * values writers check it when they are created.
+     *
+     * @param columnPath the dot separated path of the column or a glob pattern of paths
+     * @param encoding one of PLAIN, RLE (BOOLEAN), DELTA_BINARY_PACKED (INT32, INT64), DELTA_LENGTH_BYTE_ARRAY
+     *                 (BINARY) or DELTA_BYTE_ARRAY (BINARY, FIXED_LEN_BYTE_ARRAY); {@code null} for the default
+     *                 encoding of the writer version
+     * @return this builder for method chaining.
+     * @see #withDictionaryEncoding(String, boolean)
+     */
+    public Builder withEncoding(String columnPath, Encoding encoding) {
+      Preconditions.checkArgument(encoding == null || !encoding.usesDictionary(),
+          "The dictionary encoding is enabled by withDictionaryEncoding: %s", encoding);
+      this.encodings.withValue(columnPath, encoding);
+      return this;
+    }
+
+    /**
+     * Set the compression codec of a column. The other columns are compressed by the codec the writer is created
+     * with; the codec of every column chunk is recorded in the footer.
+     *
+     * @param columnPath the dot separated path of the column or a glob pattern of paths
+     * @param codec the compression codec of the column; {@code null} for the codec of the writer
+     * @return this builder for method chaining.
+     */
+    public Builder withCompressionCodec(String columnPath, CompressionCodecName codec) {
+      this.compressionCodecs.withValue(columnPath, codec);
       return this;
     }
 
@@ -320,21 +575,181 @@ public class ParquetProperties {
 
     public Builder withColumnIndexTruncateLength(int length) {
       Preconditions.checkArgument(length > 0, "Invalid column index min/max truncate length (negative) : %s", length);
-      this.columnIndexTruncateLength = length;
+      this.columnIndexTruncateLength.withDefaultValue(length);
+      return this;
+    }
+
+    /**
+     * Set the length the min/max values of the column index of a column are truncated to.
+     *
+     * @param columnPath the dot separated path of the column or a glob pattern of paths
+     * @param length the truncate length
+     * @return this builder for method chaining.
+     */
+    public Builder withColumnIndexTruncateLength(String columnPath, int length) {
+      Preconditions.checkArgument(length > 0, "Invalid column index min/max truncate length (negative) : %s", length);
+      this.columnIndexTruncateLength.withValue(columnPath, length);
       return this;
     }
 
     public Builder withPageRowCountLimit(int rowCount) {
       Preconditions.checkArgument(rowCount > 0, "Invalid row count limit for pages: " + rowCount);
-      pageRowCountLimit = rowCount;
+      pageRowCountLimit.withDefaultValue(rowCount);
+      return this;
+    }
+
+    /**
+     * Set the maximum number of rows in a page of a column.
+     *
+     * @param columnPath the dot separated path of the column or a glob pattern of paths
+     * @param rowCount the maximum number of rows in a page
+     * @return this builder for method chaining.
+     */
+    public Builder withPageRowCountLimit(String columnPath, int rowCount) {
+      Preconditions.checkArgument(rowCount > 0, "Invalid row count limit for pages: " + rowCount);
+      pageRowCountLimit.withValue(columnPath, rowCount);
+      return this;
+    }
+
+    /**
+     * Set the number of columns to be finalized and compressed concurrently when a row group is flushed. The pages of
+     * the columns are still written to the file in the order of the schema.
+     *
+     * @param parallelism the number of worker threads flushing the columns; 1 to flush them by the writer thread
+     * @return this builder for method chaining.
+     */
+    public Builder withFlushParallelism(int parallelism) {
+      Preconditions.checkArgument(parallelism > 0, "Invalid flush parallelism: %s", parallelism);
+      this.flushParallelism = parallelism;
+      return this;
+    }
+
+    /**
+     * Set the number of threads compressing the data pages in the background. The writer thread only copies the bytes
+     * of a page when it is closed; the page is completed in the column chunk once it is compressed. The pages waiting
+     * for their compression are accounted for the row group size at the compression ratio of the pages of their column
+     * chunk compressed before, so the row group boundaries differ from the ones without background compression.
+     *
+     * @param threads the number of compression threads; 0 to compress the pages by the thread writing them
+     * @return this builder for method chaining.
+     */
+    public Builder withPageCompressionThreads(int threads) {
+      Preconditions.checkArgument(threads >= 0, "Invalid number of page compression threads: %s", threads);
+      this.pageCompressionThreads = threads;
+      return this;
+    }
+
+    /**
+     * Set the maximum number of data pages waiting to be compressed in the background. Closing a page blocks while
+     * the queue is full.
+     *
+     * @param queueSize the maximum number of pages waiting to be compressed
+     * @return this builder for method chaining.
+     */
+    public Builder withPageCompressionQueueSize(int queueSize) {
+      Preconditions.checkArgument(queueSize > 0, "Invalid page compression queue size: %s", queueSize);
+      this.pageCompressionQueueSize = queueSize;
+      return this;
+    }
+
+    /**
+     * Enable or disable the Bloom filter of a column. Without an expected number of distinct values the filters of
+     * the column have the maximum size.
+     * <p>
+     * The filters are not interoperable: they have no {@code BloomFilterHeader} and their offsets are kept in the
+     * {@code key_value_metadata} of the column chunks so only the readers of this library use them.
+     *
+     * @param columnPath the dot separated path of the column
+     * @param enabled whether the column chunks of the column shall have a Bloom filter
+     * @return this builder for method chaining.
+     * @see #withBloomFilterNDV(String, long)
+     */
+    public Builder withBloomFilterEnabled(String columnPath, boolean enabled) {
+      ColumnPath path = ColumnPath.fromDotString(columnPath);
+      if (!enabled) {
+        bloomFilterNDVs.remove(path);
+      } else if (!bloomFilterNDVs.containsKey(path)) {
+        bloomFilterNDVs.put(path, 0L);
+      }
+      return this;
+    }
+
+    /**
+     * Enable the Bloom filter of a column and size it for the expected number of distinct values in a column chunk.
+     *
+     * @param columnPath the dot separated path of the column
+     * @param ndv the expected number of distinct values in a column chunk
+     * @return this builder for method chaining.
+     */
+    public Builder withBloomFilterNDV(String columnPath, long ndv) {
+      Preconditions.checkArgument(ndv > 0, "Invalid expected number of distinct values: %s", ndv);
+      bloomFilterNDVs.put(ColumnPath.fromDotString(columnPath), ndv);
+      return this;
+    }
+
+    /**
+     * Set the expected false positive probability of the Bloom filters sized for a number of distinct values.
+     *
+     * @param fpp the false positive probability
+     * @return this builder for method chaining.
+     */
+    public Builder withBloomFilterFPP(double fpp) {
+      Preconditions.checkArgument(fpp > 0.0 && fpp < 1.0, "Invalid false positive probability: %s", fpp);
+      this.bloomFilterFPP = fpp;
+      return this;
+    }
+
+    /**
+     * Set the maximum size of a Bloom filter.
+     *
+     * @param maxBytes the maximum size of the bitset of a Bloom filter in bytes
+     * @return this builder for method chaining.
+     */
+    public Builder withMaxBloomFilterBytes(int maxBytes) {
+      Preconditions.checkArgument(
+          maxBytes >= BlockSplitBloomFilter.MINIMUM_BYTES && maxBytes <= BlockSplitBloomFilter.MAXIMUM_BYTES,
+          "Invalid maximum Bloom filter size: %s", maxBytes);
+      this.maxBloomFilterBytes = maxBytes;
+      return this;
+    }
+
+    /**
+     * Enable or disable the adaptive dictionary mode. The dictionary encoding of a column is abandoned right after the
+     * sample of its first values if the sample has too many distinct values; the decision is kept for the next row
+     * groups so the columns of high cardinality are not hashed into a dictionary again.
+     *
+     * @param sampleSize the number of the first values of a column to decide from; 0 to disable the adaptive mode
+     * @return this builder for method chaining.
+     * @see #withAdaptiveDictionaryMaxDistinctRatio(double)
+     */
+    public Builder withAdaptiveDictionarySampleSize(int sampleSize) {
+      Preconditions.checkArgument(sampleSize >= 0, "Invalid adaptive dictionary sample size: %s", sampleSize);
+      this.adaptiveDictionarySampleSize = sampleSize;
+      return this;
+    }
+
+    /**
+     * Set the maximum ratio of distinct values in the sample of the adaptive dictionary mode for a column to keep the
+     * dictionary encoding.
+     *
+     * @param ratio the maximum ratio of the distinct values in the sample
+     * @return this builder for method chaining.
+     */
+    public Builder withAdaptiveDictionaryMaxDistinctRatio(double ratio) {
+      Preconditions.checkArgument(ratio > 0.0 && ratio <= 1.0, "Invalid adaptive dictionary distinct ratio: %s", ratio);
+      this.adaptiveDictionaryMaxDistinctRatio = ratio;
       return this;
     }
 
     public ParquetProperties build() {
       ParquetProperties properties =
-        new ParquetProperties(writerVersion, pageSize, dictPageSize,
-          enableDict, minRowCountForPageSizeCheck, maxRowCountForPageSizeCheck,
-          estimateNextSizeCheck, allocator, valuesWriterFactory, columnIndexTruncateLength, pageRowCountLimit);
+        new ParquetProperties(writerVersion, pageSize.build(), dictPageSize,
+          enableDict.build(), minRowCountForPageSizeCheck, maxRowCountForPageSizeCheck,
+          estimateNextSizeCheck, allocator, valuesWriterFactory, columnIndexTruncateLength.build(),
+          pageRowCountLimit.build(), encodings.build(), compressionCodecs.build(),
+          flushParallelism, pageCompressionThreads, pageCompressionQueueSize,
+          bloomFilterNDVs, bloomFilterFPP, maxBloomFilterBytes,
+          adaptiveDictionarySampleSize, adaptiveDictionaryMaxDistinctRatio);
       // we pass a constructed but uninitialized factory to ParquetProperties above as currently
       // creation of ValuesWriters is invoked from within ParquetProperties. In the future
       // we'd like to decouple that and won't need to pass an object to properties and then pass the
@@ -42,7 +42,7 @@ import org.apache.parquet.column.page.DictionaryPage;
 import org.apache.parquet.column.page.PageReader;
 import org.apache.parquet.column.values.RequiresPreviousReader;
 import org.apache.parquet.column.values.ValuesReader;
-import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridDecoder;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridBufferDecoder;
 import org.apache.parquet.io.ParquetDecodingException;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.io.api.PrimitiveConverter;
@@ -143,6 +143,9 @@ abstract class ColumnReaderBase implements ColumnReader {
 
   private IntIterator repetitionLevelColumn;
   private IntIterator definitionLevelColumn;
+  // decode the levels of every v2 page; null if the max level is 0
+  private final RLEIntIterator rleRepetitionLevels;
+  private final RLEIntIterator rleDefinitionLevels;
   protected ValuesReader dataColumn;
   private Encoding currentEncoding;
 
@@ -377,6 +380,8 @@ abstract class ColumnReaderBase implements ColumnReader {
     this.converter = checkNotNull(converter, "converter");
     this.writerVersion = writerVersion;
     this.maxDefinitionLevel = path.getMaxDefinitionLevel();
+    this.rleRepetitionLevels = newRLEIterator(path.getMaxRepetitionLevel());
+    this.rleDefinitionLevels = newRLEIterator(path.getMaxDefinitionLevel());
     DictionaryPage dictionaryPage = pageReader.readDictionaryPage();
     if (dictionaryPage != null) {
       try {
@@ -660,8 +665,8 @@ abstract class ColumnReaderBase implements ColumnReader {
   }
 
   private void readPageV2(DataPageV2 page) {
-    this.repetitionLevelColumn = newRLEIterator(path.getMaxRepetitionLevel(), page.getRepetitionLevels());
-    this.definitionLevelColumn = newRLEIterator(path.getMaxDefinitionLevel(), page.getDefinitionLevels());
+    this.repetitionLevelColumn = initRLEIterator(rleRepetitionLevels, page.getRepetitionLevels());
+    this.definitionLevelColumn = initRLEIterator(rleDefinitionLevels, page.getDefinitionLevels());
     int valueCount = page.getValueCount();
     LOG.debug("page data size {} bytes and {} values", page.getData().size(), valueCount);
     try {
@@ -678,15 +683,21 @@ abstract class ColumnReaderBase implements ColumnReader {
 
   abstract void newPageInitialized(DataPage page);
 
-  private IntIterator newRLEIterator(int maxLevel, BytesInput bytes) {
+  private static RLEIntIterator newRLEIterator(int maxLevel) {
+    if (maxLevel == 0) {
+      return null;
+    }
+    return new RLEIntIterator(new RunLengthBitPackingHybridBufferDecoder(BytesUtils.getWidthFromMaxInt(maxLevel)));
+  }
+
+  private IntIterator initRLEIterator(RLEIntIterator iterator, BytesInput bytes) {
+    if (iterator == null) {
+      return new NullIntIterator();
+    }
     try {
-      if (maxLevel == 0) {
-        return new NullIntIterator();
-      }
-      return new RLEIntIterator(
-          new RunLengthBitPackingHybridDecoder(
-              BytesUtils.getWidthFromMaxInt(maxLevel),
-              bytes.toInputStream()));
+      ByteBufferInputStream in = bytes.toInputStream();
+      iterator.delegate.init(in.slice(in.available()));
+      return iterator;
     } catch (IOException e) {
       throw new ParquetDecodingException("could not read levels in page for col " + path, e);
     }
@@ -735,19 +746,15 @@ abstract class ColumnReaderBase implements ColumnReader {
   }
 
   static class RLEIntIterator extends IntIterator {
-    RunLengthBitPackingHybridDecoder delegate;
+    RunLengthBitPackingHybridBufferDecoder delegate;
 
-    public RLEIntIterator(RunLengthBitPackingHybridDecoder delegate) {
+    public RLEIntIterator(RunLengthBitPackingHybridBufferDecoder delegate) {
       this.delegate = delegate;
     }
 
     @Override
     int nextInt() {
-      try {
-        return delegate.readInt();
-      } catch (IOException e) {
-        throw new ParquetDecodingException(e);
-      }
+      return delegate.readInt();
     }
   }
 
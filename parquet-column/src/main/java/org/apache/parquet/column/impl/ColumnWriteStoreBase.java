@@ -22,11 +22,16 @@ import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.util.Collections.unmodifiableMap;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.ColumnWriteStore;
@@ -34,6 +39,7 @@ import org.apache.parquet.column.ColumnWriter;
 import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.column.page.PageWriteStore;
 import org.apache.parquet.column.page.PageWriter;
+import org.apache.parquet.io.ParquetEncodingException;
 import org.apache.parquet.schema.MessageType;
 
 /**
@@ -48,12 +54,11 @@ abstract class ColumnWriteStoreBase implements ColumnWriteStore {
 
   private final ColumnWriterProvider columnWriterProvider;
 
-  // will flush even if size bellow the threshold by this much to facilitate page alignment
+  // will flush even if size bellow the threshold of the column by this much to facilitate page alignment
   private static final float THRESHOLD_TOLERANCE_RATIO = 0.1f; // 10 %
 
   private final Map<ColumnDescriptor, ColumnWriterBase> columns;
   private final ParquetProperties props;
-  private final long thresholdTolerance;
   private long rowCount;
   private long rowCountForNextSizeCheck;
 
@@ -63,7 +68,6 @@ abstract class ColumnWriteStoreBase implements ColumnWriteStore {
       final PageWriteStore pageWriteStore,
       final ParquetProperties props) {
     this.props = props;
-    this.thresholdTolerance = (long) (props.getPageSizeThreshold() * THRESHOLD_TOLERANCE_RATIO);
 
     this.columns = new TreeMap<>();
 
@@ -87,15 +91,17 @@ abstract class ColumnWriteStoreBase implements ColumnWriteStore {
       PageWriteStore pageWriteStore,
       ParquetProperties props) {
     this.props = props;
-    this.thresholdTolerance = (long) (props.getPageSizeThreshold() * THRESHOLD_TOLERANCE_RATIO);
     Map<ColumnDescriptor, ColumnWriterBase> mcolumns = new TreeMap<>();
+    int pageRowCountLimit = props.getPageRowCountLimit();
     for (ColumnDescriptor path : schema.getColumns()) {
       PageWriter pageWriter = pageWriteStore.getPageWriter(path);
-      mcolumns.put(path, createColumnWriter(path, pageWriter, props));
+      ColumnWriterBase writer = createColumnWriter(path, pageWriter, props);
+      mcolumns.put(path, writer);
+      pageRowCountLimit = min(pageRowCountLimit, writer.pageRowCountLimit);
     }
     this.columns = unmodifiableMap(mcolumns);
 
-    this.rowCountForNextSizeCheck = min(props.getMinRowCountForPageSizeCheck(), props.getPageRowCountLimit());
+    this.rowCountForNextSizeCheck = min(props.getMinRowCountForPageSizeCheck(), pageRowCountLimit);
 
     columnWriterProvider = new ColumnWriterProvider() {
       @Override
@@ -147,14 +153,56 @@ abstract class ColumnWriteStoreBase implements ColumnWriteStore {
   @Override
   public void flush() {
     for (ColumnWriterBase memColumn : columns.values()) {
-      long rows = rowCount - memColumn.getRowsWrittenSoFar();
-      if (rows > 0) {
-        memColumn.writePage();
+      flush(memColumn);
+    }
+  }
+
+  @Override
+  public void flush(ExecutorService executor) {
+    List<Future<?>> futures = new ArrayList<>(columns.size());
+    for (ColumnWriterBase memColumn : columns.values()) {
+      futures.add(executor.submit(() -> flush(memColumn)));
+    }
+    // waits for all the columns even if one fails so none of them is still being written after returning
+    Throwable failure = null;
+    boolean interrupted = false;
+    for (Future<?> future : futures) {
+      while (true) {
+        try {
+          future.get();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause();
+          }
+          break;
+        }
       }
-      memColumn.finalizeColumnChunk();
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    }
+    if (failure instanceof Error) {
+      throw (Error) failure;
+    }
+    if (failure != null) {
+      throw new ParquetEncodingException("Could not flush the columns", failure);
     }
   }
 
+  private void flush(ColumnWriterBase memColumn) {
+    long rows = rowCount - memColumn.getRowsWrittenSoFar();
+    if (rows > 0) {
+      memColumn.writePage();
+    }
+    memColumn.finalizeColumnChunk();
+  }
+
   public String memUsageString() {
     StringBuilder b = new StringBuilder("Store {\n");
     for (ColumnWriterBase memColumn : columns.values()) {
@@ -188,20 +236,33 @@ abstract class ColumnWriteStoreBase implements ColumnWriteStore {
     }
   }
 
+  @Override
+  public void endRecords(int count) {
+    rowCount += count;
+    if (rowCount >= rowCountForNextSizeCheck) {
+      sizeCheck();
+    }
+  }
+
+  @Override
+  public int getRecordCountBeforeSizeCheck() {
+    return (int) max(1, min(Integer.MAX_VALUE, rowCountForNextSizeCheck - rowCount));
+  }
+
   private void sizeCheck() {
     long minRecordToWait = Long.MAX_VALUE;
-    int pageRowCountLimit = props.getPageRowCountLimit();
-    long rowCountForNextRowCountCheck = rowCount + pageRowCountLimit;
+    long rowCountForNextRowCountCheck = Long.MAX_VALUE;
     for (ColumnWriterBase writer : columns.values()) {
       long usedMem = writer.getCurrentPageBufferedSize();
       long rows = rowCount - writer.getRowsWrittenSoFar();
-      long remainingMem = props.getPageSizeThreshold() - usedMem;
-      if (remainingMem <= thresholdTolerance || rows >= pageRowCountLimit) {
+      long remainingMem = writer.pageSizeThreshold - usedMem;
+      long thresholdTolerance = (long) (writer.pageSizeThreshold * THRESHOLD_TOLERANCE_RATIO);
+      if (remainingMem <= thresholdTolerance || rows >= writer.pageRowCountLimit) {
         writer.writePage();
-        remainingMem = props.getPageSizeThreshold();
-      } else {
-        rowCountForNextRowCountCheck = min(rowCountForNextRowCountCheck, writer.getRowsWrittenSoFar() + pageRowCountLimit);
+        remainingMem = writer.pageSizeThreshold;
       }
+      rowCountForNextRowCountCheck =
+          min(rowCountForNextRowCountCheck, writer.getRowsWrittenSoFar() + writer.pageRowCountLimit);
       long rowsToFillPage =
           usedMem == 0 ?
               props.getMaxRowCountForPageSizeCheck()
@@ -18,7 +18,12 @@
  */
 package org.apache.parquet.column.impl;
 
+import static org.apache.parquet.Preconditions.checkArgument;
+
 import java.io.IOException;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntToLongFunction;
 
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.ColumnWriter;
@@ -27,8 +32,10 @@ import org.apache.parquet.column.page.DictionaryPage;
 import org.apache.parquet.column.page.PageWriter;
 import org.apache.parquet.column.statistics.Statistics;
 import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
 import org.apache.parquet.io.ParquetEncodingException;
 import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.PrimitiveComparator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,6 +51,9 @@ abstract class ColumnWriterBase implements ColumnWriter {
 
   final ColumnDescriptor path;
   final PageWriter pageWriter;
+  // the page limits of the column used by the size checks of the store
+  final int pageSizeThreshold;
+  final int pageRowCountLimit;
   private ValuesWriter repetitionLevelColumn;
   private ValuesWriter definitionLevelColumn;
   private ValuesWriter dataColumn;
@@ -53,17 +63,23 @@ abstract class ColumnWriterBase implements ColumnWriter {
   private long rowsWrittenSoFar = 0;
   private int pageRowCount;
 
+  // the Bloom filter of the values of the column chunk; null if it is not enabled for the column
+  private final BlockSplitBloomFilter bloomFilter;
+
   ColumnWriterBase(
       ColumnDescriptor path,
       PageWriter pageWriter,
       ParquetProperties props) {
     this.path = path;
     this.pageWriter = pageWriter;
+    this.pageSizeThreshold = props.getPageSizeThreshold(path);
+    this.pageRowCountLimit = props.getPageRowCountLimit(path);
     resetStatistics();
 
     this.repetitionLevelColumn = createRLWriter(props, path);
     this.definitionLevelColumn = createDLWriter(props, path);
     this.dataColumn = props.newValuesWriter(path);
+    this.bloomFilter = props.newBloomFilter(path);
   }
 
   abstract ValuesWriter createRLWriter(ParquetProperties props, ColumnDescriptor path);
@@ -137,6 +153,9 @@ abstract class ColumnWriterBase implements ColumnWriter {
     definitionLevel(definitionLevel);
     dataColumn.writeDouble(value);
     statistics.updateStats(value);
+    if (bloomFilter != null) {
+      bloomFilter.insertHash(BlockSplitBloomFilter.hash(value));
+    }
     ++valueCount;
   }
 
@@ -155,6 +174,9 @@ abstract class ColumnWriterBase implements ColumnWriter {
     definitionLevel(definitionLevel);
     dataColumn.writeFloat(value);
     statistics.updateStats(value);
+    if (bloomFilter != null) {
+      bloomFilter.insertHash(BlockSplitBloomFilter.hash(value));
+    }
     ++valueCount;
   }
 
@@ -173,6 +195,9 @@ abstract class ColumnWriterBase implements ColumnWriter {
     definitionLevel(definitionLevel);
     dataColumn.writeBytes(value);
     statistics.updateStats(value);
+    if (bloomFilter != null) {
+      bloomFilter.insertHash(BlockSplitBloomFilter.hash(value));
+    }
     ++valueCount;
   }
 
@@ -209,6 +234,9 @@ abstract class ColumnWriterBase implements ColumnWriter {
     definitionLevel(definitionLevel);
     dataColumn.writeInteger(value);
     statistics.updateStats(value);
+    if (bloomFilter != null) {
+      bloomFilter.insertHash(BlockSplitBloomFilter.hash(value));
+    }
     ++valueCount;
   }
 
@@ -227,9 +255,153 @@ abstract class ColumnWriterBase implements ColumnWriter {
     definitionLevel(definitionLevel);
     dataColumn.writeLong(value);
     statistics.updateStats(value);
+    if (bloomFilter != null) {
+      bloomFilter.insertHash(BlockSplitBloomFilter.hash(value));
+    }
     ++valueCount;
   }
 
+  @Override
+  public void writeIntegers(int[] values, int[] repetitionLevels, int[] definitionLevels, int maxDefinitionLevel,
+      int offset, int count) {
+    PrimitiveComparator<?> comparator = statistics.comparator();
+    writeBatch(repetitionLevels, definitionLevels, maxDefinitionLevel, offset, count,
+        i -> dataColumn.writeInteger(values[i]),
+        i -> BlockSplitBloomFilter.hash(values[i]),
+        (i, j) -> comparator.compare(values[i], values[j]),
+        i -> statistics.updateStats(values[i]));
+  }
+
+  @Override
+  public void writeLongs(long[] values, int[] repetitionLevels, int[] definitionLevels, int maxDefinitionLevel,
+      int offset, int count) {
+    PrimitiveComparator<?> comparator = statistics.comparator();
+    writeBatch(repetitionLevels, definitionLevels, maxDefinitionLevel, offset, count,
+        i -> dataColumn.writeLong(values[i]),
+        i -> BlockSplitBloomFilter.hash(values[i]),
+        (i, j) -> comparator.compare(values[i], values[j]),
+        i -> statistics.updateStats(values[i]));
+  }
+
+  @Override
+  public void writeFloats(float[] values, int[] repetitionLevels, int[] definitionLevels, int maxDefinitionLevel,
+      int offset, int count) {
+    PrimitiveComparator<?> comparator = statistics.comparator();
+    writeBatch(repetitionLevels, definitionLevels, maxDefinitionLevel, offset, count,
+        i -> dataColumn.writeFloat(values[i]),
+        i -> BlockSplitBloomFilter.hash(values[i]),
+        (i, j) -> comparator.compare(values[i], values[j]),
+        i -> statistics.updateStats(values[i]));
+  }
+
+  @Override
+  public void writeDoubles(double[] values, int[] repetitionLevels, int[] definitionLevels, int maxDefinitionLevel,
+      int offset, int count) {
+    PrimitiveComparator<?> comparator = statistics.comparator();
+    writeBatch(repetitionLevels, definitionLevels, maxDefinitionLevel, offset, count,
+        i -> dataColumn.writeDouble(values[i]),
+        i -> BlockSplitBloomFilter.hash(values[i]),
+        (i, j) -> comparator.compare(values[i], values[j]),
+        i -> statistics.updateStats(values[i]));
+  }
+
+  @Override
+  public void writeBooleans(boolean[] values, int[] repetitionLevels, int[] definitionLevels, int maxDefinitionLevel,
+      int offset, int count) {
+    PrimitiveComparator<?> comparator = statistics.comparator();
+    writeBatch(repetitionLevels, definitionLevels, maxDefinitionLevel, offset, count,
+        i -> dataColumn.writeBoolean(values[i]),
+        null,
+        (i, j) -> comparator.compare(values[i], values[j]),
+        i -> statistics.updateStats(values[i]));
+  }
+
+  @Override
+  public void writeBinaries(Binary[] values, int[] repetitionLevels, int[] definitionLevels, int maxDefinitionLevel,
+      int offset, int count) {
+    PrimitiveComparator<Binary> comparator = path.getPrimitiveType().comparator();
+    writeBatch(repetitionLevels, definitionLevels, maxDefinitionLevel, offset, count,
+        i -> dataColumn.writeBytes(values[i]),
+        i -> BlockSplitBloomFilter.hash(values[i]),
+        (i, j) -> comparator.compare(values[i], values[j]),
+        i -> statistics.updateStats(values[i]));
+  }
+
+  /**
+   * Writes a batch of entries; the typed values are accessed by their indexes through the specified functions. The
+   * statistics are updated with the min and max values of the batch only.
+   *
+   * @param write writes the value at the index to the data column
+   * @param hash the hash of the value at the index for the Bloom filter; {@code null} if the type has no Bloom filter
+   * @param compare compares the values at the indexes by the order of the column
+   * @param updateStats updates the statistics with the value at the index
+   */
+  private void writeBatch(int[] repetitionLevels, int[] definitionLevels, int maxDefinitionLevel, int offset,
+      int count, IntConsumer write, IntToLongFunction hash, IntBinaryOperator compare, IntConsumer updateStats) {
+    if (writeLevels(repetitionLevels, definitionLevels, maxDefinitionLevel, offset, count) == 0) {
+      return;
+    }
+    BlockSplitBloomFilter filter = hash == null ? null : bloomFilter;
+    int min = -1;
+    int max = -1;
+    for (int i = offset, end = offset + count; i < end; ++i) {
+      if (definitionLevels == null || definitionLevels[i] == maxDefinitionLevel) {
+        write.accept(i);
+        if (filter != null) {
+          filter.insertHash(hash.applyAsLong(i));
+        }
+        // the values are compared by their indexes; only the final min and max ones are copied by the statistics
+        if (min < 0) {
+          min = max = i;
+        } else if (compare.applyAsInt(i, min) < 0) {
+          min = i;
+        } else if (compare.applyAsInt(i, max) > 0) {
+          max = i;
+        }
+      }
+    }
+    updateStats.accept(min);
+    updateStats.accept(max);
+  }
+
+  // writes the levels of a batch of entries and returns the number of the entries having a value; the statistics are
+  // updated with the nulls and the values are left to the caller
+  private int writeLevels(int[] repetitionLevels, int[] definitionLevels, int maxDefinitionLevel, int offset,
+      int count) {
+    checkArgument(maxDefinitionLevel == path.getMaxDefinitionLevel(), "Invalid maximum definition level %s for %s",
+        maxDefinitionLevel, path);
+    if (DEBUG)
+      LOG.debug("{} batch of {} entries", path, count);
+    int end = offset + count;
+    if (repetitionLevels == null) {
+      for (int i = offset; i < end; ++i) {
+        repetitionLevelColumn.writeInteger(0);
+      }
+      pageRowCount += count;
+    } else {
+      for (int i = offset; i < end; ++i) {
+        repetitionLevel(repetitionLevels[i]);
+      }
+    }
+    valueCount += count;
+    if (definitionLevels == null) {
+      for (int i = offset; i < end; ++i) {
+        definitionLevelColumn.writeInteger(maxDefinitionLevel);
+      }
+      return count;
+    }
+    int defined = 0;
+    for (int i = offset; i < end; ++i) {
+      int definitionLevel = definitionLevels[i];
+      definitionLevelColumn.writeInteger(definitionLevel);
+      if (definitionLevel == maxDefinitionLevel) {
+        ++defined;
+      }
+    }
+    statistics.incrementNumNulls(count - defined);
+    return defined;
+  }
+
   /**
    * Finalizes the Column chunk. Possibly adding extra pages if needed (dictionary, ...)
    * Is called right after writePage
@@ -246,6 +418,9 @@ abstract class ColumnWriterBase implements ColumnWriter {
       }
       dataColumn.resetDictionary();
     }
+    if (bloomFilter != null) {
+      pageWriter.writeBloomFilter(bloomFilter);
+    }
   }
 
   /**
@@ -23,6 +23,7 @@ import java.io.IOException;
 import org.apache.parquet.bytes.BytesInput;
 import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
 
 /**
  * a writer for all the pages of a given column chunk
@@ -93,6 +94,15 @@ public interface PageWriter {
    */
   void writeDictionaryPage(DictionaryPage dictionaryPage) throws IOException;
 
+  /**
+   * Sets the Bloom filter of the values of the column chunk. It is called once the pages have been written. The
+   * writers not supporting Bloom filters ignore it.
+   *
+   * @param bloomFilter the Bloom filter of the column chunk
+   */
+  default void writeBloomFilter(BlockSplitBloomFilter bloomFilter) {
+  }
+
   /**
    * @param prefix a prefix header to add at every line
    * @return a string presenting a summary of how memory is used
@@ -48,4 +48,12 @@ public interface RequiresFallback {
    */
   void fallBackAllValuesTo(ValuesWriter writer);
 
+  /**
+   * Used by the adaptive mode of the fallback to estimate the cardinality of the values from a sample of the first ones
+   * @return the number of distinct values written so far; the values are assumed to be all distinct if it is unknown
+   */
+  default int getDistinctValueCount() {
+    return Integer.MAX_VALUE;
+  }
+
 }
@@ -185,6 +185,90 @@ public abstract class ValuesReader {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Reads the next {@code length} dictionary ids from the page. Implementations may override it to decode the values in
+   * bulk; by default, {@link #readValueDictionaryId()} is invoked for each value.
+   *
+   * @param values the array to store the dictionary ids in
+   * @param offset the index of the array to store the first value at
+   * @param length the number of values to read
+   */
+  public void readDictionaryIds(int[] values, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = readValueDictionaryId();
+    }
+  }
+
+  /**
+   * Reads the next {@code length} booleans from the page. Implementations may override it to decode the values in
+   * bulk; by default, {@link #readBoolean()} is invoked for each value.
+   *
+   * @param values the array to store the booleans in
+   * @param offset the index of the array to store the first value at
+   * @param length the number of values to read
+   */
+  public void readBooleans(boolean[] values, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = readBoolean();
+    }
+  }
+
+  /**
+   * Reads the next {@code length} floats from the page. Implementations may override it to decode the values in
+   * bulk; by default, {@link #readFloat()} is invoked for each value.
+   *
+   * @param values the array to store the floats in
+   * @param offset the index of the array to store the first value at
+   * @param length the number of values to read
+   */
+  public void readFloats(float[] values, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = readFloat();
+    }
+  }
+
+  /**
+   * Reads the next {@code length} doubles from the page. Implementations may override it to decode the values in
+   * bulk; by default, {@link #readDouble()} is invoked for each value.
+   *
+   * @param values the array to store the doubles in
+   * @param offset the index of the array to store the first value at
+   * @param length the number of values to read
+   */
+  public void readDoubles(double[] values, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = readDouble();
+    }
+  }
+
+  /**
+   * Reads the next {@code length} integers from the page. Implementations may override it to decode the values in
+   * bulk; by default, {@link #readInteger()} is invoked for each value.
+   *
+   * @param values the array to store the integers in
+   * @param offset the index of the array to store the first value at
+   * @param length the number of values to read
+   */
+  public void readIntegers(int[] values, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = readInteger();
+    }
+  }
+
+  /**
+   * Reads the next {@code length} longs from the page. Implementations may override it to decode the values in
+   * bulk; by default, {@link #readLong()} is invoked for each value.
+   *
+   * @param values the array to store the longs in
+   * @param offset the index of the array to store the first value at
+   * @param length the number of values to read
+   */
+  public void readLongs(long[] values, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = readLong();
+    }
+  }
+
   /**
    * Skips the next value in the page
    */
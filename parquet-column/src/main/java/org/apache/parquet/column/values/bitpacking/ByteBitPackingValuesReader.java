@@ -67,6 +67,27 @@ public class ByteBitPackingValuesReader extends ValuesReader {
     return decoded[decodedPosition];
   }
 
+  @Override
+  public void readIntegers(int[] values, int offset, int length) {
+    int end = offset + length;
+    while (offset < end && decodedPosition < VALUES_AT_A_TIME - 1) {
+      values[offset++] = decoded[++decodedPosition];
+    }
+    // the complete groups are unpacked directly into the array
+    try {
+      while (end - offset >= VALUES_AT_A_TIME && in.available() >= bitWidth) {
+        ByteBuffer encoded = in.slice(bitWidth);
+        packer.unpack8Values(encoded, encoded.position(), values, offset);
+        offset += VALUES_AT_A_TIME;
+      }
+    } catch (IOException e) {
+      throw new ParquetDecodingException("Failed to read packed values", e);
+    }
+    while (offset < end) {
+      values[offset++] = readInteger();
+    }
+  }
+
   @Override
   public void initFromPage(int valueCount, ByteBufferInputStream stream)
       throws IOException {
@@ -88,4 +109,24 @@ public class ByteBitPackingValuesReader extends ValuesReader {
     readInteger();
   }
 
+  @Override
+  public void skip(int n) {
+    while (n > 0 && decodedPosition < VALUES_AT_A_TIME - 1) {
+      ++decodedPosition;
+      --n;
+    }
+    int groups = n / VALUES_AT_A_TIME;
+    if (bitWidth > 0) {
+      groups = Math.min(groups, in.available() / bitWidth);
+    }
+    try {
+      in.skipFully((long) groups * bitWidth);
+    } catch (IOException e) {
+      throw new ParquetDecodingException("Failed to skip packed values", e);
+    }
+    for (n -= groups * VALUES_AT_A_TIME; n > 0; --n) {
+      readInteger();
+    }
+  }
+
 }
@@ -0,0 +1,228 @@
+/* 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.values.bloomfilter;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.apache.parquet.Preconditions;
+import org.apache.parquet.bytes.BytesUtils;
+import org.apache.parquet.io.ParquetDecodingException;
+import org.apache.parquet.io.api.Binary;
+
+/**
+ * A split block Bloom filter of the values of a column chunk. The bitset is divided into blocks of 256 bits; a value
+ * sets one bit in each of the eight 32-bit words of the block selected by the upper half of its hash. Checking a value
+ * touches a single block so it costs one cache miss at most.
+ * <p>
+ * The values are hashed by {@link #hash(int)} and the overloads to be inserted and found. The filter is serialized as
+ * the length of the bitset in bytes followed by the bitset, both little-endian.
+ * <p>
+ * The serialized form has no {@code BloomFilterHeader} of the Parquet specification; the writers of this library
+ * store the offset and the length of the filters in the {@code key_value_metadata} of the column chunks instead of
+ * {@code bloom_filter_offset}. The filters are neither read by other implementations nor read from their files.
+ */
+public class BlockSplitBloomFilter {
+
+  public static final int BYTES_PER_BLOCK = 32;
+  public static final int MINIMUM_BYTES = BYTES_PER_BLOCK;
+  public static final int DEFAULT_MAXIMUM_BYTES = 1024 * 1024;
+  public static final int MAXIMUM_BYTES = 128 * 1024 * 1024;
+
+  private static final int WORDS_PER_BLOCK = 8;
+  // the salts of the words of a block as defined by the Parquet specification
+  private static final int[] SALT = {
+      0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d, 0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31 };
+
+  private final int[] bitset;
+  private final long blockCount;
+
+  /**
+   * @param numBytes the size of the bitset; it is rounded up to a power of 2 and to {@link #MINIMUM_BYTES}
+   */
+  public BlockSplitBloomFilter(int numBytes) {
+    this(new int[roundUp(numBytes) / 4]);
+  }
+
+  private BlockSplitBloomFilter(int[] bitset) {
+    this.bitset = bitset;
+    this.blockCount = bitset.length / WORDS_PER_BLOCK;
+  }
+
+  private static int roundUp(int numBytes) {
+    Preconditions.checkArgument(numBytes > 0 && numBytes <= MAXIMUM_BYTES, "Invalid Bloom filter size: %s", numBytes);
+    return Math.max(MINIMUM_BYTES, Integer.highestOneBit(numBytes - 1) << 1);
+  }
+
+  /**
+   * Computes the size of a bitset to keep the false positive probability for the specified number of distinct values.
+   *
+   * @param ndv the expected number of distinct values
+   * @param fpp the expected false positive probability
+   * @param maxBytes the maximum size of the bitset
+   * @return the size of the bitset in bytes
+   */
+  public static int optimalNumOfBytes(long ndv, double fpp, int maxBytes) {
+    Preconditions.checkArgument(fpp > 0.0 && fpp < 1.0, "Invalid false positive probability: %s", fpp);
+    double bits = -WORDS_PER_BLOCK * ndv / Math.log(1 - Math.pow(fpp, 1.0 / WORDS_PER_BLOCK));
+    double bytes = Math.ceil(bits / 8);
+    if (bytes >= Math.min(maxBytes, MAXIMUM_BYTES)) {
+      // the largest power of 2 within the limit
+      return Math.max(MINIMUM_BYTES, Integer.highestOneBit(Math.min(maxBytes, MAXIMUM_BYTES)));
+    }
+    return roundUp(Math.max(1, (int) bytes));
+  }
+
+  /**
+   * @return the size of the bitset in bytes
+   */
+  public int getBitsetSize() {
+    return bitset.length * 4;
+  }
+
+  public void insertHash(long hash) {
+    int block = blockOffset(hash);
+    int key = (int) hash;
+    for (int i = 0; i < WORDS_PER_BLOCK; ++i) {
+      bitset[block + i] |= 1 << ((key * SALT[i]) >>> 27);
+    }
+  }
+
+  /**
+   * @param hash the hash of a value
+   * @return {@code false} if the value is certainly not in the filter; {@code true} if it might be
+   */
+  public boolean findHash(long hash) {
+    int block = blockOffset(hash);
+    int key = (int) hash;
+    for (int i = 0; i < WORDS_PER_BLOCK; ++i) {
+      if ((bitset[block + i] & (1 << ((key * SALT[i]) >>> 27))) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int blockOffset(long hash) {
+    return (int) (((hash >>> 32) * blockCount) >>> 32) * WORDS_PER_BLOCK;
+  }
+
+  public static long hash(int value) {
+    return XxHash.hash(value);
+  }
+
+  public static long hash(long value) {
+    return XxHash.hash(value);
+  }
+
+  public static long hash(float value) {
+    return XxHash.hash(Float.floatToIntBits(value));
+  }
+
+  public static long hash(double value) {
+    return XxHash.hash(Double.doubleToLongBits(value));
+  }
+
+  public static long hash(Binary value) {
+    ByteBuffer buffer = value.toByteBuffer();
+    if (buffer.hasArray()) {
+      return XxHash.hash(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    }
+    byte[] bytes = value.getBytes();
+    return XxHash.hash(bytes, 0, bytes.length);
+  }
+
+  /**
+   * @param value a value of a filter predicate
+   * @return the hash of the value
+   * @throws IllegalArgumentException if the values of the type cannot be inserted into Bloom filters
+   */
+  public static long hash(Object value) {
+    if (value instanceof Integer) {
+      return hash((int) (Integer) value);
+    } else if (value instanceof Long) {
+      return hash((long) (Long) value);
+    } else if (value instanceof Float) {
+      return hash((float) (Float) value);
+    } else if (value instanceof Double) {
+      return hash((double) (Double) value);
+    } else if (value instanceof Binary) {
+      return hash((Binary) value);
+    }
+    throw new IllegalArgumentException("Cannot hash values of " + value.getClass() + " for Bloom filters");
+  }
+
+  public void writeTo(OutputStream out) throws IOException {
+    BytesUtils.writeIntLittleEndian(out, getBitsetSize());
+    byte[] bytes = new byte[getBitsetSize()];
+    for (int i = 0; i < bitset.length; ++i) {
+      int word = bitset[i];
+      bytes[i * 4] = (byte) word;
+      bytes[i * 4 + 1] = (byte) (word >>> 8);
+      bytes[i * 4 + 2] = (byte) (word >>> 16);
+      bytes[i * 4 + 3] = (byte) (word >>> 24);
+    }
+    out.write(bytes);
+  }
+
+  /**
+   * @param in the stream positioned at the start of a serialized filter
+   * @return the filter
+   * @throws IOException if the filter cannot be read
+   */
+  public static BlockSplitBloomFilter readFrom(InputStream in) throws IOException {
+    return readFrom(in, 4 + MAXIMUM_BYTES);
+  }
+
+  /**
+   * @param in the stream positioned at the start of a serialized filter
+   * @param length the length of the serialized filter as referenced by the metadata
+   * @return the filter
+   * @throws IOException if the filter cannot be read
+   * @throws ParquetDecodingException if the size of the bitset is invalid or does not fit into the length
+   */
+  public static BlockSplitBloomFilter readFrom(InputStream in, int length) throws IOException {
+    int numBytes = BytesUtils.readIntLittleEndian(in);
+    // the size comes from the file so it is checked before anything is allocated for it
+    if (numBytes < MINIMUM_BYTES || numBytes > MAXIMUM_BYTES || numBytes % BYTES_PER_BLOCK != 0
+        || numBytes > length - 4) {
+      throw new ParquetDecodingException("Invalid Bloom filter size: " + numBytes + " (length: " + length + ")");
+    }
+    byte[] bytes = new byte[numBytes];
+    readFully(in, bytes);
+    int[] bitset = new int[numBytes / 4];
+    ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(bitset);
+    return new BlockSplitBloomFilter(bitset);
+  }
+
+  private static void readFully(InputStream in, byte[] bytes) throws IOException {
+    int offset = 0;
+    while (offset < bytes.length) {
+      int read = in.read(bytes, offset, bytes.length - offset);
+      if (read < 0) {
+        throw new EOFException("Reached the end of stream with " + (bytes.length - offset) + " bytes left to read");
+      }
+      offset += read;
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/* 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.values.bloomfilter;
+
+/**
+ * The 64-bit variant of the xxHash algorithm with a seed of 0 as required for the hash of the values inserted into
+ * the Bloom filters. The values are hashed by their plain encoding: the numbers as little-endian bytes and the
+ * binaries as their bytes without their length.
+ */
+final class XxHash {
+
+  private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+  private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+  private static final long PRIME64_3 = 0x165667B19E3779F9L;
+  private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+  private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+  private XxHash() {
+  }
+
+  static long hash(int value) {
+    long hash = PRIME64_5 + 4;
+    hash ^= (value & 0xFFFFFFFFL) * PRIME64_1;
+    hash = Long.rotateLeft(hash, 23) * PRIME64_2 + PRIME64_3;
+    return avalanche(hash);
+  }
+
+  static long hash(long value) {
+    long hash = PRIME64_5 + 8;
+    hash ^= round(0, value);
+    hash = Long.rotateLeft(hash, 27) * PRIME64_1 + PRIME64_4;
+    return avalanche(hash);
+  }
+
+  static long hash(byte[] bytes, int offset, int length) {
+    int end = offset + length;
+    int i = offset;
+    long hash;
+    if (length >= 32) {
+      long v1 = PRIME64_1 + PRIME64_2;
+      long v2 = PRIME64_2;
+      long v3 = 0;
+      long v4 = -PRIME64_1;
+      for (int limit = end - 32; i <= limit; i += 32) {
+        v1 = round(v1, readLong(bytes, i));
+        v2 = round(v2, readLong(bytes, i + 8));
+        v3 = round(v3, readLong(bytes, i + 16));
+        v4 = round(v4, readLong(bytes, i + 24));
+      }
+      hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+      hash = mergeRound(hash, v1);
+      hash = mergeRound(hash, v2);
+      hash = mergeRound(hash, v3);
+      hash = mergeRound(hash, v4);
+    } else {
+      hash = PRIME64_5;
+    }
+    hash += length;
+    for (; i <= end - 8; i += 8) {
+      hash ^= round(0, readLong(bytes, i));
+      hash = Long.rotateLeft(hash, 27) * PRIME64_1 + PRIME64_4;
+    }
+    if (i <= end - 4) {
+      hash ^= (readInt(bytes, i) & 0xFFFFFFFFL) * PRIME64_1;
+      hash = Long.rotateLeft(hash, 23) * PRIME64_2 + PRIME64_3;
+      i += 4;
+    }
+    for (; i < end; ++i) {
+      hash ^= (bytes[i] & 0xFFL) * PRIME64_5;
+      hash = Long.rotateLeft(hash, 11) * PRIME64_1;
+    }
+    return avalanche(hash);
+  }
+
+  private static long round(long acc, long input) {
+    return Long.rotateLeft(acc + input * PRIME64_2, 31) * PRIME64_1;
+  }
+
+  private static long mergeRound(long acc, long value) {
+    return (acc ^ round(0, value)) * PRIME64_1 + PRIME64_4;
+  }
+
+  private static long avalanche(long hash) {
+    hash ^= hash >>> 33;
+    hash *= PRIME64_2;
+    hash ^= hash >>> 29;
+    hash *= PRIME64_3;
+    return hash ^ (hash >>> 32);
+  }
+
+  private static long readLong(byte[] bytes, int i) {
+    return (readInt(bytes, i) & 0xFFFFFFFFL) | ((long) readInt(bytes, i + 4) << 32);
+  }
+
+  private static int readInt(byte[] bytes, int i) {
+    return (bytes[i] & 0xFF) | (bytes[i + 1] & 0xFF) << 8 | (bytes[i + 2] & 0xFF) << 16 | (bytes[i + 3] & 0xFF) << 24;
+  }
+}
@@ -110,12 +110,35 @@ public class DeltaBinaryPackingValuesReader extends ValuesReader {
     return valuesBuffer[valuesRead++];
   }
 
+  @Override
+  public void readIntegers(int[] values, int offset, int length) {
+    checkRead(length);
+    for (int i = 0; i < length; ++i) {
+      values[offset + i] = (int) valuesBuffer[valuesRead + i];
+    }
+    valuesRead += length;
+  }
+
+  @Override
+  public void readLongs(long[] values, int offset, int length) {
+    checkRead(length);
+    System.arraycopy(valuesBuffer, valuesRead, values, offset, length);
+    valuesRead += length;
+  }
+
   private void checkRead() {
     if (valuesRead >= totalValueCount) {
       throw new ParquetDecodingException("no more value to read, total value count is " + totalValueCount);
     }
   }
 
+  private void checkRead(int length) {
+    if (length > totalValueCount - valuesRead) {
+      throw new ParquetDecodingException("cannot read " + length + " values, only " + (totalValueCount - valuesRead)
+          + " left of the total value count " + totalValueCount);
+    }
+  }
+
   private void loadNewBlockToBuffer() throws IOException {
     try {
       minDeltaInCurrentBlock = BytesUtils.readZigZagVarLong(in);
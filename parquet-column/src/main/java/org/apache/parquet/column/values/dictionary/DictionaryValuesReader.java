@@ -26,8 +26,7 @@ import org.apache.parquet.bytes.ByteBufferInputStream;
 import org.apache.parquet.bytes.BytesUtils;
 import org.apache.parquet.column.Dictionary;
 import org.apache.parquet.column.values.ValuesReader;
-import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridDecoder;
-import org.apache.parquet.io.ParquetDecodingException;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridBufferDecoder;
 import org.apache.parquet.io.api.Binary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,11 +37,12 @@ import org.slf4j.LoggerFactory;
 public class DictionaryValuesReader extends ValuesReader {
   private static final Logger LOG = LoggerFactory.getLogger(DictionaryValuesReader.class);
 
-  private ByteBufferInputStream in;
-
   private Dictionary dictionary;
 
-  private RunLengthBitPackingHybridDecoder decoder;
+  private RunLengthBitPackingHybridBufferDecoder decoder;
+
+  // the ids decoded by the bulk read methods
+  private int[] idBuffer;
 
   public DictionaryValuesReader(Dictionary dictionary) {
     this.dictionary = dictionary;
@@ -51,83 +51,105 @@ public class DictionaryValuesReader extends ValuesReader {
   @Override
   public void initFromPage(int valueCount, ByteBufferInputStream stream)
       throws IOException {
-    this.in = stream.remainingStream();
-    if (in.available() > 0) {
+    // an empty page has no bit width; reading from it fails as reading past the end of the ids
+    int bitWidth = 1;
+    if (stream.available() > 0) {
       LOG.debug("init from page at offset {} for length {}",
           stream.position(), stream.available());
-      int bitWidth = BytesUtils.readIntLittleEndianOnOneByte(in);
+      bitWidth = BytesUtils.readIntLittleEndianOnOneByte(stream);
       LOG.debug("bit width {}", bitWidth);
-      decoder = new RunLengthBitPackingHybridDecoder(bitWidth, in);
+    }
+    ByteBuffer ids = stream.slice(stream.available());
+    if (decoder == null || decoder.getBitWidth() != bitWidth) {
+      decoder = new RunLengthBitPackingHybridBufferDecoder(bitWidth, ids);
     } else {
-      decoder = new RunLengthBitPackingHybridDecoder(1, in) {
-        @Override
-        public int readInt() throws IOException {
-          throw new IOException("Attempt to read from empty page");
-        }
-      };
+      decoder.init(ids);
     }
   }
 
   @Override
   public int readValueDictionaryId() {
-    try {
-      return decoder.readInt();
-    } catch (IOException e) {
-      throw new ParquetDecodingException(e);
-    }
+    return decoder.readInt();
   }
 
   @Override
   public Binary readBytes() {
-    try {
-      return dictionary.decodeToBinary(decoder.readInt());
-    } catch (IOException e) {
-      throw new ParquetDecodingException(e);
-    }
+    return dictionary.decodeToBinary(decoder.readInt());
   }
 
   @Override
   public float readFloat() {
-    try {
-      return dictionary.decodeToFloat(decoder.readInt());
-    } catch (IOException e) {
-      throw new ParquetDecodingException(e);
-    }
+    return dictionary.decodeToFloat(decoder.readInt());
   }
 
   @Override
   public double readDouble() {
-    try {
-      return dictionary.decodeToDouble(decoder.readInt());
-    } catch (IOException e) {
-      throw new ParquetDecodingException(e);
-    }
+    return dictionary.decodeToDouble(decoder.readInt());
   }
 
   @Override
   public int readInteger() {
-    try {
-      return dictionary.decodeToInt(decoder.readInt());
-    } catch (IOException e) {
-      throw new ParquetDecodingException(e);
-    }
+    return dictionary.decodeToInt(decoder.readInt());
   }
 
   @Override
   public long readLong() {
-    try {
-      return dictionary.decodeToLong(decoder.readInt());
-    } catch (IOException e) {
-      throw new ParquetDecodingException(e);
+    return dictionary.decodeToLong(decoder.readInt());
+  }
+
+  @Override
+  public void readDictionaryIds(int[] ids, int offset, int length) {
+    decoder.readInts(ids, offset, length);
+  }
+
+  @Override
+  public void readFloats(float[] values, int offset, int length) {
+    int[] ids = readIds(length);
+    for (int i = 0; i < length; ++i) {
+      values[offset + i] = dictionary.decodeToFloat(ids[i]);
     }
   }
 
   @Override
-  public void skip() {
-    try {
-      decoder.readInt(); // Type does not matter as we are just skipping dictionary keys
-    } catch (IOException e) {
-      throw new ParquetDecodingException(e);
+  public void readDoubles(double[] values, int offset, int length) {
+    int[] ids = readIds(length);
+    for (int i = 0; i < length; ++i) {
+      values[offset + i] = dictionary.decodeToDouble(ids[i]);
     }
   }
+
+  @Override
+  public void readIntegers(int[] values, int offset, int length) {
+    // the ids are decoded in place
+    readDictionaryIds(values, offset, length);
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      values[i] = dictionary.decodeToInt(values[i]);
+    }
+  }
+
+  @Override
+  public void readLongs(long[] values, int offset, int length) {
+    int[] ids = readIds(length);
+    for (int i = 0; i < length; ++i) {
+      values[offset + i] = dictionary.decodeToLong(ids[i]);
+    }
+  }
+
+  private int[] readIds(int length) {
+    if (idBuffer == null || idBuffer.length < length) {
+      idBuffer = new int[length];
+    }
+    readDictionaryIds(idBuffer, 0, length);
+    return idBuffer;
+  }
+
+  @Override
+  public void skip() {
+    decoder.readInt(); // Type does not matter as we are just skipping dictionary keys
+  }
+
+  @Override
+  public void skip(int n) {
+    decoder.skip(n);
+  }
 }
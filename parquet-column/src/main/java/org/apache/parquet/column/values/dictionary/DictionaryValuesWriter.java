@@ -139,6 +139,11 @@ public abstract class DictionaryValuesWriter extends ValuesWriter implements Req
 
   abstract protected void fallBackDictionaryEncodedData(ValuesWriter writer);
 
+  @Override
+  public int getDistinctValueCount() {
+    return getDictionarySize();
+  }
+
   @Override
   public long getBufferedSize() {
     return encodedValues.size() * 4;
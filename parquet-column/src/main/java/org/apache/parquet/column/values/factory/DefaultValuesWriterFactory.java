@@ -23,21 +23,34 @@ import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.column.ParquetProperties.WriterVersion;
 import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.column.values.delta.DeltaBinaryPackingValuesWriterForInteger;
+import org.apache.parquet.column.values.delta.DeltaBinaryPackingValuesWriterForLong;
+import org.apache.parquet.column.values.deltalengthbytearray.DeltaLengthByteArrayValuesWriter;
+import org.apache.parquet.column.values.deltastrings.DeltaByteArrayWriter;
 import org.apache.parquet.column.values.dictionary.DictionaryValuesWriter;
+import org.apache.parquet.column.values.fallback.DictionaryDecisions;
 import org.apache.parquet.column.values.fallback.FallbackValuesWriter;
+import org.apache.parquet.column.values.plain.BooleanPlainValuesWriter;
+import org.apache.parquet.column.values.plain.FixedLenByteArrayPlainValuesWriter;
+import org.apache.parquet.column.values.plain.PlainValuesWriter;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridValuesWriter;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 
 /**
- * Handles ValuesWriter creation statically based on the types of the columns and the writer version.
+ * Handles ValuesWriter creation statically based on the types of the columns and the writer version. The encoding of
+ * the columns may be overridden one by one with {@link ParquetProperties#getEncoding(ColumnDescriptor)}.
  */
 public class DefaultValuesWriterFactory implements ValuesWriterFactory {
 
   private ValuesWriterFactory delegateFactory;
+  private ParquetProperties properties;
 
   private static final ValuesWriterFactory DEFAULT_V1_WRITER_FACTORY = new DefaultV1ValuesWriterFactory();
   private static final ValuesWriterFactory DEFAULT_V2_WRITER_FACTORY = new DefaultV2ValuesWriterFactory();
 
   @Override
   public void initialize(ParquetProperties properties) {
+    this.properties = properties;
     if (properties.getWriterVersion() == WriterVersion.PARQUET_1_0) {
       delegateFactory = DEFAULT_V1_WRITER_FACTORY;
     } else {
@@ -49,7 +62,68 @@ public class DefaultValuesWriterFactory implements ValuesWriterFactory {
 
   @Override
   public ValuesWriter newValuesWriter(ColumnDescriptor descriptor) {
-    return delegateFactory.newValuesWriter(descriptor);
+    Encoding encoding = properties.getEncoding(descriptor);
+    if (encoding == null) {
+      return delegateFactory.newValuesWriter(descriptor);
+    }
+    ValuesWriter writer = valuesWriter(descriptor, properties, encoding);
+    PrimitiveTypeName type = descriptor.getType();
+    if (type == PrimitiveTypeName.BOOLEAN) {
+      // no dictionary encoding for boolean
+      return writer;
+    }
+    if (properties.getWriterVersion() == WriterVersion.PARQUET_1_0) {
+      if (type == PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY) {
+        // dictionary encoding was not enabled in PARQUET 1.0
+        return writer;
+      }
+      return dictWriterWithFallBack(descriptor, properties, Encoding.PLAIN_DICTIONARY, Encoding.PLAIN_DICTIONARY, writer);
+    }
+    return dictWriterWithFallBack(descriptor, properties, Encoding.PLAIN, Encoding.RLE_DICTIONARY, writer);
+  }
+
+  static ValuesWriter valuesWriter(ColumnDescriptor path, ParquetProperties properties, Encoding encoding) {
+    PrimitiveTypeName type = path.getType();
+    int slabSize = properties.getInitialSlabSize();
+    int pageSize = properties.getPageSizeThreshold(path);
+    switch (encoding) {
+      case PLAIN:
+        switch (type) {
+          case BOOLEAN:
+            return new BooleanPlainValuesWriter();
+          case INT96:
+            return new FixedLenByteArrayPlainValuesWriter(12, slabSize, pageSize, properties.getAllocator());
+          case FIXED_LEN_BYTE_ARRAY:
+            return new FixedLenByteArrayPlainValuesWriter(path.getTypeLength(), slabSize, pageSize, properties.getAllocator());
+          default:
+            return new PlainValuesWriter(slabSize, pageSize, properties.getAllocator());
+        }
+      case RLE:
+        if (type == PrimitiveTypeName.BOOLEAN) {
+          return new RunLengthBitPackingHybridValuesWriter(1, slabSize, pageSize, properties.getAllocator());
+        }
+        break;
+      case DELTA_BINARY_PACKED:
+        if (type == PrimitiveTypeName.INT32) {
+          return new DeltaBinaryPackingValuesWriterForInteger(slabSize, pageSize, properties.getAllocator());
+        } else if (type == PrimitiveTypeName.INT64) {
+          return new DeltaBinaryPackingValuesWriterForLong(slabSize, pageSize, properties.getAllocator());
+        }
+        break;
+      case DELTA_LENGTH_BYTE_ARRAY:
+        if (type == PrimitiveTypeName.BINARY) {
+          return new DeltaLengthByteArrayValuesWriter(slabSize, pageSize, properties.getAllocator());
+        }
+        break;
+      case DELTA_BYTE_ARRAY:
+        if (type == PrimitiveTypeName.BINARY || type == PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY) {
+          return new DeltaByteArrayWriter(slabSize, pageSize, properties.getAllocator());
+        }
+        break;
+      default:
+        break;
+    }
+    throw new IllegalArgumentException("Encoding " + encoding + " is not supported for column " + path);
   }
 
   static DictionaryValuesWriter dictionaryWriter(ColumnDescriptor path, ParquetProperties properties, Encoding dictPageEncoding, Encoding dataPageEncoding) {
@@ -76,11 +150,22 @@ public class DefaultValuesWriterFactory implements ValuesWriterFactory {
   }
 
   static ValuesWriter dictWriterWithFallBack(ColumnDescriptor path, ParquetProperties parquetProperties, Encoding dictPageEncoding, Encoding dataPageEncoding, ValuesWriter writerToFallBackTo) {
-    if (parquetProperties.isEnableDictionary()) {
+    if (!parquetProperties.isDictionaryEnabled(path)) {
+      return writerToFallBackTo;
+    }
+    DictionaryDecisions decisions = parquetProperties.getDictionaryDecisions();
+    Boolean useDictionary = decisions == null ? null : decisions.useDictionary(path);
+    if (useDictionary == null) {
+      // samples the first values in the adaptive mode until the column is decided
+      return FallbackValuesWriter.of(
+        dictionaryWriter(path, parquetProperties, dictPageEncoding, dataPageEncoding),
+        writerToFallBackTo, decisions, path);
+    } else if (useDictionary) {
       return FallbackValuesWriter.of(
         dictionaryWriter(path, parquetProperties, dictPageEncoding, dataPageEncoding),
         writerToFallBackTo);
     } else {
+      // a previous row group found the column not worth a dictionary
       return writerToFallBackTo;
     }
   }
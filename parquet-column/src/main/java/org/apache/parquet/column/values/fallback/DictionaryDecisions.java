@@ -0,0 +1,83 @@
+/* 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.values.fallback;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.parquet.column.ColumnDescriptor;
+
+/**
+ * The decisions of the adaptive dictionary mode of a writer. Whether the dictionary encoding is worth it for a column
+ * is estimated from the cardinality of a sample of its first values: a column having too many distinct values in the
+ * sample falls back right away. The decisions are kept for the later row groups of the writer so their columns are
+ * written by the fallback writer from the first value without hashing them into a dictionary first.
+ *
+ * @see FallbackValuesWriter
+ */
+public class DictionaryDecisions {
+
+  private final int sampleSize;
+  private final double maxDistinctRatio;
+  private final Map<ColumnDescriptor, Boolean> decisions = new ConcurrentHashMap<>();
+
+  /**
+   * @param sampleSize the number of values the decision is based on
+   * @param maxDistinctRatio the maximum ratio of the distinct values in the sample for the dictionary encoding to be
+   *                         used
+   */
+  public DictionaryDecisions(int sampleSize, double maxDistinctRatio) {
+    this.sampleSize = sampleSize;
+    this.maxDistinctRatio = maxDistinctRatio;
+  }
+
+  public int getSampleSize() {
+    return sampleSize;
+  }
+
+  /**
+   * @param column the column
+   * @return whether the column shall be dictionary encoded or {@code null} if it is not decided yet
+   */
+  public Boolean useDictionary(ColumnDescriptor column) {
+    return decisions.get(column);
+  }
+
+  /**
+   * Decides on the encoding of a column from the cardinality of its sample.
+   *
+   * @param column the column
+   * @param distinctValues the number of distinct values in the sample
+   * @return whether the column shall be dictionary encoded
+   */
+  boolean decide(ColumnDescriptor column, int distinctValues) {
+    boolean useDictionary = distinctValues <= sampleSize * maxDistinctRatio;
+    decisions.put(column, useDictionary);
+    return useDictionary;
+  }
+
+  /**
+   * Records that a column fell back to the fallback encoding before its sample was complete.
+   *
+   * @param column the column
+   */
+  void fellBack(ColumnDescriptor column) {
+    decisions.put(column, false);
+  }
+}
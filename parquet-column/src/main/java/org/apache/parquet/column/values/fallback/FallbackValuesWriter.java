@@ -19,6 +19,7 @@
 package org.apache.parquet.column.values.fallback;
 
 import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.page.DictionaryPage;
 import org.apache.parquet.column.values.RequiresFallback;
@@ -31,6 +32,10 @@ public class FallbackValuesWriter<I extends ValuesWriter & RequiresFallback, F e
     return new FallbackValuesWriter<I, F>(initialWriter, fallBackWriter);
   }
 
+  public static <I extends ValuesWriter & RequiresFallback, F extends ValuesWriter> FallbackValuesWriter<I, F> of(I initialWriter, F fallBackWriter, DictionaryDecisions decisions, ColumnDescriptor column) {
+    return new FallbackValuesWriter<I, F>(initialWriter, fallBackWriter, decisions, column);
+  }
+
   /** writer to start with */
   public final I initialWriter;
   /** fallback */
@@ -52,11 +57,33 @@ public class FallbackValuesWriter<I extends ValuesWriter & RequiresFallback, F e
   /** indicates if this is the first page being processed */
   private boolean firstPage = true;
 
+  /** the decisions of the adaptive mode to record the one of this column into; null if not sampling */
+  private final DictionaryDecisions decisions;
+  private final ColumnDescriptor column;
+  /** the number of values still to be written before deciding from the sample; 0 once decided */
+  private int valuesToSample;
+
   public FallbackValuesWriter(I initialWriter, F fallBackWriter) {
+    this(initialWriter, fallBackWriter, null, null);
+  }
+
+  /**
+   * Creates a writer in the adaptive mode: after the sample of the first values the initial writer is abandoned if the
+   * sample holds too many distinct values. The decision is recorded for the later column chunks of the column.
+   *
+   * @param initialWriter the writer to start with
+   * @param fallBackWriter the writer to fall back to
+   * @param decisions the decisions to record the one of the column into; {@code null} not to sample the values
+   * @param column the column written
+   */
+  public FallbackValuesWriter(I initialWriter, F fallBackWriter, DictionaryDecisions decisions, ColumnDescriptor column) {
     super();
     this.initialWriter = initialWriter;
     this.fallBackWriter = fallBackWriter;
     this.currentWriter = initialWriter;
+    this.decisions = decisions;
+    this.column = column;
+    this.valuesToSample = decisions == null ? 0 : decisions.getSampleSize();
   }
 
   @Override
@@ -143,12 +170,22 @@ public class FallbackValuesWriter<I extends ValuesWriter & RequiresFallback, F e
   }
 
   private void checkFallback() {
-    if (!fellBackAlready && initialWriter.shouldFallBack()) {
-      fallBack();
+    if (!fellBackAlready) {
+      if (initialWriter.shouldFallBack()) {
+        fallBack();
+      } else if (valuesToSample > 0 && --valuesToSample == 0
+          && !decisions.decide(column, initialWriter.getDistinctValueCount())) {
+        fallBack();
+      }
     }
   }
 
   private void fallBack() {
+    if (valuesToSample > 0) {
+      // fell back before the end of the sample; no point in trying again in the next column chunks
+      valuesToSample = 0;
+      decisions.fellBack(column);
+    }
     fellBackAlready = true;
     initialWriter.fallBackAllValuesTo(fallBackWriter);
     currentWriter = fallBackWriter;
@@ -35,6 +35,8 @@ public class BooleanPlainValuesReader extends ValuesReader {
   private static final Logger LOG = LoggerFactory.getLogger(BooleanPlainValuesReader.class);
 
   private ByteBitPackingValuesReader in = new ByteBitPackingValuesReader(1, LITTLE_ENDIAN);
+  // reused by readBooleans
+  private int[] buffer;
 
   /**
    *
@@ -55,6 +57,22 @@ public class BooleanPlainValuesReader extends ValuesReader {
     in.readInteger();
   }
 
+  @Override
+  public void readBooleans(boolean[] values, int offset, int length) {
+    if (buffer == null || buffer.length < length) {
+      buffer = new int[length];
+    }
+    in.readIntegers(buffer, 0, length);
+    for (int i = 0; i < length; ++i) {
+      values[offset + i] = buffer[i] != 0;
+    }
+  }
+
+  @Override
+  public void skip(int n) {
+    in.skip(n);
+  }
+
   /**
    * {@inheritDoc}
    * @see org.apache.parquet.column.values.ValuesReader#initFromPage(int, ByteBufferInputStream)
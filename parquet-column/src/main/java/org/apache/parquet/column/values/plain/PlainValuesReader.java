@@ -19,6 +19,9 @@
 package org.apache.parquet.column.values.plain;
 
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import org.apache.parquet.bytes.ByteBufferInputStream;
 import org.apache.parquet.bytes.LittleEndianDataInputStream;
@@ -29,16 +32,27 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Plain encoding for float, double, int, long
+ * <p>
+ * The values are read from a little endian {@link ByteBuffer} view of the page so the bulk read methods copy them
+ * without decoding one by one.
  */
 abstract public class PlainValuesReader extends ValuesReader {
   private static final Logger LOG = LoggerFactory.getLogger(PlainValuesReader.class);
 
+  /**
+   * @deprecated the values are read from a {@link ByteBuffer} view of the page; this stream is only initialized over
+   *             the same bytes for subclasses still relying on it. Will be removed in 2.0.0
+   */
+  @Deprecated
   protected LittleEndianDataInputStream in;
 
+  ByteBuffer buffer;
+
   @Override
   public void initFromPage(int valueCount, ByteBufferInputStream stream) throws IOException {
     LOG.debug("init from page at offset {} for length {}", stream.position(), stream.available());
-    this.in = new LittleEndianDataInputStream(stream.remainingStream());
+    this.buffer = stream.slice(stream.available()).order(ByteOrder.LITTLE_ENDIAN);
+    this.in = new LittleEndianDataInputStream(ByteBufferInputStream.wrap(buffer.duplicate()));
   }
 
   @Override
@@ -47,9 +61,16 @@ abstract public class PlainValuesReader extends ValuesReader {
   }
 
   void skipBytesFully(int n) throws IOException {
-    int skipped = 0;
-    while (skipped < n) {
-      skipped += in.skipBytes(n - skipped);
+    if (n > buffer.remaining()) {
+      throw new IOException("Not enough bytes to skip: " + buffer.remaining() + " < " + n);
+    }
+    buffer.position(buffer.position() + n);
+  }
+
+  void checkRemaining(int length, int valueSize, String type) {
+    if ((long) length * valueSize > buffer.remaining()) {
+      throw new ParquetDecodingException("could not read " + length + " " + type + ", only "
+          + buffer.remaining() / valueSize + " left in the page");
     }
   }
 
@@ -67,11 +88,18 @@ abstract public class PlainValuesReader extends ValuesReader {
     @Override
     public double readDouble() {
       try {
-        return in.readDouble();
-      } catch (IOException e) {
+        return buffer.getDouble();
+      } catch (BufferUnderflowException e) {
         throw new ParquetDecodingException("could not read double", e);
       }
     }
+
+    @Override
+    public void readDoubles(double[] values, int offset, int length) {
+      checkRemaining(length, 8, "doubles");
+      buffer.asDoubleBuffer().get(values, offset, length);
+      buffer.position(buffer.position() + length * 8);
+    }
   }
 
   public static class FloatPlainValuesReader extends PlainValuesReader {
@@ -88,11 +116,18 @@ abstract public class PlainValuesReader extends ValuesReader {
     @Override
     public float readFloat() {
       try {
-        return in.readFloat();
-      } catch (IOException e) {
+        return buffer.getFloat();
+      } catch (BufferUnderflowException e) {
         throw new ParquetDecodingException("could not read float", e);
       }
     }
+
+    @Override
+    public void readFloats(float[] values, int offset, int length) {
+      checkRemaining(length, 4, "floats");
+      buffer.asFloatBuffer().get(values, offset, length);
+      buffer.position(buffer.position() + length * 4);
+    }
   }
 
   public static class IntegerPlainValuesReader extends PlainValuesReader {
@@ -100,7 +135,7 @@ abstract public class PlainValuesReader extends ValuesReader {
     @Override
     public void skip(int n) {
       try {
-        in.skipBytes(n * 4);
+        skipBytesFully(n * 4);
       } catch (IOException e) {
         throw new ParquetDecodingException("could not skip " + n + " ints", e);
       }
@@ -109,11 +144,18 @@ abstract public class PlainValuesReader extends ValuesReader {
     @Override
     public int readInteger() {
       try {
-        return in.readInt();
-      } catch (IOException e) {
+        return buffer.getInt();
+      } catch (BufferUnderflowException e) {
         throw new ParquetDecodingException("could not read int", e);
       }
     }
+
+    @Override
+    public void readIntegers(int[] values, int offset, int length) {
+      checkRemaining(length, 4, "ints");
+      buffer.asIntBuffer().get(values, offset, length);
+      buffer.position(buffer.position() + length * 4);
+    }
   }
 
   public static class LongPlainValuesReader extends PlainValuesReader {
@@ -121,7 +163,7 @@ abstract public class PlainValuesReader extends ValuesReader {
     @Override
     public void skip(int n) {
       try {
-        in.skipBytes(n * 8);
+        skipBytesFully(n * 8);
       } catch (IOException e) {
         throw new ParquetDecodingException("could not skip " + n + " longs", e);
       }
@@ -130,10 +172,17 @@ abstract public class PlainValuesReader extends ValuesReader {
     @Override
     public long readLong() {
       try {
-        return in.readLong();
-      } catch (IOException e) {
+        return buffer.getLong();
+      } catch (BufferUnderflowException e) {
         throw new ParquetDecodingException("could not read long", e);
       }
     }
+
+    @Override
+    public void readLongs(long[] values, int offset, int length) {
+      checkRemaining(length, 8, "longs");
+      buffer.asLongBuffer().get(values, offset, length);
+      buffer.position(buffer.position() + length * 8);
+    }
   }
 }
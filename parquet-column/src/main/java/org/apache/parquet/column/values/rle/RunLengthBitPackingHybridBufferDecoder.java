@@ -0,0 +1,279 @@
+/* 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.values.rle;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.parquet.Preconditions;
+import org.apache.parquet.column.values.bitpacking.BytePacker;
+import org.apache.parquet.column.values.bitpacking.Packer;
+import org.apache.parquet.io.ParquetDecodingException;
+
+/**
+ * Decodes values written in the grammar described in {@link RunLengthBitPackingHybridEncoder} directly from a
+ * {@link ByteBuffer}. Unlike {@link RunLengthBitPackingHybridDecoder} it does not allocate while decoding: the values
+ * of RLE runs are filled and the groups of bit-packed runs are unpacked straight into the arrays of the callers, and
+ * the decoder may be reused for several buffers by {@link #init(ByteBuffer)}.
+ * <p>
+ * The boundaries of the runs are exposed by {@link #getRunRemaining()}, {@link #isRepeatedRun()} and
+ * {@link #getRepeatedValue()} so the callers may handle a whole RLE run at once; e.g. detect that all the definition
+ * levels of a batch are the maximum one without looking at them one by one. Skipping does not decode the skipped
+ * values.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class RunLengthBitPackingHybridBufferDecoder {
+  private static final int VALUES_PER_GROUP = 8;
+
+  private final int bitWidth;
+  private final BytePacker packer;
+  // the last group of a bit-packed run might be truncated at the end of the buffer; it is padded in this one
+  private final ByteBuffer paddedGroup;
+  // the values of the partially read group of the current bit-packed run
+  private final int[] group = new int[VALUES_PER_GROUP];
+
+  private ByteBuffer buffer;
+  private boolean repeated;
+  // the number of values left in the current run
+  private int runRemaining;
+  private int repeatedValue;
+  // the index of the next value in group; VALUES_PER_GROUP if there are no values left in it
+  private int groupIndex = VALUES_PER_GROUP;
+
+  /**
+   * @param bitWidth the bit width of the values
+   */
+  public RunLengthBitPackingHybridBufferDecoder(int bitWidth) {
+    Preconditions.checkArgument(bitWidth >= 0 && bitWidth <= 32, "bitWidth must be >= 0 and <= 32");
+    this.bitWidth = bitWidth;
+    this.packer = Packer.LITTLE_ENDIAN.newBytePacker(bitWidth);
+    this.paddedGroup = ByteBuffer.allocate(Math.max(bitWidth, 1));
+  }
+
+  /**
+   * @param bitWidth the bit width of the values
+   * @param buffer the encoded values from its position to its limit
+   */
+  public RunLengthBitPackingHybridBufferDecoder(int bitWidth, ByteBuffer buffer) {
+    this(bitWidth);
+    init(buffer);
+  }
+
+  public int getBitWidth() {
+    return bitWidth;
+  }
+
+  /**
+   * Resets this decoder to decode the specified buffer. The position of the buffer is not modified.
+   *
+   * @param buffer the encoded values from its position to its limit
+   */
+  public void init(ByteBuffer buffer) {
+    this.buffer = buffer.duplicate();
+    this.runRemaining = 0;
+    this.groupIndex = VALUES_PER_GROUP;
+  }
+
+  /**
+   * Returns the number of the values left in the current run. If the current run has been consumed the next one is
+   * loaded first.
+   *
+   * @return the number of the values left in the current run; 0 if there are no more runs
+   */
+  public int getRunRemaining() {
+    if (runRemaining == 0 && buffer.hasRemaining()) {
+      readNext();
+    }
+    return runRemaining;
+  }
+
+  /**
+   * @return whether the current run (see {@link #getRunRemaining()}) is an RLE run i.e. all of its values are the same
+   */
+  public boolean isRepeatedRun() {
+    return repeated;
+  }
+
+  /**
+   * @return the value of the current RLE run; undefined if the current run is bit-packed
+   */
+  public int getRepeatedValue() {
+    return repeatedValue;
+  }
+
+  /**
+   * @return the next value
+   */
+  public int readInt() {
+    if (runRemaining == 0) {
+      readNext();
+    }
+    --runRemaining;
+    if (repeated) {
+      return repeatedValue;
+    }
+    if (groupIndex == VALUES_PER_GROUP) {
+      unpackGroup(group, 0);
+      groupIndex = 0;
+    }
+    return group[groupIndex++];
+  }
+
+  /**
+   * Reads the next {@code length} values into the specified array.
+   *
+   * @param values the array to store the values in
+   * @param offset the index of the array to store the first value at
+   * @param length the number of values to read
+   */
+  public void readInts(int[] values, int offset, int length) {
+    while (length > 0) {
+      int n = readRun(values, offset, length);
+      offset += n;
+      length -= n;
+    }
+  }
+
+  /**
+   * Reads at most {@code length} values of the current run (see {@link #getRunRemaining()}) into the specified array.
+   *
+   * @param values the array to store the values in
+   * @param offset the index of the array to store the first value at
+   * @param length the maximum number of values to read
+   * @return the number of values read; all of them are the same if {@link #isRepeatedRun()} returns {@code true}
+   */
+  public int readRun(int[] values, int offset, int length) {
+    if (runRemaining == 0) {
+      readNext();
+    }
+    int n = Math.min(length, runRemaining);
+    runRemaining -= n;
+    if (repeated) {
+      Arrays.fill(values, offset, offset + n, repeatedValue);
+      return n;
+    }
+    int end = offset + n;
+    // the rest of the partially read group
+    while (groupIndex < VALUES_PER_GROUP && offset < end) {
+      values[offset++] = group[groupIndex++];
+    }
+    // the whole groups are unpacked straight into the array
+    for (; end - offset >= VALUES_PER_GROUP; offset += VALUES_PER_GROUP) {
+      unpackGroup(values, offset);
+    }
+    if (offset < end) {
+      unpackGroup(group, 0);
+      groupIndex = 0;
+      while (offset < end) {
+        values[offset++] = group[groupIndex++];
+      }
+    }
+    return n;
+  }
+
+  /**
+   * Skips the next {@code n} values. Only the run headers are read and the partially skipped group of a bit-packed run
+   * is decoded so skipping takes time proportional to the number of runs instead of the number of values.
+   *
+   * @param n the number of values to skip
+   */
+  public void skip(int n) {
+    while (n > 0) {
+      if (runRemaining == 0) {
+        readNext();
+      }
+      int skipped = Math.min(n, runRemaining);
+      runRemaining -= skipped;
+      n -= skipped;
+      if (repeated) {
+        continue;
+      }
+      int fromGroup = Math.min(skipped, VALUES_PER_GROUP - groupIndex);
+      groupIndex += fromGroup;
+      skipped -= fromGroup;
+      int groups = skipped / VALUES_PER_GROUP;
+      buffer.position(Math.min(buffer.limit(), buffer.position() + groups * bitWidth));
+      skipped -= groups * VALUES_PER_GROUP;
+      if (skipped > 0) {
+        unpackGroup(group, 0);
+        groupIndex = skipped;
+      }
+    }
+  }
+
+  private void readNext() {
+    if (!buffer.hasRemaining()) {
+      throw new ParquetDecodingException("Reading past RLE/BitPacking stream.");
+    }
+    int header = readUnsignedVarInt();
+    if ((header & 1) == 0) {
+      repeated = true;
+      runRemaining = header >>> 1;
+      repeatedValue = readPaddedValue();
+    } else {
+      repeated = false;
+      runRemaining = (header >>> 1) * VALUES_PER_GROUP;
+      groupIndex = VALUES_PER_GROUP;
+    }
+  }
+
+  private void unpackGroup(int[] values, int offset) {
+    int position = buffer.position();
+    if (buffer.limit() - position >= bitWidth) {
+      packer.unpack8Values(buffer, position, values, offset);
+      buffer.position(position + bitWidth);
+    } else {
+      // At the end of the RLE data there might not be that many bytes left
+      paddedGroup.clear();
+      paddedGroup.put(buffer);
+      while (paddedGroup.hasRemaining()) {
+        paddedGroup.put((byte) 0);
+      }
+      packer.unpack8Values(paddedGroup, 0, values, offset);
+    }
+  }
+
+  private int readUnsignedVarInt() {
+    int value = 0;
+    int shift = 0;
+    int b;
+    do {
+      if (!buffer.hasRemaining()) {
+        throw new ParquetDecodingException("Unexpected end of RLE/BitPacking stream while reading a run header");
+      }
+      b = buffer.get();
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+
+  private int readPaddedValue() {
+    int bytes = (bitWidth + 7) / 8;
+    if (buffer.remaining() < bytes) {
+      throw new ParquetDecodingException("Unexpected end of RLE/BitPacking stream while reading an RLE value");
+    }
+    int value = 0;
+    for (int i = 0; i < bytes; ++i) {
+      value |= (buffer.get() & 0xFF) << (i * 8);
+    }
+    return value;
+  }
+}
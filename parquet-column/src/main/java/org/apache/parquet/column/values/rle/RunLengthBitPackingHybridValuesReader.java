@@ -23,15 +23,16 @@ import java.io.IOException;
 import org.apache.parquet.bytes.ByteBufferInputStream;
 import org.apache.parquet.bytes.BytesUtils;
 import org.apache.parquet.column.values.ValuesReader;
-import org.apache.parquet.io.ParquetDecodingException;
 
 /**
- * This ValuesReader does all the reading in {@link #initFromPage}
- * and stores the values in an in memory buffer, which is less than ideal.
+ * Reads the values of a page encoded by {@link RunLengthBitPackingHybridValuesWriter} using a
+ * {@link RunLengthBitPackingHybridBufferDecoder} which is reused for the subsequent pages.
  */
 public class RunLengthBitPackingHybridValuesReader extends ValuesReader {
   private final int bitWidth;
-  private RunLengthBitPackingHybridDecoder decoder;
+  private RunLengthBitPackingHybridBufferDecoder decoder;
+  // reused by readBooleans
+  private int[] buffer;
 
   public RunLengthBitPackingHybridValuesReader(int bitWidth) {
     this.bitWidth = bitWidth;
@@ -40,8 +41,11 @@ public class RunLengthBitPackingHybridValuesReader extends ValuesReader {
   @Override
   public void initFromPage(int valueCountL, ByteBufferInputStream stream) throws IOException {
     int length = BytesUtils.readIntLittleEndian(stream);
-    this.decoder = new RunLengthBitPackingHybridDecoder(
-        bitWidth, stream.sliceStream(length));
+    if (decoder == null) {
+      this.decoder = new RunLengthBitPackingHybridBufferDecoder(bitWidth, stream.slice(length));
+    } else {
+      decoder.init(stream.slice(length));
+    }
 
     // 4 is for the length which is stored as 4 bytes little endian
     updateNextOffset(length + 4);
@@ -49,11 +53,7 @@ public class RunLengthBitPackingHybridValuesReader extends ValuesReader {
 
   @Override
   public int readInteger() {
-    try {
-      return decoder.readInt();
-    } catch (IOException e) {
-      throw new ParquetDecodingException(e);
-    }
+    return decoder.readInt();
   }
   
   @Override
@@ -61,8 +61,29 @@ public class RunLengthBitPackingHybridValuesReader extends ValuesReader {
     return readInteger() == 0 ? false : true;
   }
 
+  @Override
+  public void readIntegers(int[] values, int offset, int length) {
+    decoder.readInts(values, offset, length);
+  }
+
+  @Override
+  public void readBooleans(boolean[] values, int offset, int length) {
+    if (buffer == null || buffer.length < length) {
+      buffer = new int[length];
+    }
+    readIntegers(buffer, 0, length);
+    for (int i = 0; i < length; ++i) {
+      values[offset + i] = buffer[i] != 0;
+    }
+  }
+
   @Override
   public void skip() {
     readInteger();
   }
+
+  @Override
+  public void skip(int n) {
+    decoder.skip(n);
+  }
 }
@@ -19,6 +19,8 @@
 package org.apache.parquet.column.values.rle;
 
 import java.io.IOException;
+import java.util.Arrays;
+
 import org.apache.parquet.bytes.ByteBufferInputStream;
 import org.apache.parquet.column.values.ValuesReader;
 
@@ -33,6 +35,11 @@ public class ZeroIntegerValuesReader extends ValuesReader {
     return 0;
   }
 
+  @Override
+  public void readIntegers(int[] values, int offset, int length) {
+    Arrays.fill(values, offset, offset + length, 0);
+  }
+
   @Override
   public void initFromPage(int valueCount, ByteBufferInputStream stream) throws IOException {
     updateNextOffset(0);
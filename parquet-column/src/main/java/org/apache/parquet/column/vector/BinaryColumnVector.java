@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.vector;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.io.api.Binary;
+
+/**
+ * {@link ColumnVector} of BINARY, FIXED_LEN_BYTE_ARRAY or INT96 values. The bytes of all the values are stored
+ * consecutively in one array; the value of entry {@code i} is stored from {@code getOffsets()[i]} (inclusive) to
+ * {@code getOffsets()[i + 1]} (exclusive). The null entries have empty values.
+ */
+public final class BinaryColumnVector extends ColumnVector {
+
+  private static final int INITIAL_BYTES_PER_VALUE = 16;
+
+  int[] offsets;
+  byte[] bytes;
+
+  BinaryColumnVector(ColumnDescriptor descriptor, int capacity) {
+    super(descriptor, capacity);
+    offsets = new int[capacity + 1];
+    bytes = new byte[capacity * INITIAL_BYTES_PER_VALUE];
+  }
+
+  /**
+   * @return the offsets of the values in {@link #getBytes()}; it has {@link #size()} + 1 valid elements
+   */
+  public int[] getOffsets() {
+    return offsets;
+  }
+
+  /**
+   * @return the bytes of the values
+   */
+  public byte[] getBytes() {
+    return bytes;
+  }
+
+  /**
+   * @param index the index of an entry
+   * @return the length of the value of the entry
+   */
+  public int getLength(int index) {
+    return offsets[index + 1] - offsets[index];
+  }
+
+  /**
+   * @param index the index of a non-null entry
+   * @return a {@link Binary} referencing the bytes of the value in this vector; it is valid until the vector is filled
+   *         again
+   */
+  public Binary getBinary(int index) {
+    return Binary.fromConstantByteArray(bytes, offsets[index], getLength(index));
+  }
+
+  /**
+   * Sets the value of the next entry. The entries are set in order starting from 0 after a reset.
+   */
+  void append(int index, Binary value) {
+    int offset = offsets[index];
+    int length = value.length();
+    ensureBytes(offset + length);
+    ByteBuffer buffer = value.toByteBuffer();
+    buffer.get(bytes, offset, length);
+    offsets[index + 1] = offset + length;
+  }
+
+  void appendEmpty(int index) {
+    offsets[index + 1] = offsets[index];
+  }
+
+  private void ensureBytes(int required) {
+    if (required > bytes.length) {
+      bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+    }
+  }
+
+  @Override
+  void moveValues(int[] levels, int maxLevel, int end, int last) {
+    // the bytes are in order already so only the offsets are moved; the null entries get empty values
+    for (int i = end - 1, next = last; i > next; --i) {
+      offsets[i + 1] = offsets[next + 1];
+      if (levels[i] == maxLevel) {
+        --next;
+      }
+    }
+  }
+
+  @Override
+  void growValues(int newCapacity) {
+    offsets = Arrays.copyOf(offsets, newCapacity + 1);
+  }
+}
@@ -0,0 +1,369 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.vector;
+
+import static org.apache.parquet.Preconditions.checkArgument;
+
+import org.apache.parquet.VersionParser.ParsedVersion;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.page.DataPage;
+import org.apache.parquet.column.page.PageReader;
+import org.apache.parquet.column.values.ValuesReader;
+import org.apache.parquet.column.vector.ColumnChunkPageDecoder.LevelDecoder;
+import org.apache.parquet.io.ParquetDecodingException;
+
+/**
+ * Reads the pages of a column chunk into {@link ColumnVector}s. Instead of passing the values one by one to converters
+ * the levels and values of a page are decoded in bulk by the {@link ValuesReader} methods like
+ * {@link ValuesReader#readIntegers(int[], int, int)} directly into the arrays of the vector. Dictionary encoded values
+ * are decoded unless they are read into a {@link DictionaryColumnVector} which keeps their dictionary ids.
+ * <p>
+ * The batches contain whole records: for the columns of flat schemas a record is one entry while for repeated columns
+ * it is the entries from a repetition level 0 to the next one.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class ColumnChunkBatchReader {
+
+  private final ColumnChunkPageDecoder decoder;
+  private final ColumnDescriptor descriptor;
+  private final int maxDefinitionLevel;
+  private final int maxRepetitionLevel;
+
+  // the repetition level of the next entry if it has been read already; -1 otherwise
+  private int nextRepetitionLevel = -1;
+  // the definition levels of the skipped entries
+  private int[] skippedLevels = new int[0];
+
+  /**
+   * @param descriptor the column to read
+   * @param pageReader the pages of the column chunk
+   * @param writerVersion the version of the writer of the file; may be {@code null}
+   */
+  public ColumnChunkBatchReader(ColumnDescriptor descriptor, PageReader pageReader, ParsedVersion writerVersion) {
+    this.decoder = new ColumnChunkPageDecoder(descriptor, pageReader, writerVersion);
+    this.descriptor = descriptor;
+    this.maxDefinitionLevel = descriptor.getMaxDefinitionLevel();
+    this.maxRepetitionLevel = descriptor.getMaxRepetitionLevel();
+  }
+
+  public ColumnDescriptor getDescriptor() {
+    return descriptor;
+  }
+
+  /**
+   * @param capacity the initial number of entries the vector can hold
+   * @return a new vector for the column of this reader
+   */
+  public ColumnVector newVector(int capacity) {
+    return ColumnVector.create(descriptor, capacity);
+  }
+
+  /**
+   * @param capacity the initial number of entries the vector can hold
+   * @return a new vector for the column of this reader keeping the dictionary ids of the dictionary encoded pages
+   */
+  public DictionaryColumnVector newDictionaryIdVector(int capacity) {
+    return ColumnVector.createDictionaryIdVector(descriptor, capacity);
+  }
+
+  /**
+   * @return the dictionary of the column chunk or {@code null} if it has none
+   */
+  public Dictionary getDictionary() {
+    return decoder.getDictionary();
+  }
+
+  /**
+   * @return whether all the entries of the column chunk have been read
+   */
+  public boolean isExhausted() {
+    return !decoder.hasMoreValues() && nextRepetitionLevel < 0;
+  }
+
+  /**
+   * Reads the next records into the specified vector replacing its content. The vector is extended if the entries of
+   * the records do not fit into it.
+   *
+   * @param vector the vector to read into; shall be created for the column of this reader
+   * @param maxRecords the maximum number of records to read
+   * @return the number of records read; 0 if all the records have been read already
+   */
+  public int readBatch(ColumnVector vector, int maxRecords) {
+    prepare(vector);
+    if (maxRepetitionLevel == 0) {
+      return readFlatBatch(vector, 0, maxRecords);
+    }
+    return readRepeatedBatch(vector, maxRecords);
+  }
+
+  /**
+   * Reads the rows at the specified indexes into the vector replacing its content. The entries of the rows between
+   * them are skipped without decoding their values and the pages without any of the rows may be missing from the page
+   * reader if the pages know their first row index (see {@link DataPage#getFirstRowIndex()}). Only the columns which
+   * are not repeated are supported.
+   *
+   * @param vector the vector to read into; shall be created for the column of this reader
+   * @param rowIndexes the indexes of the rows in the row group in ascending order; they shall follow the rows read
+   *                   previously
+   * @param count the number of rows to read
+   * @throws ParquetDecodingException if a row is missing from the pages
+   */
+  public void readRows(ColumnVector vector, long[] rowIndexes, int count) {
+    checkArgument(maxRepetitionLevel == 0, "Cannot read the rows of the repeated column %s by index", descriptor);
+    prepare(vector);
+    int records = 0;
+    while (records < count) {
+      long rowIndex = rowIndexes[records];
+      skipTo(rowIndex);
+      // the consecutive rows of the current page are read at once
+      int max = Math.min(count - records, decoder.getPageRemaining());
+      int n = 1;
+      while (n < max && rowIndexes[records + n] == rowIndex + n) {
+        ++n;
+      }
+      readFlatBatch(vector, records, n);
+      records += n;
+    }
+  }
+
+  private void prepare(ColumnVector vector) {
+    checkArgument(vector.getDescriptor().equals(descriptor), "The vector is created for another column: %s",
+        vector.getDescriptor());
+    vector.reset();
+    if (vector instanceof DictionaryColumnVector) {
+      ((DictionaryColumnVector) vector).dictionary = decoder.getDictionary();
+    }
+  }
+
+  // skips the entries before the specified row; it is the next entry of the current page afterwards
+  private void skipTo(long rowIndex) {
+    while (true) {
+      if (decoder.getPageRemaining() == 0) {
+        if (!decoder.hasMoreValues()) {
+          throw new ParquetDecodingException("Missing row " + rowIndex + " in column " + descriptor);
+        }
+        decoder.readPage();
+      }
+      long current = decoder.getRowIndex();
+      if (current == rowIndex) {
+        return;
+      }
+      if (current > rowIndex) {
+        throw new ParquetDecodingException("Missing row " + rowIndex + " in column " + descriptor
+            + ": the next one is " + current);
+      }
+      skip((int) Math.min(rowIndex - current, decoder.getPageRemaining()));
+    }
+  }
+
+  // skips n entries of the current page; only the definition levels are decoded
+  private void skip(int n) {
+    int defined = n;
+    if (maxDefinitionLevel > 0) {
+      if (skippedLevels.length < n) {
+        skippedLevels = new int[n];
+      }
+      LevelDecoder definitionLevels = decoder.getDefinitionLevels();
+      defined = 0;
+      for (int i = 0; i < n; ) {
+        int run = definitionLevels.nextRun(skippedLevels, i, n - i);
+        for (int j = i, end = i + run; j < end; ++j) {
+          if (skippedLevels[j] == maxDefinitionLevel) {
+            ++defined;
+          }
+        }
+        i += run;
+      }
+    }
+    decoder.getValues().skip(defined);
+    decoder.consume(n);
+  }
+
+  // reads at most maxRecords records into the vector from the specified index
+  private int readFlatBatch(ColumnVector vector, int start, int maxRecords) {
+    int records = start;
+    int end = start + maxRecords;
+    while (records < end && decoder.hasMoreValues()) {
+      if (decoder.getPageRemaining() == 0) {
+        decoder.readPage();
+      }
+      int n = Math.min(end - records, decoder.getPageRemaining());
+      vector.ensureCapacity(records + n);
+      readEntries(vector, records, n);
+      records += n;
+      vector.size = records;
+      decoder.consume(n);
+    }
+    return records - start;
+  }
+
+  // the repetition levels are decoded one by one to find the end of the batch; the entries of the records found in the
+  // current page are then decoded in bulk the same way as the ones of the flat columns
+  private int readRepeatedBatch(ColumnVector vector, int maxRecords) {
+    int records = 0;
+    int size = 0;
+    while (true) {
+      if (nextRepetitionLevel < 0) {
+        if (!decoder.hasMoreValues()) {
+          break;
+        }
+        if (decoder.getPageRemaining() == 0) {
+          decoder.readPage();
+        }
+        nextRepetitionLevel = decoder.getRepetitionLevels().next();
+      }
+      if (nextRepetitionLevel == 0) {
+        if (records == maxRecords) {
+          // keep the start of the next record for the next batch
+          break;
+        }
+        ++records;
+      }
+      int remaining = decoder.getPageRemaining();
+      vector.ensureCapacity(size + remaining);
+      int[] repetitionLevels = vector.repetitionLevels;
+      repetitionLevels[size] = nextRepetitionLevel;
+      nextRepetitionLevel = -1;
+      LevelDecoder repetitionLevelDecoder = decoder.getRepetitionLevels();
+      int n = 1;
+      while (n < remaining) {
+        int level = repetitionLevelDecoder.next();
+        if (level == 0) {
+          if (records == maxRecords) {
+            nextRepetitionLevel = level;
+            break;
+          }
+          ++records;
+        }
+        repetitionLevels[size + n++] = level;
+      }
+      readEntries(vector, size, n);
+      size += n;
+      vector.size = size;
+      decoder.consume(n);
+    }
+    return records;
+  }
+
+  // reads the definition levels and the values of the next n entries of the current page into the vector from the
+  // specified index
+  private void readEntries(ColumnVector vector, int start, int n) {
+    if (maxDefinitionLevel == 0) {
+      readValues(vector, start, n);
+      return;
+    }
+    int[] levels = vector.definitionLevels;
+    LevelDecoder definitionLevels = decoder.getDefinitionLevels();
+    for (int i = start, last = start + n; i < last; ) {
+      int run = definitionLevels.nextRun(levels, i, last - i);
+      if (definitionLevels.isRepeatedRun() && levels[i] == maxDefinitionLevel) {
+        // all the entries of an RLE run are defined; no need to look at the levels one by one
+        readValues(vector, i, run);
+      } else {
+        readValues(vector, levels, i, run);
+      }
+      i += run;
+    }
+  }
+
+  // reads the values of n entries without nulls
+  private void readValues(ColumnVector vector, int start, int n) {
+    if (vector instanceof DictionaryColumnVector) {
+      readIds((DictionaryColumnVector) vector, null, start, n);
+      return;
+    }
+    ValuesReader in = decoder.getValues();
+    switch (descriptor.getPrimitiveType().getPrimitiveTypeName()) {
+      case BOOLEAN:
+        in.readBooleans(((BooleanColumnVector) vector).values, start, n);
+        break;
+      case INT32:
+        in.readIntegers(((IntColumnVector) vector).values, start, n);
+        break;
+      case INT64:
+        in.readLongs(((LongColumnVector) vector).values, start, n);
+        break;
+      case FLOAT:
+        in.readFloats(((FloatColumnVector) vector).values, start, n);
+        break;
+      case DOUBLE:
+        in.readDoubles(((DoubleColumnVector) vector).values, start, n);
+        break;
+      default: {
+        BinaryColumnVector binaries = (BinaryColumnVector) vector;
+        for (int i = start, end = start + n; i < end; ++i) {
+          binaries.append(i, in.readBytes());
+        }
+        break;
+      }
+    }
+  }
+
+  // reads the values of n entries where the definition level is the maximum one and marks the others as null; the
+  // values of the defined entries are read in bulk and then spread to their positions
+  private void readValues(ColumnVector vector, int[] levels, int start, int n) {
+    if (vector instanceof DictionaryColumnVector) {
+      readIds((DictionaryColumnVector) vector, levels, start, n);
+      return;
+    }
+    int defined = countDefined(levels, start, n);
+    readValues(vector, start, defined);
+    vector.spread(levels, maxDefinitionLevel, start, n, defined);
+  }
+
+  private int countDefined(int[] levels, int start, int n) {
+    int defined = 0;
+    for (int i = start, end = start + n; i < end; ++i) {
+      if (levels[i] == maxDefinitionLevel) {
+        ++defined;
+      }
+    }
+    return defined;
+  }
+
+  // reads the dictionary ids of n entries (all defined if the levels are null) or materializes their values if the
+  // page is not dictionary encoded
+  private void readIds(DictionaryColumnVector vector, int[] levels, int start, int n) {
+    if (!decoder.isDictionaryEncoded()) {
+      ColumnVector values = vector.materialize(start, n);
+      if (levels == null) {
+        readValues(values, start, n);
+      } else {
+        readValues(values, levels, start, n);
+        for (int i = start, end = start + n; i < end; ++i) {
+          if (levels[i] != maxDefinitionLevel) {
+            vector.setNull(i);
+          }
+        }
+      }
+      return;
+    }
+    int[] ids = vector.ids;
+    ValuesReader in = decoder.getValues();
+    if (levels == null) {
+      in.readDictionaryIds(ids, start, n);
+      return;
+    }
+    int defined = countDefined(levels, start, n);
+    in.readDictionaryIds(ids, start, defined);
+    vector.spread(levels, maxDefinitionLevel, start, n, defined);
+  }
+}
@@ -0,0 +1,359 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.vector;
+
+import static org.apache.parquet.column.ValuesType.DEFINITION_LEVEL;
+import static org.apache.parquet.column.ValuesType.REPETITION_LEVEL;
+import static org.apache.parquet.column.ValuesType.VALUES;
+
+import java.io.IOException;
+
+import org.apache.parquet.CorruptDeltaByteArrays;
+import org.apache.parquet.VersionParser.ParsedVersion;
+import org.apache.parquet.bytes.ByteBufferInputStream;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.bytes.BytesUtils;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.ValuesType;
+import org.apache.parquet.column.page.DataPage;
+import org.apache.parquet.column.page.DataPageV1;
+import org.apache.parquet.column.page.DataPageV2;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.column.page.PageReader;
+import org.apache.parquet.column.values.RequiresPreviousReader;
+import org.apache.parquet.column.values.ValuesReader;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridBufferDecoder;
+import org.apache.parquet.io.ParquetDecodingException;
+
+/**
+ * Decodes the pages of a column chunk one by one into readers of their repetition levels, definition levels and
+ * values. It is the building block of the batch readers: they read the levels and values of the current page in bulk
+ * into their own vectors and report the number of entries read by {@link #consume(int)}.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @see ColumnChunkBatchReader
+ */
+public class ColumnChunkPageDecoder {
+
+  private final ColumnDescriptor descriptor;
+  private final PageReader pageReader;
+  private final ParsedVersion writerVersion;
+  private final int maxDefinitionLevel;
+  private final int maxRepetitionLevel;
+  private final Dictionary dictionary;
+  private final long totalValueCount;
+  // decode the RLE encoded levels of every page; null if the max level is 0
+  private final RLELevelDecoder rleRepetitionLevels;
+  private final RLELevelDecoder rleDefinitionLevels;
+
+  private long readValues;
+  private long pageFirstRowIndex;
+  private int pageValueCount;
+  private int pageRemaining;
+  private boolean dictionaryEncoded;
+  private LevelDecoder repetitionLevels;
+  private LevelDecoder definitionLevels;
+  private ValuesReader dataColumn;
+
+  /**
+   * @param descriptor the column to read
+   * @param pageReader the pages of the column chunk
+   * @param writerVersion the version of the writer of the file; may be {@code null}
+   */
+  public ColumnChunkPageDecoder(ColumnDescriptor descriptor, PageReader pageReader, ParsedVersion writerVersion) {
+    this.descriptor = descriptor;
+    this.pageReader = pageReader;
+    this.writerVersion = writerVersion;
+    this.maxDefinitionLevel = descriptor.getMaxDefinitionLevel();
+    this.maxRepetitionLevel = descriptor.getMaxRepetitionLevel();
+    this.rleRepetitionLevels = newRLELevelDecoder(maxRepetitionLevel);
+    this.rleDefinitionLevels = newRLELevelDecoder(maxDefinitionLevel);
+    DictionaryPage dictionaryPage = pageReader.readDictionaryPage();
+    if (dictionaryPage != null) {
+      try {
+        this.dictionary = dictionaryPage.getEncoding().initDictionary(descriptor, dictionaryPage);
+      } catch (IOException e) {
+        throw new ParquetDecodingException("could not decode the dictionary for " + descriptor, e);
+      }
+    } else {
+      this.dictionary = null;
+    }
+    this.totalValueCount = pageReader.getTotalValueCount();
+  }
+
+  public ColumnDescriptor getDescriptor() {
+    return descriptor;
+  }
+
+  /**
+   * @return the dictionary of the column chunk; {@code null} if it has no dictionary page
+   */
+  public Dictionary getDictionary() {
+    return dictionary;
+  }
+
+  /**
+   * @return the number of entries (values and nulls) of the column chunk
+   */
+  public long getTotalValueCount() {
+    return totalValueCount;
+  }
+
+  /**
+   * @return whether some entries of the column chunk have not been consumed yet
+   */
+  public boolean hasMoreValues() {
+    return readValues < totalValueCount;
+  }
+
+  /**
+   * @return the number of entries of the current page not consumed yet; 0 if a new page shall be read by
+   *         {@link #readPage()}
+   */
+  public int getPageRemaining() {
+    return pageRemaining;
+  }
+
+  /**
+   * Reads the next page. The entries of the current page shall have been consumed.
+   *
+   * @throws ParquetDecodingException if the column chunk has no more pages
+   */
+  public void readPage() {
+    DataPage page = pageReader.readPage();
+    if (page == null) {
+      throw new ParquetDecodingException("Missing pages in column " + descriptor + ": read " + readValues
+          + " values of " + totalValueCount);
+    }
+    // the pages of the row groups filtered by the column indexes know their row indexes
+    pageFirstRowIndex = page.getFirstRowIndex().orElse(readValues);
+    page.accept(new DataPage.Visitor<Void>() {
+      @Override
+      public Void visit(DataPageV1 dataPageV1) {
+        readPageV1(dataPageV1);
+        return null;
+      }
+
+      @Override
+      public Void visit(DataPageV2 dataPageV2) {
+        readPageV2(dataPageV2);
+        return null;
+      }
+    });
+  }
+
+  /**
+   * @return whether the values of the current page are encoded by the dictionary of the column chunk; their ids may
+   *         be read by {@link ValuesReader#readDictionaryIds(int[], int, int)} then
+   */
+  public boolean isDictionaryEncoded() {
+    return dictionaryEncoded;
+  }
+
+  /**
+   * @return the repetition levels of the current page; {@code null} if the column is not repeated
+   */
+  public LevelDecoder getRepetitionLevels() {
+    return repetitionLevels;
+  }
+
+  /**
+   * @return the definition levels of the current page; {@code null} if the column is required
+   */
+  public LevelDecoder getDefinitionLevels() {
+    return definitionLevels;
+  }
+
+  /**
+   * @return the values of the current page; only the entries at the maximum definition level have a value
+   */
+  public ValuesReader getValues() {
+    return dataColumn;
+  }
+
+  /**
+   * @return the index of the row of the next entry of the current page in the row group; only valid for the columns
+   *         which are not repeated (an entry is a row then)
+   */
+  public long getRowIndex() {
+    return pageFirstRowIndex + pageValueCount - pageRemaining;
+  }
+
+  /**
+   * Records that the levels and values of the specified number of entries of the current page have been read.
+   *
+   * @param count the number of entries read
+   */
+  public void consume(int count) {
+    readValues += count;
+    pageRemaining -= count;
+  }
+
+  private void readPageV1(DataPageV1 page) {
+    int valueCount = page.getValueCount();
+    try {
+      ByteBufferInputStream in = page.getBytes().toInputStream();
+      repetitionLevels = newLevelDecoder(page.getRlEncoding(), REPETITION_LEVEL, maxRepetitionLevel, valueCount, in);
+      definitionLevels = newLevelDecoder(page.getDlEncoding(), DEFINITION_LEVEL, maxDefinitionLevel, valueCount, in);
+      initDataReader(page.getValueEncoding(), in, valueCount);
+    } catch (IOException e) {
+      throw new ParquetDecodingException("could not read page " + page + " in col " + descriptor, e);
+    }
+  }
+
+  private void readPageV2(DataPageV2 page) {
+    repetitionLevels = initRLELevelDecoder(rleRepetitionLevels, page.getRepetitionLevels());
+    definitionLevels = initRLELevelDecoder(rleDefinitionLevels, page.getDefinitionLevels());
+    try {
+      initDataReader(page.getDataEncoding(), page.getData().toInputStream(), page.getValueCount());
+    } catch (IOException e) {
+      throw new ParquetDecodingException("could not read page " + page + " in col " + descriptor, e);
+    }
+  }
+
+  private void initDataReader(Encoding dataEncoding, ByteBufferInputStream in, int valueCount) throws IOException {
+    ValuesReader previousReader = dataColumn;
+    dictionaryEncoded = dataEncoding.usesDictionary();
+    if (dictionaryEncoded) {
+      if (dictionary == null) {
+        throw new ParquetDecodingException(
+            "could not read page in col " + descriptor + " as the dictionary was missing for encoding " + dataEncoding);
+      }
+      dataColumn = dataEncoding.getDictionaryBasedValuesReader(descriptor, VALUES, dictionary);
+    } else {
+      dataColumn = dataEncoding.getValuesReader(descriptor, VALUES);
+    }
+    dataColumn.initFromPage(valueCount, in);
+    if (CorruptDeltaByteArrays.requiresSequentialReads(writerVersion, dataEncoding)
+        && previousReader instanceof RequiresPreviousReader) {
+      ((RequiresPreviousReader) dataColumn).setPreviousReader(previousReader);
+    }
+    pageValueCount = valueCount;
+    pageRemaining = valueCount;
+  }
+
+  private LevelDecoder newLevelDecoder(Encoding encoding, ValuesType type, int maxLevel, int valueCount,
+      ByteBufferInputStream in) throws IOException {
+    if (encoding == Encoding.RLE && maxLevel > 0) {
+      // the levels are prefixed by their length in v1 pages
+      int length = BytesUtils.readIntLittleEndian(in);
+      RLELevelDecoder decoder = type == REPETITION_LEVEL ? rleRepetitionLevels : rleDefinitionLevels;
+      decoder.delegate.init(in.slice(length));
+      return decoder;
+    }
+    ValuesReader reader = encoding.getValuesReader(descriptor, type);
+    reader.initFromPage(valueCount, in);
+    return maxLevel == 0 ? null : new ValuesLevelDecoder(reader);
+  }
+
+  private static RLELevelDecoder newRLELevelDecoder(int maxLevel) {
+    if (maxLevel == 0) {
+      return null;
+    }
+    return new RLELevelDecoder(new RunLengthBitPackingHybridBufferDecoder(BytesUtils.getWidthFromMaxInt(maxLevel)));
+  }
+
+  private LevelDecoder initRLELevelDecoder(RLELevelDecoder decoder, BytesInput bytes) {
+    if (decoder == null) {
+      return null;
+    }
+    try {
+      ByteBufferInputStream in = bytes.toInputStream();
+      decoder.delegate.init(in.slice(in.available()));
+      return decoder;
+    } catch (IOException e) {
+      throw new ParquetDecodingException("could not read levels in page for col " + descriptor, e);
+    }
+  }
+
+  /**
+   * Reads the repetition or definition levels of a page.
+   */
+  public static abstract class LevelDecoder {
+    // whether the levels read by the last nextRun call are all the same
+    boolean repeated;
+
+    LevelDecoder() {
+    }
+
+    /**
+     * @return the next level
+     */
+    public abstract int next();
+
+    /**
+     * Reads at most {@code length} levels; fewer ones are read only at the boundaries of the runs of the encoding.
+     *
+     * @param levels the array to read the levels into
+     * @param offset the index of the first level in the array
+     * @param length the maximum number of levels to read
+     * @return the number of levels read
+     */
+    public abstract int nextRun(int[] levels, int offset, int length);
+
+    /**
+     * @return whether the levels read by the last {@link #nextRun(int[], int, int)} call are known to be all the same
+     */
+    public boolean isRepeatedRun() {
+      return repeated;
+    }
+  }
+
+  private static class ValuesLevelDecoder extends LevelDecoder {
+    private final ValuesReader delegate;
+
+    ValuesLevelDecoder(ValuesReader delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public int next() {
+      return delegate.readInteger();
+    }
+
+    @Override
+    public int nextRun(int[] levels, int offset, int length) {
+      delegate.readIntegers(levels, offset, length);
+      return length;
+    }
+  }
+
+  private static class RLELevelDecoder extends LevelDecoder {
+    private final RunLengthBitPackingHybridBufferDecoder delegate;
+
+    RLELevelDecoder(RunLengthBitPackingHybridBufferDecoder delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public int next() {
+      return delegate.readInt();
+    }
+
+    @Override
+    public int nextRun(int[] levels, int offset, int length) {
+      int n = delegate.readRun(levels, offset, length);
+      repeated = delegate.isRepeatedRun();
+      return n;
+    }
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.vector;
+
+import static org.apache.parquet.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.io.ParquetDecodingException;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+/**
+ * A reusable batch of the entries of a primitive column. An entry is one repetition/definition level pair of the column
+ * and the value belonging to it if the definition level is the maximum one; for the columns of flat schemas there is
+ * one entry per row. The entries not having a value (nulls or empty/null lists in nested schemas) are marked in the
+ * null bitmap; the content of the value arrays is undefined at their indexes.
+ * <p>
+ * The arrays returned by the getters are the internal ones of the vector so they are valid until the vector is filled
+ * again and may be larger than {@link #size()}.
+ *
+ * @see ColumnChunkBatchReader
+ */
+public abstract class ColumnVector {
+
+  private final ColumnDescriptor descriptor;
+  int capacity;
+  int size;
+  int nullCount;
+  long[] nulls;
+  int[] definitionLevels;
+  int[] repetitionLevels;
+
+  ColumnVector(ColumnDescriptor descriptor, int capacity) {
+    this.descriptor = descriptor;
+    this.capacity = capacity;
+    this.nulls = new long[bitmapLength(capacity)];
+    if (descriptor.getMaxDefinitionLevel() > 0) {
+      definitionLevels = new int[capacity];
+    }
+    if (descriptor.getMaxRepetitionLevel() > 0) {
+      repetitionLevels = new int[capacity];
+    }
+  }
+
+  /**
+   * Creates a vector for the specified column of the type matching its primitive type: {@link BooleanColumnVector},
+   * {@link IntColumnVector}, {@link LongColumnVector}, {@link FloatColumnVector}, {@link DoubleColumnVector} or
+   * {@link BinaryColumnVector} (for BINARY, FIXED_LEN_BYTE_ARRAY and INT96).
+   *
+   * @param descriptor the column
+   * @param capacity the initial number of entries the vector can hold; it is extended if required
+   * @return the new vector
+   */
+  public static ColumnVector create(ColumnDescriptor descriptor, int capacity) {
+    switch (descriptor.getPrimitiveType().getPrimitiveTypeName()) {
+      case BOOLEAN:
+        return new BooleanColumnVector(descriptor, capacity);
+      case INT32:
+        return new IntColumnVector(descriptor, capacity);
+      case INT64:
+        return new LongColumnVector(descriptor, capacity);
+      case FLOAT:
+        return new FloatColumnVector(descriptor, capacity);
+      case DOUBLE:
+        return new DoubleColumnVector(descriptor, capacity);
+      case BINARY:
+      case FIXED_LEN_BYTE_ARRAY:
+      case INT96:
+        return new BinaryColumnVector(descriptor, capacity);
+      default:
+        throw new ParquetDecodingException("Unsupported type: " + descriptor);
+    }
+  }
+
+  /**
+   * Creates a vector keeping the values of the dictionary encoded pages of the column as dictionary ids.
+   *
+   * @param descriptor the column
+   * @param capacity the initial number of entries the vector can hold; it is extended if required
+   * @return the new vector
+   * @throws IllegalArgumentException if the column is of type BOOLEAN which is never dictionary encoded
+   */
+  public static DictionaryColumnVector createDictionaryIdVector(ColumnDescriptor descriptor, int capacity) {
+    checkArgument(descriptor.getPrimitiveType().getPrimitiveTypeName() != PrimitiveTypeName.BOOLEAN,
+        "BOOLEAN columns are not dictionary encoded: %s", descriptor);
+    return new DictionaryColumnVector(descriptor, capacity);
+  }
+
+  public ColumnDescriptor getDescriptor() {
+    return descriptor;
+  }
+
+  /**
+   * @return the number of entries in this vector
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the number of entries without a value; if it is {@code 0} all the entries have values
+   */
+  public int getNullCount() {
+    return nullCount;
+  }
+
+  /**
+   * @param index the index of an entry
+   * @return whether the entry has no value
+   */
+  public boolean isNull(int index) {
+    return nullCount != 0 && (nulls[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * @return the bitmap of the entries without a value; bit {@code i % 64} of element {@code i / 64} is set if entry
+   *         {@code i} is null
+   */
+  public long[] getNullBitmap() {
+    return nulls;
+  }
+
+  /**
+   * @return the definition levels of the entries or {@code null} if the maximum definition level of the column is 0
+   */
+  public int[] getDefinitionLevels() {
+    return definitionLevels;
+  }
+
+  /**
+   * @return the repetition levels of the entries or {@code null} if the maximum repetition level of the column is 0
+   */
+  public int[] getRepetitionLevels() {
+    return repetitionLevels;
+  }
+
+  void reset() {
+    if (nullCount != 0) {
+      Arrays.fill(nulls, 0, bitmapLength(size), 0L);
+      nullCount = 0;
+    }
+    size = 0;
+  }
+
+  void setNull(int index) {
+    nulls[index >>> 6] |= 1L << index;
+    ++nullCount;
+  }
+
+  /**
+   * Moves the values read in bulk for the entries having a value to their positions and marks the other entries as
+   * null.
+   *
+   * @param levels the definition levels of the entries
+   * @param maxLevel the definition level of the entries having a value
+   * @param start the index of the first entry
+   * @param n the number of entries
+   * @param defined the number of entries having a value; their values are at the first {@code defined} indexes from
+   *                {@code start}
+   */
+  final void spread(int[] levels, int maxLevel, int start, int n, int defined) {
+    if (defined == n) {
+      return;
+    }
+    int end = start + n;
+    moveValues(levels, maxLevel, end, start + defined - 1);
+    for (int i = start; i < end; ++i) {
+      if (levels[i] != maxLevel) {
+        setNull(i);
+      }
+    }
+  }
+
+  /**
+   * Moves the values from index {@code last} backwards to the entries before {@code end} having the maximum level so
+   * no value is overwritten before it is moved. The entries from the one at {@code last} backwards are in place once
+   * the index of the entry reaches the index of the value.
+   */
+  abstract void moveValues(int[] levels, int maxLevel, int end, int last);
+
+  void ensureCapacity(int required) {
+    if (required > capacity) {
+      int newCapacity = Math.max(required, capacity * 2);
+      nulls = Arrays.copyOf(nulls, bitmapLength(newCapacity));
+      if (definitionLevels != null) {
+        definitionLevels = Arrays.copyOf(definitionLevels, newCapacity);
+      }
+      if (repetitionLevels != null) {
+        repetitionLevels = Arrays.copyOf(repetitionLevels, newCapacity);
+      }
+      growValues(newCapacity);
+      capacity = newCapacity;
+    }
+  }
+
+  /**
+   * Extends the value arrays to the specified capacity keeping their content.
+   */
+  abstract void growValues(int newCapacity);
+
+  private static int bitmapLength(int capacity) {
+    return (capacity + 63) >>> 6;
+  }
+}
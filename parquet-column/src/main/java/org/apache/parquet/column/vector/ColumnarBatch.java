@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.vector;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+/**
+ * A reusable batch of rows of a schema holding one {@link ColumnVector} per primitive column. The vectors are in the
+ * order of {@link MessageType#getColumns()}.
+ *
+ * @see ColumnarBatchReader
+ */
+public class ColumnarBatch {
+
+  private final MessageType schema;
+  private final ColumnVector[] vectors;
+  private final int capacity;
+  int rowCount;
+
+  /**
+   * @param schema the schema of the rows
+   * @param capacity the maximum number of rows in the batch
+   */
+  public ColumnarBatch(MessageType schema, int capacity) {
+    this(schema, capacity, false);
+  }
+
+  /**
+   * @param schema the schema of the rows
+   * @param capacity the maximum number of rows in the batch
+   * @param dictionaryIds whether the columns (except the BOOLEAN ones) shall keep the dictionary ids of their
+   *                      dictionary encoded pages in {@link DictionaryColumnVector}s instead of decoding them
+   */
+  public ColumnarBatch(MessageType schema, int capacity, boolean dictionaryIds) {
+    this.schema = schema;
+    this.capacity = capacity;
+    List<ColumnDescriptor> columns = schema.getColumns();
+    this.vectors = new ColumnVector[columns.size()];
+    for (int i = 0; i < vectors.length; ++i) {
+      ColumnDescriptor column = columns.get(i);
+      if (dictionaryIds && column.getPrimitiveType().getPrimitiveTypeName() != PrimitiveTypeName.BOOLEAN) {
+        vectors[i] = ColumnVector.createDictionaryIdVector(column, capacity);
+      } else {
+        vectors[i] = ColumnVector.create(column, capacity);
+      }
+    }
+  }
+
+  public MessageType getSchema() {
+    return schema;
+  }
+
+  /**
+   * @return the maximum number of rows in this batch
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * @return the number of rows in this batch
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public int getColumnCount() {
+    return vectors.length;
+  }
+
+  /**
+   * @param index the index of the column in {@link MessageType#getColumns()}
+   * @return the vector of the column
+   */
+  public ColumnVector getColumn(int index) {
+    return vectors[index];
+  }
+
+  /**
+   * @param path the path of a primitive column
+   * @return the vector of the column
+   * @throws IllegalArgumentException if the schema has no such column
+   */
+  public ColumnVector getColumn(String... path) {
+    for (ColumnVector vector : vectors) {
+      if (Arrays.equals(vector.getDescriptor().getPath(), path)) {
+        return vector;
+      }
+    }
+    throw new IllegalArgumentException("Unknown column: " + Arrays.toString(path));
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.vector;
+
+import static org.apache.parquet.Preconditions.checkArgument;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.PrimitiveIterator;
+
+import org.apache.parquet.VersionParser;
+import org.apache.parquet.VersionParser.ParsedVersion;
+import org.apache.parquet.VersionParser.VersionParseException;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.io.ParquetDecodingException;
+import org.apache.parquet.schema.MessageType;
+
+/**
+ * Reads the rows of a row group into {@link ColumnarBatch}es. Every batch holds the same rows for all the columns of
+ * the schema.
+ * <p>
+ * If the page store has row indexes (see {@link PageReadStore#getRowIndexes()}) only the rows at these indexes are
+ * read; the entries of the other rows in the pages are skipped. This is only supported for the schemas without
+ * repeated columns.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class ColumnarBatchReader {
+
+  private final MessageType schema;
+  private final ColumnChunkBatchReader[] readers;
+  // the indexes of the rows to read; null if all the rows are read
+  private final PrimitiveIterator.OfLong rowIndexes;
+  private long[] batchRowIndexes = new long[0];
+  private long remainingRowCount;
+
+  /**
+   * @param schema the schema to read; the projection of the file schema to the requested columns
+   * @param pages the pages of the row group
+   * @param createdBy writer version string from the Parquet file being read
+   */
+  public ColumnarBatchReader(MessageType schema, PageReadStore pages, String createdBy) {
+    this.schema = schema;
+    ParsedVersion writerVersion;
+    try {
+      writerVersion = VersionParser.parse(createdBy);
+    } catch (RuntimeException | VersionParseException e) {
+      writerVersion = null;
+    }
+    List<ColumnDescriptor> columns = schema.getColumns();
+    this.readers = new ColumnChunkBatchReader[columns.size()];
+    for (int i = 0; i < readers.length; ++i) {
+      ColumnDescriptor column = columns.get(i);
+      readers[i] = new ColumnChunkBatchReader(column, pages.getPageReader(column), writerVersion);
+    }
+    Optional<PrimitiveIterator.OfLong> rowIndexes = pages.getRowIndexes();
+    if (rowIndexes.isPresent()) {
+      for (ColumnDescriptor column : columns) {
+        checkArgument(column.getMaxRepetitionLevel() == 0,
+            "Filtered row groups are not supported for the repeated column %s", column);
+      }
+    }
+    this.rowIndexes = rowIndexes.orElse(null);
+    this.remainingRowCount = pages.getRowCount();
+  }
+
+  public MessageType getSchema() {
+    return schema;
+  }
+
+  /**
+   * @return the number of rows not read yet
+   */
+  public long getRemainingRowCount() {
+    return remainingRowCount;
+  }
+
+  /**
+   * Reads the next rows into the specified batch replacing its content.
+   *
+   * @param batch the batch to read into; shall be created for the schema of this reader
+   * @return the number of rows read; 0 if all the rows have been read already
+   */
+  public int readBatch(ColumnarBatch batch) {
+    checkArgument(batch.getColumnCount() == readers.length, "The batch is created for another schema");
+    int rows = (int) Math.min(batch.getCapacity(), remainingRowCount);
+    if (rowIndexes != null) {
+      readRows(batch, rows);
+      return rows;
+    }
+    for (int i = 0; i < readers.length; ++i) {
+      int read = readers[i].readBatch(batch.getColumn(i), rows);
+      if (read != rows) {
+        throw new ParquetDecodingException("Column " + readers[i].getDescriptor()
+            + " has fewer rows than the row group: " + read + " instead of " + rows);
+      }
+    }
+    batch.rowCount = rows;
+    remainingRowCount -= rows;
+    return rows;
+  }
+
+  private void readRows(ColumnarBatch batch, int rows) {
+    if (batchRowIndexes.length < rows) {
+      batchRowIndexes = new long[batch.getCapacity()];
+    }
+    for (int i = 0; i < rows; ++i) {
+      batchRowIndexes[i] = rowIndexes.nextLong();
+    }
+    for (int i = 0; i < readers.length; ++i) {
+      readers[i].readRows(batch.getColumn(i), batchRowIndexes, rows);
+    }
+    batch.rowCount = rows;
+    remainingRowCount -= rows;
+  }
+}
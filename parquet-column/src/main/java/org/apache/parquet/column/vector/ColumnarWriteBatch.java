@@ -0,0 +1,401 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.vector;
+
+import static org.apache.parquet.Preconditions.checkArgument;
+import static org.apache.parquet.Preconditions.checkState;
+
+import java.util.List;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnWriteStore;
+import org.apache.parquet.column.ColumnWriter;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+/**
+ * A batch of rows of a schema given column by column to be written to the column writers without going through the
+ * record consumer. Every primitive column (in the order of {@link MessageType#getColumns()}) gets its entries as the
+ * array of the values and either
+ * <ul>
+ * <li>a null bitmap in the layout of {@link ColumnVector#getNullBitmap()} for the columns of flat schemas (maximum
+ * repetition level 0 and maximum definition level at most 1) where there is one entry per row, or</li>
+ * <li>the repetition and definition levels of the entries for any column.</li>
+ * </ul>
+ * The values are aligned to the entries; the values of the entries without a value are ignored. The arrays are not
+ * copied so they can be refilled between two writes of the batch; the batch writes the statistics, the Bloom filters
+ * and the page boundaries the same way as the rows written one by one would.
+ *
+ * @see ColumnWriter#writeIntegers(int[], int[], int[], int, int, int)
+ */
+public class ColumnarWriteBatch {
+
+  private final MessageType schema;
+  private final Column[] columns;
+  private int rowCount;
+
+  /**
+   * @param schema the schema of the rows
+   */
+  public ColumnarWriteBatch(MessageType schema) {
+    this.schema = schema;
+    List<ColumnDescriptor> descriptors = schema.getColumns();
+    this.columns = new Column[descriptors.size()];
+    for (int i = 0; i < columns.length; ++i) {
+      columns[i] = new Column(descriptors.get(i));
+    }
+  }
+
+  public MessageType getSchema() {
+    return schema;
+  }
+
+  /**
+   * @return the number of rows in this batch
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * @param rowCount the number of rows in this batch
+   * @return this batch
+   */
+  public ColumnarWriteBatch setRowCount(int rowCount) {
+    checkArgument(rowCount >= 0, "Invalid row count: %s", rowCount);
+    this.rowCount = rowCount;
+    return this;
+  }
+
+  /**
+   * Sets the values of a flat INT32 column.
+   *
+   * @param column the index of the column
+   * @param values the values of the rows
+   * @param nulls the null bitmap of the rows; {@code null} if all the rows have a value
+   * @return this batch
+   */
+  public ColumnarWriteBatch setValues(int column, int[] values, long[] nulls) {
+    columns[column].set(PrimitiveTypeName.INT32, values, nulls);
+    return this;
+  }
+
+  /**
+   * Sets the entries of an INT32 column.
+   *
+   * @param column the index of the column
+   * @param count the number of entries
+   * @param values the values of the entries
+   * @param repetitionLevels the repetition levels of the entries; {@code null} if the column is not repeated
+   * @param definitionLevels the definition levels of the entries; {@code null} if all the entries have a value
+   * @return this batch
+   */
+  public ColumnarWriteBatch setValues(int column, int count, int[] values, int[] repetitionLevels,
+      int[] definitionLevels) {
+    columns[column].set(PrimitiveTypeName.INT32, count, values, repetitionLevels, definitionLevels);
+    return this;
+  }
+
+  /**
+   * Sets the values of a flat INT64 column.
+   *
+   * @param column the index of the column
+   * @param values the values of the rows
+   * @param nulls the null bitmap of the rows; {@code null} if all the rows have a value
+   * @return this batch
+   */
+  public ColumnarWriteBatch setValues(int column, long[] values, long[] nulls) {
+    columns[column].set(PrimitiveTypeName.INT64, values, nulls);
+    return this;
+  }
+
+  /**
+   * Sets the entries of an INT64 column.
+   *
+   * @param column the index of the column
+   * @param count the number of entries
+   * @param values the values of the entries
+   * @param repetitionLevels the repetition levels of the entries; {@code null} if the column is not repeated
+   * @param definitionLevels the definition levels of the entries; {@code null} if all the entries have a value
+   * @return this batch
+   */
+  public ColumnarWriteBatch setValues(int column, int count, long[] values, int[] repetitionLevels,
+      int[] definitionLevels) {
+    columns[column].set(PrimitiveTypeName.INT64, count, values, repetitionLevels, definitionLevels);
+    return this;
+  }
+
+  /**
+   * Sets the values of a flat FLOAT column.
+   *
+   * @param column the index of the column
+   * @param values the values of the rows
+   * @param nulls the null bitmap of the rows; {@code null} if all the rows have a value
+   * @return this batch
+   */
+  public ColumnarWriteBatch setValues(int column, float[] values, long[] nulls) {
+    columns[column].set(PrimitiveTypeName.FLOAT, values, nulls);
+    return this;
+  }
+
+  /**
+   * Sets the entries of a FLOAT column.
+   *
+   * @param column the index of the column
+   * @param count the number of entries
+   * @param values the values of the entries
+   * @param repetitionLevels the repetition levels of the entries; {@code null} if the column is not repeated
+   * @param definitionLevels the definition levels of the entries; {@code null} if all the entries have a value
+   * @return this batch
+   */
+  public ColumnarWriteBatch setValues(int column, int count, float[] values, int[] repetitionLevels,
+      int[] definitionLevels) {
+    columns[column].set(PrimitiveTypeName.FLOAT, count, values, repetitionLevels, definitionLevels);
+    return this;
+  }
+
+  /**
+   * Sets the values of a flat DOUBLE column.
+   *
+   * @param column the index of the column
+   * @param values the values of the rows
+   * @param nulls the null bitmap of the rows; {@code null} if all the rows have a value
+   * @return this batch
+   */
+  public ColumnarWriteBatch setValues(int column, double[] values, long[] nulls) {
+    columns[column].set(PrimitiveTypeName.DOUBLE, values, nulls);
+    return this;
+  }
+
+  /**
+   * Sets the entries of a DOUBLE column.
+   *
+   * @param column the index of the column
+   * @param count the number of entries
+   * @param values the values of the entries
+   * @param repetitionLevels the repetition levels of the entries; {@code null} if the column is not repeated
+   * @param definitionLevels the definition levels of the entries; {@code null} if all the entries have a value
+   * @return this batch
+   */
+  public ColumnarWriteBatch setValues(int column, int count, double[] values, int[] repetitionLevels,
+      int[] definitionLevels) {
+    columns[column].set(PrimitiveTypeName.DOUBLE, count, values, repetitionLevels, definitionLevels);
+    return this;
+  }
+
+  /**
+   * Sets the values of a flat BOOLEAN column.
+   *
+   * @param column the index of the column
+   * @param values the values of the rows
+   * @param nulls the null bitmap of the rows; {@code null} if all the rows have a value
+   * @return this batch
+   */
+  public ColumnarWriteBatch setValues(int column, boolean[] values, long[] nulls) {
+    columns[column].set(PrimitiveTypeName.BOOLEAN, values, nulls);
+    return this;
+  }
+
+  /**
+   * Sets the entries of a BOOLEAN column.
+   *
+   * @param column the index of the column
+   * @param count the number of entries
+   * @param values the values of the entries
+   * @param repetitionLevels the repetition levels of the entries; {@code null} if the column is not repeated
+   * @param definitionLevels the definition levels of the entries; {@code null} if all the entries have a value
+   * @return this batch
+   */
+  public ColumnarWriteBatch setValues(int column, int count, boolean[] values, int[] repetitionLevels,
+      int[] definitionLevels) {
+    columns[column].set(PrimitiveTypeName.BOOLEAN, count, values, repetitionLevels, definitionLevels);
+    return this;
+  }
+
+  /**
+   * Sets the values of a flat BINARY, FIXED_LEN_BYTE_ARRAY or INT96 column.
+   *
+   * @param column the index of the column
+   * @param values the values of the rows
+   * @param nulls the null bitmap of the rows; {@code null} if all the rows have a value
+   * @return this batch
+   */
+  public ColumnarWriteBatch setValues(int column, Binary[] values, long[] nulls) {
+    columns[column].set(PrimitiveTypeName.BINARY, values, nulls);
+    return this;
+  }
+
+  /**
+   * Sets the entries of a BINARY, FIXED_LEN_BYTE_ARRAY or INT96 column.
+   *
+   * @param column the index of the column
+   * @param count the number of entries
+   * @param values the values of the entries
+   * @param repetitionLevels the repetition levels of the entries; {@code null} if the column is not repeated
+   * @param definitionLevels the definition levels of the entries; {@code null} if all the entries have a value
+   * @return this batch
+   */
+  public ColumnarWriteBatch setValues(int column, int count, Binary[] values, int[] repetitionLevels,
+      int[] definitionLevels) {
+    columns[column].set(PrimitiveTypeName.BINARY, count, values, repetitionLevels, definitionLevels);
+    return this;
+  }
+
+  /**
+   * Writes the rows of this batch to the column writers of the specified store and ends the records. The rows are
+   * written in slices ending where the store checks the size of the pages.
+   *
+   * @param store the store to write the rows to
+   * @throws IllegalStateException if a column has no values or its entries do not hold {@link #getRowCount()} rows
+   */
+  public void writeTo(ColumnWriteStore store) {
+    ColumnWriter[] writers = new ColumnWriter[columns.length];
+    for (int i = 0; i < columns.length; ++i) {
+      columns[i].prepare(rowCount);
+      writers[i] = store.getColumnWriter(columns[i].descriptor);
+    }
+    for (int written = 0; written < rowCount; ) {
+      int rows = Math.min(rowCount - written, store.getRecordCountBeforeSizeCheck());
+      for (int i = 0; i < columns.length; ++i) {
+        columns[i].write(writers[i], rows);
+      }
+      store.endRecords(rows);
+      written += rows;
+    }
+  }
+
+  private static class Column {
+    private final ColumnDescriptor descriptor;
+    private final PrimitiveTypeName type;
+    private Object values;
+    private long[] nulls;
+    private boolean bitmap;
+    private int count;
+    private int[] repetitionLevels;
+    private int[] definitionLevels;
+    // the definition levels converted from the null bitmap
+    private int[] levelBuffer = new int[0];
+    // the index of the next entry to write
+    private int position;
+
+    Column(ColumnDescriptor descriptor) {
+      this.descriptor = descriptor;
+      PrimitiveTypeName type = descriptor.getPrimitiveType().getPrimitiveTypeName();
+      this.type = type == PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY || type == PrimitiveTypeName.INT96
+          ? PrimitiveTypeName.BINARY
+          : type;
+    }
+
+    void set(PrimitiveTypeName valueType, Object values, long[] nulls) {
+      checkType(valueType);
+      checkArgument(descriptor.getMaxRepetitionLevel() == 0 && descriptor.getMaxDefinitionLevel() <= 1,
+          "Column %s is not flat; its levels shall be set", descriptor);
+      checkArgument(nulls == null || descriptor.getMaxDefinitionLevel() == 1, "Column %s is required", descriptor);
+      this.values = values;
+      this.nulls = nulls;
+      this.bitmap = true;
+      this.repetitionLevels = null;
+      this.definitionLevels = null;
+    }
+
+    void set(PrimitiveTypeName valueType, int count, Object values, int[] repetitionLevels,
+        int[] definitionLevels) {
+      checkType(valueType);
+      checkArgument(repetitionLevels != null || descriptor.getMaxRepetitionLevel() == 0,
+          "Column %s is repeated; the repetition levels shall be set", descriptor);
+      this.values = values;
+      this.nulls = null;
+      this.bitmap = false;
+      this.count = count;
+      this.repetitionLevels = repetitionLevels;
+      this.definitionLevels = definitionLevels;
+    }
+
+    private void checkType(PrimitiveTypeName valueType) {
+      checkArgument(valueType == type, "Column %s cannot be written from values of type %s", descriptor, valueType);
+    }
+
+    void prepare(int rowCount) {
+      checkState(values != null, "No values set for column %s", descriptor);
+      if (bitmap) {
+        count = rowCount;
+        if (nulls == null) {
+          definitionLevels = null;
+        } else {
+          if (levelBuffer.length < count) {
+            levelBuffer = new int[count];
+          }
+          for (int i = 0; i < count; ++i) {
+            levelBuffer[i] = (nulls[i >>> 6] & (1L << i)) == 0 ? 1 : 0;
+          }
+          definitionLevels = levelBuffer;
+        }
+      } else if (repetitionLevels == null) {
+        checkState(count == rowCount, "Column %s has %s entries for %s rows", descriptor, count, rowCount);
+      } else {
+        int records = 0;
+        for (int i = 0; i < count; ++i) {
+          if (repetitionLevels[i] == 0) {
+            ++records;
+          }
+        }
+        checkState(count == 0 || repetitionLevels[0] == 0, "The entries of column %s do not start a record",
+            descriptor);
+        checkState(records == rowCount, "Column %s has %s records for %s rows", descriptor, records, rowCount);
+      }
+      position = 0;
+    }
+
+    void write(ColumnWriter writer, int rows) {
+      int end = position + rows;
+      if (repetitionLevels != null) {
+        end = position;
+        for (int i = 0; i < rows; ++i) {
+          do {
+            ++end;
+          } while (end < count && repetitionLevels[end] != 0);
+        }
+      }
+      int n = end - position;
+      int maxDefinitionLevel = descriptor.getMaxDefinitionLevel();
+      switch (type) {
+        case INT32:
+          writer.writeIntegers((int[]) values, repetitionLevels, definitionLevels, maxDefinitionLevel, position, n);
+          break;
+        case INT64:
+          writer.writeLongs((long[]) values, repetitionLevels, definitionLevels, maxDefinitionLevel, position, n);
+          break;
+        case FLOAT:
+          writer.writeFloats((float[]) values, repetitionLevels, definitionLevels, maxDefinitionLevel, position, n);
+          break;
+        case DOUBLE:
+          writer.writeDoubles((double[]) values, repetitionLevels, definitionLevels, maxDefinitionLevel, position, n);
+          break;
+        case BOOLEAN:
+          writer.writeBooleans((boolean[]) values, repetitionLevels, definitionLevels, maxDefinitionLevel, position, n);
+          break;
+        default:
+          writer.writeBinaries((Binary[]) values, repetitionLevels, definitionLevels, maxDefinitionLevel, position, n);
+          break;
+      }
+      position = end;
+    }
+  }
+}
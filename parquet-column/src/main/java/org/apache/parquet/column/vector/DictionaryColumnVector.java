@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.vector;
+
+import java.util.Arrays;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Dictionary;
+
+/**
+ * {@link ColumnVector} keeping the values of dictionary encoded pages as their dictionary ids. The ids reference the
+ * {@link Dictionary} of the column chunk which is shared by all the batches of the chunk, so the consumers may work on
+ * the ids (e.g. grouping or joining) and decode only the values they need.
+ * <p>
+ * The values of the pages that are not dictionary encoded (e.g. the writer fell back to plain encoding as the
+ * dictionary grew too large, or the column chunk has no dictionary at all) are materialized: their entries have the
+ * id {@code -1} and their values are stored at the same indexes in {@link #getMaterializedValues()}.
+ *
+ * @see ColumnChunkBatchReader
+ */
+public final class DictionaryColumnVector extends ColumnVector {
+
+  int[] ids;
+  Dictionary dictionary;
+  private ColumnVector materialized;
+  // the entries of the last dictionary decoded by getDecodedDictionary()
+  private Dictionary decodedDictionary;
+  private ColumnVector decodedEntries;
+  // the number of entries read from pages not dictionary encoded and the index after the last one
+  private int materializedCount;
+  private int materializedEnd;
+
+  DictionaryColumnVector(ColumnDescriptor descriptor, int capacity) {
+    super(descriptor, capacity);
+    ids = new int[capacity];
+  }
+
+  /**
+   * @return the dictionary of the column chunk the entries have been read from or {@code null} if it has none; it is
+   *         valid until the vector is filled again
+   */
+  public Dictionary getDictionary() {
+    return dictionary;
+  }
+
+  /**
+   * Decodes the entries of the dictionary into a vector where the index of an entry is its id. The decoded entries
+   * are kept as long as the vector is filled from the same dictionary (i.e. the same column chunk).
+   *
+   * @return the vector of the decoded dictionary entries or {@code null} if there is no dictionary
+   */
+  public ColumnVector getDecodedDictionary() {
+    if (dictionary == null) {
+      return null;
+    }
+    if (decodedDictionary != dictionary) {
+      decodedEntries = decode(dictionary);
+      decodedDictionary = dictionary;
+    }
+    return decodedEntries;
+  }
+
+  private ColumnVector decode(Dictionary dictionary) {
+    int n = dictionary.getMaxId() + 1;
+    ColumnVector entries = ColumnVector.create(getDescriptor(), n);
+    switch (getDescriptor().getPrimitiveType().getPrimitiveTypeName()) {
+      case INT32: {
+        int[] values = ((IntColumnVector) entries).values;
+        for (int id = 0; id < n; ++id) {
+          values[id] = dictionary.decodeToInt(id);
+        }
+        break;
+      }
+      case INT64: {
+        long[] values = ((LongColumnVector) entries).values;
+        for (int id = 0; id < n; ++id) {
+          values[id] = dictionary.decodeToLong(id);
+        }
+        break;
+      }
+      case FLOAT: {
+        float[] values = ((FloatColumnVector) entries).values;
+        for (int id = 0; id < n; ++id) {
+          values[id] = dictionary.decodeToFloat(id);
+        }
+        break;
+      }
+      case DOUBLE: {
+        double[] values = ((DoubleColumnVector) entries).values;
+        for (int id = 0; id < n; ++id) {
+          values[id] = dictionary.decodeToDouble(id);
+        }
+        break;
+      }
+      default: {
+        BinaryColumnVector binaries = (BinaryColumnVector) entries;
+        for (int id = 0; id < n; ++id) {
+          binaries.append(id, dictionary.decodeToBinary(id));
+        }
+        break;
+      }
+    }
+    entries.size = n;
+    return entries;
+  }
+
+  /**
+   * @return the dictionary ids of the entries; the ones of the null entries are undefined
+   */
+  public int[] getIds() {
+    return ids;
+  }
+
+  /**
+   * @param index the index of a non-null entry
+   * @return the dictionary id of the entry or {@code -1} if its value is materialized
+   */
+  public int getId(int index) {
+    return ids[index];
+  }
+
+  /**
+   * @return whether all the non-null entries have a dictionary id; if so {@link #getMaterializedValues()} may be
+   *         ignored
+   */
+  public boolean isDictionaryEncoded() {
+    return materializedCount == 0;
+  }
+
+  /**
+   * @return the vector holding the values of the entries without dictionary id at their indexes or {@code null} if
+   *         all the entries have an id; only the values of these entries are defined in this vector
+   */
+  public ColumnVector getMaterializedValues() {
+    return materializedCount == 0 ? null : materialized;
+  }
+
+  /**
+   * Prepares the materialized vector to receive the values of the specified entries read from a page that is not
+   * dictionary encoded.
+   *
+   * @return the vector to read the values into
+   */
+  ColumnVector materialize(int start, int n) {
+    int end = start + n;
+    if (materialized == null) {
+      materialized = ColumnVector.create(getDescriptor(), capacity);
+    }
+    materialized.ensureCapacity(end);
+    if (materialized instanceof BinaryColumnVector) {
+      // the binary values are appended: the entries having an id are empty ones
+      BinaryColumnVector binaries = (BinaryColumnVector) materialized;
+      for (int i = materializedEnd; i < start; ++i) {
+        binaries.appendEmpty(i);
+      }
+    }
+    Arrays.fill(ids, start, end, -1);
+    materializedCount += n;
+    materializedEnd = end;
+    materialized.size = end;
+    return materialized;
+  }
+
+  @Override
+  void reset() {
+    super.reset();
+    if (materializedCount != 0) {
+      materialized.reset();
+      materializedCount = 0;
+      materializedEnd = 0;
+    }
+    dictionary = null;
+  }
+
+  @Override
+  void moveValues(int[] levels, int maxLevel, int end, int last) {
+    for (int i = end - 1, next = last; i > next; --i) {
+      if (levels[i] == maxLevel) {
+        ids[i] = ids[next--];
+      }
+    }
+  }
+
+  @Override
+  void growValues(int newCapacity) {
+    ids = Arrays.copyOf(ids, newCapacity);
+  }
+}
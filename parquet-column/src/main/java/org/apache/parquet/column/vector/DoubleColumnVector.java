@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.vector;
+
+import java.util.Arrays;
+
+import org.apache.parquet.column.ColumnDescriptor;
+
+/**
+ * {@link ColumnVector} of DOUBLE values.
+ */
+public final class DoubleColumnVector extends ColumnVector {
+
+  double[] values;
+
+  DoubleColumnVector(ColumnDescriptor descriptor, int capacity) {
+    super(descriptor, capacity);
+    values = new double[capacity];
+  }
+
+  /**
+   * @return the values of the entries; the ones of the null entries are undefined
+   */
+  public double[] getValues() {
+    return values;
+  }
+
+  /**
+   * @param index the index of a non-null entry
+   * @return the value of the entry
+   */
+  public double getDouble(int index) {
+    return values[index];
+  }
+
+  @Override
+  void moveValues(int[] levels, int maxLevel, int end, int last) {
+    for (int i = end - 1, next = last; i > next; --i) {
+      if (levels[i] == maxLevel) {
+        values[i] = values[next--];
+      }
+    }
+  }
+
+  @Override
+  void growValues(int newCapacity) {
+    values = Arrays.copyOf(values, newCapacity);
+  }
+}
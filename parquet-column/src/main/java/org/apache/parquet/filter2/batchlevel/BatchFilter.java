@@ -0,0 +1,348 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.filter2.batchlevel;
+
+import static org.apache.parquet.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.vector.ColumnarBatch;
+import org.apache.parquet.filter2.batchlevel.BatchPredicate.And;
+import org.apache.parquet.filter2.batchlevel.BatchPredicate.Constant;
+import org.apache.parquet.filter2.batchlevel.BatchPredicate.Or;
+import org.apache.parquet.filter2.batchlevel.ColumnBatchPredicate.BinaryCompare;
+import org.apache.parquet.filter2.batchlevel.ColumnBatchPredicate.BinaryIn;
+import org.apache.parquet.filter2.batchlevel.ColumnBatchPredicate.BooleanEq;
+import org.apache.parquet.filter2.batchlevel.ColumnBatchPredicate.Comparison;
+import org.apache.parquet.filter2.batchlevel.ColumnBatchPredicate.DoubleCompare;
+import org.apache.parquet.filter2.batchlevel.ColumnBatchPredicate.FloatCompare;
+import org.apache.parquet.filter2.batchlevel.ColumnBatchPredicate.IntCompare;
+import org.apache.parquet.filter2.batchlevel.ColumnBatchPredicate.IntIn;
+import org.apache.parquet.filter2.batchlevel.ColumnBatchPredicate.LongCompare;
+import org.apache.parquet.filter2.batchlevel.ColumnBatchPredicate.LongIn;
+import org.apache.parquet.filter2.batchlevel.ColumnBatchPredicate.NullCheck;
+import org.apache.parquet.filter2.batchlevel.ColumnBatchPredicate.UserDefinedCheck;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.LogicalInverseRewriter;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.filter2.predicate.Operators.Eq;
+import org.apache.parquet.filter2.predicate.Operators.Gt;
+import org.apache.parquet.filter2.predicate.Operators.GtEq;
+import org.apache.parquet.filter2.predicate.Operators.LogicalNotUserDefined;
+import org.apache.parquet.filter2.predicate.Operators.Lt;
+import org.apache.parquet.filter2.predicate.Operators.LtEq;
+import org.apache.parquet.filter2.predicate.Operators.Not;
+import org.apache.parquet.filter2.predicate.Operators.NotEq;
+import org.apache.parquet.filter2.predicate.Operators.UserDefined;
+import org.apache.parquet.filter2.predicate.SchemaCompatibilityValidator;
+import org.apache.parquet.filter2.predicate.UserDefinedPredicate;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+
+/**
+ * Evaluates a {@link FilterPredicate} on the rows of a {@link ColumnarBatch} at once. The predicates of the columns are
+ * evaluated in loops over the arrays of the column vectors (once per dictionary entry for the dictionary ids) and the
+ * results are combined as bitmaps; the rows matching the predicate are returned as a selection bitmap in the layout of
+ * the null bitmaps of the vectors: bit {@code i % 64} of element {@code i / 64} is set if row {@code i} matches.
+ * <p>
+ * A batch holding only the columns of the filter (see {@link #getColumns()}) may be read first; the other columns then
+ * only need to be decoded for the selected rows (see {@link #getSelectedRows(long[], int, int[])}).
+ * <p>
+ * The semantics are the ones of the record level filters: the values are compared by the comparators of the columns,
+ * the nulls only match {@code eq(column, null)} and {@code notEq(column, value)} and the columns missing from the
+ * schema are all nulls. An {@code or} of {@code eq} predicates on a column is evaluated as one lookup of the values in
+ * the set of the operands. As for the record level filters only the non-repeated columns are supported.
+ * <p>
+ * A filter keeps the results of the dictionaries evaluated last; it shall not be used by several threads at once.
+ */
+public class BatchFilter {
+
+  private final List<ColumnDescriptor> columns;
+  private final BatchPredicate predicate;
+
+  /**
+   * @param predicate the predicate to evaluate
+   * @param schema the schema of the batches to filter
+   * @throws IllegalArgumentException if the predicate is not compatible with the schema
+   */
+  public BatchFilter(FilterPredicate predicate, MessageType schema) {
+    Objects.requireNonNull(predicate, "predicate cannot be null");
+    SchemaCompatibilityValidator.validate(predicate, schema);
+    Compiler compiler = new Compiler(schema);
+    this.predicate = LogicalInverseRewriter.rewrite(predicate).accept(compiler);
+    List<ColumnDescriptor> columns = new ArrayList<>();
+    for (ColumnDescriptor column : schema.getColumns()) {
+      if (compiler.columns.contains(column)) {
+        columns.add(column);
+      }
+    }
+    this.columns = Collections.unmodifiableList(columns);
+  }
+
+  /**
+   * @return the columns read by the predicate in the order of the schema; the batches to filter shall hold them
+   */
+  public List<ColumnDescriptor> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Evaluates the predicate on the rows of the batch.
+   *
+   * @param batch the batch to filter
+   * @param selection the bitmap to store the selected rows into; it shall have at least
+   *                  {@link #getSelectionLength(int) getSelectionLength(batch.getRowCount())} elements
+   * @return the number of selected rows
+   */
+  public int filter(ColumnarBatch batch, long[] selection) {
+    int rows = batch.getRowCount();
+    int words = getSelectionLength(rows);
+    checkArgument(selection.length >= words, "Selection too short for %s rows: %s", rows, selection.length);
+    predicate.evaluate(batch, rows, selection);
+    int selected = 0;
+    for (int i = 0; i < words; ++i) {
+      selected += Long.bitCount(selection[i]);
+    }
+    return selected;
+  }
+
+  /**
+   * @param rows the number of rows
+   * @return the number of elements of the selection bitmap of the rows
+   */
+  public static int getSelectionLength(int rows) {
+    return BatchPredicate.words(rows);
+  }
+
+  /**
+   * Converts a selection bitmap to the indexes of the selected rows.
+   *
+   * @param selection the selection bitmap returned by {@link #filter(ColumnarBatch, long[])}
+   * @param rows the number of rows of the batch
+   * @param indexes the array to store the indexes of the selected rows into in ascending order; it shall be large
+   *                enough for all the selected rows
+   * @return the number of selected rows
+   */
+  public static int getSelectedRows(long[] selection, int rows, int[] indexes) {
+    int count = 0;
+    for (int w = 0, words = getSelectionLength(rows); w < words; ++w) {
+      long bits = selection[w];
+      while (bits != 0) {
+        indexes[count++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+        bits &= bits - 1;
+      }
+    }
+    return count;
+  }
+
+  private static class Compiler implements FilterPredicate.Visitor<BatchPredicate> {
+    private final MessageType schema;
+    private final Set<ColumnDescriptor> columns = new LinkedHashSet<>();
+
+    Compiler(MessageType schema) {
+      this.schema = schema;
+    }
+
+    // null if the column is missing from the schema
+    private ColumnDescriptor column(Operators.Column<?> column) {
+      String[] path = column.getColumnPath().toArray();
+      if (!schema.containsPath(path)) {
+        return null;
+      }
+      ColumnDescriptor descriptor = schema.getColumnDescription(path);
+      columns.add(descriptor);
+      return descriptor;
+    }
+
+    private BatchPredicate compare(Operators.Column<?> column, Comparable<?> value, Comparison comparison,
+        boolean inverted, boolean nullMatches) {
+      ColumnDescriptor descriptor = column(column);
+      if (descriptor == null) {
+        return new Constant(nullMatches);
+      }
+      switch (descriptor.getPrimitiveType().getPrimitiveTypeName()) {
+        case INT32:
+          return new IntCompare(descriptor, comparison, inverted, nullMatches, (Integer) value);
+        case INT64:
+          return new LongCompare(descriptor, comparison, inverted, nullMatches, (Long) value);
+        case FLOAT:
+          return new FloatCompare(descriptor, comparison, inverted, nullMatches, (Float) value);
+        case DOUBLE:
+          return new DoubleCompare(descriptor, comparison, inverted, nullMatches, (Double) value);
+        case BOOLEAN:
+          // only eq and notEq are supported for booleans
+          return new BooleanEq(descriptor, inverted, nullMatches, (Boolean) value);
+        default:
+          return new BinaryCompare(descriptor, comparison, inverted, nullMatches, (Binary) value);
+      }
+    }
+
+    private BatchPredicate nullCheck(Operators.Column<?> column, boolean isNull) {
+      ColumnDescriptor descriptor = column(column);
+      if (descriptor == null) {
+        return new Constant(isNull);
+      }
+      return new NullCheck(descriptor, isNull);
+    }
+
+    @Override
+    public <T extends Comparable<T>> BatchPredicate visit(Eq<T> eq) {
+      if (eq.getValue() == null) {
+        return nullCheck(eq.getColumn(), true);
+      }
+      return compare(eq.getColumn(), eq.getValue(), Comparison.EQ, false, false);
+    }
+
+    @Override
+    public <T extends Comparable<T>> BatchPredicate visit(NotEq<T> notEq) {
+      if (notEq.getValue() == null) {
+        return nullCheck(notEq.getColumn(), false);
+      }
+      return compare(notEq.getColumn(), notEq.getValue(), Comparison.EQ, true, true);
+    }
+
+    @Override
+    public <T extends Comparable<T>> BatchPredicate visit(Lt<T> lt) {
+      return compare(lt.getColumn(), lt.getValue(), Comparison.LT, false, false);
+    }
+
+    @Override
+    public <T extends Comparable<T>> BatchPredicate visit(LtEq<T> ltEq) {
+      return compare(ltEq.getColumn(), ltEq.getValue(), Comparison.GT, true, false);
+    }
+
+    @Override
+    public <T extends Comparable<T>> BatchPredicate visit(Gt<T> gt) {
+      return compare(gt.getColumn(), gt.getValue(), Comparison.GT, false, false);
+    }
+
+    @Override
+    public <T extends Comparable<T>> BatchPredicate visit(GtEq<T> gtEq) {
+      return compare(gtEq.getColumn(), gtEq.getValue(), Comparison.LT, true, false);
+    }
+
+    @Override
+    public BatchPredicate visit(Operators.And and) {
+      return new And(and.getLeft().accept(this), and.getRight().accept(this));
+    }
+
+    @Override
+    public BatchPredicate visit(Operators.Or or) {
+      BatchPredicate in = in(or);
+      if (in != null) {
+        return in;
+      }
+      return new Or(or.getLeft().accept(this), or.getRight().accept(this));
+    }
+
+    // an or of eq predicates with non-null values on the same column of a supported type; null otherwise
+    private BatchPredicate in(Operators.Or or) {
+      List<Eq<?>> operands = new ArrayList<>();
+      if (!collectEqs(or, operands)) {
+        return null;
+      }
+      ColumnDescriptor descriptor = column(operands.get(0).getColumn());
+      if (descriptor == null) {
+        return null;
+      }
+      int size = operands.size();
+      switch (descriptor.getPrimitiveType().getPrimitiveTypeName()) {
+        case INT32: {
+          int[] values = new int[size];
+          for (int i = 0; i < size; ++i) {
+            values[i] = (Integer) operands.get(i).getValue();
+          }
+          return new IntIn(descriptor, values);
+        }
+        case INT64: {
+          long[] values = new long[size];
+          for (int i = 0; i < size; ++i) {
+            values[i] = (Long) operands.get(i).getValue();
+          }
+          return new LongIn(descriptor, values);
+        }
+        case BINARY:
+        case FIXED_LEN_BYTE_ARRAY:
+          if (!ColumnBatchPredicate.isLexicographical(descriptor)) {
+            return null;
+          }
+          Binary[] values = new Binary[size];
+          for (int i = 0; i < size; ++i) {
+            values[i] = (Binary) operands.get(i).getValue();
+          }
+          return new BinaryIn(descriptor, values);
+        default:
+          return null;
+      }
+    }
+
+    private static boolean collectEqs(FilterPredicate predicate, List<Eq<?>> operands) {
+      if (predicate instanceof Operators.Or) {
+        Operators.Or or = (Operators.Or) predicate;
+        return collectEqs(or.getLeft(), operands) && collectEqs(or.getRight(), operands);
+      }
+      if (!(predicate instanceof Eq)) {
+        return false;
+      }
+      Eq<?> eq = (Eq<?>) predicate;
+      if (eq.getValue() == null) {
+        return false;
+      }
+      if (!operands.isEmpty()
+          && !operands.get(0).getColumn().getColumnPath().equals(eq.getColumn().getColumnPath())) {
+        return false;
+      }
+      operands.add(eq);
+      return true;
+    }
+
+    @Override
+    public BatchPredicate visit(Not not) {
+      throw new IllegalArgumentException(
+          "This predicate contains a not! Did you forget to run this predicate through LogicalInverseRewriter? " + not);
+    }
+
+    @Override
+    public <T extends Comparable<T>, U extends UserDefinedPredicate<T>> BatchPredicate visit(UserDefined<T, U> udp) {
+      return userDefined(udp, false);
+    }
+
+    @Override
+    public <T extends Comparable<T>, U extends UserDefinedPredicate<T>> BatchPredicate visit(
+        LogicalNotUserDefined<T, U> udp) {
+      return userDefined(udp.getUserDefined(), true);
+    }
+
+    private <T extends Comparable<T>, U extends UserDefinedPredicate<T>> BatchPredicate userDefined(
+        UserDefined<T, U> udp, boolean negated) {
+      U predicate = udp.getUserDefinedPredicate();
+      ColumnDescriptor descriptor = column(udp.getColumn());
+      if (descriptor == null) {
+        return new Constant(predicate.keep(null) != negated);
+      }
+      return new UserDefinedCheck<>(descriptor, predicate, negated);
+    }
+  }
+}
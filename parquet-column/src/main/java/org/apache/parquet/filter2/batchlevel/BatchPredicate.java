@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.filter2.batchlevel;
+
+import java.util.Arrays;
+
+import org.apache.parquet.column.vector.ColumnarBatch;
+
+/**
+ * A node of the predicate tree evaluated by {@link BatchFilter}. The results are bitmaps of the rows of the batch:
+ * bit {@code i % 64} of element {@code i / 64} is set if row {@code i} matches.
+ */
+abstract class BatchPredicate {
+
+  /**
+   * Evaluates the predicate for the first rows of the batch.
+   *
+   * @param batch the batch holding the columns of the predicate
+   * @param rows the number of rows to evaluate
+   * @param result the bitmap to store the result into; the bits of the matching rows are set and all the others are
+   *               cleared in the first {@link #words(int)} elements
+   */
+  abstract void evaluate(ColumnarBatch batch, int rows, long[] result);
+
+  static int words(int rows) {
+    return (rows + 63) >>> 6;
+  }
+
+  // clears the bits after the last row
+  static void clearTail(long[] bitmap, int rows) {
+    int remaining = rows & 63;
+    if (remaining != 0) {
+      bitmap[(rows >>> 6)] &= -1L >>> (64 - remaining);
+    }
+  }
+
+  static long[] ensureLength(long[] bitmap, int length) {
+    return bitmap.length >= length ? bitmap : new long[length];
+  }
+
+  static class And extends BatchPredicate {
+    private final BatchPredicate left;
+    private final BatchPredicate right;
+    private long[] rightResult = new long[0];
+
+    And(BatchPredicate left, BatchPredicate right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    void evaluate(ColumnarBatch batch, int rows, long[] result) {
+      int words = words(rows);
+      left.evaluate(batch, rows, result);
+      boolean any = false;
+      for (int i = 0; i < words && !any; ++i) {
+        any = result[i] != 0;
+      }
+      if (!any) {
+        // no row left for the right side to reject
+        return;
+      }
+      rightResult = ensureLength(rightResult, words);
+      right.evaluate(batch, rows, rightResult);
+      for (int i = 0; i < words; ++i) {
+        result[i] &= rightResult[i];
+      }
+    }
+  }
+
+  static class Or extends BatchPredicate {
+    private final BatchPredicate left;
+    private final BatchPredicate right;
+    private long[] rightResult = new long[0];
+
+    Or(BatchPredicate left, BatchPredicate right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    void evaluate(ColumnarBatch batch, int rows, long[] result) {
+      int words = words(rows);
+      rightResult = ensureLength(rightResult, words);
+      left.evaluate(batch, rows, result);
+      right.evaluate(batch, rows, rightResult);
+      for (int i = 0; i < words; ++i) {
+        result[i] |= rightResult[i];
+      }
+    }
+  }
+
+  /**
+   * The predicate of a column missing from the file: all its values are null.
+   */
+  static class Constant extends BatchPredicate {
+    private final boolean matches;
+
+    Constant(boolean matches) {
+      this.matches = matches;
+    }
+
+    @Override
+    void evaluate(ColumnarBatch batch, int rows, long[] result) {
+      Arrays.fill(result, 0, words(rows), matches ? -1L : 0L);
+      clearTail(result, rows);
+    }
+  }
+}
@@ -0,0 +1,641 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.filter2.batchlevel;
+
+import java.util.Arrays;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.vector.BinaryColumnVector;
+import org.apache.parquet.column.vector.BooleanColumnVector;
+import org.apache.parquet.column.vector.ColumnVector;
+import org.apache.parquet.column.vector.ColumnarBatch;
+import org.apache.parquet.column.vector.DictionaryColumnVector;
+import org.apache.parquet.column.vector.DoubleColumnVector;
+import org.apache.parquet.column.vector.FloatColumnVector;
+import org.apache.parquet.column.vector.IntColumnVector;
+import org.apache.parquet.column.vector.LongColumnVector;
+import org.apache.parquet.filter2.predicate.UserDefinedPredicate;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.IntLogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveComparator;
+
+/**
+ * A predicate on the values of one column. The values are compared in tight loops over the arrays of the
+ * {@link ColumnVector} of the column; the nulls are then applied from its null bitmap.
+ * <p>
+ * The {@link DictionaryColumnVector}s are evaluated on their dictionary: the predicate is evaluated once per entry of
+ * the dictionary of a column chunk and the result of a row is looked up by its id. The materialized values of the
+ * pages not dictionary encoded are evaluated as the values of the other vectors.
+ */
+abstract class ColumnBatchPredicate extends BatchPredicate {
+
+  /**
+   * The comparisons of the loops; the other ones are their inverse: {@code NotEq} is not {@code EQ}, {@code GtEq} is
+   * not {@code LT} and {@code LtEq} is not {@code GT}.
+   */
+  enum Comparison {
+    EQ, LT, GT
+  }
+
+  private final String[] path;
+  // whether the null values match the predicate
+  private final boolean nullMatches;
+  private Dictionary dictionary;
+  private long[] dictionaryResult = new long[0];
+  private long[] materializedResult = new long[0];
+
+  ColumnBatchPredicate(ColumnDescriptor column, boolean nullMatches) {
+    this.path = column.getPath();
+    this.nullMatches = nullMatches;
+  }
+
+  ColumnVector column(ColumnarBatch batch) {
+    return batch.getColumn(path);
+  }
+
+  @Override
+  void evaluate(ColumnarBatch batch, int rows, long[] result) {
+    ColumnVector vector = column(batch);
+    if (vector instanceof DictionaryColumnVector) {
+      evaluateIds((DictionaryColumnVector) vector, rows, result);
+    } else {
+      evaluateValues(vector, rows, result);
+    }
+    applyNulls(vector, rows, result);
+    clearTail(result, rows);
+  }
+
+  /**
+   * Evaluates the values of the first entries of the vector regardless of their nullity.
+   *
+   * @param vector the vector of the column
+   * @param rows the number of entries to evaluate
+   * @param result the bitmap to store the result into; all the bits of the first {@link #words(int)} elements are
+   *               written, the ones after the last entry are undefined
+   */
+  abstract void evaluateValues(ColumnVector vector, int rows, long[] result);
+
+  void applyNulls(ColumnVector vector, int rows, long[] result) {
+    if (vector.getNullCount() == 0) {
+      return;
+    }
+    long[] nulls = vector.getNullBitmap();
+    int words = words(rows);
+    if (nullMatches) {
+      for (int i = 0; i < words; ++i) {
+        result[i] |= nulls[i];
+      }
+    } else {
+      for (int i = 0; i < words; ++i) {
+        result[i] &= ~nulls[i];
+      }
+    }
+  }
+
+  private void evaluateIds(DictionaryColumnVector vector, int rows, long[] result) {
+    int dictionarySize = 0;
+    if (vector.getDictionary() != null) {
+      ColumnVector entries = vector.getDecodedDictionary();
+      dictionarySize = entries.size();
+      if (vector.getDictionary() != dictionary) {
+        dictionaryResult = ensureLength(dictionaryResult, words(dictionarySize));
+        evaluateValues(entries, dictionarySize, dictionaryResult);
+        dictionary = vector.getDictionary();
+      }
+    }
+    ColumnVector materialized = vector.getMaterializedValues();
+    int materializedSize = 0;
+    if (materialized != null) {
+      // the values after the last materialized entry are not filled
+      materializedSize = Math.min(rows, materialized.size());
+      materializedResult = ensureLength(materializedResult, words(materializedSize));
+      evaluateValues(materialized, materializedSize, materializedResult);
+    }
+    int[] ids = vector.getIds();
+    long[] matches = dictionaryResult;
+    for (int w = 0, words = words(rows); w < words; ++w) {
+      int base = w << 6;
+      int n = Math.min(64, rows - base);
+      long bits = 0;
+      for (int j = 0; j < n; ++j) {
+        // the ids of the null entries are undefined
+        int id = ids[base + j];
+        if (id >= 0) {
+          if (id < dictionarySize) {
+            bits |= ((matches[id >>> 6] >>> id) & 1L) << j;
+          }
+        } else if (base + j < materializedSize) {
+          bits |= materializedResult[w] & (1L << j);
+        }
+      }
+      result[w] = bits;
+    }
+  }
+
+  static void invert(long[] result, int rows) {
+    for (int i = 0, words = words(rows); i < words; ++i) {
+      result[i] = ~result[i];
+    }
+  }
+
+  // the signed comparison of the values xor this bias is the comparison of the column
+  static int intBias(ColumnDescriptor column) {
+    return isUnsigned(column) ? Integer.MIN_VALUE : 0;
+  }
+
+  static long longBias(ColumnDescriptor column) {
+    return isUnsigned(column) ? Long.MIN_VALUE : 0;
+  }
+
+  private static boolean isUnsigned(ColumnDescriptor column) {
+    LogicalTypeAnnotation annotation = column.getPrimitiveType().getLogicalTypeAnnotation();
+    return annotation instanceof IntLogicalTypeAnnotation && !((IntLogicalTypeAnnotation) annotation).isSigned();
+  }
+
+  /**
+   * {@code eq(column, null)} and {@code notEq(column, null)}; only the null bitmap is read.
+   */
+  static class NullCheck extends ColumnBatchPredicate {
+    private final boolean isNull;
+
+    NullCheck(ColumnDescriptor column, boolean isNull) {
+      super(column, isNull);
+      this.isNull = isNull;
+    }
+
+    @Override
+    void evaluate(ColumnarBatch batch, int rows, long[] result) {
+      ColumnVector vector = column(batch);
+      evaluateValues(vector, rows, result);
+      applyNulls(vector, rows, result);
+      clearTail(result, rows);
+    }
+
+    @Override
+    void evaluateValues(ColumnVector vector, int rows, long[] result) {
+      Arrays.fill(result, 0, words(rows), isNull ? 0L : -1L);
+    }
+  }
+
+  static class IntCompare extends ColumnBatchPredicate {
+    private final Comparison comparison;
+    private final boolean inverted;
+    private final int bias;
+    private final int target;
+
+    IntCompare(ColumnDescriptor column, Comparison comparison, boolean inverted, boolean nullMatches, int target) {
+      super(column, nullMatches);
+      this.comparison = comparison;
+      this.inverted = inverted;
+      this.bias = intBias(column);
+      this.target = target;
+    }
+
+    @Override
+    void evaluateValues(ColumnVector vector, int rows, long[] result) {
+      int[] values = ((IntColumnVector) vector).getValues();
+      int biasedTarget = target ^ bias;
+      for (int w = 0, words = words(rows); w < words; ++w) {
+        int base = w << 6;
+        int n = Math.min(64, rows - base);
+        long bits = 0;
+        switch (comparison) {
+          case EQ:
+            for (int j = 0; j < n; ++j) {
+              bits |= (values[base + j] == target ? 1L : 0L) << j;
+            }
+            break;
+          case LT:
+            for (int j = 0; j < n; ++j) {
+              bits |= ((values[base + j] ^ bias) < biasedTarget ? 1L : 0L) << j;
+            }
+            break;
+          default:
+            for (int j = 0; j < n; ++j) {
+              bits |= ((values[base + j] ^ bias) > biasedTarget ? 1L : 0L) << j;
+            }
+            break;
+        }
+        result[w] = bits;
+      }
+      if (inverted) {
+        invert(result, rows);
+      }
+    }
+  }
+
+  static class LongCompare extends ColumnBatchPredicate {
+    private final Comparison comparison;
+    private final boolean inverted;
+    private final long bias;
+    private final long target;
+
+    LongCompare(ColumnDescriptor column, Comparison comparison, boolean inverted, boolean nullMatches, long target) {
+      super(column, nullMatches);
+      this.comparison = comparison;
+      this.inverted = inverted;
+      this.bias = longBias(column);
+      this.target = target;
+    }
+
+    @Override
+    void evaluateValues(ColumnVector vector, int rows, long[] result) {
+      long[] values = ((LongColumnVector) vector).getValues();
+      long biasedTarget = target ^ bias;
+      for (int w = 0, words = words(rows); w < words; ++w) {
+        int base = w << 6;
+        int n = Math.min(64, rows - base);
+        long bits = 0;
+        switch (comparison) {
+          case EQ:
+            for (int j = 0; j < n; ++j) {
+              bits |= (values[base + j] == target ? 1L : 0L) << j;
+            }
+            break;
+          case LT:
+            for (int j = 0; j < n; ++j) {
+              bits |= ((values[base + j] ^ bias) < biasedTarget ? 1L : 0L) << j;
+            }
+            break;
+          default:
+            for (int j = 0; j < n; ++j) {
+              bits |= ((values[base + j] ^ bias) > biasedTarget ? 1L : 0L) << j;
+            }
+            break;
+        }
+        result[w] = bits;
+      }
+      if (inverted) {
+        invert(result, rows);
+      }
+    }
+  }
+
+  // the floating point values are compared as Float.compare does (like the comparator of the column)
+  static class FloatCompare extends ColumnBatchPredicate {
+    private final Comparison comparison;
+    private final boolean inverted;
+    private final float target;
+
+    FloatCompare(ColumnDescriptor column, Comparison comparison, boolean inverted, boolean nullMatches,
+        float target) {
+      super(column, nullMatches);
+      this.comparison = comparison;
+      this.inverted = inverted;
+      this.target = target;
+    }
+
+    @Override
+    void evaluateValues(ColumnVector vector, int rows, long[] result) {
+      float[] values = ((FloatColumnVector) vector).getValues();
+      for (int w = 0, words = words(rows); w < words; ++w) {
+        int base = w << 6;
+        int n = Math.min(64, rows - base);
+        long bits = 0;
+        switch (comparison) {
+          case EQ:
+            for (int j = 0; j < n; ++j) {
+              bits |= (Float.compare(values[base + j], target) == 0 ? 1L : 0L) << j;
+            }
+            break;
+          case LT:
+            for (int j = 0; j < n; ++j) {
+              bits |= (Float.compare(values[base + j], target) < 0 ? 1L : 0L) << j;
+            }
+            break;
+          default:
+            for (int j = 0; j < n; ++j) {
+              bits |= (Float.compare(values[base + j], target) > 0 ? 1L : 0L) << j;
+            }
+            break;
+        }
+        result[w] = bits;
+      }
+      if (inverted) {
+        invert(result, rows);
+      }
+    }
+  }
+
+  static class DoubleCompare extends ColumnBatchPredicate {
+    private final Comparison comparison;
+    private final boolean inverted;
+    private final double target;
+
+    DoubleCompare(ColumnDescriptor column, Comparison comparison, boolean inverted, boolean nullMatches,
+        double target) {
+      super(column, nullMatches);
+      this.comparison = comparison;
+      this.inverted = inverted;
+      this.target = target;
+    }
+
+    @Override
+    void evaluateValues(ColumnVector vector, int rows, long[] result) {
+      double[] values = ((DoubleColumnVector) vector).getValues();
+      for (int w = 0, words = words(rows); w < words; ++w) {
+        int base = w << 6;
+        int n = Math.min(64, rows - base);
+        long bits = 0;
+        switch (comparison) {
+          case EQ:
+            for (int j = 0; j < n; ++j) {
+              bits |= (Double.compare(values[base + j], target) == 0 ? 1L : 0L) << j;
+            }
+            break;
+          case LT:
+            for (int j = 0; j < n; ++j) {
+              bits |= (Double.compare(values[base + j], target) < 0 ? 1L : 0L) << j;
+            }
+            break;
+          default:
+            for (int j = 0; j < n; ++j) {
+              bits |= (Double.compare(values[base + j], target) > 0 ? 1L : 0L) << j;
+            }
+            break;
+        }
+        result[w] = bits;
+      }
+      if (inverted) {
+        invert(result, rows);
+      }
+    }
+  }
+
+  static class BooleanEq extends ColumnBatchPredicate {
+    private final boolean inverted;
+    private final boolean target;
+
+    BooleanEq(ColumnDescriptor column, boolean inverted, boolean nullMatches, boolean target) {
+      super(column, nullMatches);
+      this.inverted = inverted;
+      this.target = target;
+    }
+
+    @Override
+    void evaluateValues(ColumnVector vector, int rows, long[] result) {
+      boolean[] values = ((BooleanColumnVector) vector).getValues();
+      boolean expected = target != inverted;
+      for (int w = 0, words = words(rows); w < words; ++w) {
+        int base = w << 6;
+        int n = Math.min(64, rows - base);
+        long bits = 0;
+        for (int j = 0; j < n; ++j) {
+          bits |= (values[base + j] == expected ? 1L : 0L) << j;
+        }
+        result[w] = bits;
+      }
+    }
+  }
+
+  /**
+   * Compares the bytes of the values in place for the unsigned lexicographical order (the order of the strings and
+   * plain binaries); the values of the other orders (e.g. decimals) are compared by the comparator of the column.
+   */
+  static class BinaryCompare extends ColumnBatchPredicate {
+    private final Comparison comparison;
+    private final boolean inverted;
+    private final PrimitiveComparator<Binary> comparator;
+    private final boolean lexicographical;
+    private final Binary target;
+    private final byte[] targetBytes;
+
+    BinaryCompare(ColumnDescriptor column, Comparison comparison, boolean inverted, boolean nullMatches,
+        Binary target) {
+      super(column, nullMatches);
+      this.comparison = comparison;
+      this.inverted = inverted;
+      this.comparator = column.getPrimitiveType().comparator();
+      this.lexicographical = isLexicographical(column);
+      this.target = target;
+      this.targetBytes = target.getBytes();
+    }
+
+    @Override
+    void evaluateValues(ColumnVector vector, int rows, long[] result) {
+      BinaryColumnVector binaries = (BinaryColumnVector) vector;
+      byte[] bytes = binaries.getBytes();
+      int[] offsets = binaries.getOffsets();
+      for (int w = 0, words = words(rows); w < words; ++w) {
+        int base = w << 6;
+        int n = Math.min(64, rows - base);
+        long bits = 0;
+        for (int j = 0; j < n; ++j) {
+          int start = offsets[base + j];
+          int length = offsets[base + j + 1] - start;
+          int cmp;
+          if (!lexicographical) {
+            cmp = comparator.compare(Binary.fromConstantByteArray(bytes, start, length), target);
+          } else if (comparison == Comparison.EQ) {
+            cmp = equals(bytes, start, length, targetBytes) ? 0 : 1;
+          } else {
+            cmp = compare(bytes, start, length, targetBytes);
+          }
+          bits |= (matches(cmp) ? 1L : 0L) << j;
+        }
+        result[w] = bits;
+      }
+      if (inverted) {
+        invert(result, rows);
+      }
+    }
+
+    private boolean matches(int cmp) {
+      switch (comparison) {
+        case EQ:
+          return cmp == 0;
+        case LT:
+          return cmp < 0;
+        default:
+          return cmp > 0;
+      }
+    }
+  }
+
+  // whether the binaries of the column are compared byte by byte as unsigned values
+  static boolean isLexicographical(ColumnDescriptor column) {
+    return column.getPrimitiveType().<Binary>comparator() == PrimitiveComparator.UNSIGNED_LEXICOGRAPHICAL_BINARY_COMPARATOR;
+  }
+
+  static boolean equals(byte[] bytes, int start, int length, byte[] target) {
+    if (length != target.length) {
+      return false;
+    }
+    for (int i = 0; i < length; ++i) {
+      if (bytes[start + i] != target[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int compare(byte[] bytes, int start, int length, byte[] target) {
+    for (int i = 0, n = Math.min(length, target.length); i < n; ++i) {
+      int cmp = (bytes[start + i] & 0xFF) - (target[i] & 0xFF);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return length - target.length;
+  }
+
+  /**
+   * A disjunction of {@code eq} predicates of an INT32 column; the values are looked up in the sorted targets.
+   */
+  static class IntIn extends ColumnBatchPredicate {
+    private final int[] targets;
+
+    IntIn(ColumnDescriptor column, int[] targets) {
+      super(column, false);
+      this.targets = targets.clone();
+      Arrays.sort(this.targets);
+    }
+
+    @Override
+    void evaluateValues(ColumnVector vector, int rows, long[] result) {
+      int[] values = ((IntColumnVector) vector).getValues();
+      for (int w = 0, words = words(rows); w < words; ++w) {
+        int base = w << 6;
+        int n = Math.min(64, rows - base);
+        long bits = 0;
+        for (int j = 0; j < n; ++j) {
+          bits |= (Arrays.binarySearch(targets, values[base + j]) >= 0 ? 1L : 0L) << j;
+        }
+        result[w] = bits;
+      }
+    }
+  }
+
+  static class LongIn extends ColumnBatchPredicate {
+    private final long[] targets;
+
+    LongIn(ColumnDescriptor column, long[] targets) {
+      super(column, false);
+      this.targets = targets.clone();
+      Arrays.sort(this.targets);
+    }
+
+    @Override
+    void evaluateValues(ColumnVector vector, int rows, long[] result) {
+      long[] values = ((LongColumnVector) vector).getValues();
+      for (int w = 0, words = words(rows); w < words; ++w) {
+        int base = w << 6;
+        int n = Math.min(64, rows - base);
+        long bits = 0;
+        for (int j = 0; j < n; ++j) {
+          bits |= (Arrays.binarySearch(targets, values[base + j]) >= 0 ? 1L : 0L) << j;
+        }
+        result[w] = bits;
+      }
+    }
+  }
+
+  /**
+   * A disjunction of {@code eq} predicates of a binary column having the unsigned lexicographical order (the bytes of
+   * equal values are equal).
+   */
+  static class BinaryIn extends ColumnBatchPredicate {
+    private final byte[][] targets;
+
+    BinaryIn(ColumnDescriptor column, Binary[] targets) {
+      super(column, false);
+      this.targets = new byte[targets.length][];
+      for (int i = 0; i < targets.length; ++i) {
+        this.targets[i] = targets[i].getBytes();
+      }
+    }
+
+    @Override
+    void evaluateValues(ColumnVector vector, int rows, long[] result) {
+      BinaryColumnVector binaries = (BinaryColumnVector) vector;
+      byte[] bytes = binaries.getBytes();
+      int[] offsets = binaries.getOffsets();
+      for (int w = 0, words = words(rows); w < words; ++w) {
+        int base = w << 6;
+        int n = Math.min(64, rows - base);
+        long bits = 0;
+        for (int j = 0; j < n; ++j) {
+          int start = offsets[base + j];
+          int length = offsets[base + j + 1] - start;
+          for (byte[] target : targets) {
+            if (equals(bytes, start, length, target)) {
+              bits |= 1L << j;
+              break;
+            }
+          }
+        }
+        result[w] = bits;
+      }
+    }
+  }
+
+  /**
+   * A {@link UserDefinedPredicate} called for every value (or every dictionary entry) with the boxed value.
+   */
+  static class UserDefinedCheck<T extends Comparable<T>> extends ColumnBatchPredicate {
+    private final UserDefinedPredicate<T> predicate;
+    private final boolean negated;
+
+    UserDefinedCheck(ColumnDescriptor column, UserDefinedPredicate<T> predicate, boolean negated) {
+      super(column, predicate.keep(null) != negated);
+      this.predicate = predicate;
+      this.negated = negated;
+    }
+
+    @Override
+    void evaluateValues(ColumnVector vector, int rows, long[] result) {
+      // the slots of the null entries have no value to pass to the predicate; like the record-level filter, the nulls
+      // are evaluated once by keep(null) and applied by applyNulls
+      long[] nulls = vector.getNullCount() == 0 ? null : vector.getNullBitmap();
+      for (int w = 0, words = words(rows); w < words; ++w) {
+        int base = w << 6;
+        int n = Math.min(64, rows - base);
+        long defined = nulls == null ? -1L : ~nulls[w];
+        long bits = 0;
+        for (int j = 0; j < n; ++j) {
+          if ((defined & (1L << j)) != 0 && predicate.keep(value(vector, base + j)) != negated) {
+            bits |= 1L << j;
+          }
+        }
+        result[w] = bits;
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T value(ColumnVector vector, int index) {
+      Object value;
+      if (vector instanceof IntColumnVector) {
+        value = ((IntColumnVector) vector).getInt(index);
+      } else if (vector instanceof LongColumnVector) {
+        value = ((LongColumnVector) vector).getLong(index);
+      } else if (vector instanceof FloatColumnVector) {
+        value = ((FloatColumnVector) vector).getFloat(index);
+      } else if (vector instanceof DoubleColumnVector) {
+        value = ((DoubleColumnVector) vector).getDouble(index);
+      } else if (vector instanceof BooleanColumnVector) {
+        value = ((BooleanColumnVector) vector).getBoolean(index);
+      } else {
+        value = ((BinaryColumnVector) vector).getBinary(index);
+      }
+      return (T) value;
+    }
+  }
+}
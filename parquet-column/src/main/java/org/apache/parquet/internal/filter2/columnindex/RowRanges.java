@@ -18,6 +18,8 @@
  */
 package org.apache.parquet.internal.filter2.columnindex;
 
+import static org.apache.parquet.Preconditions.checkArgument;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -91,8 +93,52 @@ public class RowRanges {
     }
   }
 
+  /**
+   * Builds a RowRanges object from the ranges of rows added in ascending order. The adjacent ranges are merged.
+   */
+  public static class Builder {
+    private RowRanges ranges = new RowRanges();
+
+    private Builder() {
+    }
+
+    /**
+     * @param from
+     *          the first row of the range
+     * @param to
+     *          the last row of the range (inclusive)
+     * @return this builder for method chaining
+     * @throws IllegalArgumentException
+     *           if the range is empty or it is not after the ranges added previously
+     */
+    public Builder add(long from, long to) {
+      checkArgument(from <= to, "Invalid range: [%s, %s]", from, to);
+      List<Range> list = ranges.ranges;
+      checkArgument(list.isEmpty() || list.get(list.size() - 1).to < from,
+          "The range [%s, %s] is not after the ranges %s", from, to, ranges);
+      ranges.add(new Range(from, to));
+      return this;
+    }
+
+    /**
+     * @return the RowRanges object of the ranges added; the builder is empty afterwards
+     */
+    public RowRanges build() {
+      RowRanges result = ranges;
+      ranges = new RowRanges();
+      return result;
+    }
+  }
+
   static final RowRanges EMPTY = new RowRanges();
 
+  /**
+   * @return a new builder of RowRanges objects
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
   /*
    * Creates a new RowRanges object with the single range [0, rowCount - 1].
    */
@@ -0,0 +1,96 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.parquet.column;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.junit.Test;
+
+public class TestColumnProperty {
+
+  @Test
+  public void testDefaultValue() {
+    ColumnProperty<Integer> property = ColumnProperty.builder(10).withDefaultValue(20).build();
+    assertFalse(property.hasOverrides());
+    assertEquals(20, (int) property.getDefaultValue());
+    assertEquals(20, (int) property.getValue(ColumnPath.fromDotString("a.b")));
+  }
+
+  @Test
+  public void testGlobs() {
+    ColumnProperty<String> property = ColumnProperty.builder("default")
+        .withValue("a.*", "a-child")
+        .withValue("a.**", "a-descendant")
+        .withValue("b?", "b-one")
+        .withValue("c.*.d", "c-d")
+        .withValue("x.y", "x-y")
+        .build();
+    assertTrue(property.hasOverrides());
+    // the pattern set last wins
+    assertEquals("a-descendant", property.getValue(ColumnPath.get("a", "b")));
+    assertEquals("a-descendant", property.getValue(ColumnPath.get("a", "b", "c")));
+    assertEquals("default", property.getValue(ColumnPath.get("a")));
+    assertEquals("b-one", property.getValue(ColumnPath.get("b1")));
+    assertEquals("default", property.getValue(ColumnPath.get("b12")));
+    assertEquals("default", property.getValue(ColumnPath.get("b")));
+    assertEquals("c-d", property.getValue(ColumnPath.get("c", "list", "d")));
+    assertEquals("default", property.getValue(ColumnPath.get("c", "list", "element", "d")));
+    assertEquals("x-y", property.getValue(ColumnPath.get("x", "y")));
+    // the regex characters of the patterns are literals
+    assertEquals("default", property.getValue(ColumnPath.get("aXb")));
+  }
+
+  @Test
+  public void testExactPathWins() {
+    ColumnProperty<Boolean> property = ColumnProperty.builder(false)
+        .withValue("a.b", true)
+        .withValue("a.*", false)
+        .build();
+    assertTrue(property.getValue(ColumnPath.get("a", "b")));
+    assertFalse(property.getValue(ColumnPath.get("a", "c")));
+  }
+
+  @Test
+  public void testNullOverride() {
+    ColumnProperty<Encoding> property = ColumnProperty.<Encoding>builder(null)
+        .withValue("**", Encoding.PLAIN)
+        .withValue("a", null)
+        .build();
+    assertNull(property.getValue(ColumnPath.get("a")));
+    assertEquals(Encoding.PLAIN, property.getValue(ColumnPath.get("b")));
+  }
+
+  @Test
+  public void testPatternSetAgain() {
+    ColumnProperty.Builder<Integer> builder = ColumnProperty.builder(0)
+        .withValue("a.*", 1)
+        .withValue("**", 2);
+    assertEquals(2, (int) builder.build().getValue(ColumnPath.get("a", "b")));
+    builder.withValue("a.*", 3);
+    assertEquals(3, (int) builder.build().getValue(ColumnPath.get("a", "b")));
+
+    ColumnProperty<Integer> copy = ColumnProperty.copy(builder.build()).withValue("**", 4).build();
+    assertEquals(4, (int) copy.getValue(ColumnPath.get("a", "b")));
+    assertEquals(4, (int) copy.getValue(ColumnPath.get("c")));
+  }
+}
@@ -27,6 +27,7 @@ import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.ColumnReader;
 import org.apache.parquet.column.ColumnWriteStore;
 import org.apache.parquet.column.ColumnWriter;
+import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.column.impl.ColumnReadStoreImpl;
 import org.apache.parquet.column.impl.ColumnWriteStoreV1;
@@ -237,6 +238,61 @@ public class TestMemColumn {
     }
   }
 
+  @Test
+  public void testColumnPageLimits() {
+    MessageType schema = Types.buildMessage()
+        .required(INT32).named("id")
+        .requiredGroup()
+          .required(INT32).named("x")
+          .required(BINARY).named("y")
+        .named("point")
+        .named("msg");
+    MemPageStore memPageStore = new MemPageStore(500);
+
+    ColumnWriteStore writeStore = new ColumnWriteStoreV2(schema, memPageStore, ParquetProperties.builder()
+        .withMinRowCountForPageSizeCheck(1)
+        .withPageRowCountLimit(100)
+        .withPageRowCountLimit("point.*", 20)
+        .withPageRowCountLimit("point.x", 10)
+        .withPageSize("point.y", 1024)
+        .withDictionaryEncoding("point.y", false)
+        .withEncoding("point.y", Encoding.PLAIN)
+        .build());
+    ColumnDescriptor id = schema.getColumnDescription(new String[] { "id" });
+    ColumnDescriptor x = schema.getColumnDescription(new String[] { "point", "x" });
+    ColumnDescriptor y = schema.getColumnDescription(new String[] { "point", "y" });
+    for (int i = 0; i < 500; ++i) {
+      writeStore.getColumnWriter(id).write(i, 0, 0);
+      writeStore.getColumnWriter(x).write(i, 0, 0);
+      writeStore.getColumnWriter(y).write(Binary.fromString("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa"), 0, 0);
+      writeStore.endRecord();
+    }
+    writeStore.flush();
+
+    assertEquals(100, maxPageRowCount(memPageStore.getPageReader(id)));
+    assertEquals(10, maxPageRowCount(memPageStore.getPageReader(x)));
+    // the page size is reached before the row count limit
+    PageReader yPages = memPageStore.getPageReader(y);
+    int valueCount = 0;
+    while (valueCount < yPages.getTotalValueCount()) {
+      DataPage page = yPages.readPage();
+      valueCount += page.getValueCount();
+      assertTrue("Page row count should be less than 20", page.getIndexRowCount().get() < 20);
+      assertTrue("Compressed size should be less than 1024", page.getCompressedSize() <= 1024);
+    }
+  }
+
+  private static long maxPageRowCount(PageReader pageReader) {
+    long max = 0;
+    int valueCount = 0;
+    while (valueCount < pageReader.getTotalValueCount()) {
+      DataPage page = pageReader.readPage();
+      valueCount += page.getValueCount();
+      max = Math.max(max, page.getIndexRowCount().get());
+    }
+    return max;
+  }
+
   private ColumnWriteStoreV1 newColumnWriteStoreImpl(MemPageStore memPageStore) {
     return new ColumnWriteStoreV1(memPageStore,
         ParquetProperties.builder()
@@ -0,0 +1,312 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.values;
+
+import static org.apache.parquet.column.Encoding.PLAIN;
+import static org.apache.parquet.column.Encoding.PLAIN_DICTIONARY;
+import static org.apache.parquet.column.values.bitpacking.Packer.BIG_ENDIAN;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.values.bitpacking.ByteBitPackingValuesReader;
+import org.apache.parquet.column.values.bitpacking.ByteBitPackingValuesWriter;
+import org.apache.parquet.column.values.delta.DeltaBinaryPackingValuesReader;
+import org.apache.parquet.column.values.delta.DeltaBinaryPackingValuesWriterForInteger;
+import org.apache.parquet.column.values.delta.DeltaBinaryPackingValuesWriterForLong;
+import org.apache.parquet.column.values.dictionary.DictionaryValuesReader;
+import org.apache.parquet.column.values.dictionary.DictionaryValuesWriter;
+import org.apache.parquet.column.values.dictionary.DictionaryValuesWriter.PlainDoubleDictionaryValuesWriter;
+import org.apache.parquet.column.values.dictionary.DictionaryValuesWriter.PlainIntegerDictionaryValuesWriter;
+import org.apache.parquet.column.values.dictionary.DictionaryValuesWriter.PlainLongDictionaryValuesWriter;
+import org.apache.parquet.column.values.plain.BooleanPlainValuesReader;
+import org.apache.parquet.column.values.plain.BooleanPlainValuesWriter;
+import org.apache.parquet.column.values.plain.PlainValuesReader.DoublePlainValuesReader;
+import org.apache.parquet.column.values.plain.PlainValuesReader.FloatPlainValuesReader;
+import org.apache.parquet.column.values.plain.PlainValuesReader.IntegerPlainValuesReader;
+import org.apache.parquet.column.values.plain.PlainValuesReader.LongPlainValuesReader;
+import org.apache.parquet.column.values.plain.PlainValuesWriter;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridValuesReader;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridValuesWriter;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.junit.Test;
+
+/**
+ * Tests the bulk read methods of the {@link ValuesReader} implementations by reading the same values in bulk, one by
+ * one and skipping them in random chunks.
+ */
+public class TestBulkValuesReaders {
+
+  private static final int COUNT = 10_000;
+
+  private interface Checker {
+    void readBulk(ValuesReader reader, int index, int length);
+
+    void readOne(ValuesReader reader, int index);
+  }
+
+  // blocks of repeated values (for RLE runs) and random values (for bit-packed runs) between 0 and 15
+  private static int[] generateInts() {
+    Random random = new Random(42);
+    int[] values = new int[COUNT];
+    for (int i = 0; i < COUNT; ) {
+      int n = Math.min(COUNT - i, 1 + random.nextInt(40));
+      boolean repeated = random.nextBoolean();
+      int value = random.nextInt(16);
+      for (int end = i + n; i < end; ++i) {
+        values[i] = repeated ? value : random.nextInt(16);
+      }
+    }
+    return values;
+  }
+
+  private static void check(ValuesReader reader, BytesInput bytes, Checker checker) throws IOException {
+    reader.initFromPage(COUNT, bytes.toInputStream());
+    Random random = new Random(7);
+    for (int i = 0; i < COUNT; ) {
+      int n = Math.min(COUNT - i, random.nextInt(100));
+      switch (random.nextInt(3)) {
+        case 0:
+          checker.readBulk(reader, i, n);
+          break;
+        case 1:
+          reader.skip(n);
+          break;
+        default:
+          for (int j = i; j < i + n; ++j) {
+            checker.readOne(reader, j);
+          }
+          break;
+      }
+      i += n;
+    }
+  }
+
+  private static Checker integers(int[] expected) {
+    return new Checker() {
+      private final int[] actual = new int[COUNT + 3];
+
+      @Override
+      public void readBulk(ValuesReader reader, int index, int length) {
+        reader.readIntegers(actual, 3, length);
+        for (int i = 0; i < length; ++i) {
+          assertEquals("value " + (index + i), expected[index + i], actual[3 + i]);
+        }
+      }
+
+      @Override
+      public void readOne(ValuesReader reader, int index) {
+        assertEquals("value " + index, expected[index], reader.readInteger());
+      }
+    };
+  }
+
+  private static Checker longs(long[] expected) {
+    return new Checker() {
+      private final long[] actual = new long[COUNT + 3];
+
+      @Override
+      public void readBulk(ValuesReader reader, int index, int length) {
+        reader.readLongs(actual, 3, length);
+        for (int i = 0; i < length; ++i) {
+          assertEquals("value " + (index + i), expected[index + i], actual[3 + i]);
+        }
+      }
+
+      @Override
+      public void readOne(ValuesReader reader, int index) {
+        assertEquals("value " + index, expected[index], reader.readLong());
+      }
+    };
+  }
+
+  private static Checker doubles(double[] expected) {
+    return new Checker() {
+      private final double[] actual = new double[COUNT + 3];
+
+      @Override
+      public void readBulk(ValuesReader reader, int index, int length) {
+        reader.readDoubles(actual, 3, length);
+        for (int i = 0; i < length; ++i) {
+          assertEquals("value " + (index + i), expected[index + i], actual[3 + i], 0.0);
+        }
+      }
+
+      @Override
+      public void readOne(ValuesReader reader, int index) {
+        assertEquals("value " + index, expected[index], reader.readDouble(), 0.0);
+      }
+    };
+  }
+
+  private static Checker floats(float[] expected) {
+    return new Checker() {
+      private final float[] actual = new float[COUNT + 3];
+
+      @Override
+      public void readBulk(ValuesReader reader, int index, int length) {
+        reader.readFloats(actual, 3, length);
+        for (int i = 0; i < length; ++i) {
+          assertEquals("value " + (index + i), expected[index + i], actual[3 + i], 0.0f);
+        }
+      }
+
+      @Override
+      public void readOne(ValuesReader reader, int index) {
+        assertEquals("value " + index, expected[index], reader.readFloat(), 0.0f);
+      }
+    };
+  }
+
+  private static Checker booleans(int[] expected) {
+    return new Checker() {
+      private final boolean[] actual = new boolean[COUNT + 3];
+
+      @Override
+      public void readBulk(ValuesReader reader, int index, int length) {
+        reader.readBooleans(actual, 3, length);
+        for (int i = 0; i < length; ++i) {
+          assertEquals("value " + (index + i), expected[index + i] != 0, actual[3 + i]);
+        }
+      }
+
+      @Override
+      public void readOne(ValuesReader reader, int index) {
+        assertEquals("value " + index, expected[index] != 0, reader.readBoolean());
+      }
+    };
+  }
+
+  private static Checker dictionaryIds(int[] expected, Dictionary dictionary) {
+    return new Checker() {
+      private final int[] actual = new int[COUNT + 3];
+
+      @Override
+      public void readBulk(ValuesReader reader, int index, int length) {
+        reader.readDictionaryIds(actual, 3, length);
+        for (int i = 0; i < length; ++i) {
+          assertEquals("value " + (index + i), expected[index + i], dictionary.decodeToInt(actual[3 + i]));
+        }
+      }
+
+      @Override
+      public void readOne(ValuesReader reader, int index) {
+        assertEquals("value " + index, expected[index], dictionary.decodeToInt(reader.readValueDictionaryId()));
+      }
+    };
+  }
+
+  private static Dictionary dictionary(DictionaryValuesWriter writer, PrimitiveTypeName type) throws IOException {
+    return PLAIN.initDictionary(new ColumnDescriptor(new String[] { "foo" }, type, 0, 0),
+        writer.toDictPageAndClose().copy());
+  }
+
+  @Test
+  public void testIntegers() throws IOException {
+    int[] values = generateInts();
+    ValuesWriter plain = new PlainValuesWriter(1024, 64 * 1024, new HeapByteBufferAllocator());
+    ValuesWriter rle = new RunLengthBitPackingHybridValuesWriter(4, 1024, 64 * 1024, new HeapByteBufferAllocator());
+    ValuesWriter bitPacked = new ByteBitPackingValuesWriter(15, BIG_ENDIAN);
+    ValuesWriter delta = new DeltaBinaryPackingValuesWriterForInteger(1024, 64 * 1024, new HeapByteBufferAllocator());
+    DictionaryValuesWriter dictionary = new PlainIntegerDictionaryValuesWriter(1024, PLAIN_DICTIONARY,
+        PLAIN_DICTIONARY, new HeapByteBufferAllocator());
+    for (int value : values) {
+      plain.writeInteger(value);
+      rle.writeInteger(value);
+      bitPacked.writeInteger(value);
+      delta.writeInteger(value);
+      dictionary.writeInteger(value);
+    }
+    BytesInput dictionaryBytes = BytesInput.copy(dictionary.getBytes());
+
+    check(new IntegerPlainValuesReader(), plain.getBytes(), integers(values));
+    check(new RunLengthBitPackingHybridValuesReader(4), rle.getBytes(), integers(values));
+    check(new ByteBitPackingValuesReader(15, BIG_ENDIAN), bitPacked.getBytes(), integers(values));
+    check(new DeltaBinaryPackingValuesReader(), delta.getBytes(), integers(values));
+    Dictionary dict = dictionary(dictionary, PrimitiveTypeName.INT32);
+    check(new DictionaryValuesReader(dict), dictionaryBytes, integers(values));
+    check(new DictionaryValuesReader(dict), dictionaryBytes, dictionaryIds(values, dict));
+  }
+
+  @Test
+  public void testLongs() throws IOException {
+    int[] ints = generateInts();
+    long[] values = new long[COUNT];
+    ValuesWriter plain = new PlainValuesWriter(1024, 64 * 1024, new HeapByteBufferAllocator());
+    ValuesWriter delta = new DeltaBinaryPackingValuesWriterForLong(1024, 64 * 1024, new HeapByteBufferAllocator());
+    DictionaryValuesWriter dictionary = new PlainLongDictionaryValuesWriter(1024, PLAIN_DICTIONARY,
+        PLAIN_DICTIONARY, new HeapByteBufferAllocator());
+    for (int i = 0; i < COUNT; ++i) {
+      values[i] = ints[i] * 1_000_000_007L;
+      plain.writeLong(values[i]);
+      delta.writeLong(values[i]);
+      dictionary.writeLong(values[i]);
+    }
+    BytesInput dictionaryBytes = BytesInput.copy(dictionary.getBytes());
+
+    check(new LongPlainValuesReader(), plain.getBytes(), longs(values));
+    check(new DeltaBinaryPackingValuesReader(), delta.getBytes(), longs(values));
+    check(new DictionaryValuesReader(dictionary(dictionary, PrimitiveTypeName.INT64)), dictionaryBytes,
+        longs(values));
+  }
+
+  @Test
+  public void testFloatingPoints() throws IOException {
+    int[] ints = generateInts();
+    double[] doubles = new double[COUNT];
+    float[] floats = new float[COUNT];
+    ValuesWriter plainDoubles = new PlainValuesWriter(1024, 64 * 1024, new HeapByteBufferAllocator());
+    ValuesWriter plainFloats = new PlainValuesWriter(1024, 64 * 1024, new HeapByteBufferAllocator());
+    DictionaryValuesWriter dictionary = new PlainDoubleDictionaryValuesWriter(1024, PLAIN_DICTIONARY,
+        PLAIN_DICTIONARY, new HeapByteBufferAllocator());
+    for (int i = 0; i < COUNT; ++i) {
+      doubles[i] = ints[i] / 3.0;
+      floats[i] = ints[i] / 3.0f;
+      plainDoubles.writeDouble(doubles[i]);
+      plainFloats.writeFloat(floats[i]);
+      dictionary.writeDouble(doubles[i]);
+    }
+    BytesInput dictionaryBytes = BytesInput.copy(dictionary.getBytes());
+
+    check(new DoublePlainValuesReader(), plainDoubles.getBytes(), doubles(doubles));
+    check(new FloatPlainValuesReader(), plainFloats.getBytes(), floats(floats));
+    check(new DictionaryValuesReader(dictionary(dictionary, PrimitiveTypeName.DOUBLE)), dictionaryBytes,
+        doubles(doubles));
+  }
+
+  @Test
+  public void testBooleans() throws IOException {
+    int[] values = generateInts();
+    ValuesWriter plain = new BooleanPlainValuesWriter();
+    ValuesWriter rle = new RunLengthBitPackingHybridValuesWriter(1, 1024, 64 * 1024, new HeapByteBufferAllocator());
+    for (int i = 0; i < COUNT; ++i) {
+      values[i] &= 1;
+      plain.writeBoolean(values[i] != 0);
+      rle.writeBoolean(values[i] != 0);
+    }
+
+    check(new BooleanPlainValuesReader(), plain.getBytes(), booleans(values));
+    check(new RunLengthBitPackingHybridValuesReader(1), rle.getBytes(), booleans(values));
+  }
+}
@@ -0,0 +1,165 @@
+/* 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.values.bloomfilter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.parquet.io.ParquetDecodingException;
+import org.apache.parquet.io.api.Binary;
+import org.junit.Test;
+
+public class TestBlockSplitBloomFilter {
+
+  @Test
+  public void testXxHash() {
+    assertEquals(0xEF46DB3751D8E999L, hash(""));
+    assertEquals(0xD24EC4F1A98C6E5BL, hash("a"));
+    assertEquals(0x44BC2CF5AD770999L, hash("abc"));
+
+    // the numbers are hashed by their little-endian bytes
+    Random random = new Random(42);
+    for (int i = 0; i < 100; ++i) {
+      int intValue = random.nextInt();
+      byte[] bytes = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(intValue).array();
+      assertEquals(XxHash.hash(bytes, 0, 4), BlockSplitBloomFilter.hash(intValue));
+      long longValue = random.nextLong();
+      bytes = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(longValue).array();
+      assertEquals(XxHash.hash(bytes, 0, 8), BlockSplitBloomFilter.hash(longValue));
+    }
+
+    // the long inputs take every path of the hash; the hash of a binary depends only on its bytes
+    byte[] bytes = new byte[100];
+    random.nextBytes(bytes);
+    for (int length = 0; length < 70; ++length) {
+      Binary slice = Binary.fromConstantByteArray(bytes, 30, length);
+      assertEquals(XxHash.hash(slice.getBytes(), 0, length), BlockSplitBloomFilter.hash(slice));
+      assertEquals(BlockSplitBloomFilter.hash(slice),
+          BlockSplitBloomFilter.hash(Binary.fromConstantByteBuffer(ByteBuffer.wrap(bytes, 30, length))));
+    }
+  }
+
+  private static long hash(String value) {
+    return BlockSplitBloomFilter.hash(Binary.fromString(value));
+  }
+
+  @Test
+  public void testOptimalNumOfBytes() {
+    assertEquals(BlockSplitBloomFilter.MINIMUM_BYTES, BlockSplitBloomFilter.optimalNumOfBytes(1, 0.01, 1024));
+    // about 1.2KB for a thousand values
+    assertEquals(2048, BlockSplitBloomFilter.optimalNumOfBytes(1000, 0.01, 1024 * 1024));
+    assertEquals(1024, BlockSplitBloomFilter.optimalNumOfBytes(1000, 0.01, 1024));
+    assertEquals(512, BlockSplitBloomFilter.optimalNumOfBytes(1000, 0.01, 1000));
+    assertEquals(1024 * 1024, BlockSplitBloomFilter.optimalNumOfBytes(100_000_000, 0.01, 1024 * 1024));
+  }
+
+  @Test
+  public void testInsertAndFind() throws IOException {
+    int ndv = 10_000;
+    double fpp = 0.01;
+    BlockSplitBloomFilter filter =
+        new BlockSplitBloomFilter(BlockSplitBloomFilter.optimalNumOfBytes(ndv, fpp, BlockSplitBloomFilter.DEFAULT_MAXIMUM_BYTES));
+    Random random = new Random(42);
+    Set<String> values = new HashSet<>();
+    while (values.size() < ndv) {
+      values.add(Long.toString(random.nextLong(), 36));
+    }
+    for (String value : values) {
+      filter.insertHash(hash(value));
+    }
+    for (String value : values) {
+      assertTrue(filter.findHash(hash(value)));
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < ndv; ++i) {
+      String value = Long.toString(random.nextLong(), 36) + "!";
+      if (filter.findHash(hash(value))) {
+        ++falsePositives;
+      }
+    }
+    assertTrue("Too many false positives: " + falsePositives, falsePositives < ndv * fpp * 2);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    filter.writeTo(out);
+    assertEquals(4 + filter.getBitsetSize(), out.size());
+    BlockSplitBloomFilter read = BlockSplitBloomFilter.readFrom(new ByteArrayInputStream(out.toByteArray()));
+    assertEquals(filter.getBitsetSize(), read.getBitsetSize());
+    for (String value : values) {
+      assertTrue(read.findHash(hash(value)));
+    }
+    assertFalse(new BlockSplitBloomFilter(1024).findHash(hash("abc")));
+  }
+
+  @Test
+  public void testReadInvalidSize() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new BlockSplitBloomFilter(1024).writeTo(out);
+    byte[] bytes = out.toByteArray();
+    assertEquals(1024, BlockSplitBloomFilter.readFrom(new ByteArrayInputStream(bytes), bytes.length).getBitsetSize());
+
+    // longer than the referenced length
+    assertInvalidSize(bytes, 1024, bytes.length - 1);
+    for (int numBytes : new int[] { 0, -32, 31, 1000, BlockSplitBloomFilter.MAXIMUM_BYTES + 32, Integer.MAX_VALUE }) {
+      assertInvalidSize(bytes, numBytes, Integer.MAX_VALUE);
+    }
+
+    // truncated bitset
+    try {
+      BlockSplitBloomFilter.readFrom(new ByteArrayInputStream(bytes, 0, bytes.length - 1), bytes.length);
+      fail("Expected EOFException");
+    } catch (EOFException e) {
+      // expected
+    }
+  }
+
+  private static void assertInvalidSize(byte[] bytes, int numBytes, int length) throws IOException {
+    byte[] corrupt = bytes.clone();
+    ByteBuffer.wrap(corrupt).order(ByteOrder.LITTLE_ENDIAN).putInt(0, numBytes);
+    try {
+      BlockSplitBloomFilter.readFrom(new ByteArrayInputStream(corrupt), length);
+      fail("Expected ParquetDecodingException for size " + numBytes);
+    } catch (ParquetDecodingException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testHashByType() {
+    assertEquals(BlockSplitBloomFilter.hash(42), BlockSplitBloomFilter.hash((Object) 42));
+    assertEquals(BlockSplitBloomFilter.hash(42L), BlockSplitBloomFilter.hash((Object) 42L));
+    assertEquals(BlockSplitBloomFilter.hash(Float.floatToIntBits(1.5f)), BlockSplitBloomFilter.hash((Object) 1.5f));
+    assertEquals(BlockSplitBloomFilter.hash(Double.doubleToLongBits(1.5)), BlockSplitBloomFilter.hash((Object) 1.5));
+    assertEquals(hash("abc"), BlockSplitBloomFilter.hash(
+        (Object) Binary.fromConstantByteArray("abc".getBytes(StandardCharsets.UTF_8))));
+  }
+}
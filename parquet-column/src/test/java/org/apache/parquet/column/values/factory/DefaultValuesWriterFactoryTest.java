@@ -19,24 +19,31 @@
 package org.apache.parquet.column.values.factory;
 
 import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.column.ParquetProperties.WriterVersion;
 import org.apache.parquet.column.values.ValuesWriter;
 import org.apache.parquet.column.values.delta.DeltaBinaryPackingValuesWriter;
 import org.apache.parquet.column.values.delta.DeltaBinaryPackingValuesWriterForLong;
+import org.apache.parquet.column.values.deltalengthbytearray.DeltaLengthByteArrayValuesWriter;
 import org.apache.parquet.column.values.deltastrings.DeltaByteArrayWriter;
 import org.apache.parquet.column.values.dictionary.DictionaryValuesWriter;
 import org.apache.parquet.column.values.dictionary.DictionaryValuesWriter.*;
+import org.apache.parquet.column.values.fallback.DictionaryDecisions;
 import org.apache.parquet.column.values.fallback.FallbackValuesWriter;
 import org.apache.parquet.column.values.plain.BooleanPlainValuesWriter;
 import org.apache.parquet.column.values.plain.FixedLenByteArrayPlainValuesWriter;
 import org.apache.parquet.column.values.plain.PlainValuesWriter;
 import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridValuesWriter;
+import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
 
 import org.junit.Test;
 
 import static junit.framework.Assert.assertTrue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -303,6 +310,92 @@ public class DefaultValuesWriterFactoryTest {
       PlainValuesWriter.class);
   }
 
+  @Test
+  public void testAdaptiveDictionary() {
+    ColumnDescriptor ids = new ColumnDescriptor(new String[] { "id" },
+        Types.required(PrimitiveTypeName.BINARY).named("id"), 0, 0);
+    ColumnDescriptor names = new ColumnDescriptor(new String[] { "name" },
+        Types.required(PrimitiveTypeName.BINARY).named("name"), 0, 0);
+    ParquetProperties props = ParquetProperties.builder()
+      .withWriterVersion(WriterVersion.PARQUET_2_0)
+      .withAdaptiveDictionarySampleSize(100)
+      .build();
+    DictionaryDecisions decisions = props.getDictionaryDecisions();
+
+    ValuesWriter idWriter = props.newValuesWriter(ids);
+    ValuesWriter nameWriter = props.newValuesWriter(names);
+    validateFallbackWriter(idWriter, PlainBinaryDictionaryValuesWriter.class, DeltaByteArrayWriter.class);
+    validateFallbackWriter(nameWriter, PlainBinaryDictionaryValuesWriter.class, DeltaByteArrayWriter.class);
+    for (int i = 0; i < 99; ++i) {
+      idWriter.writeBytes(Binary.fromString("id-" + i));
+      nameWriter.writeBytes(Binary.fromString("name-" + i % 5));
+    }
+    assertNull(decisions.useDictionary(ids));
+    assertEquals(Encoding.RLE_DICTIONARY, idWriter.getEncoding());
+    idWriter.writeBytes(Binary.fromString("id-99"));
+    nameWriter.writeBytes(Binary.fromString("name-4"));
+
+    // the high cardinality column falls back at the end of the sample
+    assertEquals(Boolean.FALSE, decisions.useDictionary(ids));
+    assertEquals(Encoding.DELTA_BYTE_ARRAY, idWriter.getEncoding());
+    assertEquals(Boolean.TRUE, decisions.useDictionary(names));
+    assertEquals(Encoding.RLE_DICTIONARY, nameWriter.getEncoding());
+
+    // the next column chunks start with the decided encoding
+    validateWriterType(props.newValuesWriter(ids), DeltaByteArrayWriter.class);
+    validateFallbackWriter(props.newValuesWriter(names), PlainBinaryDictionaryValuesWriter.class,
+        DeltaByteArrayWriter.class);
+
+    assertNull(ParquetProperties.builder().build().getDictionaryDecisions());
+  }
+
+  @Test
+  public void testColumnOverrides() {
+    ColumnDescriptor id = new ColumnDescriptor(new String[] { "id" },
+        Types.required(PrimitiveTypeName.INT64).named("id"), 0, 0);
+    ColumnDescriptor name = new ColumnDescriptor(new String[] { "user", "name" },
+        Types.required(PrimitiveTypeName.BINARY).named("name"), 0, 0);
+    ColumnDescriptor email = new ColumnDescriptor(new String[] { "user", "email" },
+        Types.required(PrimitiveTypeName.BINARY).named("email"), 0, 0);
+    ColumnDescriptor flag = new ColumnDescriptor(new String[] { "flag" },
+        Types.required(PrimitiveTypeName.BOOLEAN).named("flag"), 0, 0);
+    ParquetProperties props = ParquetProperties.builder()
+      .withWriterVersion(WriterVersion.PARQUET_1_0)
+      .withDictionaryEncoding(false)
+      .withDictionaryEncoding("user.*", true)
+      .withDictionaryEncoding("user.email", false)
+      .withEncoding("id", Encoding.DELTA_BINARY_PACKED)
+      .withEncoding("user.**", Encoding.DELTA_LENGTH_BYTE_ARRAY)
+      .withEncoding("flag", Encoding.RLE)
+      .build();
+
+    validateWriterType(props.newValuesWriter(id), DeltaBinaryPackingValuesWriterForLong.class);
+    validateFallbackWriter(props.newValuesWriter(name), PlainBinaryDictionaryValuesWriter.class,
+        DeltaLengthByteArrayValuesWriter.class);
+    validateWriterType(props.newValuesWriter(email), DeltaLengthByteArrayValuesWriter.class);
+    validateWriterType(props.newValuesWriter(flag), RunLengthBitPackingHybridValuesWriter.class);
+
+    // the copies keep the overrides
+    ParquetProperties copy = ParquetProperties.copy(props).withEncoding("user.email", null).build();
+    validateWriterType(copy.newValuesWriter(id), DeltaBinaryPackingValuesWriterForLong.class);
+    validateWriterType(copy.newValuesWriter(email), PlainValuesWriter.class);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupportedColumnEncoding() {
+    ColumnDescriptor id = new ColumnDescriptor(new String[] { "id" },
+        Types.required(PrimitiveTypeName.DOUBLE).named("id"), 0, 0);
+    ParquetProperties.builder()
+      .withEncoding("id", Encoding.DELTA_BINARY_PACKED)
+      .build()
+      .newValuesWriter(id);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDictionaryColumnEncoding() {
+    ParquetProperties.builder().withEncoding("id", Encoding.RLE_DICTIONARY);
+  }
+
   private void doTestValueWriter(PrimitiveTypeName typeName, WriterVersion version, boolean enableDictionary, Class<? extends ValuesWriter> expectedValueWriterClass) {
     ColumnDescriptor mockPath = getMockColumn(typeName);
     ValuesWriterFactory factory = getDefaultFactory(version, enableDictionary);
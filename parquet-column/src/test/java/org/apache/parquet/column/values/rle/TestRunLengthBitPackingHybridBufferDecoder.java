@@ -0,0 +1,182 @@
+/* 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.values.rle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.io.ParquetDecodingException;
+import org.junit.Test;
+
+public class TestRunLengthBitPackingHybridBufferDecoder {
+
+  private static ByteBuffer encode(int bitWidth, int[] values) throws Exception {
+    RunLengthBitPackingHybridEncoder encoder = new RunLengthBitPackingHybridEncoder(bitWidth, 64, 64 * 1024,
+        new HeapByteBufferAllocator());
+    for (int value : values) {
+      encoder.writeInt(value);
+    }
+    return ByteBuffer.wrap(encoder.toBytes().toByteArray());
+  }
+
+  // blocks of repeated values (for RLE runs) and random values (for bit-packed runs)
+  private static int[] generate(int count, int bitWidth, Random random) {
+    int bound = 1 << Math.min(bitWidth, 30);
+    int[] values = new int[count];
+    for (int i = 0; i < count; ) {
+      int n = Math.min(count - i, 1 + random.nextInt(40));
+      boolean repeated = random.nextBoolean();
+      int value = random.nextInt(bound);
+      for (int end = i + n; i < end; ++i) {
+        values[i] = repeated ? value : random.nextInt(bound);
+      }
+    }
+    return values;
+  }
+
+  @Test
+  public void testSameValuesAsStreamDecoder() throws Exception {
+    Random random = new Random(42);
+    for (int bitWidth = 0; bitWidth <= 32; ++bitWidth) {
+      int[] values = generate(1000, bitWidth, random);
+      ByteBuffer encoded = encode(bitWidth, values);
+      RunLengthBitPackingHybridDecoder expected = new RunLengthBitPackingHybridDecoder(bitWidth,
+          new ByteArrayInputStream(encoded.array()));
+      RunLengthBitPackingHybridBufferDecoder decoder = new RunLengthBitPackingHybridBufferDecoder(bitWidth, encoded);
+      for (int i = 0; i < values.length; ++i) {
+        assertEquals("bit width " + bitWidth + ", value " + i, expected.readInt(), decoder.readInt());
+      }
+      assertEquals("the buffer position shall not change", 0, encoded.position());
+    }
+  }
+
+  @Test
+  public void testReadSkipMixed() throws Exception {
+    Random random = new Random(7);
+    int[] values = generate(10_000, 5, random);
+    RunLengthBitPackingHybridBufferDecoder decoder = new RunLengthBitPackingHybridBufferDecoder(5);
+    // the decoder is reused for the same data
+    for (int round = 0; round < 3; ++round) {
+      decoder.init(encode(5, values));
+      int[] actual = new int[201];
+      for (int i = 0; i < values.length; ) {
+        int n = Math.min(values.length - i, random.nextInt(200));
+        switch (random.nextInt(3)) {
+          case 0:
+            decoder.readInts(actual, 1, n);
+            for (int j = 0; j < n; ++j) {
+              assertEquals("value " + (i + j), values[i + j], actual[j + 1]);
+            }
+            break;
+          case 1:
+            decoder.skip(n);
+            break;
+          default:
+            for (int j = 0; j < n; ++j) {
+              assertEquals("value " + (i + j), values[i + j], decoder.readInt());
+            }
+            break;
+        }
+        i += n;
+      }
+    }
+  }
+
+  @Test
+  public void testRunBoundaries() throws Exception {
+    int[] values = new int[8192 + 16];
+    // 8192 repeated values followed by 16 bit-packed ones
+    Arrays.fill(values, 0, 8192, 3);
+    for (int i = 8192; i < values.length; ++i) {
+      values[i] = i % 4;
+    }
+    RunLengthBitPackingHybridBufferDecoder decoder = new RunLengthBitPackingHybridBufferDecoder(2,
+        encode(2, values));
+
+    assertEquals(8192, decoder.getRunRemaining());
+    assertTrue(decoder.isRepeatedRun());
+    assertEquals(3, decoder.getRepeatedValue());
+
+    int[] actual = new int[values.length];
+    assertEquals(8000, decoder.readRun(actual, 0, 8000));
+    assertEquals(192, decoder.getRunRemaining());
+    // a run is never crossed
+    assertEquals(192, decoder.readRun(actual, 8000, 1000));
+    for (int i = 0; i < 8192; ++i) {
+      assertEquals(3, actual[i]);
+    }
+
+    assertEquals(16, decoder.getRunRemaining());
+    assertFalse(decoder.isRepeatedRun());
+    assertEquals(5, decoder.readRun(actual, 8192, 5));
+    assertEquals(11, decoder.readRun(actual, 8197, 100));
+    for (int i = 8192; i < values.length; ++i) {
+      assertEquals(values[i], actual[i]);
+    }
+    assertEquals(0, decoder.getRunRemaining());
+  }
+
+  @Test
+  public void testSkipWholeRuns() throws Exception {
+    Random random = new Random(3);
+    int[] values = generate(5000, 7, random);
+    RunLengthBitPackingHybridBufferDecoder decoder = new RunLengthBitPackingHybridBufferDecoder(7,
+        encode(7, values));
+    decoder.skip(4000);
+    for (int i = 4000; i < values.length; ++i) {
+      assertEquals(values[i], decoder.readInt());
+    }
+  }
+
+  @Test
+  public void testTruncatedLastGroup() {
+    // a bit-packed run of one group with bit width 3 (header: 1 << 1 | 1) where only the first 2 of the 3 bytes are
+    // present; the values 0, 1, 2, 3, 4 are packed into them starting from the least significant bits
+    ByteBuffer encoded = ByteBuffer.wrap(new byte[] { 3, (byte) 0b10001000, (byte) 0b11000110 });
+    RunLengthBitPackingHybridBufferDecoder decoder = new RunLengthBitPackingHybridBufferDecoder(3, encoded);
+    int[] actual = new int[5];
+    decoder.readInts(actual, 0, 5);
+    assertEquals(0, actual[0]);
+    assertEquals(1, actual[1]);
+    assertEquals(2, actual[2]);
+    assertEquals(3, actual[3]);
+    assertEquals(4, actual[4]);
+  }
+
+  @Test
+  public void testReadingPastTheEnd() throws Exception {
+    RunLengthBitPackingHybridBufferDecoder decoder = new RunLengthBitPackingHybridBufferDecoder(3,
+        encode(3, new int[] { 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 }));
+    decoder.skip(10);
+    try {
+      decoder.readInt();
+      fail("Reading past the end shall fail");
+    } catch (ParquetDecodingException e) {
+      // expected
+    }
+  }
+}
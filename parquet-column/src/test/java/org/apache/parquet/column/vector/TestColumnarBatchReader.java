@@ -0,0 +1,394 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.vector;
+
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BOOLEAN;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.DOUBLE;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FLOAT;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.apache.parquet.Version;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnWriteStore;
+import org.apache.parquet.column.ColumnWriter;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.ParquetProperties.WriterVersion;
+import org.apache.parquet.column.impl.ColumnWriteStoreV1;
+import org.apache.parquet.column.impl.ColumnWriteStoreV2;
+import org.apache.parquet.column.page.mem.MemPageStore;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Types;
+import org.junit.Test;
+
+public class TestColumnarBatchReader {
+  private static final int ROW_COUNT = 10000;
+  private static final MessageType SCHEMA = Types.buildMessage()
+      .required(INT32).named("int")
+      .optional(INT64).named("long")
+      .optional(BINARY).named("binary")
+      .required(BOOLEAN).named("boolean")
+      .optional(FLOAT).named("float")
+      .required(DOUBLE).named("double")
+      .optional(FIXED_LEN_BYTE_ARRAY).length(3).named("fixed")
+      .repeated(INT32).named("repeated")
+      .optional(BINARY).named("mixed")
+      .named("msg");
+
+  private static ColumnDescriptor column(String name) {
+    return SCHEMA.getColumnDescription(new String[] { name });
+  }
+
+  private static boolean hasLong(int row) {
+    return row % 3 != 0;
+  }
+
+  private static boolean hasBinary(int row) {
+    return row % 5 != 0;
+  }
+
+  private static boolean hasFloat(int row) {
+    return row % 4 != 1;
+  }
+
+  private static boolean hasFixed(int row) {
+    return row % 7 != 2;
+  }
+
+  private static Binary binary(int row) {
+    return Binary.fromString("value-" + row % 13);
+  }
+
+  private static Binary fixed(int row) {
+    return Binary.fromConstantByteArray(new byte[] { (byte) row, (byte) (row >>> 8), 42 });
+  }
+
+  private static boolean hasMixed(int row) {
+    return row % 9 != 0;
+  }
+
+  // repeated values in the first pages so they are dictionary encoded then unique ones making the writer fall back
+  private static Binary mixed(int row) {
+    return Binary.fromString(row < 2000 ? "mixed-" + row % 10 : "mixed-" + row);
+  }
+
+  private static MemPageStore write(WriterVersion version) {
+    MemPageStore pageStore = new MemPageStore(ROW_COUNT);
+    ParquetProperties props = ParquetProperties.builder()
+        .withWriterVersion(version)
+        .withPageSize(1024)
+        .withDictionaryPageSize(1024)
+        .build();
+    ColumnWriteStore store = version == WriterVersion.PARQUET_1_0
+        ? new ColumnWriteStoreV1(SCHEMA, pageStore, props)
+        : new ColumnWriteStoreV2(SCHEMA, pageStore, props);
+    for (int i = 0; i < ROW_COUNT; ++i) {
+      store.getColumnWriter(column("int")).write(i, 0, 0);
+      ColumnWriter writer = store.getColumnWriter(column("long"));
+      if (hasLong(i)) {
+        writer.write(i * 1000L, 0, 1);
+      } else {
+        writer.writeNull(0, 0);
+      }
+      writer = store.getColumnWriter(column("binary"));
+      if (hasBinary(i)) {
+        writer.write(binary(i), 0, 1);
+      } else {
+        writer.writeNull(0, 0);
+      }
+      store.getColumnWriter(column("boolean")).write(i % 2 == 0, 0, 0);
+      writer = store.getColumnWriter(column("float"));
+      if (hasFloat(i)) {
+        writer.write(i / 2f, 0, 1);
+      } else {
+        writer.writeNull(0, 0);
+      }
+      store.getColumnWriter(column("double")).write(i * 0.5, 0, 0);
+      writer = store.getColumnWriter(column("fixed"));
+      if (hasFixed(i)) {
+        writer.write(fixed(i), 0, 1);
+      } else {
+        writer.writeNull(0, 0);
+      }
+      writer = store.getColumnWriter(column("repeated"));
+      if (i % 4 == 0) {
+        writer.writeNull(0, 0);
+      }
+      for (int j = 0; j < i % 4; ++j) {
+        writer.write(i + j, j == 0 ? 0 : 1, 1);
+      }
+      writer = store.getColumnWriter(column("mixed"));
+      if (hasMixed(i)) {
+        writer.write(mixed(i), 0, 1);
+      } else {
+        writer.writeNull(0, 0);
+      }
+      store.endRecord();
+    }
+    store.flush();
+    return pageStore;
+  }
+
+  @Test
+  public void testReadBatchesV1() {
+    testReadBatches(WriterVersion.PARQUET_1_0);
+  }
+
+  @Test
+  public void testReadBatchesV2() {
+    testReadBatches(WriterVersion.PARQUET_2_0);
+  }
+
+  private void testReadBatches(WriterVersion version) {
+    ColumnarBatchReader reader = new ColumnarBatchReader(SCHEMA, write(version), Version.FULL_VERSION);
+    ColumnarBatch batch = new ColumnarBatch(SCHEMA, 1000);
+    int row = 0;
+    for (int rows = reader.readBatch(batch); rows > 0; rows = reader.readBatch(batch)) {
+      assertEquals(rows, batch.getRowCount());
+      IntColumnVector ints = (IntColumnVector) batch.getColumn("int");
+      LongColumnVector longs = (LongColumnVector) batch.getColumn("long");
+      BinaryColumnVector binaries = (BinaryColumnVector) batch.getColumn("binary");
+      BooleanColumnVector booleans = (BooleanColumnVector) batch.getColumn("boolean");
+      FloatColumnVector floats = (FloatColumnVector) batch.getColumn("float");
+      DoubleColumnVector doubles = (DoubleColumnVector) batch.getColumn("double");
+      BinaryColumnVector fixeds = (BinaryColumnVector) batch.getColumn("fixed");
+      IntColumnVector repeated = (IntColumnVector) batch.getColumn("repeated");
+      assertEquals(rows, ints.size());
+      assertEquals(0, ints.getNullCount());
+      assertEquals(null, ints.getDefinitionLevels());
+
+      int entry = 0;
+      for (int i = 0; i < rows; ++i, ++row) {
+        assertEquals(row, ints.getInt(i));
+        assertEquals(!hasLong(row), longs.isNull(i));
+        if (hasLong(row)) {
+          assertEquals(row * 1000L, longs.getLong(i));
+        }
+        assertEquals(!hasBinary(row), binaries.isNull(i));
+        if (hasBinary(row)) {
+          assertEquals(binary(row), binaries.getBinary(i));
+        } else {
+          assertEquals(0, binaries.getLength(i));
+        }
+        assertEquals(row % 2 == 0, booleans.getBoolean(i));
+        assertEquals(!hasFloat(row), floats.isNull(i));
+        if (hasFloat(row)) {
+          assertEquals(row / 2f, floats.getFloat(i), 0);
+        }
+        assertEquals(row * 0.5, doubles.getDouble(i), 0);
+        assertEquals(hasFixed(row) ? 1 : 0, fixeds.getDefinitionLevels()[i]);
+        if (hasFixed(row)) {
+          assertArrayEquals(fixed(row).getBytes(), fixeds.getBinary(i).getBytes());
+        }
+
+        if (row % 4 == 0) {
+          assertEquals(0, repeated.getRepetitionLevels()[entry]);
+          assertEquals(0, repeated.getDefinitionLevels()[entry]);
+          assertTrue(repeated.isNull(entry));
+          ++entry;
+        }
+        for (int j = 0; j < row % 4; ++j, ++entry) {
+          assertEquals(j == 0 ? 0 : 1, repeated.getRepetitionLevels()[entry]);
+          assertFalse(repeated.isNull(entry));
+          assertEquals(row + j, repeated.getInt(entry));
+        }
+      }
+      assertEquals(entry, repeated.size());
+    }
+    assertEquals(ROW_COUNT, row);
+    assertEquals(0, reader.getRemainingRowCount());
+  }
+
+  @Test
+  public void testGrowingVectors() {
+    MemPageStore pageStore = write(WriterVersion.PARQUET_1_0);
+    ColumnDescriptor descriptor = column("repeated");
+    ColumnChunkBatchReader reader = new ColumnChunkBatchReader(descriptor, pageStore.getPageReader(descriptor), null);
+    // the records have 1.5 entries on average so the vector has to grow
+    ColumnVector vector = reader.newVector(10);
+    int records = 0;
+    long sum = 0;
+    for (int n = reader.readBatch(vector, 100); n > 0; n = reader.readBatch(vector, 100)) {
+      records += n;
+      int[] values = ((IntColumnVector) vector).getValues();
+      for (int i = 0; i < vector.size(); ++i) {
+        if (!vector.isNull(i)) {
+          sum += values[i];
+        }
+      }
+    }
+    assertTrue(reader.isExhausted());
+    assertEquals(ROW_COUNT, records);
+    long expected = 0;
+    for (int i = 0; i < ROW_COUNT; ++i) {
+      for (int j = 0; j < i % 4; ++j) {
+        expected += i + j;
+      }
+    }
+    assertEquals(expected, sum);
+  }
+
+  @Test
+  public void testReadRowsV1() {
+    testReadRows(WriterVersion.PARQUET_1_0);
+  }
+
+  @Test
+  public void testReadRowsV2() {
+    testReadRows(WriterVersion.PARQUET_2_0);
+  }
+
+  private void testReadRows(WriterVersion version) {
+    MemPageStore pageStore = write(version);
+    // single rows, runs spanning pages and a gap of several pages
+    long[] rowIndexes = new long[1000];
+    int count = 0;
+    for (long row = 3; row < 2000; row += 7) {
+      rowIndexes[count++] = row;
+    }
+    for (long row = 2100; row < 2500; ++row) {
+      rowIndexes[count++] = row;
+    }
+    rowIndexes[count++] = 9999;
+    for (String name : new String[] { "int", "long", "binary", "boolean", "mixed" }) {
+      ColumnDescriptor descriptor = column(name);
+      ColumnChunkBatchReader reader = new ColumnChunkBatchReader(descriptor, pageStore.getPageReader(descriptor), null);
+      ColumnChunkBatchReader idReader =
+          new ColumnChunkBatchReader(descriptor, pageStore.getPageReader(descriptor), null);
+      ColumnChunkBatchReader allReader =
+          new ColumnChunkBatchReader(descriptor, pageStore.getPageReader(descriptor), null);
+      ColumnVector all = allReader.newVector(ROW_COUNT);
+      assertEquals(ROW_COUNT, allReader.readBatch(all, ROW_COUNT));
+      ColumnVector vector = reader.newVector(100);
+      ColumnVector ids = name.equals("boolean") ? idReader.newVector(100) : idReader.newDictionaryIdVector(100);
+      for (int offset = 0; offset < count; offset += 300) {
+        int n = Math.min(300, count - offset);
+        long[] batch = Arrays.copyOfRange(rowIndexes, offset, offset + n);
+        reader.readRows(vector, batch, n);
+        idReader.readRows(ids, batch, n);
+        assertEquals(n, vector.size());
+        assertEquals(n, ids.size());
+        for (int i = 0; i < n; ++i) {
+          int row = (int) batch[i];
+          assertEquals(all.isNull(row), vector.isNull(i));
+          assertEquals(all.isNull(row), ids.isNull(i));
+          if (!all.isNull(row)) {
+            assertEquals(value(all, row), value(vector, i));
+            assertEquals(value(all, row), value(ids, i));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testDictionaryIdsV1() {
+    testDictionaryIds(WriterVersion.PARQUET_1_0);
+  }
+
+  @Test
+  public void testDictionaryIdsV2() {
+    testDictionaryIds(WriterVersion.PARQUET_2_0);
+  }
+
+  private void testDictionaryIds(WriterVersion version) {
+    MemPageStore pageStore = write(version);
+    ColumnarBatchReader reader = new ColumnarBatchReader(SCHEMA, pageStore, Version.FULL_VERSION);
+    ColumnarBatchReader idReader = new ColumnarBatchReader(SCHEMA, pageStore, Version.FULL_VERSION);
+    ColumnarBatch batch = new ColumnarBatch(SCHEMA, 700);
+    ColumnarBatch idBatch = new ColumnarBatch(SCHEMA, 700, true);
+    assertTrue(idBatch.getColumn("boolean") instanceof BooleanColumnVector);
+    boolean mixedIds = false;
+    boolean mixedMaterialized = false;
+    for (int rows = reader.readBatch(batch); rows > 0; rows = reader.readBatch(batch)) {
+      assertEquals(rows, idReader.readBatch(idBatch));
+      for (int c = 0; c < SCHEMA.getColumns().size(); ++c) {
+        ColumnVector expected = batch.getColumn(c);
+        if (expected instanceof BooleanColumnVector) {
+          continue;
+        }
+        DictionaryColumnVector actual = (DictionaryColumnVector) idBatch.getColumn(c);
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getNullCount(), actual.getNullCount());
+        for (int i = 0; i < expected.size(); ++i) {
+          assertEquals(expected.isNull(i), actual.isNull(i));
+          if (!expected.isNull(i)) {
+            assertEquals(value(expected, i), value(actual, i));
+          }
+        }
+      }
+      DictionaryColumnVector binaries = (DictionaryColumnVector) idBatch.getColumn("binary");
+      assertTrue(binaries.isDictionaryEncoded());
+      assertEquals(13, binaries.getDictionary().getMaxId() + 1);
+      DictionaryColumnVector mixed = (DictionaryColumnVector) idBatch.getColumn("mixed");
+      mixedIds |= mixed.getId(1) >= 0;
+      mixedMaterialized |= !mixed.isDictionaryEncoded();
+    }
+    // the writer fell back to plain encoding after the first pages of the mixed column
+    assertTrue(mixedIds);
+    assertTrue(mixedMaterialized);
+  }
+
+  private static Object value(ColumnVector vector, int index) {
+    if (vector instanceof DictionaryColumnVector) {
+      DictionaryColumnVector ids = (DictionaryColumnVector) vector;
+      int id = ids.getId(index);
+      if (id < 0) {
+        return value(ids.getMaterializedValues(), index);
+      }
+      switch (vector.getDescriptor().getPrimitiveType().getPrimitiveTypeName()) {
+        case INT32:
+          return ids.getDictionary().decodeToInt(id);
+        case INT64:
+          return ids.getDictionary().decodeToLong(id);
+        case FLOAT:
+          return ids.getDictionary().decodeToFloat(id);
+        case DOUBLE:
+          return ids.getDictionary().decodeToDouble(id);
+        default:
+          return ids.getDictionary().decodeToBinary(id);
+      }
+    }
+    if (vector instanceof IntColumnVector) {
+      return ((IntColumnVector) vector).getInt(index);
+    }
+    if (vector instanceof LongColumnVector) {
+      return ((LongColumnVector) vector).getLong(index);
+    }
+    if (vector instanceof FloatColumnVector) {
+      return ((FloatColumnVector) vector).getFloat(index);
+    }
+    if (vector instanceof DoubleColumnVector) {
+      return ((DoubleColumnVector) vector).getDouble(index);
+    }
+    if (vector instanceof BooleanColumnVector) {
+      return ((BooleanColumnVector) vector).getBoolean(index);
+    }
+    return ((BinaryColumnVector) vector).getBinary(index);
+  }
+}
@@ -0,0 +1,411 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.column.vector;
+
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BOOLEAN;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.DOUBLE;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FLOAT;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnWriteStore;
+import org.apache.parquet.column.ColumnWriter;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.ParquetProperties.WriterVersion;
+import org.apache.parquet.column.impl.ColumnWriteStoreV1;
+import org.apache.parquet.column.impl.ColumnWriteStoreV2;
+import org.apache.parquet.column.page.DataPage;
+import org.apache.parquet.column.page.DataPageV1;
+import org.apache.parquet.column.page.DataPageV2;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.column.page.PageReader;
+import org.apache.parquet.column.page.mem.MemPageStore;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Types;
+import org.junit.Test;
+
+public class TestColumnarWriteBatch {
+  private static final int ROW_COUNT = 10000;
+  private static final int BATCH_SIZE = 700;
+  private static final MessageType SCHEMA = Types.buildMessage()
+      .required(INT32).named("int")
+      .optional(INT64).named("long")
+      .optional(BINARY).named("binary")
+      .required(BOOLEAN).named("boolean")
+      .optional(FLOAT).named("float")
+      .required(DOUBLE).named("double")
+      .optional(FIXED_LEN_BYTE_ARRAY).length(3).named("fixed")
+      .repeated(INT32).named("repeated")
+      .named("msg");
+
+  private static ColumnDescriptor column(String name) {
+    return SCHEMA.getColumnDescription(new String[] { name });
+  }
+
+  private static boolean hasLong(int row) {
+    return row % 3 != 0;
+  }
+
+  private static boolean hasBinary(int row) {
+    return row % 5 != 0;
+  }
+
+  private static boolean hasFloat(int row) {
+    return row % 4 != 1;
+  }
+
+  private static boolean hasFixed(int row) {
+    return row % 7 != 2;
+  }
+
+  // repeated values in the first rows so they are dictionary encoded then unique ones making the writer fall back
+  private static Binary binary(int row) {
+    return Binary.fromString(row < 2000 ? "value-" + row % 13 : "value-" + row);
+  }
+
+  private static Binary fixed(int row) {
+    return Binary.fromConstantByteArray(new byte[] { (byte) row, (byte) (row >>> 8), 42 });
+  }
+
+  private static ColumnWriteStore newStore(WriterVersion version, MemPageStore pageStore) {
+    ParquetProperties props = ParquetProperties.builder()
+        .withWriterVersion(version)
+        .withPageSize(1024)
+        .withDictionaryPageSize(1024)
+        .withPageRowCountLimit(1500)
+        .build();
+    return version == WriterVersion.PARQUET_1_0
+        ? new ColumnWriteStoreV1(SCHEMA, pageStore, props)
+        : new ColumnWriteStoreV2(SCHEMA, pageStore, props);
+  }
+
+  private static MemPageStore writeRecords(WriterVersion version) {
+    MemPageStore pageStore = new MemPageStore(ROW_COUNT);
+    ColumnWriteStore store = newStore(version, pageStore);
+    for (int i = 0; i < ROW_COUNT; ++i) {
+      store.getColumnWriter(column("int")).write(i, 0, 0);
+      ColumnWriter writer = store.getColumnWriter(column("long"));
+      if (hasLong(i)) {
+        writer.write(i * 1000L, 0, 1);
+      } else {
+        writer.writeNull(0, 0);
+      }
+      writer = store.getColumnWriter(column("binary"));
+      if (hasBinary(i)) {
+        writer.write(binary(i), 0, 1);
+      } else {
+        writer.writeNull(0, 0);
+      }
+      store.getColumnWriter(column("boolean")).write(i % 2 == 0, 0, 0);
+      writer = store.getColumnWriter(column("float"));
+      if (hasFloat(i)) {
+        writer.write(-i / 2f, 0, 1);
+      } else {
+        writer.writeNull(0, 0);
+      }
+      store.getColumnWriter(column("double")).write(i * 0.5, 0, 0);
+      writer = store.getColumnWriter(column("fixed"));
+      if (hasFixed(i)) {
+        writer.write(fixed(i), 0, 1);
+      } else {
+        writer.writeNull(0, 0);
+      }
+      writer = store.getColumnWriter(column("repeated"));
+      if (i % 4 == 0) {
+        writer.writeNull(0, 0);
+      }
+      for (int j = 0; j < i % 4; ++j) {
+        writer.write(i + j, j == 0 ? 0 : 1, 1);
+      }
+      store.endRecord();
+    }
+    store.flush();
+    return pageStore;
+  }
+
+  /*
+   * Hides the batch methods of the column writers so the batches are written by the default implementations of
+   * ColumnWriter.
+   */
+  private static ColumnWriteStore withoutBatchMethods(ColumnWriteStore store) {
+    return new ColumnWriteStore() {
+      @Override
+      public ColumnWriter getColumnWriter(ColumnDescriptor path) {
+        ColumnWriter writer = store.getColumnWriter(path);
+        return new ColumnWriter() {
+          @Override
+          public void write(int value, int repetitionLevel, int definitionLevel) {
+            writer.write(value, repetitionLevel, definitionLevel);
+          }
+
+          @Override
+          public void write(long value, int repetitionLevel, int definitionLevel) {
+            writer.write(value, repetitionLevel, definitionLevel);
+          }
+
+          @Override
+          public void write(boolean value, int repetitionLevel, int definitionLevel) {
+            writer.write(value, repetitionLevel, definitionLevel);
+          }
+
+          @Override
+          public void write(Binary value, int repetitionLevel, int definitionLevel) {
+            writer.write(value, repetitionLevel, definitionLevel);
+          }
+
+          @Override
+          public void write(float value, int repetitionLevel, int definitionLevel) {
+            writer.write(value, repetitionLevel, definitionLevel);
+          }
+
+          @Override
+          public void write(double value, int repetitionLevel, int definitionLevel) {
+            writer.write(value, repetitionLevel, definitionLevel);
+          }
+
+          @Override
+          public void writeNull(int repetitionLevel, int definitionLevel) {
+            writer.writeNull(repetitionLevel, definitionLevel);
+          }
+
+          @Override
+          public void close() {
+            writer.close();
+          }
+
+          @Override
+          public long getBufferedSizeInMemory() {
+            return writer.getBufferedSizeInMemory();
+          }
+        };
+      }
+
+      @Override
+      public void flush() {
+        store.flush();
+      }
+
+      @Override
+      public void endRecord() {
+        store.endRecord();
+      }
+
+      @Override
+      public void endRecords(int count) {
+        store.endRecords(count);
+      }
+
+      @Override
+      public long getAllocatedSize() {
+        return store.getAllocatedSize();
+      }
+
+      @Override
+      public long getBufferedSize() {
+        return store.getBufferedSize();
+      }
+
+      @Override
+      public String memUsageString() {
+        return store.memUsageString();
+      }
+
+      @Override
+      public void close() {
+        store.close();
+      }
+    };
+  }
+
+  private static MemPageStore writeBatches(WriterVersion version, boolean batchMethods) {
+    MemPageStore pageStore = new MemPageStore(ROW_COUNT);
+    ColumnWriteStore store = newStore(version, pageStore);
+    if (!batchMethods) {
+      store = withoutBatchMethods(store);
+    }
+    ColumnarWriteBatch batch = new ColumnarWriteBatch(SCHEMA);
+    int[] ints = new int[BATCH_SIZE];
+    long[] longs = new long[BATCH_SIZE];
+    Binary[] binaries = new Binary[BATCH_SIZE];
+    boolean[] booleans = new boolean[BATCH_SIZE];
+    float[] floats = new float[BATCH_SIZE];
+    double[] doubles = new double[BATCH_SIZE];
+    Binary[] fixeds = new Binary[BATCH_SIZE];
+    int[] fixedLevels = new int[BATCH_SIZE];
+    int[] repeated = new int[BATCH_SIZE * 3];
+    int[] repetitionLevels = new int[BATCH_SIZE * 3];
+    int[] definitionLevels = new int[BATCH_SIZE * 3];
+    long[] longNulls = new long[(BATCH_SIZE + 63) / 64];
+    long[] binaryNulls = new long[longNulls.length];
+    long[] floatNulls = new long[longNulls.length];
+    for (int start = 0; start < ROW_COUNT; start += BATCH_SIZE) {
+      int rows = Math.min(BATCH_SIZE, ROW_COUNT - start);
+      Arrays.fill(longNulls, 0);
+      Arrays.fill(binaryNulls, 0);
+      Arrays.fill(floatNulls, 0);
+      int entries = 0;
+      for (int i = 0; i < rows; ++i) {
+        int row = start + i;
+        ints[i] = row;
+        if (hasLong(row)) {
+          longs[i] = row * 1000L;
+        } else {
+          longNulls[i >>> 6] |= 1L << i;
+        }
+        if (hasBinary(row)) {
+          binaries[i] = binary(row);
+        } else {
+          binaryNulls[i >>> 6] |= 1L << i;
+        }
+        booleans[i] = row % 2 == 0;
+        if (hasFloat(row)) {
+          floats[i] = -row / 2f;
+        } else {
+          floatNulls[i >>> 6] |= 1L << i;
+        }
+        doubles[i] = row * 0.5;
+        fixeds[i] = hasFixed(row) ? fixed(row) : null;
+        fixedLevels[i] = hasFixed(row) ? 1 : 0;
+        if (row % 4 == 0) {
+          repetitionLevels[entries] = 0;
+          definitionLevels[entries++] = 0;
+        }
+        for (int j = 0; j < row % 4; ++j) {
+          repeated[entries] = row + j;
+          repetitionLevels[entries] = j == 0 ? 0 : 1;
+          definitionLevels[entries++] = 1;
+        }
+      }
+      batch.setRowCount(rows)
+          .setValues(0, ints, null)
+          .setValues(1, longs, longNulls)
+          .setValues(2, binaries, binaryNulls)
+          .setValues(3, booleans, null)
+          .setValues(4, floats, floatNulls)
+          .setValues(5, rows, doubles, null, null)
+          .setValues(6, rows, fixeds, null, fixedLevels)
+          .setValues(7, entries, repeated, repetitionLevels, definitionLevels)
+          .writeTo(store);
+    }
+    store.flush();
+    return pageStore;
+  }
+
+  @Test
+  public void testSamePagesV1() throws IOException {
+    testSamePages(WriterVersion.PARQUET_1_0, true);
+  }
+
+  @Test
+  public void testSamePagesV2() throws IOException {
+    testSamePages(WriterVersion.PARQUET_2_0, true);
+  }
+
+  @Test
+  public void testDefaultBatchMethods() throws IOException {
+    testSamePages(WriterVersion.PARQUET_1_0, false);
+    testSamePages(WriterVersion.PARQUET_2_0, false);
+  }
+
+  private void testSamePages(WriterVersion version, boolean batchMethods) throws IOException {
+    MemPageStore expectedStore = writeRecords(version);
+    MemPageStore actualStore = writeBatches(version, batchMethods);
+    for (ColumnDescriptor column : SCHEMA.getColumns()) {
+      PageReader expected = expectedStore.getPageReader(column);
+      PageReader actual = actualStore.getPageReader(column);
+      assertEquals(expected.getTotalValueCount(), actual.getTotalValueCount());
+      DictionaryPage expectedDictionary = expected.readDictionaryPage();
+      DictionaryPage actualDictionary = actual.readDictionaryPage();
+      if (expectedDictionary == null) {
+        assertNull(actualDictionary);
+      } else {
+        assertArrayEquals(expectedDictionary.getBytes().toByteArray(), actualDictionary.getBytes().toByteArray());
+      }
+      int pages = 0;
+      for (long values = 0; values < expected.getTotalValueCount(); ++pages) {
+        DataPage page = expected.readPage();
+        DataPage other = actual.readPage();
+        values += page.getValueCount();
+        String message = column + " page " + pages;
+        assertEquals(message, page.getValueCount(), other.getValueCount());
+        assertEquals(message, page.getIndexRowCount(), other.getIndexRowCount());
+        if (page instanceof DataPageV1) {
+          DataPageV1 v1 = (DataPageV1) page;
+          assertEquals(message, v1.getStatistics(), ((DataPageV1) other).getStatistics());
+          assertArrayEquals(message, v1.getBytes().toByteArray(), ((DataPageV1) other).getBytes().toByteArray());
+        } else {
+          DataPageV2 v2 = (DataPageV2) page;
+          DataPageV2 otherV2 = (DataPageV2) other;
+          assertEquals(message, v2.getStatistics(), otherV2.getStatistics());
+          assertEquals(message, v2.getRowCount(), otherV2.getRowCount());
+          assertArrayEquals(message, v2.getRepetitionLevels().toByteArray(),
+              otherV2.getRepetitionLevels().toByteArray());
+          assertArrayEquals(message, v2.getDefinitionLevels().toByteArray(),
+              otherV2.getDefinitionLevels().toByteArray());
+          assertArrayEquals(message, v2.getData().toByteArray(), otherV2.getData().toByteArray());
+        }
+      }
+      // several pages per column to check the page boundaries
+      assertTrue(column.toString(), pages > 1);
+    }
+  }
+
+  @Test
+  public void testMismatchingRowCount() {
+    MessageType schema = Types.buildMessage()
+        .required(INT32).named("a")
+        .repeated(INT64).named("b")
+        .named("msg");
+    ColumnarWriteBatch batch = new ColumnarWriteBatch(schema)
+        .setRowCount(2)
+        .setValues(0, new int[] { 1, 2 }, null)
+        .setValues(1, 3, new long[] { 1, 2, 3 }, new int[] { 0, 1, 1 }, null);
+    ColumnWriteStore store = new ColumnWriteStoreV1(schema, new MemPageStore(2), ParquetProperties.builder().build());
+    try {
+      batch.writeTo(store);
+      fail("The repeated column holds 1 record only");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    try {
+      batch.setValues(0, new long[] { 1, 2 }, null);
+      fail("INT32 column cannot be written from longs");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      batch.setValues(1, new long[] { 1, 2 }, null);
+      fail("Repeated column needs its levels");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+}
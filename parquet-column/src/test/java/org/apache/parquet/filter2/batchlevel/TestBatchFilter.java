@@ -0,0 +1,314 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.filter2.batchlevel;
+
+import static org.apache.parquet.filter2.predicate.FilterApi.and;
+import static org.apache.parquet.filter2.predicate.FilterApi.binaryColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.booleanColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.doubleColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.eq;
+import static org.apache.parquet.filter2.predicate.FilterApi.floatColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.gt;
+import static org.apache.parquet.filter2.predicate.FilterApi.gtEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.intColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.longColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.lt;
+import static org.apache.parquet.filter2.predicate.FilterApi.ltEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.not;
+import static org.apache.parquet.filter2.predicate.FilterApi.notEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.or;
+import static org.apache.parquet.filter2.predicate.FilterApi.userDefined;
+import static org.apache.parquet.schema.LogicalTypeAnnotation.intType;
+import static org.apache.parquet.schema.LogicalTypeAnnotation.stringType;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BOOLEAN;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.DOUBLE;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FLOAT;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+import org.apache.parquet.Version;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnWriteStore;
+import org.apache.parquet.column.ColumnWriter;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.ParquetProperties.WriterVersion;
+import org.apache.parquet.column.impl.ColumnWriteStoreV1;
+import org.apache.parquet.column.impl.ColumnWriteStoreV2;
+import org.apache.parquet.column.page.mem.MemPageStore;
+import org.apache.parquet.column.vector.ColumnarBatch;
+import org.apache.parquet.column.vector.ColumnarBatchReader;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Statistics;
+import org.apache.parquet.filter2.predicate.UserDefinedPredicate;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Types;
+import org.junit.Test;
+
+public class TestBatchFilter {
+  private static final int ROW_COUNT = 10000;
+  private static final MessageType SCHEMA = Types.buildMessage()
+      .required(INT32).named("int")
+      .optional(INT32).as(intType(32, false)).named("uint")
+      .optional(INT64).named("long")
+      .optional(BINARY).as(stringType()).named("binary")
+      .optional(BINARY).as(stringType()).named("mixed")
+      .optional(FLOAT).named("float")
+      .required(DOUBLE).named("double")
+      .required(BOOLEAN).named("boolean")
+      .named("msg");
+
+  private static ColumnDescriptor column(String name) {
+    return SCHEMA.getColumnDescription(new String[] { name });
+  }
+
+  private static boolean hasUint(int row) {
+    return row % 3 != 0;
+  }
+
+  // the large values are negative as signed integers
+  private static int uint(int row) {
+    return row * 1_000_003;
+  }
+
+  private static boolean hasLong(int row) {
+    return row % 5 != 0;
+  }
+
+  private static long longValue(int row) {
+    return row % 100;
+  }
+
+  private static boolean hasBinary(int row) {
+    return row % 7 != 0;
+  }
+
+  private static String binary(int row) {
+    return "value-" + row % 13;
+  }
+
+  private static boolean hasMixed(int row) {
+    return row % 9 != 0;
+  }
+
+  // dictionary encoded in the first pages then plain encoded
+  private static String mixed(int row) {
+    return row < 2000 ? "mixed-" + row % 10 : "mixed-" + row;
+  }
+
+  private static boolean hasFloat(int row) {
+    return row % 4 != 1;
+  }
+
+  private static MemPageStore write(WriterVersion version) {
+    MemPageStore pageStore = new MemPageStore(ROW_COUNT);
+    ParquetProperties props = ParquetProperties.builder()
+        .withWriterVersion(version)
+        .withPageSize(1024)
+        .withDictionaryPageSize(1024)
+        .build();
+    ColumnWriteStore store = version == WriterVersion.PARQUET_1_0
+        ? new ColumnWriteStoreV1(SCHEMA, pageStore, props)
+        : new ColumnWriteStoreV2(SCHEMA, pageStore, props);
+    for (int i = 0; i < ROW_COUNT; ++i) {
+      store.getColumnWriter(column("int")).write(i, 0, 0);
+      ColumnWriter writer = store.getColumnWriter(column("uint"));
+      if (hasUint(i)) {
+        writer.write(uint(i), 0, 1);
+      } else {
+        writer.writeNull(0, 0);
+      }
+      writer = store.getColumnWriter(column("long"));
+      if (hasLong(i)) {
+        writer.write(longValue(i), 0, 1);
+      } else {
+        writer.writeNull(0, 0);
+      }
+      writer = store.getColumnWriter(column("binary"));
+      if (hasBinary(i)) {
+        writer.write(Binary.fromString(binary(i)), 0, 1);
+      } else {
+        writer.writeNull(0, 0);
+      }
+      writer = store.getColumnWriter(column("mixed"));
+      if (hasMixed(i)) {
+        writer.write(Binary.fromString(mixed(i)), 0, 1);
+      } else {
+        writer.writeNull(0, 0);
+      }
+      writer = store.getColumnWriter(column("float"));
+      if (hasFloat(i)) {
+        writer.write(i / 2f, 0, 1);
+      } else {
+        writer.writeNull(0, 0);
+      }
+      store.getColumnWriter(column("double")).write(i * 0.5, 0, 0);
+      store.getColumnWriter(column("boolean")).write(i % 2 == 0, 0, 0);
+      store.endRecord();
+    }
+    store.flush();
+    return pageStore;
+  }
+
+  public static class StartsWith extends UserDefinedPredicate<Binary> implements Serializable {
+    @Override
+    public boolean keep(Binary value) {
+      return value != null && value.toStringUsingUTF8().startsWith("value-1");
+    }
+
+    @Override
+    public boolean canDrop(Statistics<Binary> statistics) {
+      return false;
+    }
+
+    @Override
+    public boolean inverseCanDrop(Statistics<Binary> statistics) {
+      return false;
+    }
+  }
+
+  // the null entries have no value; they are evaluated by keep(null) instead of the content of their slots (empty)
+  public static class DefinedStartsWith extends StartsWith {
+    @Override
+    public boolean keep(Binary value) {
+      assertTrue("Value of a null entry passed to the predicate", value == null || value.length() > 0);
+      return super.keep(value);
+    }
+  }
+
+  @Test
+  public void testFilterV1() {
+    testFilter(WriterVersion.PARQUET_1_0, false);
+  }
+
+  @Test
+  public void testFilterV2() {
+    testFilter(WriterVersion.PARQUET_2_0, false);
+  }
+
+  @Test
+  public void testFilterDictionaryIdsV1() {
+    testFilter(WriterVersion.PARQUET_1_0, true);
+  }
+
+  @Test
+  public void testFilterDictionaryIdsV2() {
+    testFilter(WriterVersion.PARQUET_2_0, true);
+  }
+
+  private void testFilter(WriterVersion version, boolean dictionaryIds) {
+    MemPageStore pageStore = write(version);
+    check(pageStore, dictionaryIds, eq(intColumn("int"), 42), row -> row == 42);
+    check(pageStore, dictionaryIds, lt(intColumn("int"), 100), row -> row < 100);
+    check(pageStore, dictionaryIds, gtEq(intColumn("int"), 9990), row -> row >= 9990);
+    check(pageStore, dictionaryIds, lt(intColumn("uint"), 5_000_000),
+        row -> hasUint(row) && Integer.compareUnsigned(uint(row), 5_000_000) < 0);
+    check(pageStore, dictionaryIds, gt(intColumn("uint"), Integer.MAX_VALUE),
+        row -> hasUint(row) && uint(row) < 0);
+    check(pageStore, dictionaryIds, eq(longColumn("long"), null), row -> !hasLong(row));
+    check(pageStore, dictionaryIds, notEq(longColumn("long"), null), row -> hasLong(row));
+    check(pageStore, dictionaryIds, notEq(longColumn("long"), 7L), row -> !hasLong(row) || longValue(row) != 7);
+    check(pageStore, dictionaryIds, ltEq(longColumn("long"), 10L), row -> hasLong(row) && longValue(row) <= 10);
+    check(pageStore, dictionaryIds,
+        or(eq(longColumn("long"), 1L), or(eq(longColumn("long"), 3L), eq(longColumn("long"), 42L))),
+        row -> hasLong(row) && (longValue(row) == 1 || longValue(row) == 3 || longValue(row) == 42));
+    check(pageStore, dictionaryIds, eq(binaryColumn("binary"), Binary.fromString("value-3")),
+        row -> hasBinary(row) && binary(row).equals("value-3"));
+    check(pageStore, dictionaryIds, notEq(binaryColumn("binary"), Binary.fromString("value-3")),
+        row -> !hasBinary(row) || !binary(row).equals("value-3"));
+    check(pageStore, dictionaryIds, gt(binaryColumn("binary"), Binary.fromString("value-5")),
+        row -> hasBinary(row) && binary(row).compareTo("value-5") > 0);
+    check(pageStore, dictionaryIds,
+        or(eq(binaryColumn("mixed"), Binary.fromString("mixed-3")),
+            eq(binaryColumn("mixed"), Binary.fromString("mixed-5000"))),
+        row -> hasMixed(row) && (mixed(row).equals("mixed-3") || mixed(row).equals("mixed-5000")));
+    check(pageStore, dictionaryIds, ltEq(binaryColumn("mixed"), Binary.fromString("mixed-5")),
+        row -> hasMixed(row) && mixed(row).compareTo("mixed-5") <= 0);
+    check(pageStore, dictionaryIds, gt(floatColumn("float"), 1000f), row -> hasFloat(row) && row / 2f > 1000f);
+    check(pageStore, dictionaryIds, lt(doubleColumn("double"), 10.0), row -> row * 0.5 < 10.0);
+    check(pageStore, dictionaryIds, eq(booleanColumn("boolean"), true), row -> row % 2 == 0);
+    check(pageStore, dictionaryIds, and(eq(booleanColumn("boolean"), false), not(lt(intColumn("int"), 5000))),
+        row -> row % 2 == 1 && row >= 5000);
+    check(pageStore, dictionaryIds, and(eq(intColumn("int"), -1), eq(longColumn("long"), 1L)), row -> false);
+    check(pageStore, dictionaryIds, userDefined(binaryColumn("binary"), StartsWith.class),
+        row -> hasBinary(row) && binary(row).startsWith("value-1"));
+    check(pageStore, dictionaryIds, not(userDefined(binaryColumn("binary"), StartsWith.class)),
+        row -> !hasBinary(row) || !binary(row).startsWith("value-1"));
+    check(pageStore, dictionaryIds, eq(intColumn("missing"), null), row -> true);
+    check(pageStore, dictionaryIds, or(eq(intColumn("missing"), 1), eq(intColumn("missing"), 2)), row -> false);
+  }
+
+  private static void check(MemPageStore pageStore, boolean dictionaryIds, FilterPredicate predicate,
+      IntPredicate expected) {
+    BatchFilter filter = new BatchFilter(predicate, SCHEMA);
+    ColumnarBatchReader reader = new ColumnarBatchReader(SCHEMA, pageStore, Version.FULL_VERSION);
+    ColumnarBatch batch = new ColumnarBatch(SCHEMA, 1000, dictionaryIds);
+    long[] selection = new long[BatchFilter.getSelectionLength(batch.getCapacity())];
+    int[] indexes = new int[batch.getCapacity()];
+    int row = 0;
+    for (int rows = reader.readBatch(batch); rows > 0; rows = reader.readBatch(batch)) {
+      // garbage from the previous batch must not leak into the result
+      Arrays.fill(selection, -1L);
+      int selected = filter.filter(batch, selection);
+      int count = 0;
+      for (int i = 0; i < rows; ++i) {
+        boolean matches = expected.test(row + i);
+        assertEquals(predicate + " row " + (row + i), matches, (selection[i >>> 6] & (1L << i)) != 0);
+        if (matches) {
+          ++count;
+        }
+      }
+      assertEquals(count, selected);
+      assertEquals(count, BatchFilter.getSelectedRows(selection, rows, indexes));
+      for (int i = 0; i < count; ++i) {
+        assertTrue(expected.test(row + indexes[i]));
+      }
+      row += rows;
+    }
+    assertEquals(ROW_COUNT, row);
+  }
+
+  @Test
+  public void testUserDefinedNulls() {
+    for (WriterVersion version : WriterVersion.values()) {
+      MemPageStore pageStore = write(version);
+      for (boolean dictionaryIds : new boolean[] { false, true }) {
+        check(pageStore, dictionaryIds, userDefined(binaryColumn("binary"), DefinedStartsWith.class),
+            row -> hasBinary(row) && binary(row).startsWith("value-1"));
+        check(pageStore, dictionaryIds, not(userDefined(binaryColumn("binary"), DefinedStartsWith.class)),
+            row -> !hasBinary(row) || !binary(row).startsWith("value-1"));
+      }
+    }
+  }
+
+  @Test
+  public void testColumns() {
+    BatchFilter filter = new BatchFilter(
+        and(eq(binaryColumn("binary"), Binary.fromString("value-3")),
+            or(gt(intColumn("int"), 5), eq(intColumn("missing"), 1))), SCHEMA);
+    assertEquals(Arrays.asList(column("int"), column("binary")), filter.getColumns());
+  }
+}
@@ -24,6 +24,7 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.Arrays;
 import java.util.PrimitiveIterator;
@@ -101,6 +102,23 @@ public class TestRowRanges {
     assertFalse(ranges.isOverlapping(0, Long.MAX_VALUE));
   }
 
+  @Test
+  public void testBuilder() {
+    RowRanges.Builder builder = RowRanges.builder();
+    RowRanges ranges = builder.add(1, 2).add(3, 3).add(6, 7).add(9, 9).build();
+    assertAllRowsEqual(ranges.iterator(), 1, 2, 3, 6, 7, 9);
+    assertEquals(6, ranges.rowCount());
+    assertEquals("[[1, 3], [6, 7], [9, 9]]", ranges.toString());
+    assertEquals(0, builder.build().rowCount());
+
+    try {
+      builder.add(5, 6).add(6, 8);
+      fail("Overlapping ranges shall be rejected");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
   @Test
   public void testUnion() {
     RowRanges ranges1 = buildRanges(
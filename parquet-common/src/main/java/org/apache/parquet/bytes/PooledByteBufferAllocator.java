@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.bytes;
+
+import static org.apache.parquet.Preconditions.checkArgument;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link ByteBufferAllocator} keeping the released buffers for reuse instead of leaving them to the garbage
+ * collector. The requested sizes are rounded up to size classes of powers of two from 4KB to 64MB; larger buffers are
+ * not pooled. The returned buffers have their limit set to the requested size.
+ * <p>
+ * The threads cache a few of the small buffers they release to reuse them without contention; a thread caches at most
+ * as many buffers of a size class as it has allocated so the buffers released by other threads than the allocating
+ * ones are not kept from them. The cached buffers are not available to the other threads, so a thread shall return
+ * them to the shared pools by {@link #releaseThreadCache()} when it stops using the allocator (e.g. when a reader is
+ * closed or a worker task is completed); otherwise they are lost once the thread ends. All the other released buffers
+ * are kept in shared pools as long as their total size does not exceed the configured maximum. The buffers not
+ * fitting into the pools are released to the underlying allocator.
+ * <p>
+ * The buffers handed out are kept in an identity set so only the buffers allocated by this allocator and not released
+ * yet are pooled. The other ones (e.g. read-only views of a memory-mapped file, buffers of another allocator or buffers
+ * released twice) are ignored. If buffer tracking is enabled, which is meant for tests, releasing such a buffer fails
+ * instead.
+ * <p>
+ * This allocator is thread-safe. As the content of a released buffer is overwritten when it is reused, the users of
+ * the buffers shall not keep references to them (e.g. by {@code Binary} values created from them) after releasing
+ * them.
+ */
+public class PooledByteBufferAllocator implements ByteBufferAllocator {
+
+  private static final int MIN_SIZE_CLASS_SHIFT = 12;
+  private static final int MAX_SIZE_CLASS_SHIFT = 26;
+  private static final int SIZE_CLASS_COUNT = MAX_SIZE_CLASS_SHIFT - MIN_SIZE_CLASS_SHIFT + 1;
+  // only the buffers up to 64KB are cached by the threads; at most 1MB per thread
+  private static final int MAX_THREAD_CACHED_SHIFT = 16;
+  private static final int THREAD_CACHE_SIZE = 8;
+  private static final int THREAD_CACHED_SIZE_CLASS_COUNT = MAX_THREAD_CACHED_SHIFT - MIN_SIZE_CLASS_SHIFT + 1;
+  private static final int OUTSTANDING_STRIPES = 16;
+
+  private final ByteBufferAllocator allocator;
+  private final long maxPooledBytes;
+  private final ConcurrentLinkedDeque<ByteBuffer>[] pools;
+  private final ThreadLocal<ThreadCache> threadCaches = ThreadLocal.withInitial(ThreadCache::new);
+  // the buffers handed out and not released yet; striped by identity hash code to limit the contention
+  private final Map<ByteBuffer, Boolean>[] outstandingBuffers;
+  private final boolean failOnInvalidRelease;
+
+  private final AtomicLong pooledBytes = new AtomicLong();
+  private final AtomicLong outstandingCount = new AtomicLong();
+  private final AtomicLong allocationCount = new AtomicLong();
+  private final AtomicLong reuseCount = new AtomicLong();
+
+  private static final class ThreadCache {
+    @SuppressWarnings("unchecked")
+    private final ArrayDeque<ByteBuffer>[] buffers = new ArrayDeque[THREAD_CACHED_SIZE_CLASS_COUNT];
+    // the number of buffers allocated by the thread and not cached since then by size class
+    private final int[] allocatedCounts = new int[THREAD_CACHED_SIZE_CLASS_COUNT];
+
+    private ThreadCache() {
+      for (int i = 0; i < THREAD_CACHED_SIZE_CLASS_COUNT; ++i) {
+        buffers[i] = new ArrayDeque<>(THREAD_CACHE_SIZE);
+      }
+    }
+
+    private ByteBuffer poll(int index) {
+      ++allocatedCounts[index];
+      return buffers[index].pollFirst();
+    }
+
+    private boolean offer(int index, ByteBuffer buffer) {
+      if (allocatedCounts[index] == 0 || buffers[index].size() == THREAD_CACHE_SIZE) {
+        return false;
+      }
+      --allocatedCounts[index];
+      buffers[index].addFirst(buffer);
+      return true;
+    }
+  }
+
+  /**
+   * @param allocator the allocator to allocate the buffers with
+   * @param maxPooledBytes the maximum total capacity of the buffers kept in the shared pools
+   */
+  public PooledByteBufferAllocator(ByteBufferAllocator allocator, long maxPooledBytes) {
+    this(allocator, maxPooledBytes, false);
+  }
+
+  /**
+   * @param allocator the allocator to allocate the buffers with
+   * @param maxPooledBytes the maximum total capacity of the buffers kept in the shared pools
+   * @param trackBuffers whether releasing a buffer not allocated by this allocator or released already shall fail
+   */
+  @SuppressWarnings("unchecked")
+  public PooledByteBufferAllocator(ByteBufferAllocator allocator, long maxPooledBytes, boolean trackBuffers) {
+    checkArgument(maxPooledBytes >= 0, "Invalid maximum pool size: %s", maxPooledBytes);
+    this.allocator = allocator;
+    this.maxPooledBytes = maxPooledBytes;
+    this.pools = new ConcurrentLinkedDeque[SIZE_CLASS_COUNT];
+    for (int i = 0; i < SIZE_CLASS_COUNT; ++i) {
+      pools[i] = new ConcurrentLinkedDeque<>();
+    }
+    this.outstandingBuffers = new Map[OUTSTANDING_STRIPES];
+    for (int i = 0; i < OUTSTANDING_STRIPES; ++i) {
+      outstandingBuffers[i] = new IdentityHashMap<>();
+    }
+    this.failOnInvalidRelease = trackBuffers;
+  }
+
+  @Override
+  public ByteBuffer allocate(int size) {
+    checkArgument(size >= 0, "Invalid buffer size: %s", size);
+    int shift = sizeClassShift(size);
+    ByteBuffer buffer = null;
+    if (shift <= MAX_SIZE_CLASS_SHIFT) {
+      int index = shift - MIN_SIZE_CLASS_SHIFT;
+      if (shift <= MAX_THREAD_CACHED_SHIFT) {
+        buffer = threadCaches.get().poll(index);
+      }
+      if (buffer == null) {
+        buffer = pools[index].pollFirst();
+        if (buffer != null) {
+          pooledBytes.addAndGet(-buffer.capacity());
+        }
+      }
+      if (buffer == null) {
+        buffer = allocator.allocate(1 << shift);
+        allocationCount.incrementAndGet();
+      } else {
+        reuseCount.incrementAndGet();
+      }
+      buffer.clear();
+      buffer.limit(size);
+    } else {
+      buffer = allocator.allocate(size);
+      allocationCount.incrementAndGet();
+    }
+    Map<ByteBuffer, Boolean> outstanding = outstandingStripe(buffer);
+    synchronized (outstanding) {
+      outstanding.put(buffer, Boolean.TRUE);
+    }
+    outstandingCount.incrementAndGet();
+    return buffer;
+  }
+
+  @Override
+  public void release(ByteBuffer buffer) {
+    Map<ByteBuffer, Boolean> outstanding = outstandingStripe(buffer);
+    boolean owned;
+    synchronized (outstanding) {
+      owned = outstanding.remove(buffer) != null;
+    }
+    if (!owned) {
+      checkArgument(!failOnInvalidRelease,
+          "The buffer was not allocated by this allocator or it has been released already: %s", buffer);
+      return;
+    }
+    outstandingCount.decrementAndGet();
+
+    int capacity = buffer.capacity();
+    int shift = sizeClassShift(capacity);
+    if (capacity != 1 << shift || shift > MAX_SIZE_CLASS_SHIFT) {
+      // not pooled
+      allocator.release(buffer);
+      return;
+    }
+    int index = shift - MIN_SIZE_CLASS_SHIFT;
+    if (shift <= MAX_THREAD_CACHED_SHIFT && threadCaches.get().offer(index, buffer)) {
+      return;
+    }
+    releaseToPool(index, buffer);
+  }
+
+  /**
+   * Returns the buffers cached by the current thread to the shared pools so the other threads can reuse them.
+   */
+  public void releaseThreadCache() {
+    ThreadCache cache = threadCaches.get();
+    for (int index = 0; index < THREAD_CACHED_SIZE_CLASS_COUNT; ++index) {
+      for (ByteBuffer buffer = cache.buffers[index].pollFirst(); buffer != null;
+           buffer = cache.buffers[index].pollFirst()) {
+        releaseToPool(index, buffer);
+      }
+      cache.allocatedCounts[index] = 0;
+    }
+  }
+
+  private void releaseToPool(int index, ByteBuffer buffer) {
+    int capacity = buffer.capacity();
+    if (pooledBytes.addAndGet(capacity) <= maxPooledBytes) {
+      pools[index].addFirst(buffer);
+    } else {
+      pooledBytes.addAndGet(-capacity);
+      allocator.release(buffer);
+    }
+  }
+
+  @Override
+  public boolean isDirect() {
+    return allocator.isDirect();
+  }
+
+  /**
+   * Releases the buffers of the shared pools to the underlying allocator. The buffers cached by the threads are kept;
+   * see {@link #releaseThreadCache()}.
+   */
+  public void clear() {
+    for (ConcurrentLinkedDeque<ByteBuffer> pool : pools) {
+      for (ByteBuffer buffer = pool.pollFirst(); buffer != null; buffer = pool.pollFirst()) {
+        pooledBytes.addAndGet(-buffer.capacity());
+        allocator.release(buffer);
+      }
+    }
+  }
+
+  /**
+   * @return the total capacity of the buffers kept in the shared pools
+   */
+  public long getPooledBytes() {
+    return pooledBytes.get();
+  }
+
+  /**
+   * @return the number of the allocated buffers not released yet
+   */
+  public long getOutstandingCount() {
+    return outstandingCount.get();
+  }
+
+  /**
+   * @return the number of the buffers allocated by the underlying allocator
+   */
+  public long getAllocationCount() {
+    return allocationCount.get();
+  }
+
+  /**
+   * @return the number of the allocations served by a pooled buffer
+   */
+  public long getReuseCount() {
+    return reuseCount.get();
+  }
+
+  private Map<ByteBuffer, Boolean> outstandingStripe(ByteBuffer buffer) {
+    return outstandingBuffers[System.identityHashCode(buffer) & (OUTSTANDING_STRIPES - 1)];
+  }
+
+  private static int sizeClassShift(int size) {
+    return Math.max(MIN_SIZE_CLASS_SHIFT, 32 - Integer.numberOfLeadingZeros(size - 1));
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link InputFile} implementation for the files of the local file system. The file is memory-mapped at the first
+ * access and the mapping is shared by all the streams of this object so the streams may hand out slices of the file
+ * without copying; see {@link MappedSeekableInputStream#slice(int)}.
+ * <p>
+ * The file is expected not to be modified while it is being read.
+ */
+public class LocalInputFile implements InputFile {
+
+  // a buffer cannot be larger than 2GB so the file is mapped in segments
+  private static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+  private final Path path;
+  private final int segmentSize;
+  private ByteBuffer[] segments;
+  private long length;
+
+  public LocalInputFile(Path path) {
+    this(path, DEFAULT_SEGMENT_SIZE);
+  }
+
+  // Visible for testing
+  LocalInputFile(Path path, int segmentSize) {
+    this.path = path;
+    this.segmentSize = segmentSize;
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  @Override
+  public long getLength() throws IOException {
+    map();
+    return length;
+  }
+
+  @Override
+  public SeekableInputStream newStream() throws IOException {
+    return new MappedSeekableInputStream(map(), segmentSize, length);
+  }
+
+  private synchronized ByteBuffer[] map() throws IOException {
+    if (segments == null) {
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        long size = channel.size();
+        ByteBuffer[] mapped = new ByteBuffer[(int) ((size + segmentSize - 1) / segmentSize)];
+        for (int i = 0; i < mapped.length; ++i) {
+          long position = (long) i * segmentSize;
+          mapped[i] = channel.map(MapMode.READ_ONLY, position, Math.min(segmentSize, size - position));
+        }
+        // the mapping stays valid after the channel is closed
+        length = size;
+        segments = mapped;
+      }
+    }
+    return segments;
+  }
+
+  @Override
+  public String toString() {
+    return path.toString();
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link SeekableInputStream} reading a memory-mapped file. Besides copying the bytes, the content of the file may be
+ * retrieved without copying by {@link #slice(int)}.
+ * <p>
+ * This stream is not thread-safe but several streams may read the same mapping concurrently.
+ *
+ * @see LocalInputFile
+ */
+public class MappedSeekableInputStream extends SeekableInputStream {
+
+  private final ByteBuffer[] segments;
+  private final int segmentSize;
+  private final long length;
+  private long pos = 0;
+
+  /**
+   * @param segments the consecutive segments of the mapped file; all of them but the last one shall be of the same
+   *                 size
+   * @param segmentSize the size of the segments
+   * @param length the length of the file
+   */
+  MappedSeekableInputStream(ByteBuffer[] segments, int segmentSize, long length) {
+    this.segments = segments;
+    this.segmentSize = segmentSize;
+    this.length = length;
+  }
+
+  @Override
+  public long getPos() {
+    return pos;
+  }
+
+  @Override
+  public void seek(long newPos) throws IOException {
+    if (newPos < 0 || newPos > length) {
+      throw new EOFException("Cannot seek to " + newPos + " in a file of length " + length);
+    }
+    pos = newPos;
+  }
+
+  @Override
+  public int read() {
+    if (pos >= length) {
+      return -1;
+    }
+    int b = segments[(int) (pos / segmentSize)].get((int) (pos % segmentSize)) & 0xFF;
+    ++pos;
+    return b;
+  }
+
+  @Override
+  public int read(byte[] bytes, int off, int len) {
+    if (len == 0) {
+      return 0;
+    }
+    if (pos >= length) {
+      return -1;
+    }
+    ByteBuffer segment = currentSegment();
+    int n = Math.min(len, segment.remaining());
+    segment.get(bytes, off, n);
+    pos += n;
+    return n;
+  }
+
+  @Override
+  public long skip(long n) {
+    long skipped = Math.max(0, Math.min(n, length - pos));
+    pos += skipped;
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return (int) Math.min(Integer.MAX_VALUE, length - pos);
+  }
+
+  @Override
+  public void readFully(byte[] bytes) throws IOException {
+    readFully(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public void readFully(byte[] bytes, int start, int len) throws IOException {
+    checkRemaining(len);
+    while (len > 0) {
+      int n = read(bytes, start, len);
+      start += n;
+      len -= n;
+    }
+  }
+
+  @Override
+  public int read(ByteBuffer buf) {
+    if (!buf.hasRemaining()) {
+      return 0;
+    }
+    if (pos >= length) {
+      return -1;
+    }
+    ByteBuffer segment = currentSegment();
+    int n = Math.min(buf.remaining(), segment.remaining());
+    segment.limit(segment.position() + n);
+    buf.put(segment);
+    pos += n;
+    return n;
+  }
+
+  @Override
+  public void readFully(ByteBuffer buf) throws IOException {
+    checkRemaining(buf.remaining());
+    while (buf.hasRemaining()) {
+      read(buf);
+    }
+  }
+
+  /**
+   * Returns the next {@code length} bytes of the file and advances the position of this stream accordingly. The
+   * returned buffer is a read-only view of the mapping if the bytes are in one segment of the mapping; otherwise
+   * (only for files larger than 1GB) the bytes are copied to a new heap buffer.
+   *
+   * @param length the number of bytes to return
+   * @return a buffer containing the next {@code length} bytes of the file
+   * @throws EOFException if the stream has fewer than {@code length} bytes left
+   */
+  public ByteBuffer slice(int length) throws EOFException {
+    if (length < 0) {
+      throw new IllegalArgumentException("Invalid slice length: " + length);
+    }
+    checkRemaining(length);
+    if (length == 0) {
+      // there might be no segment at the position: at the end of a file of whole segments or in an empty file
+      return ByteBuffer.allocate(0);
+    }
+    ByteBuffer segment = currentSegment();
+    if (length <= segment.remaining()) {
+      segment.limit(segment.position() + length);
+      pos += length;
+      return segment.slice();
+    }
+    ByteBuffer copy = ByteBuffer.allocate(length);
+    while (copy.hasRemaining()) {
+      read(copy);
+    }
+    copy.flip();
+    return copy;
+  }
+
+  // returns an independent view of the segment containing the current position starting at the position; the
+  // position shall be before the end of the file
+  private ByteBuffer currentSegment() {
+    ByteBuffer segment = segments[(int) (pos / segmentSize)].duplicate();
+    segment.position((int) (pos % segmentSize));
+    return segment;
+  }
+
+  private void checkRemaining(int len) throws EOFException {
+    if (len > length - pos) {
+      throw new EOFException("Reached the end of stream with " + (length - pos) + " bytes left to read " + len);
+    }
+  }
+}
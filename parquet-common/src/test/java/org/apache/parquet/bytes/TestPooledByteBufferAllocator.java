@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.bytes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class TestPooledByteBufferAllocator {
+
+  @Test
+  public void testSizeClasses() {
+    PooledByteBufferAllocator allocator = new PooledByteBufferAllocator(new HeapByteBufferAllocator(), 1 << 30, true);
+    ByteBuffer buffer = allocator.allocate(1000);
+    assertEquals(1000, buffer.remaining());
+    assertEquals(4096, buffer.capacity());
+    allocator.release(buffer);
+
+    // reused for any size of the same class
+    ByteBuffer reused = allocator.allocate(3000);
+    assertSame(buffer, reused);
+    assertEquals(0, reused.position());
+    assertEquals(3000, reused.limit());
+    allocator.release(reused);
+
+    buffer = allocator.allocate(5000);
+    assertEquals(8192, buffer.capacity());
+    allocator.release(buffer);
+
+    // too large to be pooled
+    buffer = allocator.allocate((1 << 26) + 1);
+    assertEquals((1 << 26) + 1, buffer.capacity());
+    allocator.release(buffer);
+    assertEquals(0, allocator.getPooledBytes());
+
+    assertEquals(3, allocator.getAllocationCount());
+    assertEquals(1, allocator.getReuseCount());
+    assertEquals(0, allocator.getOutstandingCount());
+  }
+
+  @Test
+  public void testSharedPool() throws Exception {
+    // the buffers over 64KB are not cached by the threads
+    PooledByteBufferAllocator allocator =
+        new PooledByteBufferAllocator(new HeapByteBufferAllocator(), (3 << 20) + 4096, true);
+    List<ByteBuffer> buffers = new ArrayList<>();
+    for (int i = 0; i < 4; ++i) {
+      buffers.add(allocator.allocate(1 << 20));
+    }
+    for (ByteBuffer buffer : buffers) {
+      allocator.release(buffer);
+    }
+    // the last one does not fit into the pool
+    assertEquals(3 << 20, allocator.getPooledBytes());
+
+    // the pooled buffers are available for the other threads
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<ByteBuffer> future = executor.submit(() -> allocator.allocate(1 << 20));
+      allocator.release(future.get());
+
+      // a small buffer released by another thread than the allocating one is not cached by the releasing thread
+      allocator.release(executor.submit(() -> allocator.allocate(4096)).get());
+      assertEquals((3 << 20) + 4096, allocator.getPooledBytes());
+      allocator.release(executor.submit(() -> allocator.allocate(4096)).get());
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(5, allocator.getAllocationCount());
+    assertEquals(2, allocator.getReuseCount());
+
+    allocator.clear();
+    assertEquals(0, allocator.getPooledBytes());
+    assertEquals(0, allocator.getOutstandingCount());
+  }
+
+  @Test
+  public void testReleaseThreadCache() throws Exception {
+    PooledByteBufferAllocator allocator = new PooledByteBufferAllocator(new HeapByteBufferAllocator(), 1 << 30, true);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      // the buffer cached by the worker is not available for this thread until the worker returns it
+      executor.submit(() -> allocator.release(allocator.allocate(4096))).get();
+      assertEquals(0, allocator.getPooledBytes());
+      executor.submit(allocator::releaseThreadCache).get();
+      assertEquals(4096, allocator.getPooledBytes());
+    } finally {
+      executor.shutdownNow();
+    }
+    allocator.release(allocator.allocate(4096));
+    assertEquals(1, allocator.getAllocationCount());
+    assertEquals(1, allocator.getReuseCount());
+    assertEquals(0, allocator.getPooledBytes());
+
+    allocator.releaseThreadCache();
+    assertEquals(4096, allocator.getPooledBytes());
+    assertEquals(0, allocator.getOutstandingCount());
+  }
+
+  @Test
+  public void testInvalidReleases() {
+    PooledByteBufferAllocator allocator = new PooledByteBufferAllocator(new HeapByteBufferAllocator(), 1 << 30, true);
+    ByteBuffer buffer = allocator.allocate(100);
+    allocator.release(buffer);
+    try {
+      allocator.release(buffer);
+      fail("Releasing a buffer twice should fail");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      allocator.release(ByteBuffer.allocate(4096));
+      fail("Releasing a foreign buffer should fail");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+
+    // without tracking the buffers not handed out by the pool are ignored
+    PooledByteBufferAllocator untracked = new PooledByteBufferAllocator(new HeapByteBufferAllocator(), 1 << 30);
+    untracked.release(ByteBuffer.allocate(1 << 20).asReadOnlyBuffer());
+    untracked.release(ByteBuffer.allocateDirect(1 << 20));
+    // a writable buffer of a size class is not taken for one of the pool
+    untracked.release(ByteBuffer.allocate(1 << 20));
+    assertEquals(0, untracked.getPooledBytes());
+    assertEquals(0, untracked.getOutstandingCount());
+
+    ByteBuffer large = untracked.allocate(1 << 20);
+    ByteBuffer other = untracked.allocate(1 << 20);
+    untracked.release(large);
+    untracked.release(large);
+    assertEquals(1 << 20, untracked.getPooledBytes());
+    assertEquals(1, untracked.getOutstandingCount());
+    // the buffer released twice is handed out once only
+    assertSame(large, untracked.allocate(1 << 20));
+    assertNotSame(large, untracked.allocate(1 << 20));
+    untracked.release(other);
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestLocalFile {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  private static byte[] randomBytes(int length) {
+    byte[] bytes = new byte[length];
+    new Random(42).nextBytes(bytes);
+    return bytes;
+  }
+
+  private Path writeFile(byte[] content) throws IOException {
+    Path path = temp.newFile().toPath();
+    try (PositionOutputStream out = new LocalOutputFile(path).createOrOverwrite(0)) {
+      // mix single bytes, small and large writes
+      out.write(content[0]);
+      out.write(content, 1, 99);
+      assertEquals(100, out.getPos());
+      out.write(content, 100, 200_000);
+      out.write(content, 200_100, content.length - 200_100);
+      assertEquals(content.length, out.getPos());
+    }
+    return path;
+  }
+
+  @Test
+  public void testWriteAndRead() throws IOException {
+    byte[] content = randomBytes(300_000);
+    Path path = writeFile(content);
+
+    LocalInputFile file = new LocalInputFile(path);
+    assertEquals(content.length, file.getLength());
+    try (SeekableInputStream in = file.newStream()) {
+      byte[] bytes = new byte[content.length];
+      in.readFully(bytes);
+      assertArrayEquals(content, bytes);
+      assertEquals(-1, in.read());
+
+      in.seek(1000);
+      assertEquals(content[1000] & 0xFF, in.read());
+      ByteBuffer buf = ByteBuffer.allocate(500);
+      in.readFully(buf);
+      buf.flip();
+      assertEquals(ByteBuffer.wrap(content, 1001, 500), buf);
+      assertEquals(1501, in.getPos());
+    }
+  }
+
+  @Test
+  public void testEndOfFile() throws IOException {
+    byte[] content = randomBytes(300_000);
+    LocalInputFile file = new LocalInputFile(writeFile(content));
+    try (SeekableInputStream in = file.newStream()) {
+      in.seek(content.length - 10);
+      try {
+        in.readFully(new byte[11]);
+        fail("Expected EOFException");
+      } catch (EOFException e) {
+        // expected
+      }
+      // a failed read does not move the stream
+      assertEquals(content.length - 10, in.getPos());
+      try {
+        in.seek(content.length + 1);
+        fail("Expected EOFException");
+      } catch (EOFException e) {
+        // expected
+      }
+    }
+  }
+
+  @Test
+  public void testSlices() throws IOException {
+    byte[] content = randomBytes(300_000);
+    // small segments to have slices crossing the segment boundaries
+    LocalInputFile file = new LocalInputFile(writeFile(content), 64 * 1024);
+    try (MappedSeekableInputStream in = (MappedSeekableInputStream) file.newStream()) {
+      in.seek(1000);
+      ByteBuffer slice = in.slice(10_000);
+      assertTrue("Slice within a segment should not be copied", slice.isDirect());
+      assertEquals(ByteBuffer.wrap(content, 1000, 10_000), slice);
+      assertEquals(11_000, in.getPos());
+
+      in.seek(60_000);
+      slice = in.slice(100_000);
+      assertFalse(slice.isDirect());
+      assertEquals(ByteBuffer.wrap(content, 60_000, 100_000), slice);
+      assertEquals(160_000, in.getPos());
+
+      byte[] bytes = new byte[200_000];
+      in.seek(50_000);
+      in.readFully(bytes);
+      assertArrayEquals(Arrays.copyOfRange(content, 50_000, 250_000), bytes);
+    }
+  }
+
+  @Test
+  public void testEndOfWholeSegments() throws IOException {
+    int segmentSize = 64 * 1024;
+    byte[] content = randomBytes(segmentSize);
+    Path path = temp.newFile().toPath();
+    Files.write(path, content);
+    LocalInputFile file = new LocalInputFile(path, segmentSize);
+    try (MappedSeekableInputStream in = (MappedSeekableInputStream) file.newStream()) {
+      assertEquals(ByteBuffer.wrap(content), in.slice(segmentSize));
+      assertEndOfFile(in);
+      in.seek(segmentSize - 1);
+      assertEquals(content[segmentSize - 1] & 0xFF, in.read());
+      assertEndOfFile(in);
+    }
+  }
+
+  @Test
+  public void testEmptyFile() throws IOException {
+    LocalInputFile file = new LocalInputFile(temp.newFile().toPath());
+    assertEquals(0, file.getLength());
+    try (MappedSeekableInputStream in = (MappedSeekableInputStream) file.newStream()) {
+      assertEndOfFile(in);
+    }
+  }
+
+  private static void assertEndOfFile(MappedSeekableInputStream in) throws IOException {
+    long pos = in.getPos();
+    assertEquals(-1, in.read());
+    assertEquals(-1, in.read(new byte[10], 0, 10));
+    assertEquals(-1, in.read(ByteBuffer.allocate(10)));
+    in.readFully(new byte[0]);
+    in.readFully(ByteBuffer.allocate(0));
+    assertEquals(0, in.slice(0).remaining());
+    try {
+      in.slice(1);
+      fail("Expected EOFException");
+    } catch (EOFException e) {
+      // expected
+    }
+    try {
+      in.readFully(new byte[1]);
+      fail("Expected EOFException");
+    } catch (EOFException e) {
+      // expected
+    }
+    assertEquals(pos, in.getPos());
+  }
+
+  @Test
+  public void testCreate() throws IOException {
+    Path path = temp.newFile().toPath();
+    try {
+      new LocalOutputFile(path).create(0);
+      fail("Expected FileAlreadyExistsException");
+    } catch (FileAlreadyExistsException e) {
+      // expected
+    }
+  }
+}
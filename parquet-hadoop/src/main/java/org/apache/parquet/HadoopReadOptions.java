@@ -21,15 +21,22 @@ package org.apache.parquet;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.parquet.bytes.ByteBufferAllocator;
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
 import org.apache.parquet.compression.CompressionCodecFactory;
 import org.apache.parquet.filter2.compat.FilterCompat;
 import org.apache.parquet.format.converter.ParquetMetadataConverter.MetadataFilter;
+import org.apache.parquet.hadoop.FooterCache;
+import org.apache.parquet.hadoop.LruFooterCache;
 import org.apache.parquet.hadoop.util.HadoopCodecs;
 
 import java.util.Map;
 
+import static org.apache.parquet.hadoop.ParquetInputFormat.BLOOM_FILTERING_ENABLED;
+import static org.apache.parquet.hadoop.ParquetInputFormat.BYTE_BUFFER_CODECS;
 import static org.apache.parquet.hadoop.ParquetInputFormat.COLUMN_INDEX_FILTERING_ENABLED;
 import static org.apache.parquet.hadoop.ParquetInputFormat.DICTIONARY_FILTERING_ENABLED;
+import static org.apache.parquet.hadoop.ParquetInputFormat.FOOTER_CACHE_ENABLED;
+import static org.apache.parquet.hadoop.ParquetInputFormat.FOOTER_CACHE_MAX_BYTES;
 import static org.apache.parquet.hadoop.ParquetInputFormat.RECORD_FILTERING_ENABLED;
 import static org.apache.parquet.hadoop.ParquetInputFormat.STATS_FILTERING_ENABLED;
 import static org.apache.parquet.hadoop.ParquetInputFormat.getFilter;
@@ -39,22 +46,49 @@ public class HadoopReadOptions extends ParquetReadOptions {
   private final Configuration conf;
 
   private static final String ALLOCATION_SIZE = "parquet.read.allocation.size";
+  private static final String PREFETCH_DEPTH = "parquet.read.prefetch.depth";
+  private static final String PREFETCH_MAX_BYTES = "parquet.read.prefetch.max.bytes";
+  private static final String READ_PARALLELISM = "parquet.read.io.parallelism";
+  private static final String MAX_READ_GAP = "parquet.read.io.max.gap";
+  private static final String MAX_MERGED_READ_SIZE = "parquet.read.io.max.merged.size";
+  private static final String DECOMPRESSION_LOOK_AHEAD = "parquet.read.decompression.lookahead";
+  private static final String DECOMPRESSION_MAX_BYTES = "parquet.read.decompression.max.bytes";
+  private static final String DECOMPRESSION_THREADS = "parquet.read.decompression.threads";
+  private static final long FOOTER_CACHE_MAX_BYTES_DEFAULT = 104857600; // 100MB
+  private static final String TAIL_READ_SIZE = "parquet.read.footer.tail.size";
+  private static final String MAX_TAIL_READ_SIZE = "parquet.read.footer.tail.max.size";
+  private static final String MAX_INDEX_READ_SIZE = "parquet.read.index.max.batch.size";
 
   private HadoopReadOptions(boolean useSignedStringMinMax,
                             boolean useStatsFilter,
                             boolean useDictionaryFilter,
                             boolean useRecordFilter,
                             boolean useColumnIndexFilter,
+                            boolean useBloomFilter,
                             FilterCompat.Filter recordFilter,
                             MetadataFilter metadataFilter,
                             CompressionCodecFactory codecFactory,
                             ByteBufferAllocator allocator,
                             int maxAllocationSize,
+                            int prefetchDepth,
+                            long prefetchMaxBytes,
+                            int readParallelism,
+                            int maxReadGap,
+                            int maxMergedReadSize,
+                            int decompressionLookAhead,
+                            long decompressionMaxBytes,
+                            int decompressionThreads,
+                            FooterCache footerCache,
+                            int tailReadSize,
+                            int maxTailReadSize,
+                            int maxIndexReadSize,
                             Map<String, String> properties,
                             Configuration conf) {
     super(
         useSignedStringMinMax, useStatsFilter, useDictionaryFilter, useRecordFilter, useColumnIndexFilter,
-        recordFilter, metadataFilter, codecFactory, allocator, maxAllocationSize, properties
+        useBloomFilter, recordFilter, metadataFilter, codecFactory, allocator, maxAllocationSize, prefetchDepth, prefetchMaxBytes,
+        readParallelism, maxReadGap, maxMergedReadSize, decompressionLookAhead, decompressionMaxBytes,
+        decompressionThreads, footerCache, tailReadSize, maxTailReadSize, maxIndexReadSize, properties
     );
     this.conf = conf;
   }
@@ -86,9 +120,27 @@ public class HadoopReadOptions extends ParquetReadOptions {
       useStatsFilter(conf.getBoolean(STATS_FILTERING_ENABLED, true));
       useRecordFilter(conf.getBoolean(RECORD_FILTERING_ENABLED, true));
       useColumnIndexFilter(conf.getBoolean(COLUMN_INDEX_FILTERING_ENABLED, true));
-      withCodecFactory(HadoopCodecs.newFactory(conf, 0));
+      useBloomFilter(conf.getBoolean(BLOOM_FILTERING_ENABLED, true));
+      withCodecFactory(conf.getBoolean(BYTE_BUFFER_CODECS, false)
+          ? HadoopCodecs.newByteBufferFactory(conf, new HeapByteBufferAllocator(), 0)
+          : HadoopCodecs.newFactory(conf, 0));
       withRecordFilter(getFilter(conf));
       withMaxAllocationInBytes(conf.getInt(ALLOCATION_SIZE, 8388608));
+      withPrefetchDepth(conf.getInt(PREFETCH_DEPTH, prefetchDepth));
+      withPrefetchMaxBytes(conf.getLong(PREFETCH_MAX_BYTES, prefetchMaxBytes));
+      withReadParallelism(conf.getInt(READ_PARALLELISM, readParallelism));
+      withMaxReadGap(conf.getInt(MAX_READ_GAP, maxReadGap));
+      withMaxMergedReadSize(conf.getInt(MAX_MERGED_READ_SIZE, maxMergedReadSize));
+      withDecompressionLookAhead(conf.getInt(DECOMPRESSION_LOOK_AHEAD, decompressionLookAhead));
+      withDecompressionMaxBytes(conf.getLong(DECOMPRESSION_MAX_BYTES, decompressionMaxBytes));
+      withDecompressionThreads(conf.getInt(DECOMPRESSION_THREADS, decompressionThreads));
+      if (conf.getBoolean(FOOTER_CACHE_ENABLED, false)) {
+        withFooterCache(LruFooterCache.getSharedInstance(
+            conf.getLong(FOOTER_CACHE_MAX_BYTES, FOOTER_CACHE_MAX_BYTES_DEFAULT)));
+      }
+      withTailReadSize(conf.getInt(TAIL_READ_SIZE, tailReadSize));
+      withMaxTailReadSize(conf.getInt(MAX_TAIL_READ_SIZE, maxTailReadSize));
+      withMaxIndexReadSize(conf.getInt(MAX_INDEX_READ_SIZE, maxIndexReadSize));
       String badRecordThresh = conf.get(BAD_RECORD_THRESHOLD_CONF_KEY);
       if (badRecordThresh != null) {
         set(BAD_RECORD_THRESHOLD_CONF_KEY, badRecordThresh);
@@ -99,8 +151,10 @@ public class HadoopReadOptions extends ParquetReadOptions {
     public ParquetReadOptions build() {
       return new HadoopReadOptions(
           useSignedStringMinMax, useStatsFilter, useDictionaryFilter, useRecordFilter, useColumnIndexFilter,
-          recordFilter, metadataFilter, codecFactory, allocator, maxAllocationSize, properties,
-          conf);
+          useBloomFilter, recordFilter, metadataFilter, codecFactory, allocator, maxAllocationSize, prefetchDepth,
+          prefetchMaxBytes, readParallelism, maxReadGap, maxMergedReadSize, decompressionLookAhead,
+          decompressionMaxBytes, decompressionThreads, footerCache, tailReadSize, maxTailReadSize,
+          maxIndexReadSize, properties, conf);
     }
   }
 }
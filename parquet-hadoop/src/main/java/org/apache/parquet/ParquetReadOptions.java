@@ -24,6 +24,8 @@ import org.apache.parquet.bytes.HeapByteBufferAllocator;
 import org.apache.parquet.compression.CompressionCodecFactory;
 import org.apache.parquet.filter2.compat.FilterCompat;
 import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.FooterCache;
+import org.apache.parquet.hadoop.LruFooterCache;
 import org.apache.parquet.hadoop.util.HadoopCodecs;
 
 import java.util.Collections;
@@ -39,18 +41,43 @@ public class ParquetReadOptions {
   private static final boolean STATS_FILTERING_ENABLED_DEFAULT = true;
   private static final boolean DICTIONARY_FILTERING_ENABLED_DEFAULT = true;
   private static final boolean COLUMN_INDEX_FILTERING_ENABLED_DEFAULT = true;
+  private static final boolean BLOOM_FILTER_ENABLED_DEFAULT = true;
   private static final int ALLOCATION_SIZE_DEFAULT = 8388608; // 8MB
+  private static final int PREFETCH_DEPTH_DEFAULT = 0; // prefetching is disabled
+  private static final long PREFETCH_MAX_BYTES_DEFAULT = 268435456; // 256MB
+  private static final int READ_PARALLELISM_DEFAULT = 1; // consecutive parts are read one after the other
+  private static final int MAX_READ_GAP_DEFAULT = 0; // only consecutive chunks are read together
+  private static final int MAX_MERGED_READ_SIZE_DEFAULT = 8388608; // 8MB
+  private static final int DECOMPRESSION_LOOK_AHEAD_DEFAULT = 0; // pages are decompressed at reading
+  private static final long DECOMPRESSION_MAX_BYTES_DEFAULT = 67108864; // 64MB
+  private static final int DECOMPRESSION_THREADS_DEFAULT = Runtime.getRuntime().availableProcessors();
+  private static final int TAIL_READ_SIZE_DEFAULT = 0; // the footer is read by its length
+  private static final int MAX_TAIL_READ_SIZE_DEFAULT = 4194304; // 4MB
+  private static final int MAX_INDEX_READ_SIZE_DEFAULT = 8388608; // 8MB
 
   private final boolean useSignedStringMinMax;
   private final boolean useStatsFilter;
   private final boolean useDictionaryFilter;
   private final boolean useRecordFilter;
   private final boolean useColumnIndexFilter;
+  private final boolean useBloomFilter;
   private final FilterCompat.Filter recordFilter;
   private final ParquetMetadataConverter.MetadataFilter metadataFilter;
   private final CompressionCodecFactory codecFactory;
   private final ByteBufferAllocator allocator;
   private final int maxAllocationSize;
+  private final int prefetchDepth;
+  private final long prefetchMaxBytes;
+  private final int readParallelism;
+  private final int maxReadGap;
+  private final int maxMergedReadSize;
+  private final int decompressionLookAhead;
+  private final long decompressionMaxBytes;
+  private final int decompressionThreads;
+  private final FooterCache footerCache;
+  private final int tailReadSize;
+  private final int maxTailReadSize;
+  private final int maxIndexReadSize;
   private final Map<String, String> properties;
 
   ParquetReadOptions(boolean useSignedStringMinMax,
@@ -58,22 +85,48 @@ public class ParquetReadOptions {
                      boolean useDictionaryFilter,
                      boolean useRecordFilter,
                      boolean useColumnIndexFilter,
+                     boolean useBloomFilter,
                      FilterCompat.Filter recordFilter,
                      ParquetMetadataConverter.MetadataFilter metadataFilter,
                      CompressionCodecFactory codecFactory,
                      ByteBufferAllocator allocator,
                      int maxAllocationSize,
+                     int prefetchDepth,
+                     long prefetchMaxBytes,
+                     int readParallelism,
+                     int maxReadGap,
+                     int maxMergedReadSize,
+                     int decompressionLookAhead,
+                     long decompressionMaxBytes,
+                     int decompressionThreads,
+                     FooterCache footerCache,
+                     int tailReadSize,
+                     int maxTailReadSize,
+                     int maxIndexReadSize,
                      Map<String, String> properties) {
     this.useSignedStringMinMax = useSignedStringMinMax;
     this.useStatsFilter = useStatsFilter;
     this.useDictionaryFilter = useDictionaryFilter;
     this.useRecordFilter = useRecordFilter;
     this.useColumnIndexFilter = useColumnIndexFilter;
+    this.useBloomFilter = useBloomFilter;
     this.recordFilter = recordFilter;
     this.metadataFilter = metadataFilter;
     this.codecFactory = codecFactory;
     this.allocator = allocator;
     this.maxAllocationSize = maxAllocationSize;
+    this.prefetchDepth = prefetchDepth;
+    this.prefetchMaxBytes = prefetchMaxBytes;
+    this.readParallelism = readParallelism;
+    this.maxReadGap = maxReadGap;
+    this.maxMergedReadSize = maxMergedReadSize;
+    this.decompressionLookAhead = decompressionLookAhead;
+    this.decompressionMaxBytes = decompressionMaxBytes;
+    this.decompressionThreads = decompressionThreads;
+    this.footerCache = footerCache;
+    this.tailReadSize = tailReadSize;
+    this.maxTailReadSize = maxTailReadSize;
+    this.maxIndexReadSize = maxIndexReadSize;
     this.properties = Collections.unmodifiableMap(properties);
   }
 
@@ -97,6 +150,10 @@ public class ParquetReadOptions {
     return useColumnIndexFilter;
   }
 
+  public boolean useBloomFilter() {
+    return useBloomFilter;
+  }
+
   public FilterCompat.Filter getRecordFilter() {
     return recordFilter;
   }
@@ -117,6 +174,95 @@ public class ParquetReadOptions {
     return maxAllocationSize;
   }
 
+  /**
+   * @return the number of row groups to read ahead in the background; 0 means prefetching is disabled
+   */
+  public int getPrefetchDepth() {
+    return prefetchDepth;
+  }
+
+  /**
+   * @return the maximum number of bytes that may be held by row groups read ahead in the background
+   */
+  public long getPrefetchMaxBytes() {
+    return prefetchMaxBytes;
+  }
+
+  /**
+   * @return the maximum number of concurrent reads issued for the column chunks of a row group
+   */
+  public int getReadParallelism() {
+    return readParallelism;
+  }
+
+  /**
+   * @return the maximum number of unneeded bytes between two column chunks (or pages) that are read and discarded
+   *         so the chunks can be fetched in one read
+   */
+  public int getMaxReadGap() {
+    return maxReadGap;
+  }
+
+  /**
+   * @return the maximum size of a read that is merged from non-consecutive column chunks (or pages)
+   */
+  public int getMaxMergedReadSize() {
+    return maxMergedReadSize;
+  }
+
+  /**
+   * @return the number of pages per column to decompress ahead on the shared worker pool; 0 means the pages are
+   *         decompressed at reading
+   */
+  public int getDecompressionLookAhead() {
+    return decompressionLookAhead;
+  }
+
+  /**
+   * @return the maximum size of the decompressed pages of a row group waiting to be read
+   */
+  public long getDecompressionMaxBytes() {
+    return decompressionMaxBytes;
+  }
+
+  /**
+   * @return the number of worker threads of a reader decompressing the pages ahead
+   */
+  public int getDecompressionThreads() {
+    return decompressionThreads;
+  }
+
+  /**
+   * @return the cache of the parsed footers; {@code null} if the footers are not cached
+   */
+  public FooterCache getFooterCache() {
+    return footerCache;
+  }
+
+  /**
+   * @return the number of bytes to read speculatively from the end of the file to get the footer and the page indexes
+   *         in one request; 0 means the footer is read by its length
+   */
+  public int getTailReadSize() {
+    return tailReadSize;
+  }
+
+  /**
+   * @return the limit up to which the tail read size is grown if the footers and the page indexes of the files read
+   *         do not fit into it
+   */
+  public int getMaxTailReadSize() {
+    return maxTailReadSize;
+  }
+
+  /**
+   * @return the maximum size of the range covering the column and offset indexes to be read in one request; 0 means
+   *         every index is read separately
+   */
+  public int getMaxIndexReadSize() {
+    return maxIndexReadSize;
+  }
+
   public Set<String> getPropertyNames() {
     return properties.keySet();
   }
@@ -143,12 +289,25 @@ public class ParquetReadOptions {
     protected boolean useDictionaryFilter = DICTIONARY_FILTERING_ENABLED_DEFAULT;
     protected boolean useRecordFilter = RECORD_FILTERING_ENABLED_DEFAULT;
     protected boolean useColumnIndexFilter = COLUMN_INDEX_FILTERING_ENABLED_DEFAULT;
+    protected boolean useBloomFilter = BLOOM_FILTER_ENABLED_DEFAULT;
     protected FilterCompat.Filter recordFilter = null;
     protected ParquetMetadataConverter.MetadataFilter metadataFilter = NO_FILTER;
     // the page size parameter isn't used when only using the codec factory to get decompressors
     protected CompressionCodecFactory codecFactory = HadoopCodecs.newFactory(0);
     protected ByteBufferAllocator allocator = new HeapByteBufferAllocator();
     protected int maxAllocationSize = ALLOCATION_SIZE_DEFAULT;
+    protected int prefetchDepth = PREFETCH_DEPTH_DEFAULT;
+    protected long prefetchMaxBytes = PREFETCH_MAX_BYTES_DEFAULT;
+    protected int readParallelism = READ_PARALLELISM_DEFAULT;
+    protected int maxReadGap = MAX_READ_GAP_DEFAULT;
+    protected int maxMergedReadSize = MAX_MERGED_READ_SIZE_DEFAULT;
+    protected int decompressionLookAhead = DECOMPRESSION_LOOK_AHEAD_DEFAULT;
+    protected long decompressionMaxBytes = DECOMPRESSION_MAX_BYTES_DEFAULT;
+    protected int decompressionThreads = DECOMPRESSION_THREADS_DEFAULT;
+    protected FooterCache footerCache = null;
+    protected int tailReadSize = TAIL_READ_SIZE_DEFAULT;
+    protected int maxTailReadSize = MAX_TAIL_READ_SIZE_DEFAULT;
+    protected int maxIndexReadSize = MAX_INDEX_READ_SIZE_DEFAULT;
     protected Map<String, String> properties = new HashMap<>();
 
     public Builder useSignedStringMinMax(boolean useSignedStringMinMax) {
@@ -200,6 +359,15 @@ public class ParquetReadOptions {
       return useColumnIndexFilter(true);
     }
 
+    public Builder useBloomFilter(boolean useBloomFilter) {
+      this.useBloomFilter = useBloomFilter;
+      return this;
+    }
+
+    public Builder useBloomFilter() {
+      return useBloomFilter(true);
+    }
+
     public Builder withRecordFilter(FilterCompat.Filter rowGroupFilter) {
       this.recordFilter = rowGroupFilter;
       return this;
@@ -235,6 +403,143 @@ public class ParquetReadOptions {
       return this;
     }
 
+    /**
+     * Enables reading the next row groups on a background thread while the current one is being decoded.
+     *
+     * @param prefetchDepth the number of row groups to read ahead; 0 disables prefetching
+     * @return this builder for method chaining
+     */
+    public Builder withPrefetchDepth(int prefetchDepth) {
+      this.prefetchDepth = prefetchDepth;
+      return this;
+    }
+
+    /**
+     * @param prefetchMaxBytes the maximum number of bytes that may be held by row groups read ahead
+     * @return this builder for method chaining
+     */
+    public Builder withPrefetchMaxBytes(long prefetchMaxBytes) {
+      this.prefetchMaxBytes = prefetchMaxBytes;
+      return this;
+    }
+
+    /**
+     * Enables reading the non-consecutive parts of a row group concurrently, each through a separate stream of the
+     * file.
+     *
+     * @param readParallelism the maximum number of concurrent reads; 1 reads the parts one after the other
+     * @return this builder for method chaining
+     */
+    public Builder withReadParallelism(int readParallelism) {
+      this.readParallelism = readParallelism;
+      return this;
+    }
+
+    /**
+     * Enables reading near-adjacent column chunks (or pages) in one read by also reading the bytes between them. This
+     * is cheaper than an additional request on storages with high latency.
+     *
+     * @param maxReadGap the maximum number of bytes between two chunks to be read and discarded; 0 merges only
+     *                   consecutive chunks
+     * @return this builder for method chaining
+     */
+    public Builder withMaxReadGap(int maxReadGap) {
+      this.maxReadGap = maxReadGap;
+      return this;
+    }
+
+    /**
+     * @param maxMergedReadSize the maximum size of a read that is merged from non-consecutive chunks
+     * @return this builder for method chaining
+     */
+    public Builder withMaxMergedReadSize(int maxMergedReadSize) {
+      this.maxMergedReadSize = maxMergedReadSize;
+      return this;
+    }
+
+    /**
+     * Enables decompressing the next pages of the columns on a worker pool of the reader while the current pages are
+     * being decoded. It is only applied if the codec factory is a {@code CodecFactory} as the workers create their
+     * own decompressors from it.
+     *
+     * @param decompressionLookAhead the number of pages per column to decompress ahead; 0 decompresses the pages at
+     *                               reading
+     * @return this builder for method chaining
+     */
+    public Builder withDecompressionLookAhead(int decompressionLookAhead) {
+      this.decompressionLookAhead = decompressionLookAhead;
+      return this;
+    }
+
+    /**
+     * @param decompressionMaxBytes the maximum size of the decompressed pages of a reader waiting to be read, all the
+     *                              row groups together
+     * @return this builder for method chaining
+     */
+    public Builder withDecompressionMaxBytes(long decompressionMaxBytes) {
+      this.decompressionMaxBytes = decompressionMaxBytes;
+      return this;
+    }
+
+    /**
+     * @param decompressionThreads the number of worker threads of a reader decompressing the pages ahead; defaults
+     *                             to the number of available processors
+     * @return this builder for method chaining
+     */
+    public Builder withDecompressionThreads(int decompressionThreads) {
+      this.decompressionThreads = decompressionThreads;
+      return this;
+    }
+
+    /**
+     * Sets the cache to look up the footers of the files in before reading them. The footers read are added to the
+     * cache.
+     *
+     * @param footerCache the cache of the parsed footers; {@code null} disables caching
+     * @return this builder for method chaining
+     * @see LruFooterCache
+     */
+    public Builder withFooterCache(FooterCache footerCache) {
+      this.footerCache = footerCache;
+      return this;
+    }
+
+    /**
+     * Enables reading the tail of the file in one request instead of reading the footer length and the footer
+     * separately. The footer and the page indexes are parsed from the tail if they are contained. If they do not fit,
+     * the size read for the next files is grown up to the {@link #withMaxTailReadSize(int) maximum}.
+     *
+     * @param tailReadSize the number of bytes to read speculatively from the end of the file; 0 disables speculative
+     *                     reading
+     * @return this builder for method chaining
+     */
+    public Builder withTailReadSize(int tailReadSize) {
+      this.tailReadSize = tailReadSize;
+      return this;
+    }
+
+    /**
+     * @param maxTailReadSize the limit up to which the tail read size may be grown
+     * @return this builder for method chaining
+     */
+    public Builder withMaxTailReadSize(int maxTailReadSize) {
+      this.maxTailReadSize = maxTailReadSize;
+      return this;
+    }
+
+    /**
+     * The column and offset indexes required for column index filtering are read in one request if the range
+     * covering them is not larger than this limit. The range of all the row groups is read if it fits; otherwise the
+     * range of every row group is read separately.
+     *
+     * @param maxIndexReadSize the maximum size of a batched index read; 0 reads every index separately
+     * @return this builder for method chaining
+     */
+    public Builder withMaxIndexReadSize(int maxIndexReadSize) {
+      this.maxIndexReadSize = maxIndexReadSize;
+      return this;
+    }
+
     public Builder set(String key, String value) {
       properties.put(key, value);
       return this;
@@ -245,10 +550,23 @@ public class ParquetReadOptions {
       useStatsFilter(options.useStatsFilter);
       useDictionaryFilter(options.useDictionaryFilter);
       useRecordFilter(options.useRecordFilter);
+      useBloomFilter(options.useBloomFilter);
       withRecordFilter(options.recordFilter);
       withMetadataFilter(options.metadataFilter);
       withCodecFactory(options.codecFactory);
       withAllocator(options.allocator);
+      withPrefetchDepth(options.prefetchDepth);
+      withPrefetchMaxBytes(options.prefetchMaxBytes);
+      withReadParallelism(options.readParallelism);
+      withMaxReadGap(options.maxReadGap);
+      withMaxMergedReadSize(options.maxMergedReadSize);
+      withDecompressionLookAhead(options.decompressionLookAhead);
+      withDecompressionMaxBytes(options.decompressionMaxBytes);
+      withDecompressionThreads(options.decompressionThreads);
+      withFooterCache(options.footerCache);
+      withTailReadSize(options.tailReadSize);
+      withMaxTailReadSize(options.maxTailReadSize);
+      withMaxIndexReadSize(options.maxIndexReadSize);
       for (Map.Entry<String, String> keyValue : options.properties.entrySet()) {
         set(keyValue.getKey(), keyValue.getValue());
       }
@@ -258,7 +576,10 @@ public class ParquetReadOptions {
     public ParquetReadOptions build() {
       return new ParquetReadOptions(
           useSignedStringMinMax, useStatsFilter, useDictionaryFilter, useRecordFilter, useColumnIndexFilter,
-          recordFilter, metadataFilter, codecFactory, allocator, maxAllocationSize, properties);
+          useBloomFilter, recordFilter, metadataFilter, codecFactory, allocator, maxAllocationSize, prefetchDepth,
+          prefetchMaxBytes, readParallelism, maxReadGap, maxMergedReadSize, decompressionLookAhead,
+          decompressionMaxBytes, decompressionThreads, footerCache, tailReadSize, maxTailReadSize,
+          maxIndexReadSize, properties);
     }
   }
 }
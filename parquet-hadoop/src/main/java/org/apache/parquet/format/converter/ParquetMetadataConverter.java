@@ -117,6 +117,11 @@ public class ParquetMetadataConverter {
   public static final MetadataFilter SKIP_ROW_GROUPS = new SkipMetadataFilter();
   public static final long MAX_STATS_SIZE = 4096; // limit stats to 4k
 
+  // the format has no field for the Bloom filters of the column chunks so their locations are stored in the key/value
+  // metadata of the column chunks
+  static final String BLOOM_FILTER_OFFSET_KEY = "parquet.bloom.filter.offset";
+  static final String BLOOM_FILTER_LENGTH_KEY = "parquet.bloom.filter.length";
+
   private static final Logger LOG = LoggerFactory.getLogger(ParquetMetadataConverter.class);
   private static final LogicalTypeConverterVisitor LOGICAL_TYPE_ANNOTATION_VISITOR = new LogicalTypeConverterVisitor();
   private static final ConvertedTypeConverterVisitor CONVERTED_TYPE_CONVERTER_VISITOR = new ConvertedTypeConverterVisitor();
@@ -470,7 +475,13 @@ public class ParquetMetadataConverter {
         columnChunk.meta_data.setEncoding_stats(convertEncodingStats(columnMetaData.getEncodingStats()));
       }
 //      columnChunk.meta_data.index_page_offset = ;
-//      columnChunk.meta_data.key_value_metadata = ; // nothing yet
+      IndexReference bloomFilterRef = columnMetaData.getBloomFilterReference();
+      if (bloomFilterRef != null) {
+        columnChunk.meta_data.addToKey_value_metadata(
+            new KeyValue(BLOOM_FILTER_OFFSET_KEY).setValue(Long.toString(bloomFilterRef.getOffset())));
+        columnChunk.meta_data.addToKey_value_metadata(
+            new KeyValue(BLOOM_FILTER_LENGTH_KEY).setValue(Integer.toString(bloomFilterRef.getLength())));
+      }
 
       IndexReference columnIndexRef = columnMetaData.getColumnIndexReference();
       if (columnIndexRef != null) {
@@ -1161,6 +1172,51 @@ public class ParquetMetadataConverter {
     return parquetMetadata;
   }
 
+  /**
+   * Applies a metadata filter to already parsed metadata the same way as
+   * {@link #readParquetMetadata(InputStream, MetadataFilter)} does it while parsing.
+   *
+   * @param metadata the metadata of a file without any row group filtering applied
+   * @param filter the filter to apply to the row groups
+   * @return the metadata containing the row groups accepted by the filter; the metadata object of the file is shared
+   */
+  public static ParquetMetadata filterParquetMetadata(final ParquetMetadata metadata, MetadataFilter filter) {
+    List<BlockMetaData> blocks = filter.accept(new MetadataFilterVisitor<List<BlockMetaData>, RuntimeException>() {
+      @Override
+      public List<BlockMetaData> visit(NoFilter filter) {
+        return new ArrayList<BlockMetaData>(metadata.getBlocks());
+      }
+
+      @Override
+      public List<BlockMetaData> visit(SkipMetadataFilter filter) {
+        return new ArrayList<BlockMetaData>();
+      }
+
+      @Override
+      public List<BlockMetaData> visit(RangeMetadataFilter filter) {
+        List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+        for (BlockMetaData block : metadata.getBlocks()) {
+          if (filter.contains(block.getStartingPos() + block.getCompressedSize() / 2)) {
+            blocks.add(block);
+          }
+        }
+        return blocks;
+      }
+
+      @Override
+      public List<BlockMetaData> visit(OffsetMetadataFilter filter) {
+        List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
+        for (BlockMetaData block : metadata.getBlocks()) {
+          if (filter.contains(block.getStartingPos())) {
+            blocks.add(block);
+          }
+        }
+        return blocks;
+      }
+    });
+    return new ParquetMetadata(metadata.getFileMetaData(), blocks);
+  }
+
   public ParquetMetadata fromParquetMetadata(FileMetaData parquetMetadata) throws IOException {
     MessageType messageType = fromParquetSchema(parquetMetadata.getSchema(), parquetMetadata.getColumn_orders());
     List<BlockMetaData> blocks = new ArrayList<BlockMetaData>();
@@ -1196,9 +1252,9 @@ public class ParquetMetadataConverter {
               metaData.total_uncompressed_size);
           column.setColumnIndexReference(toColumnIndexReference(columnChunk));
           column.setOffsetIndexReference(toOffsetIndexReference(columnChunk));
+          column.setBloomFilterReference(toBloomFilterReference(metaData));
           // TODO
           // index_page_offset
-          // key_value_metadata
           blockMetaData.addColumn(column);
         }
         blockMetaData.setPath(filePath);
@@ -1231,6 +1287,30 @@ public class ParquetMetadataConverter {
     return null;
   }
 
+  private static IndexReference toBloomFilterReference(ColumnMetaData metaData) {
+    if (metaData.getKey_value_metadata() == null) {
+      return null;
+    }
+    String offset = null;
+    String length = null;
+    for (KeyValue keyValue : metaData.getKey_value_metadata()) {
+      if (BLOOM_FILTER_OFFSET_KEY.equals(keyValue.getKey())) {
+        offset = keyValue.getValue();
+      } else if (BLOOM_FILTER_LENGTH_KEY.equals(keyValue.getKey())) {
+        length = keyValue.getValue();
+      }
+    }
+    if (offset == null || length == null) {
+      return null;
+    }
+    try {
+      return new IndexReference(Long.parseLong(offset), Integer.parseInt(length));
+    } catch (NumberFormatException e) {
+      LOG.warn("Ignoring the invalid Bloom filter reference {}:{} of column {}", offset, length, metaData.path_in_schema);
+      return null;
+    }
+  }
+
   private static ColumnPath getPath(ColumnMetaData metaData) {
     String[] path = metaData.path_in_schema.toArray(new String[metaData.path_in_schema.size()]);
     return ColumnPath.get(path);
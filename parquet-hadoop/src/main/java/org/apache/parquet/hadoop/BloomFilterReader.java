@@ -0,0 +1,60 @@
+/* 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+
+/**
+ * Reads the Bloom filters of the column chunks of a row group from an open {@link ParquetFileReader}. The filters are
+ * read on first access and cached so the predicates on the same column share them.
+ */
+public class BloomFilterReader {
+
+  private final ParquetFileReader reader;
+  private final Map<ColumnPath, ColumnChunkMetaData> columns = new HashMap<>();
+  private final Map<ColumnPath, BlockSplitBloomFilter> cache = new HashMap<>();
+
+  BloomFilterReader(ParquetFileReader reader, BlockMetaData block) {
+    this.reader = reader;
+    for (ColumnChunkMetaData column : block.getColumns()) {
+      columns.put(column.getPath(), column);
+    }
+  }
+
+  /**
+   * @param meta the column chunk
+   * @return the Bloom filter of the column chunk or {@code null} if it has none
+   * @throws IOException if the filter cannot be read
+   */
+  public BlockSplitBloomFilter readBloomFilter(ColumnChunkMetaData meta) throws IOException {
+    ColumnPath path = meta.getPath();
+    if (!cache.containsKey(path)) {
+      ColumnChunkMetaData column = columns.get(path);
+      cache.put(path, column == null ? null : reader.readBloomFilter(column));
+    }
+    return cache.get(path);
+  }
+}
@@ -0,0 +1,138 @@
+/* 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.compress.zlib.ZlibCompressor.CompressionLevel;
+import org.apache.hadoop.io.compress.zlib.ZlibFactory;
+import org.apache.parquet.Preconditions;
+import org.apache.parquet.bytes.ByteBufferAllocator;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.compression.CompressionCodecFactory.BytesInputCompressor;
+import org.apache.parquet.compression.CompressionCodecFactory.BytesInputDecompressor;
+import org.apache.parquet.hadoop.codec.GzipByteBufferCodec;
+import org.apache.parquet.hadoop.codec.Lz4ByteBufferCodec;
+import org.apache.parquet.hadoop.codec.SnappyByteBufferCodec;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+/**
+ * Factory of compressors and decompressors working on {@link ByteBuffer}s directly instead of going through the
+ * Hadoop codec streams. SNAPPY, GZIP and LZ4 are implemented without Hadoop; the other codecs fall back to the Hadoop
+ * implementations of {@link CodecFactory}.
+ */
+class ByteBufferCodecFactory extends CodecFactory {
+
+  private final ByteBufferAllocator allocator;
+
+  /**
+   * See docs on CodecFactory#createByteBufferCodecFactory which is how this class is exposed publicly.
+   */
+  ByteBufferCodecFactory(Configuration configuration, ByteBufferAllocator allocator, int pageSize) {
+    super(configuration, pageSize);
+    this.allocator = Preconditions.checkNotNull(allocator, "allocator");
+  }
+
+  @Override
+  protected BytesCompressor createCompressor(CompressionCodecName codecName) {
+    switch (codecName) {
+      case SNAPPY:
+        return new Compressor(new SnappyByteBufferCodec.Compressor(allocator));
+      case GZIP:
+        return new Compressor(new GzipByteBufferCodec.Compressor(allocator, getDeflateLevel()));
+      case LZ4:
+        return new Compressor(new Lz4ByteBufferCodec.Compressor(allocator));
+      default:
+        return super.createCompressor(codecName);
+    }
+  }
+
+  @Override
+  protected BytesDecompressor createDecompressor(CompressionCodecName codecName) {
+    switch (codecName) {
+      case SNAPPY:
+        return new Decompressor(new SnappyByteBufferCodec.Decompressor());
+      case GZIP:
+        return new Decompressor(new GzipByteBufferCodec.Decompressor());
+      case LZ4:
+        return new Decompressor(new Lz4ByteBufferCodec.Decompressor());
+      default:
+        return super.createDecompressor(codecName);
+    }
+  }
+
+  // the level configured for Hadoop's GzipCodec; the constants are declared in the order of the levels
+  private int getDeflateLevel() {
+    CompressionLevel level = ZlibFactory.getCompressionLevel(configuration);
+    return level == CompressionLevel.DEFAULT_COMPRESSION ? Deflater.DEFAULT_COMPRESSION : level.ordinal();
+  }
+
+  /**
+   * Adapts a {@link BytesInputCompressor} to the deprecated {@link BytesCompressor} type required by the writers.
+   */
+  private static class Compressor extends BytesCompressor {
+    private final BytesInputCompressor compressor;
+
+    Compressor(BytesInputCompressor compressor) {
+      this.compressor = compressor;
+    }
+
+    @Override
+    public BytesInput compress(BytesInput bytes) throws IOException {
+      return compressor.compress(bytes);
+    }
+
+    @Override
+    public CompressionCodecName getCodecName() {
+      return compressor.getCodecName();
+    }
+
+    @Override
+    public void release() {
+      compressor.release();
+    }
+  }
+
+  private static class Decompressor extends BytesDecompressor {
+    private final BytesInputDecompressor decompressor;
+
+    Decompressor(BytesInputDecompressor decompressor) {
+      this.decompressor = decompressor;
+    }
+
+    @Override
+    public BytesInput decompress(BytesInput bytes, int uncompressedSize) throws IOException {
+      return decompressor.decompress(bytes, uncompressedSize);
+    }
+
+    @Override
+    public void decompress(ByteBuffer input, int compressedSize, ByteBuffer output, int uncompressedSize)
+        throws IOException {
+      decompressor.decompress(input, compressedSize, output, uncompressedSize);
+    }
+
+    @Override
+    public void release() {
+      decompressor.release();
+    }
+  }
+}
@@ -87,6 +87,27 @@ public class CodecFactory implements CompressionCodecFactory {
     return new DirectCodecFactory(config, allocator, pageSize);
   }
 
+  /**
+   * Create a codec factory that will provide compressors and decompressors
+   * working on ByteBuffers directly without the Hadoop codec streams. SNAPPY,
+   * GZIP and LZ4 are implemented without Hadoop; the other codecs are provided
+   * as by {@link #CodecFactory(Configuration, int)}.
+   * <p>
+   * The compressed bytes returned by a compressor of this factory are written
+   * to a buffer of the compressor that is reused, so they are only valid until
+   * the next invocation of the same compressor.
+   *
+   * @param config configuration options for different compression codecs
+   * @param allocator an allocator for the output buffers of the compressors;
+   *                  may provide either heap or direct buffers
+   * @param pageSize the default page size
+   * @return a configured codec factory
+   */
+  public static CodecFactory createByteBufferCodecFactory(Configuration config, ByteBufferAllocator allocator,
+                                                          int pageSize) {
+    return new ByteBufferCodecFactory(config, allocator, pageSize);
+  }
+
   class HeapBytesDecompressor extends BytesDecompressor {
 
     private final CompressionCodec codec;
@@ -19,12 +19,19 @@
 package org.apache.parquet.hadoop;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.PrimitiveIterator;
+import java.util.concurrent.Future;
+
+import org.apache.parquet.bytes.ByteBufferAllocator;
 import org.apache.parquet.bytes.BytesInput;
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.page.DataPage;
@@ -35,6 +42,7 @@ import org.apache.parquet.column.page.DictionaryPageReadStore;
 import org.apache.parquet.column.page.PageReadStore;
 import org.apache.parquet.column.page.PageReader;
 import org.apache.parquet.compression.CompressionCodecFactory.BytesInputDecompressor;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.internal.column.columnindex.OffsetIndex;
 import org.apache.parquet.internal.filter2.columnindex.RowRanges;
 import org.apache.parquet.io.ParquetDecodingException;
@@ -61,17 +69,35 @@ class ColumnChunkPageReadStore implements PageReadStore, DictionaryPageReadStore
 
     private final BytesInputDecompressor decompressor;
     private final long valueCount;
+    // the pages of the chunk kept for reopen(); compressedPages drops the pages read
+    private final List<DataPage> pages;
     private final List<DataPage> compressedPages;
     private final DictionaryPage compressedDictionaryPage;
     // null means no page synchronization is required; firstRowIndex will not be returned by the pages
     private final OffsetIndex offsetIndex;
     private final long rowCount;
     private int pageIndex = 0;
+    // null means the pages are decompressed synchronously at reading
+    private final DecompressionPipeline pipeline;
+    private final CompressionCodecName codecName;
+    private final Deque<Future<DataPage>> decompressedPages = new ArrayDeque<>();
+    private int scheduledPageIndex = 0;
 
     ColumnChunkPageReader(BytesInputDecompressor decompressor, List<DataPage> compressedPages,
         DictionaryPage compressedDictionaryPage, OffsetIndex offsetIndex, long rowCount) {
+      this(decompressor, compressedPages, compressedDictionaryPage, offsetIndex, rowCount, null, null);
+    }
+
+    /**
+     * @param pipeline the pipeline to decompress the pages ahead; might be null
+     * @param codecName the codec of the pages to be used by the pipeline; might be null if pipeline is null
+     */
+    ColumnChunkPageReader(BytesInputDecompressor decompressor, List<DataPage> compressedPages,
+        DictionaryPage compressedDictionaryPage, OffsetIndex offsetIndex, long rowCount,
+        DecompressionPipeline pipeline, CompressionCodecName codecName) {
       this.decompressor = decompressor;
-      this.compressedPages = new LinkedList<DataPage>(compressedPages);
+      this.pages = compressedPages;
+      this.compressedPages = new ArrayList<DataPage>(compressedPages);
       this.compressedDictionaryPage = compressedDictionaryPage;
       long count = 0;
       for (DataPage p : compressedPages) {
@@ -80,6 +106,8 @@ class ColumnChunkPageReadStore implements PageReadStore, DictionaryPageReadStore
       this.valueCount = count;
       this.offsetIndex = offsetIndex;
       this.rowCount = rowCount;
+      this.pipeline = codecName == CompressionCodecName.UNCOMPRESSED ? null : pipeline;
+      this.codecName = codecName;
     }
 
     @Override
@@ -87,13 +115,77 @@ class ColumnChunkPageReadStore implements PageReadStore, DictionaryPageReadStore
       return valueCount;
     }
 
+    /**
+     * @return a new reader of the pages of this chunk from the first one; the pages are decompressed again from the
+     *         buffers of the row group
+     */
+    ColumnChunkPageReader reopen() {
+      return new ColumnChunkPageReader(decompressor, pages, compressedDictionaryPage, offsetIndex, rowCount, pipeline,
+          codecName);
+    }
+
     @Override
     public DataPage readPage() {
-      if (compressedPages.isEmpty()) {
+      if (pageIndex == compressedPages.size()) {
         return null;
       }
-      DataPage compressedPage = compressedPages.remove(0);
+      // the page to be read is at the head of the queue if it has been decompressed ahead
+      boolean decompressedAhead = !decompressedPages.isEmpty();
+      if (pipeline != null) {
+        scheduleDecompression();
+      }
       final int currentPageIndex = pageIndex++;
+      DataPage compressedPage = compressedPages.set(currentPageIndex, null);
+      if (decompressedAhead) {
+        pipeline.release(compressedPage.getUncompressedSize());
+        try {
+          return ParquetFileReader.await(decompressedPages.removeFirst(), "decompress page");
+        } catch (IOException e) {
+          throw new ParquetDecodingException("could not decompress page", e);
+        }
+      }
+      return decompress(compressedPage, currentPageIndex, decompressor);
+    }
+
+    /*
+     * Submits the decompression of the next pages up to the look-ahead of the pipeline while they fit into its memory
+     * limit. The page to be read next is not submitted if nothing is decompressed ahead so it is decompressed on the
+     * current thread instead of waiting for a worker.
+     */
+    private void scheduleDecompression() {
+      if (decompressedPages.isEmpty()) {
+        scheduledPageIndex = pageIndex + 1;
+      }
+      int limit = Math.min(compressedPages.size(), pageIndex + 1 + pipeline.getLookAhead());
+      while (scheduledPageIndex < limit) {
+        final DataPage compressedPage = compressedPages.get(scheduledPageIndex);
+        if (!pipeline.reserve(compressedPage.getUncompressedSize())) {
+          break;
+        }
+        final int index = scheduledPageIndex++;
+        decompressedPages.addLast(pipeline.submit(
+            () -> decompress(compressedPage, index, pipeline.getDecompressor(codecName))));
+      }
+    }
+
+    /**
+     * Waits for the pages being decompressed ahead so the buffers of the chunk can be released safely and releases
+     * the memory reserved for them as they are not read anymore. The waiting is not stopped by an interrupt as the
+     * workers would still read the buffers; the interrupt status is kept.
+     */
+    private void awaitDecompression() {
+      // the pages decompressed ahead are the ones following the pages read
+      int index = pageIndex;
+      for (Future<DataPage> future : decompressedPages) {
+        // a failed page is not read anymore
+        ParquetFileReader.awaitUninterruptibly(future);
+        pipeline.release(compressedPages.get(index++).getUncompressedSize());
+      }
+      decompressedPages.clear();
+    }
+
+    private DataPage decompress(DataPage compressedPage, final int currentPageIndex,
+        final BytesInputDecompressor decompressor) {
       return compressedPage.accept(new DataPage.Visitor<DataPage>() {
         @Override
         public DataPage visit(DataPageV1 dataPageV1) {
@@ -198,6 +290,8 @@ class ColumnChunkPageReadStore implements PageReadStore, DictionaryPageReadStore
   private final Map<ColumnDescriptor, ColumnChunkPageReader> readers = new HashMap<ColumnDescriptor, ColumnChunkPageReader>();
   private final long rowCount;
   private final RowRanges rowRanges;
+  private ByteBufferAllocator allocator;
+  private final List<ByteBuffer> buffers = new ArrayList<>();
 
   public ColumnChunkPageReadStore(long rowCount) {
     this.rowCount = rowCount;
@@ -238,4 +332,48 @@ class ColumnChunkPageReadStore implements PageReadStore, DictionaryPageReadStore
     }
   }
 
+  /**
+   * @param allocator the allocator the buffers were allocated by
+   * @param buffers the buffers the pages of this row group were read into
+   */
+  void addBuffersToRelease(ByteBufferAllocator allocator, List<ByteBuffer> buffers) {
+    this.allocator = allocator;
+    this.buffers.addAll(buffers);
+  }
+
+  /**
+   * Adds the specified columns of another store of the same row group to this one; they are read from their first
+   * page again. The buffers of the other store are released with this one so the other store shall not be read
+   * anymore.
+   *
+   * @param other the store to take the columns and the buffers of
+   * @param columns the columns of the other store to add
+   */
+  void addColumnsOf(ColumnChunkPageReadStore other, Collection<ColumnDescriptor> columns) {
+    for (ColumnChunkPageReader reader : other.readers.values()) {
+      reader.awaitDecompression();
+    }
+    for (ColumnDescriptor column : columns) {
+      addColumn(column, other.readers.get(column).reopen());
+    }
+    if (!other.buffers.isEmpty()) {
+      addBuffersToRelease(other.allocator, other.buffers);
+      other.buffers.clear();
+    }
+  }
+
+  /**
+   * Releases the buffers the pages of this row group were read into and the pages decompressed ahead. The pages shall
+   * not be read afterwards.
+   */
+  void releaseBuffers() {
+    for (ColumnChunkPageReader reader : readers.values()) {
+      reader.awaitDecompression();
+    }
+    for (ByteBuffer buffer : buffers) {
+      allocator.release(buffer);
+    }
+    buffers.clear();
+  }
+
 }
@@ -20,23 +20,29 @@ package org.apache.parquet.hadoop;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Future;
 
 import org.apache.parquet.bytes.BytesInput;
 import org.apache.parquet.bytes.ConcatenatingByteArrayCollector;
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.column.page.DictionaryPage;
 import org.apache.parquet.column.page.PageWriteStore;
 import org.apache.parquet.column.page.PageWriter;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
 import org.apache.parquet.format.converter.ParquetMetadataConverter;
 import org.apache.parquet.hadoop.CodecFactory.BytesCompressor;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.internal.column.columnindex.ColumnIndexBuilder;
 import org.apache.parquet.internal.column.columnindex.OffsetIndexBuilder;
 import org.apache.parquet.io.ParquetEncodingException;
@@ -54,6 +60,12 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
 
     private final ColumnDescriptor path;
     private final BytesCompressor compressor;
+    // compresses the data pages in the background if not null
+    private final PageCompressionQueue compressionQueue;
+    // the data pages being compressed in the order they were written
+    private final Deque<PendingPage> pendingPages = new ArrayDeque<>();
+    // the size of the copied bytes of the pending pages
+    private long pendingSize;
 
     private final ByteArrayOutputStream tempOutputStream = new ByteArrayOutputStream();
     private final ConcatenatingByteArrayCollector buf;
@@ -71,15 +83,19 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
 
     private ColumnIndexBuilder columnIndexBuilder;
     private OffsetIndexBuilder offsetIndexBuilder;
+    private BlockSplitBloomFilter bloomFilter;
     private Statistics totalStatistics;
     private final ByteBufferAllocator allocator;
 
     private ColumnChunkPageWriter(ColumnDescriptor path,
                                   BytesCompressor compressor,
                                   ByteBufferAllocator allocator,
-                                  int columnIndexTruncateLength) {
+                                  int columnIndexTruncateLength,
+                                  PageCompressionQueue compressionQueue) {
       this.path = path;
       this.compressor = compressor;
+      // nothing to gain from handing over the pages of an uncompressed column
+      this.compressionQueue = compressor.getCodecName() == CompressionCodecName.UNCOMPRESSED ? null : compressionQueue;
       this.allocator = allocator;
       this.buf = new ConcatenatingByteArrayCollector();
       this.columnIndexBuilder = ColumnIndexBuilder.getBuilder(path.getPrimitiveType(), columnIndexTruncateLength);
@@ -111,7 +127,28 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
             "Cannot write page larger than Integer.MAX_VALUE bytes: " +
                 uncompressedSize);
       }
-      BytesInput compressedBytes = compressor.compress(bytes);
+      addStatistics(statistics);
+      rlEncodings.add(rlEncoding);
+      dlEncodings.add(dlEncoding);
+      dataEncodings.add(valuesEncoding);
+      if (compressionQueue == null) {
+        collectPage(compressor.compress(bytes), uncompressedSize, valueCount, rowCount, rlEncoding, dlEncoding,
+            valuesEncoding);
+      } else {
+        // the bytes of the column writer are reused for the next page
+        BytesInput copy = BytesInput.copy(bytes);
+        submit(copy, uncompressedSize, compressedBytes -> collectPage(compressedBytes, uncompressedSize, valueCount,
+            rowCount, rlEncoding, dlEncoding, valuesEncoding));
+      }
+    }
+
+    private void collectPage(BytesInput compressedBytes,
+                             long uncompressedSize,
+                             int valueCount,
+                             int rowCount,
+                             Encoding rlEncoding,
+                             Encoding dlEncoding,
+                             Encoding valuesEncoding) throws IOException {
       long compressedSize = compressedBytes.size();
       if (compressedSize > Integer.MAX_VALUE) {
         throw new ParquetEncodingException(
@@ -132,22 +169,11 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
       this.totalValueCount += valueCount;
       this.pageCount += 1;
 
-      // Copying the statistics if it is not initialized yet so we have the correct typed one
-      if (totalStatistics == null) {
-        totalStatistics = statistics.copy();
-      } else {
-        totalStatistics.mergeStatistics(statistics);
-      }
-
-      columnIndexBuilder.add(statistics);
       offsetIndexBuilder.add(toIntWithCheck(tempOutputStream.size() + compressedSize), rowCount);
 
       // by concatenating before collecting instead of collecting twice,
       // we only allocate one buffer to copy into instead of multiple.
       buf.collect(BytesInput.concat(BytesInput.from(tempOutputStream), compressedBytes));
-      rlEncodings.add(rlEncoding);
-      dlEncodings.add(dlEncoding);
-      dataEncodings.add(valuesEncoding);
     }
 
     @Override
@@ -161,8 +187,27 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
       int uncompressedSize = toIntWithCheck(
           data.size() + repetitionLevels.size() + definitionLevels.size()
       );
-      // TODO: decide if we compress
-      BytesInput compressedData = compressor.compress(data);
+      addStatistics(statistics);
+      dataEncodings.add(dataEncoding);
+      if (compressionQueue == null) {
+        // TODO: decide if we compress
+        collectPageV2(rowCount, nullCount, valueCount, repetitionLevels, definitionLevels, dataEncoding,
+            compressor.compress(data), rlByteLength, dlByteLength, uncompressedSize);
+      } else {
+        // the bytes of the column writer are reused for the next page
+        BytesInput rlCopy = BytesInput.copy(repetitionLevels);
+        BytesInput dlCopy = BytesInput.copy(definitionLevels);
+        BytesInput dataCopy = BytesInput.copy(data);
+        submit(dataCopy, uncompressedSize, compressedData -> collectPageV2(rowCount, nullCount, valueCount, rlCopy,
+            dlCopy, dataEncoding, compressedData, rlByteLength, dlByteLength, uncompressedSize));
+      }
+    }
+
+    private void collectPageV2(
+        int rowCount, int nullCount, int valueCount,
+        BytesInput repetitionLevels, BytesInput definitionLevels,
+        Encoding dataEncoding, BytesInput compressedData,
+        int rlByteLength, int dlByteLength, int uncompressedSize) throws IOException {
       int compressedSize = toIntWithCheck(
           compressedData.size() + repetitionLevels.size() + definitionLevels.size()
       );
@@ -179,14 +224,6 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
       this.totalValueCount += valueCount;
       this.pageCount += 1;
 
-      // Copying the statistics if it is not initialized yet so we have the correct typed one
-      if (totalStatistics == null) {
-        totalStatistics = statistics.copy();
-      } else {
-        totalStatistics.mergeStatistics(statistics);
-      }
-
-      columnIndexBuilder.add(statistics);
       offsetIndexBuilder.add(toIntWithCheck((long) tempOutputStream.size() + compressedSize), rowCount);
 
       // by concatenating before collecting instead of collecting twice,
@@ -198,7 +235,39 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
               definitionLevels,
               compressedData)
       );
-      dataEncodings.add(dataEncoding);
+    }
+
+    private void addStatistics(Statistics<?> statistics) {
+      // Copying the statistics if it is not initialized yet so we have the correct typed one
+      if (totalStatistics == null) {
+        totalStatistics = statistics.copy();
+      } else {
+        totalStatistics.mergeStatistics(statistics);
+      }
+      columnIndexBuilder.add(statistics);
+    }
+
+    private void submit(BytesInput bytes, long size, PageCollector collector) throws IOException {
+      // the oldest pages are collected whether they are compressed already or not so the memory accounted for the
+      // column does not depend on the timing of the compression threads
+      while (pendingPages.size() >= compressionQueue.getColumnDepth()) {
+        collectPendingPage();
+      }
+      PendingPage page = new PendingPage(compressionQueue.compress(bytes, compressor.getCodecName()), size, collector);
+      pendingPages.addLast(page);
+      pendingSize += page.size;
+    }
+
+    private void collectPendingPage() throws IOException {
+      PendingPage page = pendingPages.removeFirst();
+      pendingSize -= page.size;
+      page.collector.collect(ParquetFileReader.await(page.compressedBytes, "compress a page of " + path));
+    }
+
+    private void collectPendingPages() throws IOException {
+      while (!pendingPages.isEmpty()) {
+        collectPendingPage();
+      }
     }
 
     private int toIntWithCheck(long size) {
@@ -212,10 +281,21 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
 
     @Override
     public long getMemSize() {
-      return buf.size();
+      return buf.size() + estimatedPendingSize();
+    }
+
+    // the pending pages are estimated at the compression ratio of the pages collected so far so the row groups have
+    // about the same size as without background compression; this depends only on the collected pages, not on the
+    // timing of the compression threads
+    private long estimatedPendingSize() {
+      if (uncompressedLength == 0) {
+        return pendingSize;
+      }
+      return (long) (pendingSize * ((double) compressedLength / uncompressedLength));
     }
 
     public void writeToFileWriter(ParquetFileWriter writer) throws IOException {
+      collectPendingPages();
       writer.writeColumnChunk(
           path,
           totalValueCount,
@@ -227,6 +307,7 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
           totalStatistics,
           columnIndexBuilder,
           offsetIndexBuilder,
+          bloomFilter,
           rlEncodings,
           dlEncodings,
           dataEncodings);
@@ -248,7 +329,7 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
 
     @Override
     public long allocatedSize() {
-      return buf.size();
+      return buf.size() + pendingSize;
     }
 
     @Override
@@ -262,6 +343,11 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
       this.dictionaryPage = new DictionaryPage(BytesInput.copy(compressedBytes), uncompressedSize, dictionaryPage.getDictionarySize(), dictionaryPage.getEncoding());
     }
 
+    @Override
+    public void writeBloomFilter(BlockSplitBloomFilter bloomFilter) {
+      this.bloomFilter = bloomFilter;
+    }
+
     @Override
     public String memUsageString(String prefix) {
       return buf.memUsageString(prefix + " ColumnChunkPageWriter");
@@ -269,15 +355,91 @@ class ColumnChunkPageWriteStore implements PageWriteStore {
 
   }
 
+  // completes a page from its compressed bytes
+  private interface PageCollector {
+    void collect(BytesInput compressedBytes) throws IOException;
+  }
+
+  private static final class PendingPage {
+    private final Future<BytesInput> compressedBytes;
+    private final PageCollector collector;
+    // the size of the copied bytes of the page
+    private final long size;
+
+    private PendingPage(Future<BytesInput> compressedBytes, long size, PageCollector collector) {
+      this.compressedBytes = compressedBytes;
+      this.size = size;
+      this.collector = collector;
+    }
+  }
+
   private final Map<ColumnDescriptor, ColumnChunkPageWriter> writers = new HashMap<ColumnDescriptor, ColumnChunkPageWriter>();
   private final MessageType schema;
 
   public ColumnChunkPageWriteStore(BytesCompressor compressor, MessageType schema, ByteBufferAllocator allocator,
       int columnIndexTruncateLength) {
+    this(compressor, schema, allocator, columnIndexTruncateLength, null);
+  }
+
+  /**
+   * @param compressor the compressor of the pages
+   * @param schema the schema of the columns
+   * @param allocator the allocator of the buffers
+   * @param columnIndexTruncateLength the length the min/max values of the column indexes are truncated to
+   * @param compressionQueue the queue compressing the data pages in the background; they are compressed by the
+   *          thread writing them if null
+   */
+  public ColumnChunkPageWriteStore(BytesCompressor compressor, MessageType schema, ByteBufferAllocator allocator,
+      int columnIndexTruncateLength, PageCompressionQueue compressionQueue) {
     this.schema = schema;
     for (ColumnDescriptor path : schema.getColumns()) {
-      writers.put(path, new ColumnChunkPageWriter(path, compressor, allocator, columnIndexTruncateLength));
+      writers.put(path,
+          new ColumnChunkPageWriter(path, compressor, allocator, columnIndexTruncateLength, compressionQueue));
+    }
+  }
+
+  /**
+   * @param compressor the compressor of the pages
+   * @param schema the schema of the columns
+   * @param props the properties of the writer giving the allocator of the buffers and the length the min/max values
+   *          of the column index of each column are truncated to
+   * @param compressionQueue the queue compressing the data pages in the background; they are compressed by the
+   *          thread writing them if null
+   */
+  public ColumnChunkPageWriteStore(BytesCompressor compressor, MessageType schema, ParquetProperties props,
+      PageCompressionQueue compressionQueue) {
+    this(sameCompressor(compressor, schema), schema, props, compressionQueue);
+  }
+
+  /**
+   * @param compressors the compressors of the pages of every column; the codec of a column chunk is the one of its
+   *          compressor
+   * @param schema the schema of the columns
+   * @param props the properties of the writer giving the allocator of the buffers and the length the min/max values
+   *          of the column index of each column are truncated to
+   * @param compressionQueue the queue compressing the data pages in the background; they are compressed by the
+   *          thread writing them if null
+   */
+  public ColumnChunkPageWriteStore(Map<ColumnDescriptor, BytesCompressor> compressors, MessageType schema,
+      ParquetProperties props, PageCompressionQueue compressionQueue) {
+    this.schema = schema;
+    for (ColumnDescriptor path : schema.getColumns()) {
+      BytesCompressor compressor = compressors.get(path);
+      if (compressor == null) {
+        throw new IllegalArgumentException("No compressor for column " + path);
+      }
+      writers.put(path, new ColumnChunkPageWriter(path, compressor, props.getAllocator(),
+          props.getColumnIndexTruncateLength(path), compressionQueue));
+    }
+  }
+
+  private static Map<ColumnDescriptor, BytesCompressor> sameCompressor(BytesCompressor compressor,
+      MessageType schema) {
+    Map<ColumnDescriptor, BytesCompressor> compressors = new HashMap<>();
+    for (ColumnDescriptor path : schema.getColumns()) {
+      compressors.put(path, compressor);
     }
+    return compressors;
   }
 
   @Override
@@ -25,6 +25,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.parquet.hadoop.ParquetFileReader.FileRange;
 import org.apache.parquet.hadoop.metadata.BlockMetaData;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.ColumnPath;
@@ -55,7 +56,7 @@ class ColumnIndexStoreImpl implements ColumnIndexStore {
       this.meta = meta;
       OffsetIndex oi;
       try {
-        oi = reader.readOffsetIndex(meta);
+        oi = reader.readOffsetIndex(meta, indexRange);
       } catch (IOException e) {
         // If the I/O issue still stands it will fail the reading later;
         // otherwise we fail the filtering only with a missing offset index.
@@ -72,7 +73,7 @@ class ColumnIndexStoreImpl implements ColumnIndexStore {
     public ColumnIndex getColumnIndex() {
       if (!columnIndexRead) {
         try {
-          columnIndex = reader.readColumnIndex(meta);
+          columnIndex = reader.readColumnIndex(meta, indexRange);
         } catch (IOException e) {
           // If the I/O issue still stands it will fail the reading later;
           // otherwise we fail the filtering only with a missing column index.
@@ -102,7 +103,8 @@ class ColumnIndexStoreImpl implements ColumnIndexStore {
       return null;
     }
   };
-  private static final ColumnIndexStoreImpl EMPTY = new ColumnIndexStoreImpl(null, new BlockMetaData(), emptySet()) {
+  private static final ColumnIndexStoreImpl EMPTY =
+      new ColumnIndexStoreImpl(null, new BlockMetaData(), emptySet(), null) {
     @Override
     public ColumnIndex getColumnIndex(ColumnPath column) {
       return null;
@@ -115,24 +117,27 @@ class ColumnIndexStoreImpl implements ColumnIndexStore {
   };
 
   private final ParquetFileReader reader;
+  // the range of the file the indexes were read in at once; might be null
+  private final FileRange indexRange;
   private final Map<ColumnPath, IndexStore> store;
 
   /*
    * Creates a column index store which lazily reads column/offset indexes for the columns in paths. (paths are the set
-   * of columns used for the projection)
+   * of columns used for the projection) The indexes are parsed from indexRange if it contains them.
    */
-  static ColumnIndexStore create(ParquetFileReader reader, BlockMetaData block, Set<ColumnPath> paths) {
+  static ColumnIndexStore create(ParquetFileReader reader, BlockMetaData block, Set<ColumnPath> paths,
+      FileRange indexRange) {
     try {
-      return new ColumnIndexStoreImpl(reader, block, paths);
+      return new ColumnIndexStoreImpl(reader, block, paths, indexRange);
     } catch (MissingOffsetIndexException e) {
       return EMPTY;
     }
   }
 
-  private ColumnIndexStoreImpl(ParquetFileReader reader, BlockMetaData block, Set<ColumnPath> paths) {
-    // TODO[GS]: Offset index for every paths will be required; pre-read the consecutive ones at once?
-    // TODO[GS]: Pre-read column index based on filter?
+  private ColumnIndexStoreImpl(ParquetFileReader reader, BlockMetaData block, Set<ColumnPath> paths,
+      FileRange indexRange) {
     this.reader = reader;
+    this.indexRange = indexRange;
     Map<ColumnPath, IndexStore> store = new HashMap<>();
     for (ColumnChunkMetaData column : block.getColumns()) {
       ColumnPath path = column.getPath();
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.hadoop.CodecFactory.BytesCompressor;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+/**
+ * Worker threads of a writer compressing pages, either while finalizing the column chunks of a row group concurrently
+ * or by compressing the pages handed over by the writer thread.
+ * <p>
+ * The compressors are not thread-safe so every worker compresses with its own ones created by the codec factory of the
+ * writer for the codecs of the columns.
+ */
+class CompressingThreadPool {
+
+  private final ExecutorService executor;
+  private final CodecFactory codecFactory;
+  // the compressors of the workers by codec; set when a worker starts and filled as the codecs are used
+  private final ThreadLocal<Map<CompressionCodecName, BytesCompressor>> workerCompressors = new ThreadLocal<>();
+  private final List<BytesCompressor> allWorkerCompressors = new ArrayList<>();
+
+  /**
+   * @param threads the number of worker threads
+   * @param name the name of the worker threads
+   * @param codecFactory the factory to create the compressors of the workers
+   */
+  CompressingThreadPool(int threads, String name, CodecFactory codecFactory) {
+    this.codecFactory = codecFactory;
+    this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(() -> {
+        workerCompressors.set(new EnumMap<>(CompressionCodecName.class));
+        runnable.run();
+      }, name);
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private BytesCompressor newCompressor(CompressionCodecName codecName) {
+    BytesCompressor compressor = codecFactory.createCompressor(codecName);
+    synchronized (allWorkerCompressors) {
+      allWorkerCompressors.add(compressor);
+    }
+    return compressor;
+  }
+
+  ExecutorService getExecutor() {
+    return executor;
+  }
+
+  /**
+   * @param codecName the codec of the pages to be compressed
+   * @return the compressor of the current thread if it is a worker of this pool; {@code null} otherwise
+   */
+  BytesCompressor getWorkerCompressor(CompressionCodecName codecName) {
+    Map<CompressionCodecName, BytesCompressor> compressors = workerCompressors.get();
+    if (compressors == null) {
+      return null;
+    }
+    BytesCompressor compressor = compressors.get(codecName);
+    if (compressor == null) {
+      compressor = newCompressor(codecName);
+      compressors.put(codecName, compressor);
+    }
+    return compressor;
+  }
+
+  /**
+   * @param compressor the compressor of the writer thread
+   * @return a compressor to be shared by the writer thread and the workers; every thread uses its own compressor
+   */
+  BytesCompressor getCompressor(BytesCompressor compressor) {
+    return new BytesCompressor() {
+      @Override
+      public BytesInput compress(BytesInput bytes) throws IOException {
+        BytesCompressor worker = getWorkerCompressor(compressor.getCodecName());
+        return (worker == null ? compressor : worker).compress(bytes);
+      }
+
+      @Override
+      public CompressionCodecName getCodecName() {
+        return compressor.getCodecName();
+      }
+
+      @Override
+      public void release() {
+        // the compressors are released by the pool and the writer
+      }
+    };
+  }
+
+  /**
+   * Stops the workers and releases their compressors. The tasks still queued, if the writer failed, are dropped and
+   * the running ones are waited for so no compressor is released while in use.
+   */
+  void close() {
+    ParquetFileReader.shutdownUninterruptibly(executor);
+    synchronized (allWorkerCompressors) {
+      for (BytesCompressor compressor : allWorkerCompressors) {
+        compressor.release();
+      }
+      allWorkerCompressors.clear();
+    }
+  }
+}
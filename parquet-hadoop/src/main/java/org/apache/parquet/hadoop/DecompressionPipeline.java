@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.compression.CompressionCodecFactory.BytesInputDecompressor;
+import org.apache.parquet.hadoop.CodecFactory.BytesDecompressor;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+/**
+ * Decompresses the pages of the column chunks of a row group ahead of their consumption. The work is done on the
+ * worker pool of the reader so the decoding of a page may overlap with the decompression of the next ones of all the
+ * columns. The number of pages decompressed ahead is limited per column while the size of the decompressed pages
+ * waiting to be consumed is limited for the whole reader by its {@link Workers}.
+ * <p>
+ * This class is not thread-safe; it shall be used by the thread consuming the pages only.
+ */
+class DecompressionPipeline {
+
+  /**
+   * The worker pool of a reader. Every worker creates its own decompressors from the codec factory of the reader as
+   * the decompressors are not thread-safe. They are released when the reader is closed.
+   * <p>
+   * The memory of the decompressed pages is accounted here so the limit holds for the pipelines of all the row groups
+   * of the reader together. The reservations are made and released by the thread consuming the pages only.
+   */
+  static class Workers implements Closeable {
+    private final CodecFactory codecFactory;
+    private final ExecutorService executor;
+    private final long maxBytes;
+    private long bytes = 0;
+    private final ThreadLocal<Map<CompressionCodecName, BytesDecompressor>> decompressors =
+        ThreadLocal.withInitial(() -> new EnumMap<>(CompressionCodecName.class));
+    private final Queue<BytesDecompressor> allDecompressors = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param codecFactory the codec factory to create the decompressors from
+     * @param threads the number of worker threads
+     * @param maxBytes the maximum size of the decompressed pages waiting to be consumed
+     * @param name the prefix of the names of the worker threads
+     */
+    Workers(CodecFactory codecFactory, int threads, long maxBytes, String name) {
+      this.codecFactory = codecFactory;
+      this.executor = ParquetFileReader.newDaemonExecutor(threads, name);
+      this.maxBytes = maxBytes;
+    }
+
+    private boolean reserve(long size) {
+      if (bytes + size > maxBytes) {
+        return false;
+      }
+      bytes += size;
+      return true;
+    }
+
+    private void release(long size) {
+      bytes -= size;
+    }
+
+    /**
+     * Returns a decompressor to be used by the current worker thread. The decompressed bytes are fully materialized
+     * so the consumer does not do any decompression while reading them.
+     *
+     * @param codecName the codec of the pages to be decompressed
+     * @return the decompressor owned by the current thread
+     */
+    BytesInputDecompressor getDecompressor(CompressionCodecName codecName) {
+      final BytesDecompressor decompressor = decompressors.get().computeIfAbsent(codecName, name -> {
+        BytesDecompressor created = codecFactory.createDecompressor(name);
+        allDecompressors.add(created);
+        return created;
+      });
+      return new BytesInputDecompressor() {
+        @Override
+        public BytesInput decompress(BytesInput bytes, int uncompressedSize) throws IOException {
+          return BytesInput.copy(decompressor.decompress(bytes, uncompressedSize));
+        }
+
+        @Override
+        public void decompress(ByteBuffer input, int compressedSize, ByteBuffer output, int uncompressedSize)
+            throws IOException {
+          decompressor.decompress(input, compressedSize, output, uncompressedSize);
+        }
+
+        @Override
+        public void release() {
+          // the decompressor is kept by the worker thread
+        }
+      };
+    }
+
+    /**
+     * Stops the workers and releases their decompressors once the running decompressions are completed.
+     */
+    @Override
+    public void close() {
+      ParquetFileReader.shutdownUninterruptibly(executor);
+      for (BytesDecompressor decompressor = allDecompressors.poll(); decompressor != null;
+           decompressor = allDecompressors.poll()) {
+        decompressor.release();
+      }
+    }
+  }
+
+  private final Workers workers;
+  private final int lookAhead;
+
+  /**
+   * @param workers the worker pool of the reader
+   * @param lookAhead the maximum number of pages to be decompressed ahead per column
+   */
+  DecompressionPipeline(Workers workers, int lookAhead) {
+    this.workers = workers;
+    this.lookAhead = lookAhead;
+  }
+
+  int getLookAhead() {
+    return lookAhead;
+  }
+
+  /**
+   * Reserves the memory required for a decompressed page from the limit shared by all the row groups of the reader.
+   *
+   * @param size the uncompressed size of the page
+   * @return {@code true} if the page fits into the limit; {@code false} if it shall not be decompressed ahead
+   */
+  boolean reserve(long size) {
+    return workers.reserve(size);
+  }
+
+  /**
+   * Releases the memory reserved for a page that is consumed or dropped.
+   *
+   * @param size the uncompressed size of the page
+   */
+  void release(long size) {
+    workers.release(size);
+  }
+
+  <T> Future<T> submit(Callable<T> task) {
+    return workers.executor.submit(task);
+  }
+
+  /**
+   * @param codecName the codec of the pages to be decompressed
+   * @return the decompressor owned by the current worker thread
+   * @see Workers#getDecompressor(CompressionCodecName)
+   */
+  BytesInputDecompressor getDecompressor(CompressionCodecName codecName) {
+    return workers.getDecompressor(codecName);
+  }
+}
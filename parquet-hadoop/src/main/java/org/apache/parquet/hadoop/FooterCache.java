@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Objects;
+
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.LocalInputFile;
+
+/**
+ * Cache of the parsed footers of files. The footers are stored without any row group filtering applied; the readers
+ * apply their metadata filters on the cached footers. Implementations shall be thread-safe as a cache may be shared by
+ * any number of readers.
+ *
+ * @see LruFooterCache
+ */
+public interface FooterCache {
+
+  /**
+   * Identifies a version of a file. The length and the modification time are part of the key so a footer is not
+   * served for a file that has been rewritten since it was cached.
+   */
+  final class Key {
+    private final String path;
+    private final long length;
+    private final long modificationTime;
+
+    public Key(String path, long length, long modificationTime) {
+      this.path = Objects.requireNonNull(path, "path cannot be null");
+      this.length = length;
+      this.modificationTime = modificationTime;
+    }
+
+    /**
+     * @param file the file to create the key for
+     * @return the key of the file or {@code null} if the identity of the file cannot be determined
+     */
+    public static Key of(InputFile file) {
+      if (file instanceof HadoopInputFile) {
+        HadoopInputFile hadoopFile = (HadoopInputFile) file;
+        return new Key(hadoopFile.getPath().toString(), hadoopFile.getLength(), hadoopFile.getModificationTime());
+      }
+      if (file instanceof LocalInputFile) {
+        LocalInputFile localFile = (LocalInputFile) file;
+        try {
+          return new Key(localFile.getPath().toAbsolutePath().toString(), localFile.getLength(),
+              Files.getLastModifiedTime(localFile.getPath()).toMillis());
+        } catch (IOException e) {
+          return null;
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return length == other.length && modificationTime == other.modificationTime && path.equals(other.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, length, modificationTime);
+    }
+
+    @Override
+    public String toString() {
+      return path + " (length: " + length + ", modification time: " + modificationTime + ")";
+    }
+  }
+
+  /**
+   * @param key the key of the file
+   * @return the cached footer of the file or {@code null} if it is not cached
+   */
+  ParquetMetadata get(Key key);
+
+  /**
+   * @param key the key of the file
+   * @param footer the footer of the file without any row group filtering applied
+   */
+  void put(Key key, ParquetMetadata footer);
+}
@@ -20,17 +20,22 @@ package org.apache.parquet.hadoop;
 
 import static java.lang.Math.max;
 import static java.lang.Math.min;
+import static org.apache.parquet.Preconditions.checkArgument;
 import static org.apache.parquet.Preconditions.checkNotNull;
 
 import java.io.IOException;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.ColumnWriteStore;
 import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.vector.ColumnarWriteBatch;
 import org.apache.parquet.hadoop.CodecFactory.BytesCompressor;
 import org.apache.parquet.hadoop.api.WriteSupport;
 import org.apache.parquet.hadoop.api.WriteSupport.FinalizedWriteContext;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.io.ColumnIOFactory;
 import org.apache.parquet.io.MessageColumnIO;
@@ -52,7 +57,10 @@ class InternalParquetRecordWriter<T> {
   private final long rowGroupSize;
   private long rowGroupSizeThreshold;
   private long nextRowGroupSize;
-  private final BytesCompressor compressor;
+  // the compressors of the columns by the codecs set for them in the properties
+  private final Map<ColumnDescriptor, BytesCompressor> compressors;
+  private final CompressingThreadPool flushPool;
+  private final PageCompressionQueue compressionQueue;
   private final boolean validating;
   private final ParquetProperties props;
 
@@ -83,6 +91,30 @@ class InternalParquetRecordWriter<T> {
       BytesCompressor compressor,
       boolean validating,
       ParquetProperties props) {
+    this(parquetFileWriter, writeSupport, schema, extraMetaData, rowGroupSize, compressor, null, validating, props);
+  }
+
+  /**
+   * @param parquetFileWriter the file to write to
+   * @param writeSupport the class to convert incoming records
+   * @param schema the schema of the records
+   * @param extraMetaData extra meta data to write in the footer of the file
+   * @param rowGroupSize the size of a block in the file (this will be approximate)
+   * @param compressor the codec used to compress the columns without a codec of their own in the properties
+   * @param codecFactory the factory of the compressor to create the ones of the other codecs of the columns and the
+   *          ones of the workers flushing the row groups and compressing the pages in the background as configured
+   *          by the properties; the row groups are flushed and the pages compressed by the writer thread if null
+   */
+  public InternalParquetRecordWriter(
+      ParquetFileWriter parquetFileWriter,
+      WriteSupport<T> writeSupport,
+      MessageType schema,
+      Map<String, String> extraMetaData,
+      long rowGroupSize,
+      BytesCompressor compressor,
+      CodecFactory codecFactory,
+      boolean validating,
+      ParquetProperties props) {
     this.parquetFileWriter = parquetFileWriter;
     this.writeSupport = checkNotNull(writeSupport, "writeSupport");
     this.schema = schema;
@@ -90,9 +122,45 @@ class InternalParquetRecordWriter<T> {
     this.rowGroupSize = rowGroupSize;
     this.rowGroupSizeThreshold = rowGroupSize;
     this.nextRowGroupSize = rowGroupSizeThreshold;
-    this.compressor = compressor;
     this.validating = validating;
     this.props = props;
+    if (codecFactory != null && props.getFlushParallelism() > 1) {
+      this.flushPool = new CompressingThreadPool(props.getFlushParallelism(), "parquet-flush", codecFactory);
+    } else {
+      this.flushPool = null;
+    }
+    // the compressors of the codecs used by the columns
+    Map<CompressionCodecName, BytesCompressor> codecCompressors = new EnumMap<>(CompressionCodecName.class);
+    this.compressors = new HashMap<>();
+    for (ColumnDescriptor column : schema.getColumns()) {
+      CompressionCodecName codec = props.getCompressionCodec(column);
+      if (codec == null) {
+        codec = compressor.getCodecName();
+      }
+      BytesCompressor columnCompressor = codecCompressors.get(codec);
+      if (columnCompressor == null) {
+        if (codec == compressor.getCodecName()) {
+          columnCompressor = compressor;
+        } else {
+          checkArgument(codecFactory != null, "No codec factory to create the %s compressor of column %s",
+              codec, column);
+          // the compressors of the factory are released with it
+          columnCompressor = codecFactory.getCompressor(codec);
+        }
+        if (flushPool != null) {
+          columnCompressor = flushPool.getCompressor(columnCompressor);
+        }
+        codecCompressors.put(codec, columnCompressor);
+      }
+      compressors.put(column, columnCompressor);
+    }
+    codecCompressors.remove(CompressionCodecName.UNCOMPRESSED);
+    if (codecFactory != null && props.getPageCompressionThreads() > 0 && !codecCompressors.isEmpty()) {
+      this.compressionQueue = new PageCompressionQueue(props.getPageCompressionThreads(),
+          props.getPageCompressionQueueSize(), codecFactory);
+    } else {
+      this.compressionQueue = null;
+    }
     initStore();
   }
 
@@ -101,8 +169,7 @@ class InternalParquetRecordWriter<T> {
   }
 
   private void initStore() {
-    pageStore = new ColumnChunkPageWriteStore(compressor, schema, props.getAllocator(),
-        props.getColumnIndexTruncateLength());
+    pageStore = new ColumnChunkPageWriteStore(compressors, schema, props, compressionQueue);
     columnStore = props.newColumnWriteStore(schema, pageStore);
     MessageColumnIO columnIO = new ColumnIOFactory(validating).getColumnIO(schema);
     this.recordConsumer = columnIO.getRecordWriter(columnStore);
@@ -111,7 +178,16 @@ class InternalParquetRecordWriter<T> {
 
   public void close() throws IOException, InterruptedException {
     if (!closed) {
-      flushRowGroupToStore();
+      try {
+        flushRowGroupToStore();
+      } finally {
+        if (flushPool != null) {
+          flushPool.close();
+        }
+        if (compressionQueue != null) {
+          compressionQueue.close();
+        }
+      }
       FinalizedWriteContext finalWriteContext = writeSupport.finalizeWrite();
       Map<String, String> finalMetadata = new HashMap<String, String>(extraMetaData);
       String modelName = writeSupport.getName();
@@ -130,6 +206,16 @@ class InternalParquetRecordWriter<T> {
     checkBlockSizeReached();
   }
 
+  public void writeBatch(ColumnarWriteBatch batch) throws IOException {
+    checkArgument(schema.equals(batch.getSchema()), "The schema of the batch does not match the one of the file: %s",
+        batch.getSchema());
+    // the nulls possibly cached by the record consumer belong to the previous records
+    recordConsumer.flush();
+    batch.writeTo(columnStore);
+    recordCount += batch.getRowCount();
+    checkBlockSizeReached();
+  }
+
   /**
    * @return the total size of data written to the file and buffered in memory
    */
@@ -169,7 +255,11 @@ class InternalParquetRecordWriter<T> {
 
     if (recordCount > 0) {
       parquetFileWriter.startBlock(recordCount);
-      columnStore.flush();
+      if (flushPool == null) {
+        columnStore.flush();
+      } else {
+        columnStore.flush(flushPool.getExecutor());
+      }
       pageStore.flushToFileWriter(parquetFileWriter);
       recordCount = 0;
       parquetFileWriter.endBlock();
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.parquet.Preconditions;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link FooterCache} evicting the least recently used footers when the estimated size of the cached footers
+ * exceeds a limit. The cache keeps track of the hits, misses and evictions.
+ * <p>
+ * A process-wide instance is used by the readers if {@code parquet.read.footer.cache.enabled} is set in the hadoop
+ * configuration; see {@link #getSharedInstance(long)}.
+ */
+public class LruFooterCache implements FooterCache {
+  private static final Logger LOG = LoggerFactory.getLogger(LruFooterCache.class);
+
+  // Rough estimates of the heap usage of the parsed metadata objects
+  private static final long FOOTER_OVERHEAD = 1024;
+  private static final long SCHEMA_COLUMN_OVERHEAD = 256;
+  private static final long BLOCK_OVERHEAD = 128;
+  private static final long COLUMN_CHUNK_OVERHEAD = 320;
+
+  private static LruFooterCache sharedInstance;
+  // whether a different size limit has been requested for the shared instance; logged once as every reader asks
+  private static boolean sharedSizeMismatchLogged = false;
+
+  private final long maxBytes;
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long bytes = 0;
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+
+  private static final class Entry {
+    private final ParquetMetadata footer;
+    private final long size;
+
+    private Entry(ParquetMetadata footer, long size) {
+      this.footer = footer;
+      this.size = size;
+    }
+  }
+
+  /**
+   * Returns the process-wide footer cache. The cache is created at the first invocation so the size limit of the
+   * first caller applies; a warning is logged the first time a different limit is requested.
+   *
+   * @param maxBytes the maximum estimated size of the cached footers in bytes
+   * @return the process-wide footer cache
+   */
+  public static synchronized LruFooterCache getSharedInstance(long maxBytes) {
+    if (sharedInstance == null) {
+      sharedInstance = new LruFooterCache(maxBytes);
+    } else if (sharedInstance.maxBytes != maxBytes && !sharedSizeMismatchLogged) {
+      LOG.warn("The shared footer cache is limited to {} bytes as created first; the requested limit {} is ignored",
+          sharedInstance.maxBytes, maxBytes);
+      sharedSizeMismatchLogged = true;
+    }
+    return sharedInstance;
+  }
+
+  /**
+   * @param maxBytes the maximum estimated size of the cached footers in bytes
+   */
+  public LruFooterCache(long maxBytes) {
+    Preconditions.checkArgument(maxBytes > 0, "Invalid maximum size for the footer cache: %s", maxBytes);
+    this.maxBytes = maxBytes;
+  }
+
+  @Override
+  public synchronized ParquetMetadata get(Key key) {
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      ++missCount;
+      return null;
+    }
+    ++hitCount;
+    return entry.footer;
+  }
+
+  @Override
+  public void put(Key key, ParquetMetadata footer) {
+    long size = estimateSize(footer);
+    if (size > maxBytes) {
+      LOG.debug("Footer of {} is not cached as it is larger than the cache: {}", key, size);
+      return;
+    }
+    synchronized (this) {
+      Entry previous = entries.put(key, new Entry(footer, size));
+      if (previous != null) {
+        bytes -= previous.size;
+      }
+      bytes += size;
+      Iterator<Entry> it = entries.values().iterator();
+      while (bytes > maxBytes) {
+        Entry eldest = it.next();
+        it.remove();
+        bytes -= eldest.size;
+        ++evictionCount;
+      }
+    }
+  }
+
+  /**
+   * @return the number of lookups that found a cached footer
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return the number of lookups that did not find a cached footer
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * @return the number of footers removed to keep the cache within its size limit
+   */
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * @return the number of the cached footers
+   */
+  public synchronized int getEntryCount() {
+    return entries.size();
+  }
+
+  /**
+   * @return the estimated size of the cached footers in bytes
+   */
+  public synchronized long getEstimatedSize() {
+    return bytes;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  /**
+   * Removes all the cached footers. The statistics are not reset.
+   */
+  public synchronized void clear() {
+    entries.clear();
+    bytes = 0;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "LruFooterCache{size: " + bytes + "/" + maxBytes + ", entries: " + entries.size() + ", hits: " + hitCount
+        + ", misses: " + missCount + ", evictions: " + evictionCount + "}";
+  }
+
+  // Visible for testing
+  static long estimateSize(ParquetMetadata footer) {
+    long size = FOOTER_OVERHEAD;
+    size += footer.getFileMetaData().getSchema().getColumns().size() * SCHEMA_COLUMN_OVERHEAD;
+    for (Map.Entry<String, String> keyValue : footer.getFileMetaData().getKeyValueMetaData().entrySet()) {
+      String value = keyValue.getValue();
+      size += 2L * (keyValue.getKey().length() + (value == null ? 0 : value.length()));
+    }
+    for (BlockMetaData block : footer.getBlocks()) {
+      size += BLOCK_OVERHEAD;
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        size += COLUMN_CHUNK_OVERHEAD;
+        Statistics<?> statistics = column.getStatistics();
+        if (statistics != null && statistics.hasNonNullValue()) {
+          size += statistics.getMinBytes().length + statistics.getMaxBytes().length;
+        }
+      }
+    }
+    return size;
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import java.io.IOException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+/**
+ * Compresses the pages of the column chunks of a writer on background threads so the writer thread only copies the
+ * bytes of a page when it is closed. The number of pages waiting to be compressed is limited for the whole writer;
+ * handing over a page blocks while the queue is full.
+ * <p>
+ * The pages of a column chunk are submitted and collected in order by the page writer of the column. It collects the
+ * oldest one before submitting a new one once {@link #getColumnDepth()} pages are pending.
+ */
+class PageCompressionQueue {
+
+  private final CompressingThreadPool pool;
+  private final Semaphore slots;
+  private final int columnDepth;
+
+  /**
+   * @param threads the number of threads compressing the pages
+   * @param queueSize the maximum number of pages waiting to be compressed
+   * @param codecFactory the factory to create the compressors of the threads
+   */
+  PageCompressionQueue(int threads, int queueSize, CodecFactory codecFactory) {
+    this.pool = new CompressingThreadPool(threads, "parquet-compression", codecFactory);
+    this.slots = new Semaphore(queueSize);
+    this.columnDepth = threads;
+  }
+
+  /**
+   * @return the maximum number of pages of a column being compressed; a column may use all the threads
+   */
+  int getColumnDepth() {
+    return columnDepth;
+  }
+
+  /**
+   * Submits a page to be compressed. The bytes shall not be modified until the compression completes.
+   *
+   * @param bytes the bytes to be compressed
+   * @param codecName the codec to compress the bytes with
+   * @return the compressed bytes; they are copied so they remain valid after the next compressions
+   * @throws IOException if the thread is interrupted while waiting for the queue
+   */
+  Future<BytesInput> compress(BytesInput bytes, CompressionCodecName codecName) throws IOException {
+    try {
+      slots.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting to compress a page", e);
+    }
+    try {
+      return pool.getExecutor().submit(() -> {
+        try {
+          return BytesInput.copy(pool.getWorkerCompressor(codecName).compress(bytes));
+        } finally {
+          slots.release();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      slots.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Stops the compression threads. All the submitted pages shall have been collected.
+   */
+  void close() {
+    pool.close();
+  }
+}
@@ -0,0 +1,253 @@
+/* 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.column.vector.ColumnarBatch;
+import org.apache.parquet.column.vector.ColumnarBatchReader;
+import org.apache.parquet.filter2.batchlevel.BatchFilter;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.compat.FilterCompat.FilterPredicateCompat;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.internal.filter2.columnindex.RowRanges;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+
+/**
+ * Reads a Parquet file into {@link ColumnarBatch}es instead of materializing records. The row groups are filtered by
+ * the record filter of the read options (statistics and dictionary filtering).
+ * <p>
+ * If the record filter is a {@link org.apache.parquet.filter2.predicate.FilterPredicate} and record filtering is
+ * enabled ({@link ParquetReadOptions#useRecordFilter()}) the batches only hold the matching rows. A row group is then
+ * read in two phases: the columns of the filter are read first (only their pages left by the column index filter) and
+ * evaluated by a {@link BatchFilter}; then only the pages of the other projected columns containing matching rows are
+ * read and only the values of these rows are decoded. The pages of the filter columns read in the first phase are
+ * decoded again for the projected ones instead of being read again. The filter columns need not be part of the
+ * projection. The filtered
+ * reads are only supported for the columns which are not repeated.
+ * <p>
+ * The batches do not span row groups. Example:
+ * <pre>
+ * try (ParquetBatchReader reader = new ParquetBatchReader(file, options, projection)) {
+ *   ColumnarBatch batch = reader.newBatch(4096);
+ *   while (reader.readBatch(batch) &gt; 0) {
+ *     IntColumnVector ids = (IntColumnVector) batch.getColumn("id");
+ *     ...
+ *   }
+ * }
+ * </pre>
+ * This class is not thread-safe.
+ */
+public class ParquetBatchReader implements Closeable {
+
+  private static final int FILTER_BATCH_SIZE = 4096;
+
+  private final ParquetFileReader reader;
+  private final MessageType schema;
+  private final String createdBy;
+  private ColumnarBatchReader rowGroup;
+
+  // the filter of the rows; null if the rows are not filtered
+  private final BatchFilter filter;
+  private final MessageType filterSchema;
+  // the projected columns which are not filter columns and the ones which are
+  private final List<ColumnDescriptor> otherColumns = new ArrayList<>();
+  private final List<ColumnDescriptor> projectedFilterColumns = new ArrayList<>();
+  private ColumnarBatch filterBatch;
+  private long[] selection;
+
+  /**
+   * @param file the file to read
+   * @param options the read options
+   * @param projection the columns to read; the whole file schema is read if {@code null}
+   * @throws IOException if the file cannot be opened
+   */
+  public ParquetBatchReader(InputFile file, ParquetReadOptions options, MessageType projection) throws IOException {
+    this.reader = ParquetFileReader.open(file, options);
+    FileMetaData metaData = reader.getFileMetaData();
+    this.createdBy = metaData.getCreatedBy();
+    MessageType fileSchema = metaData.getSchema();
+    if (projection == null) {
+      this.schema = fileSchema;
+    } else {
+      fileSchema.checkContains(projection);
+      this.schema = projection;
+    }
+    FilterCompat.Filter recordFilter = options.getRecordFilter();
+    if (options.useRecordFilter() && recordFilter instanceof FilterPredicateCompat) {
+      this.filter = new BatchFilter(((FilterPredicateCompat) recordFilter).getFilterPredicate(), fileSchema);
+      this.filterSchema = project(fileSchema, filter.getColumns());
+      // the column indexes of the filter columns are required to filter the pages
+      reader.setRequestedSchema(schema.union(filterSchema));
+      List<ColumnDescriptor> filterColumns = filterSchema.getColumns();
+      for (ColumnDescriptor column : schema.getColumns()) {
+        if (filterColumns.contains(column)) {
+          projectedFilterColumns.add(column);
+        } else {
+          otherColumns.add(column);
+        }
+      }
+    } else {
+      this.filter = null;
+      this.filterSchema = null;
+      if (projection != null) {
+        reader.setRequestedSchema(projection);
+      }
+    }
+  }
+
+  // the projection of the schema to the specified columns
+  private static MessageType project(MessageType schema, List<ColumnDescriptor> columns) {
+    MessageType projection = new MessageType(schema.getName());
+    for (ColumnDescriptor column : columns) {
+      projection = projection.union(new MessageType(schema.getName(), project(schema, column.getPath(), 0)));
+    }
+    return projection;
+  }
+
+  private static Type project(GroupType group, String[] path, int depth) {
+    Type type = group.getType(path[depth]);
+    if (depth == path.length - 1) {
+      return type;
+    }
+    return type.asGroupType().withNewFields(project(type.asGroupType(), path, depth + 1));
+  }
+
+  /**
+   * @return the schema of the batches
+   */
+  public MessageType getSchema() {
+    return schema;
+  }
+
+  /**
+   * @return the number of rows in the row groups to be read; the rows of the row groups not dropped by the filter are
+   *         all counted even if they are filtered
+   */
+  public long getRecordCount() {
+    return reader.getRecordCount();
+  }
+
+  /**
+   * @param capacity the maximum number of rows in the batch
+   * @return a new batch to be filled by {@link #readBatch(ColumnarBatch)}
+   */
+  public ColumnarBatch newBatch(int capacity) {
+    return new ColumnarBatch(schema, capacity);
+  }
+
+  /**
+   * @param capacity the maximum number of rows in the batch
+   * @param dictionaryIds whether the dictionary encoded pages shall be read as dictionary ids into
+   *                      {@link org.apache.parquet.column.vector.DictionaryColumnVector}s instead of being decoded
+   * @return a new batch to be filled by {@link #readBatch(ColumnarBatch)}
+   */
+  public ColumnarBatch newBatch(int capacity, boolean dictionaryIds) {
+    return new ColumnarBatch(schema, capacity, dictionaryIds);
+  }
+
+  /**
+   * Reads the next rows into the specified batch replacing its content. The buffers of the previous row group are
+   * released when the batch reaches the next row group; the values in the batch do not reference them.
+   *
+   * @param batch the batch to read into; shall be created for the schema of this reader
+   * @return the number of rows read; 0 if all the rows have been read
+   * @throws IOException if an error occurs while reading
+   */
+  public int readBatch(ColumnarBatch batch) throws IOException {
+    while (rowGroup == null || rowGroup.getRemainingRowCount() == 0) {
+      PageReadStore pages = filter == null ? reader.readNextRowGroup() : readNextMatchingRows();
+      if (pages == null) {
+        return 0;
+      }
+      rowGroup = new ColumnarBatchReader(schema, pages, createdBy);
+    }
+    return rowGroup.readBatch(batch);
+  }
+
+  // reads the pages of the projected columns holding the rows of the next row group matching the filter; null if all
+  // the row groups have been read
+  private PageReadStore readNextMatchingRows() throws IOException {
+    while (true) {
+      RowRanges candidates = reader.getNextRowRanges();
+      if (candidates == null) {
+        return null;
+      }
+      RowRanges matching = candidates.rowCount() == 0 ? candidates : evaluateFilter(candidates);
+      if (matching.rowCount() > 0) {
+        // the pages of the filter columns read for the candidate rows hold the matching ones
+        PageReadStore pages = reader.readNextRowGroupRows(otherColumns, projectedFilterColumns, matching);
+        reader.skipNextRowGroup();
+        return pages;
+      }
+      reader.skipNextRowGroup();
+    }
+  }
+
+  // reads the filter columns of the candidate rows of the next row group and returns the rows matching the filter
+  private RowRanges evaluateFilter(RowRanges candidates) throws IOException {
+    PageReadStore pages = reader.readNextRowGroupRows(filterSchema.getColumns(), candidates);
+    ColumnarBatchReader filterReader = new ColumnarBatchReader(filterSchema, pages, createdBy);
+    if (filterBatch == null) {
+      filterBatch = new ColumnarBatch(filterSchema, FILTER_BATCH_SIZE, true);
+      selection = new long[BatchFilter.getSelectionLength(FILTER_BATCH_SIZE)];
+    }
+    RowRanges.Builder matching = RowRanges.builder();
+    PrimitiveIterator.OfLong rowIndexes = candidates.iterator();
+    // the current range of consecutive matching rows
+    long from = -1;
+    long to = -1;
+    for (int rows = filterReader.readBatch(filterBatch); rows > 0; rows = filterReader.readBatch(filterBatch)) {
+      filter.filter(filterBatch, selection);
+      for (int i = 0; i < rows; ++i) {
+        long rowIndex = rowIndexes.nextLong();
+        if ((selection[i >>> 6] & (1L << i)) == 0) {
+          continue;
+        }
+        if (from >= 0 && rowIndex == to + 1) {
+          to = rowIndex;
+        } else {
+          if (from >= 0) {
+            matching.add(from, to);
+          }
+          from = to = rowIndex;
+        }
+      }
+    }
+    if (from >= 0) {
+      matching.add(from, to);
+    }
+    return matching.build();
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
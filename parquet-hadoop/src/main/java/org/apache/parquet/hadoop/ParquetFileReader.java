@@ -19,6 +19,7 @@
 package org.apache.parquet.hadoop;
 
 import static org.apache.parquet.bytes.BytesUtils.readIntLittleEndian;
+import static org.apache.parquet.filter2.compat.RowGroupFilter.FilterLevel.BLOOMFILTER;
 import static org.apache.parquet.filter2.compat.RowGroupFilter.FilterLevel.DICTIONARY;
 import static org.apache.parquet.filter2.compat.RowGroupFilter.FilterLevel.STATISTICS;
 import static org.apache.parquet.format.converter.ParquetMetadataConverter.NO_FILTER;
@@ -31,23 +32,34 @@ import static org.apache.parquet.hadoop.ParquetFileWriter.PARQUET_METADATA_FILE;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.SequenceInputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -59,6 +71,7 @@ import org.apache.parquet.HadoopReadOptions;
 import org.apache.parquet.ParquetReadOptions;
 import org.apache.parquet.bytes.ByteBufferInputStream;
 import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.bytes.PooledByteBufferAllocator;
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.page.DataPage;
@@ -67,6 +80,7 @@ import org.apache.parquet.column.page.DataPageV2;
 import org.apache.parquet.column.page.DictionaryPage;
 import org.apache.parquet.column.page.DictionaryPageReadStore;
 import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
 import org.apache.parquet.compression.CompressionCodecFactory.BytesInputDecompressor;
 import org.apache.parquet.filter2.compat.FilterCompat;
 import org.apache.parquet.filter2.compat.RowGroupFilter;
@@ -91,9 +105,11 @@ import org.apache.parquet.internal.column.columnindex.ColumnIndex;
 import org.apache.parquet.internal.column.columnindex.OffsetIndex;
 import org.apache.parquet.internal.filter2.columnindex.ColumnIndexFilter;
 import org.apache.parquet.internal.filter2.columnindex.ColumnIndexStore;
+import org.apache.parquet.internal.filter2.columnindex.ColumnIndexStore.MissingOffsetIndexException;
 import org.apache.parquet.internal.filter2.columnindex.RowRanges;
 import org.apache.parquet.internal.hadoop.metadata.IndexReference;
 import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.MappedSeekableInputStream;
 import org.apache.parquet.io.ParquetDecodingException;
 import org.apache.parquet.io.SeekableInputStream;
 import org.apache.parquet.schema.MessageType;
@@ -111,6 +127,11 @@ public class ParquetFileReader implements Closeable {
 
   public static String PARQUET_READ_PARALLELISM = "parquet.metadata.read.parallelism";
 
+  private static final int FOOTER_LENGTH_SIZE = 4;
+
+  // the tail read size grown to the size of the footers and page indexes of the files read before
+  private static final AtomicInteger TAIL_READ_SIZE_HINT = new AtomicInteger();
+
   private final ParquetMetadataConverter converter;
 
   /**
@@ -512,24 +533,71 @@ public class ParquetFileReader implements Closeable {
 
   private static final ParquetMetadata readFooter(InputFile file, ParquetReadOptions options, SeekableInputStream f) throws IOException {
     ParquetMetadataConverter converter = new ParquetMetadataConverter(options);
-    return readFooter(file, options, f, converter);
+    return readFooter(file, options, f, converter, null);
+  }
+
+  /*
+   * tailConsumer receives the tail of the file if it is read speculatively; might be null
+   */
+  private static final ParquetMetadata readFooter(InputFile file, ParquetReadOptions options, SeekableInputStream f,
+      ParquetMetadataConverter converter, Consumer<FileRange> tailConsumer) throws IOException {
+    FooterCache footerCache = options.getFooterCache();
+    FooterCache.Key key = footerCache == null ? null : FooterCache.Key.of(file);
+    if (key == null) {
+      return readFooter(file, f, converter, options.getMetadataFilter(), readTail(file, options, f, tailConsumer));
+    }
+    ParquetMetadata footer = footerCache.get(key);
+    if (footer == null) {
+      FileRange tail = readTail(file, options, f, tailConsumer);
+      if (options.getMetadataFilter() == SKIP_ROW_GROUPS) {
+        // the row groups are not parsed so there is nothing to be cached
+        return readFooter(file, f, converter, SKIP_ROW_GROUPS, tail);
+      }
+      footer = readFooter(file, f, converter, NO_FILTER, tail);
+      footerCache.put(key, footer);
+    }
+    return ParquetMetadataConverter.filterParquetMetadata(footer, options.getMetadataFilter());
+  }
+
+  private static FileRange readTail(InputFile file, ParquetReadOptions options, SeekableInputStream f,
+      Consumer<FileRange> tailConsumer) throws IOException {
+    if (options.getTailReadSize() <= 0) {
+      return null;
+    }
+    int size = Math.max(options.getTailReadSize(), Math.min(TAIL_READ_SIZE_HINT.get(), options.getMaxTailReadSize()));
+    FileRange tail = FileRange.readTail(file, f, size);
+    if (tailConsumer != null) {
+      tailConsumer.accept(tail);
+    }
+    return tail;
   }
 
-  private static final ParquetMetadata readFooter(InputFile file, ParquetReadOptions options, SeekableInputStream f, ParquetMetadataConverter converter) throws IOException {
+  /*
+   * tail is the speculatively read tail of the file; might be null
+   */
+  private static final ParquetMetadata readFooter(InputFile file, SeekableInputStream f,
+      ParquetMetadataConverter converter, MetadataFilter filter, FileRange tail) throws IOException {
     long fileLen = file.getLength();
     String filePath = file.toString();
     LOG.debug("File length {}", fileLen);
-    int FOOTER_LENGTH_SIZE = 4;
     if (fileLen < MAGIC.length + FOOTER_LENGTH_SIZE + MAGIC.length) { // MAGIC + data + footer + footerIndex + MAGIC
       throw new RuntimeException(filePath + " is not a Parquet file (too small length: " + fileLen + ")");
     }
     long footerLengthIndex = fileLen - FOOTER_LENGTH_SIZE - MAGIC.length;
     LOG.debug("reading footer index at {}", footerLengthIndex);
 
-    f.seek(footerLengthIndex);
-    int footerLength = readIntLittleEndian(f);
+    int footerLength;
     byte[] magic = new byte[MAGIC.length];
-    f.readFully(magic);
+    if (tail == null) {
+      f.seek(footerLengthIndex);
+      footerLength = readIntLittleEndian(f);
+      f.readFully(magic);
+    } else {
+      ByteBuffer footerLengthAndMagic = tail.slice(footerLengthIndex, FOOTER_LENGTH_SIZE + MAGIC.length)
+          .order(ByteOrder.LITTLE_ENDIAN);
+      footerLength = footerLengthAndMagic.getInt();
+      footerLengthAndMagic.get(magic);
+    }
     if (!Arrays.equals(MAGIC, magic)) {
       throw new RuntimeException(filePath + " is not a Parquet file. expected magic number at tail " + Arrays.toString(MAGIC) + " but found " + Arrays.toString(magic));
     }
@@ -538,8 +606,48 @@ public class ParquetFileReader implements Closeable {
     if (footerIndex < MAGIC.length || footerIndex >= footerLengthIndex) {
       throw new RuntimeException("corrupted file: the footer index is not within the file: " + footerIndex);
     }
-    f.seek(footerIndex);
-    return converter.readParquetMetadata(f, options.getMetadataFilter());
+    if (tail == null) {
+      f.seek(footerIndex);
+      return converter.readParquetMetadata(f, filter);
+    }
+
+    InputStream footerStream;
+    if (tail.contains(footerIndex, footerLength)) {
+      footerStream = ByteBufferInputStream.wrap(tail.slice(footerIndex, footerLength));
+    } else {
+      // only the beginning of the footer is missing from the tail
+      ByteBuffer head = ByteBuffer.allocate(Math.toIntExact(tail.offset - footerIndex));
+      f.seek(footerIndex);
+      f.readFully(head);
+      head.flip();
+      footerStream = ByteBufferInputStream.wrap(head,
+          tail.slice(tail.offset, Math.toIntExact(footerLengthIndex - tail.offset)));
+    }
+    ParquetMetadata footer = converter.readParquetMetadata(footerStream, filter);
+    growTailReadSize(fileLen, footerIndex, footer);
+    return footer;
+  }
+
+  /*
+   * Grows the tail read size hint so the footer and the page indexes of similar files can be read in one request. The
+   * page indexes are written right before the footer.
+   */
+  private static void growTailReadSize(long fileLen, long footerIndex, ParquetMetadata footer) {
+    long tailStart = footerIndex;
+    for (BlockMetaData block : footer.getBlocks()) {
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        IndexReference columnIndexRef = column.getColumnIndexReference();
+        if (columnIndexRef != null) {
+          tailStart = Math.min(tailStart, columnIndexRef.getOffset());
+        }
+        IndexReference offsetIndexRef = column.getOffsetIndexReference();
+        if (offsetIndexRef != null) {
+          tailStart = Math.min(tailStart, offsetIndexRef.getOffset());
+        }
+      }
+    }
+    int size = (int) Math.min(Integer.MAX_VALUE, fileLen - tailStart);
+    TAIL_READ_SIZE_HINT.accumulateAndGet(size, Math::max);
   }
 
   /**
@@ -616,11 +724,29 @@ public class ParquetFileReader implements Closeable {
 
   // not final. in some cases, this may be lazily loaded for backward-compat.
   private ParquetMetadata footer;
+  // the page indexes are read from here if contained; only set if the tail of the file is read speculatively
+  private FileRange tail;
+  // the range covering the page indexes of the projected columns of all the row groups if read at once
+  private FileRange indexRange;
+  private boolean indexRangeRead = false;
 
   private int currentBlock = 0;
   private ColumnChunkPageReadStore currentRowGroup = null;
   private DictionaryPageReader nextDictionaryReader = null;
 
+  // row groups read ahead in the background; only used if prefetching is enabled
+  private final Deque<PrefetchedRowGroup> prefetchedRowGroups = new ArrayDeque<>();
+  private long prefetchedBytes = 0;
+  private ExecutorService prefetchExecutor = null;
+  private SeekableInputStream prefetchStream = null;
+
+  // used for reading the parts of a row group concurrently; null if read parallelism is not greater than 1
+  private final ExecutorService readExecutor;
+  private final Queue<SeekableInputStream> readStreams = new ConcurrentLinkedQueue<>();
+
+  // used for decompressing the pages ahead; null if it is disabled
+  private final DecompressionPipeline.Workers decompressionWorkers;
+
   /**
    * @param configuration the Hadoop conf
    * @param filePath Path for the parquet file
@@ -659,6 +785,8 @@ public class ParquetFileReader implements Closeable {
     for (ColumnDescriptor col : columns) {
       paths.put(ColumnPath.get(col.getPath()), col);
     }
+    this.readExecutor = newReadExecutor();
+    this.decompressionWorkers = newDecompressionWorkers();
   }
 
   /**
@@ -695,6 +823,8 @@ public class ParquetFileReader implements Closeable {
     for (ColumnDescriptor col : footer.getFileMetaData().getSchema().getColumns()) {
       paths.put(ColumnPath.get(col.getPath()), col);
     }
+    this.readExecutor = newReadExecutor();
+    this.decompressionWorkers = newDecompressionWorkers();
   }
 
   public ParquetFileReader(InputFile file, ParquetReadOptions options) throws IOException {
@@ -703,7 +833,7 @@ public class ParquetFileReader implements Closeable {
     this.f = file.newStream();
     this.options = options;
     try {
-      this.footer = readFooter(file, options, f, converter);
+      this.footer = readFooter(file, options, f, converter, tail -> this.tail = tail);
     } catch (Exception e) {
       // In case that reading footer throws an exception in the constructor, the new stream
       // should be closed. Otherwise, there's no way to close this outside.
@@ -717,6 +847,14 @@ public class ParquetFileReader implements Closeable {
     for (ColumnDescriptor col : footer.getFileMetaData().getSchema().getColumns()) {
       paths.put(ColumnPath.get(col.getPath()), col);
     }
+    this.readExecutor = newReadExecutor();
+    this.decompressionWorkers = newDecompressionWorkers();
+  }
+
+  // both the reader thread and the prefetching task read the parts of the row groups through it
+  private ExecutorService newReadExecutor() {
+    int parallelism = options.getReadParallelism();
+    return parallelism > 1 ? newDaemonExecutor(parallelism, "parquet-read-" + file) : null;
   }
 
   private static <T> List<T> listWithNulls(int size) {
@@ -727,7 +865,7 @@ public class ParquetFileReader implements Closeable {
     if (footer == null) {
       try {
         // don't read the row groups because this.blocks is always set
-        this.footer = readFooter(file, options, f, converter);
+        this.footer = readFooter(file, options, f, converter, null);
       } catch (IOException e) {
         throw new ParquetDecodingException("Unable to read file footer", e);
       }
@@ -786,6 +924,10 @@ public class ParquetFileReader implements Closeable {
       levels.add(DICTIONARY);
     }
 
+    if (options.useBloomFilter()) {
+      levels.add(BLOOMFILTER);
+    }
+
     FilterCompat.Filter recordFilter = options.getRecordFilter();
     if (recordFilter != null) {
       return RowGroupFilter.filterRowGroups(levels, recordFilter, blocks, this);
@@ -799,6 +941,8 @@ public class ParquetFileReader implements Closeable {
   }
 
   public void setRequestedSchema(MessageType projection) {
+    // row groups read ahead were planned for the previous projection
+    discardPrefetchedRowGroups();
     paths.clear();
     for (ColumnDescriptor col : projection.getColumns()) {
       paths.put(ColumnPath.get(col.getPath()), col);
@@ -810,11 +954,17 @@ public class ParquetFileReader implements Closeable {
   }
 
   /**
-   * Reads all the columns requested from the row group at the current file position.
+   * Reads all the columns requested from the row group at the current file position. The buffers of the row group
+   * returned previously are released to the allocator of the read options so its pages shall not be read anymore.
    * @throws IOException if an error occurs while reading
    * @return the PageReadStore which can provide PageReaders for each column.
    */
   public PageReadStore readNextRowGroup() throws IOException {
+    return readNextRowGroup(false);
+  }
+
+  private PageReadStore readNextRowGroup(boolean filteredScan) throws IOException {
+    releaseCurrentRowGroup();
     if (currentBlock == blocks.size()) {
       return null;
     }
@@ -823,30 +973,19 @@ public class ParquetFileReader implements Closeable {
       throw new RuntimeException("Illegal row group of 0 rows");
     }
     this.currentRowGroup = new ColumnChunkPageReadStore(block.getRowCount());
-    // prepare the list of consecutive parts to read them in one scan
-    List<ConsecutivePartList> allParts = new ArrayList<ConsecutivePartList>();
-    ConsecutivePartList currentParts = null;
-    for (ColumnChunkMetaData mc : block.getColumns()) {
-      ColumnPath pathKey = mc.getPath();
-      BenchmarkCounter.incrementTotalBytes(mc.getTotalSize());
-      ColumnDescriptor columnDescriptor = paths.get(pathKey);
-      if (columnDescriptor != null) {
-        long startingPos = mc.getStartingPos();
-        // first part or not consecutive => new list
-        if (currentParts == null || currentParts.endPos() != startingPos) {
-          currentParts = new ConsecutivePartList(startingPos);
-          allParts.add(currentParts);
-        }
-        currentParts.addChunk(new ChunkDescriptor(columnDescriptor, mc, startingPos, (int)mc.getTotalSize()));
-      }
-    }
-    // actually read all the chunks
-    ChunkListBuilder builder = new ChunkListBuilder();
-    for (ConsecutivePartList consecutiveChunks : allParts) {
-      consecutiveChunks.readAll(f, builder);
+    ChunkListBuilder builder = takePrefetchedRowGroup(currentBlock, false);
+    if (builder == null) {
+      builder = new ChunkListBuilder();
+      // actually read all the chunks
+      readCurrentRowGroupChunks(planChunks(block, builder), builder);
+    } else {
+      currentRowGroup.addBuffersToRelease(options.getAllocator(), builder.allocatedBuffers);
     }
+    // counted only now as prefetched row groups might be discarded and planned again
+    BenchmarkCounter.incrementTotalBytes(builder.totalBytes);
+    DecompressionPipeline pipeline = newDecompressionPipeline();
     for (Chunk chunk : builder.build()) {
-      currentRowGroup.addColumn(chunk.descriptor.col, chunk.readAllPages());
+      currentRowGroup.addColumn(chunk.descriptor.col, chunk.readAllPages(pipeline));
     }
 
     // avoid re-reading bytes the dictionary reader is used after this call
@@ -855,6 +994,7 @@ public class ParquetFileReader implements Closeable {
     }
 
     advanceToNextBlock();
+    prefetchNextRowGroups(filteredScan);
 
     return currentRowGroup;
   }
@@ -864,23 +1004,24 @@ public class ParquetFileReader implements Closeable {
    * on the column indexes according to the actual filter. As the rows are not aligned among the pages of the different
    * columns row synchronization might be required. See the documentation of the class SynchronizingColumnReader for
    * details.
+   * The buffers of the row group returned previously are released the same way as by {@link #readNextRowGroup()}.
    *
    * @return the PageReadStore which can provide PageReaders for each column
    * @throws IOException
    *           if any I/O error occurs while reading
    */
   public PageReadStore readNextFilteredRowGroup() throws IOException {
+    releaseCurrentRowGroup();
     if (currentBlock == blocks.size()) {
       return null;
     }
     if (!options.useColumnIndexFilter()) {
-      return readNextRowGroup();
+      return readNextRowGroup(true);
     }
     BlockMetaData block = blocks.get(currentBlock);
     if (block.getRowCount() == 0) {
       throw new RuntimeException("Illegal row group of 0 rows");
     }
-    ColumnIndexStore ciStore = getColumnIndexStore(currentBlock);
     RowRanges rowRanges = getRowRanges(currentBlock);
     long rowCount = rowRanges.rowCount();
     if (rowCount == 0) {
@@ -890,59 +1031,503 @@ public class ParquetFileReader implements Closeable {
     }
     if (rowCount == block.getRowCount()) {
       // All rows are matching -> fall back to the non-filtering path
-      return readNextRowGroup();
+      return readNextRowGroup(true);
+    }
+
+    this.currentRowGroup = new ColumnChunkPageReadStore(rowRanges);
+    ChunkListBuilder builder = takePrefetchedRowGroup(currentBlock, true);
+    if (builder == null) {
+      builder = new ChunkListBuilder();
+      // actually read all the chunks
+      readCurrentRowGroupChunks(planFilteredChunks(currentBlock, rowRanges, paths, builder), builder);
+    } else {
+      currentRowGroup.addBuffersToRelease(options.getAllocator(), builder.allocatedBuffers);
+    }
+    // counted only now as prefetched row groups might be discarded and planned again
+    BenchmarkCounter.incrementTotalBytes(builder.totalBytes);
+    DecompressionPipeline pipeline = newDecompressionPipeline();
+    for (Chunk chunk : builder.build()) {
+      currentRowGroup.addColumn(chunk.descriptor.col, chunk.readAllPages(pipeline));
+    }
+
+    // avoid re-reading bytes the dictionary reader is used after this call
+    if (nextDictionaryReader != null) {
+      nextDictionaryReader.setRowGroup(currentRowGroup);
+    }
+
+    advanceToNextBlock();
+    prefetchNextRowGroups(true);
+
+    return currentRowGroup;
+  }
+
+  /**
+   * @return the rows of the next row group left by the column index filter (all the rows if it is disabled);
+   *         {@code null} if all the row groups have been read
+   */
+  RowRanges getNextRowRanges() {
+    if (currentBlock == blocks.size()) {
+      return null;
+    }
+    if (options.useColumnIndexFilter()) {
+      return getRowRanges(currentBlock);
     }
+    long rowCount = blocks.get(currentBlock).getRowCount();
+    RowRanges.Builder builder = RowRanges.builder();
+    return rowCount == 0 ? builder.build() : builder.add(0, rowCount - 1).build();
+  }
 
+  /**
+   * Reads the pages of the specified columns of the next row group which contain some of the specified rows. All the
+   * pages of a column are read if it has no offset index. The row group is not skipped so other columns or rows of it
+   * may be read by a next call; see {@link #skipNextRowGroup()}. The row groups are not read ahead in the background.
+   * The buffers of the row group returned previously are released the same way as by {@link #readNextRowGroup()}.
+   *
+   * @param columns the columns to read; they shall be part of the requested schema
+   * @param rowRanges the rows to read
+   * @return the pages of the columns; the row indexes of the store are the specified rows
+   * @throws IOException if an error occurs while reading
+   */
+  PageReadStore readNextRowGroupRows(Collection<ColumnDescriptor> columns, RowRanges rowRanges) throws IOException {
+    releaseCurrentRowGroup();
+    if (currentBlock == blocks.size()) {
+      return null;
+    }
+    Map<ColumnPath, ColumnDescriptor> columnsByPath = new HashMap<>();
+    for (ColumnDescriptor column : columns) {
+      columnsByPath.put(ColumnPath.get(column.getPath()), column);
+    }
     this.currentRowGroup = new ColumnChunkPageReadStore(rowRanges);
-    // prepare the list of consecutive parts to read them in one scan
     ChunkListBuilder builder = new ChunkListBuilder();
+    readCurrentRowGroupChunks(planFilteredChunks(currentBlock, rowRanges, columnsByPath, builder), builder);
+    // counted only now as prefetched row groups might be discarded and planned again
+    BenchmarkCounter.incrementTotalBytes(builder.totalBytes);
+    DecompressionPipeline pipeline = newDecompressionPipeline();
+    for (Chunk chunk : builder.build()) {
+      currentRowGroup.addColumn(chunk.descriptor.col, chunk.readAllPages(pipeline));
+    }
+    return currentRowGroup;
+  }
+
+  /**
+   * Reads the pages of the specified columns of the next row group which contain some of the specified rows the same
+   * way as {@link #readNextRowGroupRows(Collection, RowRanges)}. The pages of the specified previous columns are not
+   * read again but taken from the row group returned last; it shall have been returned by this method for the same row
+   * group and rows including the specified ones. The previous columns are read from their first page again.
+   *
+   * @param columns the columns to read
+   * @param previousColumns the columns of the row group returned last to be part of the returned one
+   * @param rowRanges the rows to read
+   * @return the pages of the columns; the row indexes of the store are the specified rows
+   * @throws IOException if an error occurs while reading
+   */
+  PageReadStore readNextRowGroupRows(Collection<ColumnDescriptor> columns, Collection<ColumnDescriptor> previousColumns,
+      RowRanges rowRanges) throws IOException {
+    ColumnChunkPageReadStore previous = currentRowGroup;
+    // the buffers of the previous row group are released with the returned one
+    currentRowGroup = null;
+    boolean success = false;
+    try {
+      PageReadStore pages = readNextRowGroupRows(columns, rowRanges);
+      if (pages != null) {
+        currentRowGroup.addColumnsOf(previous, previousColumns);
+        success = true;
+      }
+      return pages;
+    } finally {
+      if (!success && previous != null) {
+        previous.releaseBuffers();
+      }
+    }
+  }
+
+  /**
+   * Releases the buffers of the row group returned last as it is not read anymore.
+   */
+  private void releaseCurrentRowGroup() {
+    if (currentRowGroup != null) {
+      currentRowGroup.releaseBuffers();
+      currentRowGroup = null;
+      if (readExecutor != null || options.getPrefetchDepth() > 0) {
+        // the buffers of the next row groups are allocated by the workers
+        releaseThreadCache();
+      }
+    }
+  }
+
+  /**
+   * Prepares the list of consecutive parts to read all the requested column chunks of a row group in one scan. The
+   * total bytes of the row group are registered in the builder.
+   */
+  private List<ConsecutivePartList> planChunks(BlockMetaData block, ChunkListBuilder builder) {
     List<ConsecutivePartList> allParts = new ArrayList<ConsecutivePartList>();
     ConsecutivePartList currentParts = null;
     for (ColumnChunkMetaData mc : block.getColumns()) {
       ColumnPath pathKey = mc.getPath();
+      builder.totalBytes += mc.getTotalSize();
       ColumnDescriptor columnDescriptor = paths.get(pathKey);
       if (columnDescriptor != null) {
-        OffsetIndex offsetIndex = ciStore.getOffsetIndex(mc.getPath());
+        long startingPos = mc.getStartingPos();
+        currentParts = addChunk(allParts, currentParts,
+            new ChunkDescriptor(columnDescriptor, mc, startingPos, (int)mc.getTotalSize()));
+      }
+    }
+    return allParts;
+  }
+
+  /**
+   * Prepares the list of consecutive parts to read only the pages of the specified column chunks that are required
+   * for the given row ranges. The filtered offset indexes and the bytes to read are registered in the builder. The
+   * column chunks without offset index are read whole.
+   */
+  private List<ConsecutivePartList> planFilteredChunks(int blockIndex, RowRanges rowRanges,
+      Map<ColumnPath, ColumnDescriptor> columns, ChunkListBuilder builder) {
+    BlockMetaData block = blocks.get(blockIndex);
+    ColumnIndexStore ciStore = getColumnIndexStore(blockIndex);
+    List<ConsecutivePartList> allParts = new ArrayList<ConsecutivePartList>();
+    ConsecutivePartList currentParts = null;
+    for (ColumnChunkMetaData mc : block.getColumns()) {
+      ColumnPath pathKey = mc.getPath();
+      ColumnDescriptor columnDescriptor = columns.get(pathKey);
+      if (columnDescriptor != null) {
+        OffsetIndex offsetIndex;
+        try {
+          offsetIndex = ciStore.getOffsetIndex(mc.getPath());
+        } catch (MissingOffsetIndexException e) {
+          offsetIndex = null;
+        }
+        if (offsetIndex == null) {
+          builder.totalBytes += mc.getTotalSize();
+          currentParts = addChunk(allParts, currentParts,
+              new ChunkDescriptor(columnDescriptor, mc, mc.getStartingPos(), (int) mc.getTotalSize()));
+          continue;
+        }
 
         OffsetIndex filteredOffsetIndex = filterOffsetIndex(offsetIndex, rowRanges,
             block.getRowCount());
         for (OffsetRange range : calculateOffsetRanges(filteredOffsetIndex, mc, offsetIndex.getOffset(0))) {
-          BenchmarkCounter.incrementTotalBytes(range.getLength());
+          builder.totalBytes += range.getLength();
           long startingPos = range.getOffset();
-          // first part or not consecutive => new list
-          if (currentParts == null || currentParts.endPos() != startingPos) {
-            currentParts = new ConsecutivePartList(startingPos);
-            allParts.add(currentParts);
-          }
           ChunkDescriptor chunkDescriptor = new ChunkDescriptor(columnDescriptor, mc, startingPos,
               (int) range.getLength());
-          currentParts.addChunk(chunkDescriptor);
+          currentParts = addChunk(allParts, currentParts, chunkDescriptor);
           builder.setOffsetIndex(chunkDescriptor, filteredOffsetIndex);
         }
       }
     }
-    // actually read all the chunks
+    return allParts;
+  }
+
+  /*
+   * The decompression ahead is done by codecs owned by the worker threads so it is only enabled if the codec factory
+   * is able to create new codecs for them.
+   */
+  private DecompressionPipeline.Workers newDecompressionWorkers() {
+    if (options.getDecompressionLookAhead() <= 0 || !(options.getCodecFactory() instanceof CodecFactory)) {
+      return null;
+    }
+    return new DecompressionPipeline.Workers((CodecFactory) options.getCodecFactory(),
+        options.getDecompressionThreads(), options.getDecompressionMaxBytes(), "parquet-decompression-" + file);
+  }
+
+  /*
+   * Creates the pipeline decompressing the pages of the next row group ahead.
+   */
+  private DecompressionPipeline newDecompressionPipeline() {
+    if (decompressionWorkers == null) {
+      return null;
+    }
+    return new DecompressionPipeline(decompressionWorkers, options.getDecompressionLookAhead());
+  }
+
+  /**
+   * Adds the chunk to the current part if it can be read together with it; starts a new part otherwise.
+   *
+   * @return the part the chunk was added to
+   */
+  private ConsecutivePartList addChunk(List<ConsecutivePartList> allParts, ConsecutivePartList currentParts,
+      ChunkDescriptor descriptor) {
+    // first part or cannot be merged => new list
+    if (currentParts == null || !currentParts.canAdd(descriptor)) {
+      currentParts = new ConsecutivePartList(descriptor.fileOffset);
+      allParts.add(currentParts);
+    }
+    currentParts.addChunk(descriptor);
+    return currentParts;
+  }
+
+  /**
+   * Reads the chunks of the current row group; the buffers read are released with it even if reading fails.
+   */
+  private void readCurrentRowGroupChunks(List<ConsecutivePartList> allParts, ChunkListBuilder builder)
+      throws IOException {
+    try {
+      readChunks(allParts, f, builder);
+    } finally {
+      currentRowGroup.addBuffersToRelease(options.getAllocator(), builder.allocatedBuffers);
+    }
+  }
+
+  private void readChunks(List<ConsecutivePartList> allParts, SeekableInputStream f, ChunkListBuilder builder)
+      throws IOException {
+    if (options.getReadParallelism() <= 1 || allParts.size() <= 1) {
+      for (ConsecutivePartList consecutiveChunks : allParts) {
+        consecutiveChunks.readAll(f, builder);
+      }
+      return;
+    }
+
+    // the parts are independent so they are read concurrently, each through a separate stream
+    List<Future<List<ByteBuffer>>> futures = new ArrayList<>(allParts.size());
     for (ConsecutivePartList consecutiveChunks : allParts) {
-      consecutiveChunks.readAll(f, builder);
+      futures.add(readExecutor.submit(() -> {
+        SeekableInputStream stream = readStreams.poll();
+        if (stream == null) {
+          stream = file.newStream();
+        }
+        try {
+          return consecutiveChunks.readBuffers(stream);
+        } finally {
+          readStreams.add(stream);
+          releaseThreadCache();
+        }
+      }));
     }
-    for (Chunk chunk : builder.build()) {
-      currentRowGroup.addColumn(chunk.descriptor.col, chunk.readAllPages());
+    // the buffers of the parts taken are owned by the builder
+    int taken = 0;
+    try {
+      // the buffers are added in file order as the pages of a column might be split into several parts
+      for (int i = 0, n = allParts.size(); i < n; ++i) {
+        List<ByteBuffer> buffers = await(futures.get(i), "read column chunks");
+        allParts.get(i).addChunks(buffers, builder, f);
+        taken = i + 1;
+      }
+    } finally {
+      // on failure the parts still being read are waited for so their buffers can be released
+      for (int i = taken, n = futures.size(); i < n; ++i) {
+        Future<List<ByteBuffer>> future = futures.get(i);
+        if (future.cancel(false)) {
+          continue;
+        }
+        List<ByteBuffer> buffers = awaitUninterruptibly(future);
+        if (buffers != null) {
+          releaseReadBuffers(buffers, f);
+        }
+      }
     }
+    // the last chunk might need to continue reading from the stream (see WorkaroundChunk)
+    builder.resetStream(f);
+  }
 
-    // avoid re-reading bytes the dictionary reader is used after this call
-    if (nextDictionaryReader != null) {
-      nextDictionaryReader.setRowGroup(currentRowGroup);
+  // releases the buffers returned by ConsecutivePartList.readBuffers which are not owned by a builder
+  private void releaseReadBuffers(List<ByteBuffer> buffers, SeekableInputStream f) {
+    if (!(f instanceof MappedSeekableInputStream)) {
+      for (ByteBuffer buffer : buffers) {
+        options.getAllocator().release(buffer);
+      }
     }
+  }
 
-    advanceToNextBlock();
+  static ExecutorService newDaemonExecutor(int threads, String name) {
+    return Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, name);
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
 
-    return currentRowGroup;
+  /**
+   * Waits for a task to complete even if the current thread is interrupted; the interrupt status is restored
+   * afterwards.
+   *
+   * @return the result of the task or {@code null} if it failed or was cancelled
+   */
+  static <T> T awaitUninterruptibly(Future<T> future) {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          return future.get();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException | CancellationException e) {
+          return null;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Stops the threads of an executor, interrupting the running tasks and dropping the queued ones, and waits for them
+   * to terminate even if the current thread is interrupted; the interrupt status is restored afterwards.
+   */
+  static void shutdownUninterruptibly(ExecutorService executor) {
+    executor.shutdownNow();
+    boolean interrupted = false;
+    while (true) {
+      try {
+        if (executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS)) {
+          break;
+        }
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  static <T> T await(Future<T> future, String action) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting to " + action, e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException("Could not " + action, cause);
+    }
+  }
+
+  /**
+   * Starts reading the row groups following the current one in the background, up to the configured prefetch depth
+   * and size. The row groups are planned the same way as {@link #readNextRowGroup()} or
+   * {@link #readNextFilteredRowGroup()} would do it depending on {@code filteredScan}.
+   */
+  private void prefetchNextRowGroups(boolean filteredScan) throws IOException {
+    int depth = options.getPrefetchDepth();
+    if (depth <= 0) {
+      return;
+    }
+    int blockIndex = prefetchedRowGroups.isEmpty() ? currentBlock : prefetchedRowGroups.getLast().blockIndex + 1;
+    while (prefetchedRowGroups.size() < depth && blockIndex < blocks.size()) {
+      BlockMetaData block = blocks.get(blockIndex);
+      ChunkListBuilder builder = new ChunkListBuilder();
+      boolean pageFiltered = false;
+      List<ConsecutivePartList> allParts;
+      if (filteredScan && options.useColumnIndexFilter()) {
+        RowRanges rowRanges = getRowRanges(blockIndex);
+        if (rowRanges.rowCount() == 0) {
+          // this row group will be skipped so there is nothing to read
+          ++blockIndex;
+          continue;
+        }
+        pageFiltered = rowRanges.rowCount() != block.getRowCount();
+      }
+      allParts = pageFiltered
+          ? planFilteredChunks(blockIndex, getRowRanges(blockIndex), paths, builder)
+          : planChunks(block, builder);
+      long size = 0;
+      for (ConsecutivePartList consecutiveChunks : allParts) {
+        size += consecutiveChunks.length;
+      }
+      if (prefetchedBytes + size > options.getPrefetchMaxBytes()) {
+        break;
+      }
+      if (prefetchExecutor == null) {
+        prefetchStream = file.newStream();
+        prefetchExecutor = newDaemonExecutor(1, "parquet-prefetch-" + file);
+      }
+      final SeekableInputStream stream = prefetchStream;
+      final PrefetchedRowGroup prefetched = new PrefetchedRowGroup(blockIndex, pageFiltered, size, builder);
+      prefetched.future = prefetchExecutor.submit(() -> {
+        try {
+          readChunks(allParts, stream, builder);
+        } finally {
+          // reading fails as well if the reader is closed meanwhile
+          prefetched.read = true;
+          if (prefetched.discarded) {
+            releasePrefetchedBuffers(prefetched);
+          }
+          releaseThreadCache();
+        }
+        return builder;
+      });
+      prefetchedRowGroups.add(prefetched);
+      prefetchedBytes += size;
+      ++blockIndex;
+    }
+  }
+
+  /**
+   * Returns the chunks of the specified row group if they were read in the background. Row groups prefetched before
+   * the specified one were skipped so they are dropped.
+   *
+   * @return the builder containing the chunks read or {@code null} if the row group was not prefetched
+   */
+  private ChunkListBuilder takePrefetchedRowGroup(int blockIndex, boolean pageFiltered) throws IOException {
+    while (!prefetchedRowGroups.isEmpty() && prefetchedRowGroups.getFirst().blockIndex < blockIndex) {
+      discardPrefetchedRowGroup(prefetchedRowGroups.removeFirst());
+    }
+    if (prefetchedRowGroups.isEmpty()) {
+      return null;
+    }
+    PrefetchedRowGroup prefetched = prefetchedRowGroups.removeFirst();
+    if (prefetched.blockIndex != blockIndex || prefetched.pageFiltered != pageFiltered) {
+      // the row group was planned differently; read it again
+      discardPrefetchedRowGroup(prefetched);
+      return null;
+    }
+    prefetchedBytes -= prefetched.size;
+    ChunkListBuilder builder;
+    try {
+      builder = await(prefetched.future, "prefetch row group " + blockIndex);
+    } catch (IOException e) {
+      releasePrefetchedBuffers(prefetched);
+      throw e;
+    }
+    // the prefetching stream might have moved on since then
+    builder.resetStream(f);
+    return builder;
+  }
+
+  private void discardPrefetchedRowGroup(PrefetchedRowGroup prefetched) {
+    prefetched.discarded = true;
+    prefetched.future.cancel(false);
+    // the reading task releases the buffers itself if it has not finished yet
+    if (prefetched.read) {
+      releasePrefetchedBuffers(prefetched);
+    }
+    prefetchedBytes -= prefetched.size;
+  }
+
+  private void releasePrefetchedBuffers(PrefetchedRowGroup prefetched) {
+    if (prefetched.released.compareAndSet(false, true)) {
+      for (ByteBuffer buffer : prefetched.builder.allocatedBuffers) {
+        options.getAllocator().release(buffer);
+      }
+    }
+  }
+
+  /*
+   * The buffers cached by a thread of a pooled allocator cannot be reused by the other threads so a worker returns them
+   * at the end of every task and the reader thread once they would be allocated by the workers.
+   */
+  private void releaseThreadCache() {
+    if (options.getAllocator() instanceof PooledByteBufferAllocator) {
+      ((PooledByteBufferAllocator) options.getAllocator()).releaseThreadCache();
+    }
+  }
+
+  private void discardPrefetchedRowGroups() {
+    while (!prefetchedRowGroups.isEmpty()) {
+      discardPrefetchedRowGroup(prefetchedRowGroups.removeFirst());
+    }
   }
 
   private ColumnIndexStore getColumnIndexStore(int blockIndex) {
     ColumnIndexStore ciStore = blockIndexStores.get(blockIndex);
     if (ciStore == null) {
-      ciStore = ColumnIndexStoreImpl.create(this, blocks.get(blockIndex), paths.keySet());
+      ciStore = ColumnIndexStoreImpl.create(this, blocks.get(blockIndex), paths.keySet(),
+          readIndexRange(blockIndex));
       blockIndexStores.set(blockIndex, ciStore);
     }
     return ciStore;
@@ -992,6 +1577,10 @@ public class ParquetFileReader implements Closeable {
     return new DictionaryPageReader(this, block);
   }
 
+  public BloomFilterReader getBloomFilterDataReader(BlockMetaData block) {
+    return new BloomFilterReader(this, block);
+  }
+
   /**
    * Reads and decompresses a dictionary page for the given column chunk.
    *
@@ -1052,12 +1641,16 @@ public class ParquetFileReader implements Closeable {
    */
   @Private
   public ColumnIndex readColumnIndex(ColumnChunkMetaData column) throws IOException {
+    return readColumnIndex(column, null);
+  }
+
+  ColumnIndex readColumnIndex(ColumnChunkMetaData column, FileRange range) throws IOException {
     IndexReference ref = column.getColumnIndexReference();
     if (ref == null) {
       return null;
     }
-    f.seek(ref.getOffset());
-    return ParquetMetadataConverter.fromParquetColumnIndex(column.getPrimitiveType(), Util.readColumnIndex(f));
+    return ParquetMetadataConverter.fromParquetColumnIndex(column.getPrimitiveType(),
+        Util.readColumnIndex(openIndex(ref, range)));
   }
 
   /**
@@ -1069,22 +1662,142 @@ public class ParquetFileReader implements Closeable {
    */
   @Private
   public OffsetIndex readOffsetIndex(ColumnChunkMetaData column) throws IOException {
+    return readOffsetIndex(column, null);
+  }
+
+  OffsetIndex readOffsetIndex(ColumnChunkMetaData column, FileRange range) throws IOException {
     IndexReference ref = column.getOffsetIndexReference();
     if (ref == null) {
       return null;
     }
+    return ParquetMetadataConverter.fromParquetOffsetIndex(Util.readOffsetIndex(openIndex(ref, range)));
+  }
+
+  /**
+   * @param column
+   *          the column chunk which the Bloom filter is to be returned for
+   * @return the Bloom filter for the specified column chunk or {@code null} if there is no filter
+   * @throws IOException
+   *           if any I/O error occurs during reading the file
+   */
+  @Private
+  public BlockSplitBloomFilter readBloomFilter(ColumnChunkMetaData column) throws IOException {
+    IndexReference ref = column.getBloomFilterReference();
+    if (ref == null) {
+      return null;
+    }
+    return BlockSplitBloomFilter.readFrom(openIndex(ref, null), ref.getLength());
+  }
+
+  /*
+   * range is the range of the file read before that might contain the index; might be null
+   */
+  private InputStream openIndex(IndexReference ref, FileRange range) throws IOException {
+    for (FileRange r : Arrays.asList(range, tail)) {
+      if (r != null && r.contains(ref.getOffset(), ref.getLength())) {
+        return ByteBufferInputStream.wrap(r.slice(ref.getOffset(), ref.getLength()));
+      }
+    }
     f.seek(ref.getOffset());
-    return ParquetMetadataConverter.fromParquetOffsetIndex(Util.readOffsetIndex(f));
+    return f;
+  }
+
+  /**
+   * Reads the range covering the column and offset indexes of the projected columns in one request so the indexes
+   * can be parsed from memory. The writers place the indexes of all the row groups next to each other so the indexes
+   * of all the row groups are read at once if they fit into the limit; otherwise the ones of the specified row group.
+   *
+   * @param blockIndex the index of the row group the indexes are required for
+   * @return the range containing the indexes of the row group or {@code null} if they are to be read separately
+   */
+  private FileRange readIndexRange(int blockIndex) {
+    if (!indexRangeRead) {
+      indexRangeRead = true;
+      indexRange = readIndexRange(blocks);
+    }
+    if (indexRange != null) {
+      return indexRange;
+    }
+    return readIndexRange(Collections.singletonList(blocks.get(blockIndex)));
+  }
+
+  private FileRange readIndexRange(List<BlockMetaData> blocks) {
+    long start = Long.MAX_VALUE;
+    long end = Long.MIN_VALUE;
+    for (BlockMetaData block : blocks) {
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        if (paths.containsKey(column.getPath())) {
+          for (IndexReference ref : Arrays.asList(column.getColumnIndexReference(), column.getOffsetIndexReference())) {
+            if (ref != null) {
+              start = Math.min(start, ref.getOffset());
+              end = Math.max(end, ref.getOffset() + ref.getLength());
+            }
+          }
+        }
+      }
+    }
+    if (start >= end || end - start > options.getMaxIndexReadSize()
+        || (tail != null && tail.contains(start, end - start))) {
+      return null;
+    }
+    try {
+      return FileRange.read(f, start, (int) (end - start));
+    } catch (IOException e) {
+      // The indexes are read separately; if the I/O issue still stands it fails the filtering as before
+      LOG.warn("Unable to read the column and offset indexes of {} at once", file, e);
+      return null;
+    }
   }
 
   @Override
   public void close() throws IOException {
     try {
-      if (f != null) {
-        f.close();
+      releaseCurrentRowGroup();
+      if (prefetchExecutor != null) {
+        discardPrefetchedRowGroups();
+        prefetchExecutor.shutdownNow();
+        prefetchStream.close();
       }
+      if (readExecutor != null) {
+        readExecutor.shutdownNow();
+        for (SeekableInputStream stream = readStreams.poll(); stream != null; stream = readStreams.poll()) {
+          stream.close();
+        }
+      }
+      if (decompressionWorkers != null) {
+        decompressionWorkers.close();
+      }
+      releaseThreadCache();
     } finally {
-      options.getCodecFactory().release();
+      try {
+        if (f != null) {
+          f.close();
+        }
+      } finally {
+        options.getCodecFactory().release();
+      }
+    }
+  }
+
+  /**
+   * A row group being read in the background.
+   */
+  private static class PrefetchedRowGroup {
+    private final int blockIndex;
+    private final boolean pageFiltered;
+    private final long size;
+    private final ChunkListBuilder builder;
+    private Future<ChunkListBuilder> future;
+    // both the reading task and the reader discarding the row group check whether the other one is done already
+    private volatile boolean read = false;
+    private volatile boolean discarded = false;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    PrefetchedRowGroup(int blockIndex, boolean pageFiltered, long size, ChunkListBuilder builder) {
+      this.blockIndex = blockIndex;
+      this.pageFiltered = pageFiltered;
+      this.size = size;
+      this.builder = builder;
     }
   }
 
@@ -1099,8 +1812,12 @@ public class ParquetFileReader implements Closeable {
     }
 
     private final Map<ChunkDescriptor, ChunkData> map = new HashMap<>();
+    // the buffers to be released when the row group is not read anymore
+    private final List<ByteBuffer> allocatedBuffers = new ArrayList<>();
     private ChunkDescriptor lastDescriptor;
     private SeekableInputStream f;
+    // the bytes counted as total bytes by BenchmarkCounter when the row group is read
+    private long totalBytes;
 
     void add(ChunkDescriptor descriptor, List<ByteBuffer> buffers, SeekableInputStream f) {
       ChunkData data = map.get(descriptor);
@@ -1114,6 +1831,17 @@ public class ParquetFileReader implements Closeable {
       this.f = f;
     }
 
+    /**
+     * Positions the specified stream right after the last chunk read so it can be used instead of the one the chunks
+     * were read from.
+     */
+    void resetStream(SeekableInputStream f) throws IOException {
+      if (lastDescriptor != null) {
+        f.seek(lastDescriptor.fileOffset + lastDescriptor.size);
+      }
+      this.f = f;
+    }
+
     void setOffsetIndex(ChunkDescriptor descriptor, OffsetIndex offsetIndex) {
       ChunkData data = map.get(descriptor);
       if (data == null) {
@@ -1165,9 +1893,10 @@ public class ParquetFileReader implements Closeable {
 
     /**
      * Read all of the pages in a given column chunk.
+     * @param pipeline the pipeline to decompress the pages ahead; might be null
      * @return the list of pages
      */
-    public ColumnChunkPageReader readAllPages() throws IOException {
+    public ColumnChunkPageReader readAllPages(DecompressionPipeline pipeline) throws IOException {
       List<DataPage> pagesInChunk = new ArrayList<DataPage>();
       DictionaryPage dictionaryPage = null;
       PrimitiveType type = getFileMetaData().getSchema()
@@ -1249,7 +1978,7 @@ public class ParquetFileReader implements Closeable {
       }
       BytesInputDecompressor decompressor = options.getCodecFactory().getDecompressor(descriptor.metadata.getCodec());
       return new ColumnChunkPageReader(decompressor, pagesInChunk, dictionaryPage, offsetIndex,
-          blocks.get(currentBlock).getRowCount());
+          blocks.get(currentBlock).getRowCount(), pipeline, descriptor.metadata.getCodec());
     }
 
     private boolean hasMorePages(long valuesCountReadSoFar, int dataPageCountReadSoFar) {
@@ -1328,6 +2057,50 @@ public class ParquetFileReader implements Closeable {
   }
 
 
+  /**
+   * A range of the file read in one request so the footer or the page indexes are available without further reads if
+   * they are contained.
+   */
+  static class FileRange {
+    private final long offset;
+    private final ByteBuffer buffer;
+
+    /**
+     * Reads the last bytes of the file.
+     */
+    static FileRange readTail(InputFile file, SeekableInputStream f, int size) throws IOException {
+      long fileLen = file.getLength();
+      // at least the footer length and the magic are to be read
+      int length = (int) Math.min(fileLen, Math.max(size, FOOTER_LENGTH_SIZE + MAGIC.length));
+      return read(f, fileLen - length, length);
+    }
+
+    static FileRange read(SeekableInputStream f, long offset, int length) throws IOException {
+      ByteBuffer buffer = ByteBuffer.allocate(length);
+      f.seek(offset);
+      f.readFully(buffer);
+      buffer.flip();
+      return new FileRange(offset, buffer);
+    }
+
+    private FileRange(long offset, ByteBuffer buffer) {
+      this.offset = offset;
+      this.buffer = buffer;
+    }
+
+    boolean contains(long offset, long length) {
+      return offset >= this.offset && offset + length <= this.offset + buffer.limit();
+    }
+
+    ByteBuffer slice(long offset, int length) {
+      ByteBuffer slice = buffer.duplicate();
+      int position = Math.toIntExact(offset - this.offset);
+      slice.position(position);
+      slice.limit(position + length);
+      return slice.slice();
+    }
+  }
+
   /**
    * Information needed to read a column chunk or a part of it.
    */
@@ -1375,7 +2148,8 @@ public class ParquetFileReader implements Closeable {
 
   /**
    * Describes a list of consecutive parts to be read at once. A consecutive part may contain whole column chunks or
-   * only parts of them (some pages).
+   * only parts of them (some pages). If configured, the parts might be separated by small gaps which are read and
+   * discarded.
    */
   private class ConsecutivePartList {
 
@@ -1390,14 +2164,29 @@ public class ParquetFileReader implements Closeable {
       this.offset = offset;
     }
 
+    /**
+     * @param descriptor a chunk descriptor
+     * @return whether the chunk is consecutive to the previous chunk or the gap between them is small enough to be
+     *         read in the same request
+     */
+    boolean canAdd(ChunkDescriptor descriptor) {
+      long gap = descriptor.fileOffset - endPos();
+      if (gap == 0) {
+        return true;
+      }
+      return gap > 0 && gap <= options.getMaxReadGap()
+          && length + gap + descriptor.size <= options.getMaxMergedReadSize();
+    }
+
     /**
      * adds a chunk to the list.
-     * It must be consecutive to the previous chunk
+     * It must be consecutive to the previous chunk or follow it after a gap
      * @param descriptor a chunk descriptor
+     * @see #canAdd(ChunkDescriptor)
      */
     public void addChunk(ChunkDescriptor descriptor) {
       chunks.add(descriptor);
-      length += descriptor.size;
+      length = Math.toIntExact(descriptor.fileOffset + descriptor.size - offset);
     }
 
     /**
@@ -1406,9 +2195,33 @@ public class ParquetFileReader implements Closeable {
      * @throws IOException if there is an error while reading from the stream
      */
     public void readAll(SeekableInputStream f, ChunkListBuilder builder) throws IOException {
-      List<Chunk> result = new ArrayList<Chunk>(chunks.size());
+      List<ByteBuffer> buffers = readBuffers(f);
+      boolean added = false;
+      try {
+        addChunks(buffers, builder, f);
+        added = true;
+      } finally {
+        if (!added) {
+          releaseReadBuffers(buffers, f);
+        }
+      }
+    }
+
+    /**
+     * @param f file to read the chunks from
+     * @return the buffers containing the bytes of all the chunks in this list
+     * @throws IOException if there is an error while reading from the stream
+     */
+    List<ByteBuffer> readBuffers(SeekableInputStream f) throws IOException {
       f.seek(offset);
 
+      if (f instanceof MappedSeekableInputStream) {
+        // the bytes are served from the mapped file without allocating and copying
+        List<ByteBuffer> buffers = Collections.singletonList(((MappedSeekableInputStream) f).slice(length));
+        BenchmarkCounter.incrementBytesRead(length);
+        return buffers;
+      }
+
       int fullAllocations = length / options.getMaxAllocationSize();
       int lastAllocationSize = length % options.getMaxAllocationSize();
 
@@ -1423,18 +2236,44 @@ public class ParquetFileReader implements Closeable {
         buffers.add(options.getAllocator().allocate(lastAllocationSize));
       }
 
-      for (ByteBuffer buffer : buffers) {
-        f.readFully(buffer);
-        buffer.flip();
+      try {
+        for (ByteBuffer buffer : buffers) {
+          f.readFully(buffer);
+          buffer.flip();
+        }
+      } catch (IOException | RuntimeException e) {
+        // the buffers are not handed out so nobody else would release them
+        for (ByteBuffer buffer : buffers) {
+          options.getAllocator().release(buffer);
+        }
+        throw e;
       }
 
       // report in a counter the data we just scanned
       BenchmarkCounter.incrementBytesRead(length);
+      return buffers;
+    }
+
+    /**
+     * Adds the chunks to the builder which then owns the buffers; they are not owned by it if this fails.
+     *
+     * @param buffers the buffers returned by {@link #readBuffers(SeekableInputStream)}
+     * @param builder used to build chunk list to read the pages for the different columns
+     * @param f the file stream positioned at the end of these chunks
+     * @throws IOException if the buffers do not contain all the chunks
+     */
+    void addChunks(List<ByteBuffer> buffers, ChunkListBuilder builder, SeekableInputStream f) throws IOException {
       ByteBufferInputStream stream = ByteBufferInputStream.wrap(buffers);
       for (int i = 0; i < chunks.size(); i++) {
         ChunkDescriptor descriptor = chunks.get(i);
+        // skip the gap between the chunks (if any)
+        stream.skipFully(descriptor.fileOffset - offset - stream.position());
         builder.add(descriptor, stream.sliceBuffers(descriptor.size), f);
       }
+      if (!(f instanceof MappedSeekableInputStream)) {
+        // the buffers of a mapped file are views of the mapping; the others are allocated by readBuffers
+        builder.allocatedBuffers.addAll(buffers);
+      }
     }
 
     /**
@@ -50,6 +50,7 @@ import org.apache.parquet.column.EncodingStats;
 import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.column.page.DictionaryPage;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
 import org.apache.parquet.hadoop.ParquetOutputFormat.JobSummaryLevel;
 import org.apache.parquet.hadoop.metadata.ColumnPath;
 import org.apache.parquet.format.Util;
@@ -109,6 +110,7 @@ public class ParquetFileWriter {
   // The column/offset indexes per blocks per column chunks
   private final List<List<ColumnIndex>> columnIndexes = new ArrayList<>();
   private final List<List<OffsetIndex>> offsetIndexes = new ArrayList<>();
+  private final List<List<BlockSplitBloomFilter>> bloomFilters = new ArrayList<>();
 
   // row group data
   private BlockMetaData currentBlock; // appended to by endColumn
@@ -116,6 +118,7 @@ public class ParquetFileWriter {
   // The column/offset indexes for the actual block
   private List<ColumnIndex> currentColumnIndexes;
   private List<OffsetIndex> currentOffsetIndexes;
+  private List<BlockSplitBloomFilter> currentBloomFilters;
 
   // row group data set at the start of a row group
   private long currentRecordCount; // set in startBlock
@@ -128,6 +131,7 @@ public class ParquetFileWriter {
   private Statistics currentStatistics; // accumulated in writePage(s)
   private ColumnIndexBuilder columnIndexBuilder;
   private OffsetIndexBuilder offsetIndexBuilder;
+  private BlockSplitBloomFilter currentBloomFilter;
   private long firstPageOffset;
 
   // column chunk data set at the start of a column
@@ -339,6 +343,7 @@ public class ParquetFileWriter {
 
     currentColumnIndexes = new ArrayList<>();
     currentOffsetIndexes = new ArrayList<>();
+    currentBloomFilters = new ArrayList<>();
   }
 
   /**
@@ -545,6 +550,7 @@ public class ParquetFileWriter {
    * @param totalStats accumulated statistics for the column chunk
    * @param columnIndexBuilder the builder object for the column index
    * @param offsetIndexBuilder the builder object for the offset index
+   * @param bloomFilter the Bloom filter of the column chunk (might be null)
    * @param rlEncodings the RL encodings used in this column chunk
    * @param dlEncodings the DL encodings used in this column chunk
    * @param dataEncodings the data encodings used in this column chunk
@@ -560,6 +566,7 @@ public class ParquetFileWriter {
       Statistics<?> totalStats,
       ColumnIndexBuilder columnIndexBuilder,
       OffsetIndexBuilder offsetIndexBuilder,
+      BlockSplitBloomFilter bloomFilter,
       Set<Encoding> rlEncodings,
       Set<Encoding> dlEncodings,
       List<Encoding> dataEncodings) throws IOException {
@@ -587,6 +594,7 @@ public class ParquetFileWriter {
 
     this.columnIndexBuilder = columnIndexBuilder;
     this.offsetIndexBuilder = offsetIndexBuilder;
+    this.currentBloomFilter = bloomFilter;
 
     endColumn();
   }
@@ -604,6 +612,7 @@ public class ParquetFileWriter {
       currentColumnIndexes.add(columnIndexBuilder.build());
     }
     currentOffsetIndexes.add(offsetIndexBuilder.build(firstPageOffset));
+    currentBloomFilters.add(currentBloomFilter);
     currentBlock.addColumn(ColumnChunkMetaData.get(
         currentChunkPath,
         currentChunkType,
@@ -621,6 +630,7 @@ public class ParquetFileWriter {
     this.compressedLength = 0;
     columnIndexBuilder = null;
     offsetIndexBuilder = null;
+    currentBloomFilter = null;
   }
 
   /**
@@ -634,8 +644,10 @@ public class ParquetFileWriter {
     blocks.add(currentBlock);
     columnIndexes.add(currentColumnIndexes);
     offsetIndexes.add(currentOffsetIndexes);
+    bloomFilters.add(currentBloomFilters);
     currentColumnIndexes = null;
     currentOffsetIndexes = null;
+    currentBloomFilters = null;
     currentBlock = null;
   }
 
@@ -750,10 +762,11 @@ public class ParquetFileWriter {
         length = 0;
       }
 
-      // TODO: column/offset indexes are not copied
+      // TODO: column/offset indexes and Bloom filters are not copied
       // (it would require seeking to the end of the file for each row groups)
       currentColumnIndexes.add(null);
       currentOffsetIndexes.add(null);
+      currentBloomFilters.add(null);
 
       currentBlock.addColumn(ColumnChunkMetaData.get(
           chunk.getPath(),
@@ -823,6 +836,7 @@ public class ParquetFileWriter {
     state = state.end();
     serializeColumnIndexes(columnIndexes, blocks, out);
     serializeOffsetIndexes(offsetIndexes, blocks, out);
+    serializeBloomFilters(bloomFilters, blocks, out);
     LOG.debug("{}: end", out.getPos());
     this.footer = new ParquetMetadata(new FileMetaData(schema, extraMetaData, Version.FULL_VERSION), blocks);
     serializeFooter(footer, out);
@@ -872,6 +886,27 @@ public class ParquetFileWriter {
     }
   }
 
+  private static void serializeBloomFilters(
+      List<List<BlockSplitBloomFilter>> bloomFilters,
+      List<BlockMetaData> blocks,
+      PositionOutputStream out) throws IOException {
+    LOG.debug("{}: bloom filters", out.getPos());
+    for (int bIndex = 0, bSize = blocks.size(); bIndex < bSize; ++bIndex) {
+      List<ColumnChunkMetaData> columns = blocks.get(bIndex).getColumns();
+      List<BlockSplitBloomFilter> blockBloomFilters = bloomFilters.get(bIndex);
+      for (int cIndex = 0, cSize = columns.size(); cIndex < cSize; ++cIndex) {
+        BlockSplitBloomFilter bloomFilter = blockBloomFilters.get(cIndex);
+        if (bloomFilter == null) {
+          continue;
+        }
+        ColumnChunkMetaData column = columns.get(cIndex);
+        long offset = out.getPos();
+        bloomFilter.writeTo(out);
+        column.setBloomFilterReference(new IndexReference(offset, (int) (out.getPos() - offset)));
+      }
+    }
+  }
+
   private static void serializeFooter(ParquetMetadata footer, PositionOutputStream out) throws IOException {
     long footerIndex = out.getPos();
     org.apache.parquet.format.FileMetaData parquetMetadata = metadataConverter.toParquetMetadata(CURRENT_VERSION, footer);
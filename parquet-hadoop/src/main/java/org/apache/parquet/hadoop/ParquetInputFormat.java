@@ -134,6 +134,12 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
    */
   public static final String COLUMN_INDEX_FILTERING_ENABLED = "parquet.filter.columnindex.enabled";
 
+  /**
+   * key to configure whether row group Bloom filtering is enabled (default true); it applies to the Bloom filters
+   * written by this library only, see {@link ParquetOutputFormat#BLOOM_FILTER_COLUMN_NAMES}
+   */
+  public static final String BLOOM_FILTERING_ENABLED = "parquet.filter.bloom.enabled";
+
   /**
    * key to turn on or off task side metadata loading (default true)
    * if true then metadata is read on the task side and some tasks may finish immediately.
@@ -146,6 +152,25 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
    */
   public static final String SPLIT_FILES = "parquet.split.files";
 
+  /**
+   * key to turn on or off the process-wide cache of the parsed footers (default false)
+   * if true the footers read for split planning and by the record readers are kept in a cache shared by all the
+   * readers of the process. See {@link LruFooterCache}.
+   */
+  public static final String FOOTER_CACHE_ENABLED = "parquet.read.footer.cache.enabled";
+
+  /**
+   * key to configure the maximum estimated size in bytes of the footers in the process-wide cache; the value of the
+   * first reader creating the cache applies to the whole process
+   */
+  public static final String FOOTER_CACHE_MAX_BYTES = "parquet.read.footer.cache.max.bytes";
+
+  /**
+   * key to decompress the pages by the built-in codecs working on ByteBuffers instead of the Hadoop codec streams
+   * (default false); see {@link CodecFactory#createByteBufferCodecFactory}
+   */
+  public static final String BYTE_BUFFER_CODECS = "parquet.compression.byte-buffer-codecs";
+
   private static final int MIN_FOOTER_CACHE_SIZE = 100;
 
   public static void setTaskSideMetaData(Job job,  boolean taskSideMetadata) {
@@ -156,6 +181,10 @@ public class ParquetInputFormat<T> extends FileInputFormat<Void, T> {
     return configuration.getBoolean(TASK_SIDE_METADATA, TRUE);
   }
 
+  public static void setFooterCacheEnabled(Job job, boolean footerCacheEnabled) {
+    ContextUtil.getConfiguration(job).setBoolean(FOOTER_CACHE_ENABLED, footerCacheEnabled);
+  }
+
   public static void setReadSupportClass(Job job,  Class<?> readSupportClass) {
     ContextUtil.getConfiguration(job).set(READ_SUPPORT_CLASS, readSupportClass.getName());
   }
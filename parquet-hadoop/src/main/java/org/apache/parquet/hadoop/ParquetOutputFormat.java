@@ -23,6 +23,10 @@ import static org.apache.parquet.hadoop.ParquetWriter.DEFAULT_BLOCK_SIZE;
 import static org.apache.parquet.hadoop.util.ContextUtil.getConfiguration;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
@@ -34,6 +38,8 @@ import org.apache.hadoop.mapreduce.RecordWriter;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
 
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.column.ParquetProperties.WriterVersion;
 import org.apache.parquet.hadoop.ParquetFileWriter.Mode;
@@ -145,6 +151,72 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
   public static final String ESTIMATE_PAGE_SIZE_CHECK = "parquet.page.size.check.estimate";
   public static final String COLUMN_INDEX_TRUNCATE_LENGTH = "parquet.columnindex.truncate.length";
   public static final String PAGE_ROW_COUNT_LIMIT = "parquet.page.row.count.limit";
+  /**
+   * key for the encoding of the values of a column when they are not dictionary encoded; it is only set per column
+   * as {@code parquet.column.encoding#<column path>}
+   *
+   * @see #COLUMN_KEY_SEPARATOR
+   */
+  public static final String COLUMN_ENCODING = "parquet.column.encoding";
+  /**
+   * The {@link #ENABLE_DICTIONARY}, {@link #PAGE_SIZE}, {@link #PAGE_ROW_COUNT_LIMIT},
+   * {@link #COLUMN_INDEX_TRUNCATE_LENGTH}, {@link #COLUMN_ENCODING} and {@link #COMPRESSION} keys are overridden for a
+   * column by appending this separator and the dot separated path of the column or a glob pattern of paths to them,
+   * e.g. {@code parquet.enable.dictionary#a.b.c=false}, {@code parquet.page.size#events.*=65536} or
+   * {@code parquet.compression#payload=uncompressed}. The patterns apply in the alphabetical order of their keys; the
+   * exact paths win over them.
+   */
+  public static final String COLUMN_KEY_SEPARATOR = "#";
+  /**
+   * key for the number of columns finalized and compressed concurrently when a row group is flushed (default 1, the
+   * columns are flushed by the writer thread)
+   */
+  public static final String FLUSH_PARALLELISM = "parquet.writer.flush.parallelism";
+  /**
+   * key for the number of threads compressing the data pages in the background (default 0, the pages are compressed
+   * by the writer thread)
+   */
+  public static final String PAGE_COMPRESSION_THREADS = "parquet.writer.compression.threads";
+  /**
+   * key for the maximum number of data pages waiting to be compressed in the background (default 16)
+   */
+  public static final String PAGE_COMPRESSION_QUEUE_SIZE = "parquet.writer.compression.queue.size";
+  /**
+   * key for the comma separated paths of the columns to write Bloom filters for
+   * <p>
+   * The filters are not interoperable: they are written without the {@code BloomFilterHeader} of the Parquet
+   * specification and referenced from the {@code key_value_metadata} of the column chunks so only the readers of this
+   * library use them. Other readers ignore them and their files are read without Bloom filters.
+   */
+  public static final String BLOOM_FILTER_COLUMN_NAMES = "parquet.bloom.filter.column.names";
+  /**
+   * key for the comma separated expected numbers of distinct values in a column chunk of the columns listed in
+   * {@link #BLOOM_FILTER_COLUMN_NAMES}, in the same order; the filters have the maximum size if it is not set
+   */
+  public static final String BLOOM_FILTER_EXPECTED_NDV = "parquet.bloom.filter.expected.ndv";
+  /**
+   * key for the expected false positive probability of the Bloom filters (default 0.01)
+   */
+  public static final String BLOOM_FILTER_FPP = "parquet.bloom.filter.fpp";
+  /**
+   * key for the maximum size of a Bloom filter in bytes (default 1MB)
+   */
+  public static final String BLOOM_FILTER_MAX_BYTES = "parquet.bloom.filter.max.bytes";
+  /**
+   * key for the number of the first values of a column the dictionary encoding is decided from for the whole file
+   * (default 0, the adaptive dictionary mode is disabled)
+   */
+  public static final String ADAPTIVE_DICTIONARY_SAMPLE_SIZE = "parquet.dictionary.adaptive.sample.size";
+  /**
+   * key for the maximum ratio of distinct values in the sample of the adaptive dictionary mode (default 0.5)
+   */
+  public static final String ADAPTIVE_DICTIONARY_MAX_DISTINCT_RATIO = "parquet.dictionary.adaptive.max.distinct.ratio";
+
+  /**
+   * key to compress the pages by the built-in codecs working on ByteBuffers instead of the Hadoop codec streams
+   * (default false); see {@link CodecFactory#createByteBufferCodecFactory}
+   */
+  public static final String BYTE_BUFFER_CODECS = "parquet.compression.byte-buffer-codecs";
 
   public static JobSummaryLevel getJobSummaryLevel(Configuration conf) {
     String level = conf.get(JOB_SUMMARY_LEVEL);
@@ -298,6 +370,16 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
     return configuration.getBoolean(VALIDATION, false);
   }
 
+  public static boolean getByteBufferCodecs(Configuration configuration) {
+    return configuration.getBoolean(BYTE_BUFFER_CODECS, false);
+  }
+
+  static CodecFactory createCodecFactory(Configuration conf, int pageSize) {
+    return getByteBufferCodecs(conf)
+        ? CodecFactory.createByteBufferCodecFactory(conf, new HeapByteBufferAllocator(), pageSize)
+        : new CodecFactory(conf, pageSize);
+  }
+
   private CompressionCodecName getCodec(TaskAttemptContext taskAttemptContext) {
     return CodecConfig.from(taskAttemptContext).getCodec();
   }
@@ -338,6 +420,140 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
     return conf.getInt(PAGE_ROW_COUNT_LIMIT, ParquetProperties.DEFAULT_PAGE_ROW_COUNT_LIMIT);
   }
 
+  public static void setFlushParallelism(JobContext jobContext, int parallelism) {
+    setFlushParallelism(getConfiguration(jobContext), parallelism);
+  }
+
+  public static void setFlushParallelism(Configuration conf, int parallelism) {
+    conf.setInt(FLUSH_PARALLELISM, parallelism);
+  }
+
+  private static int getFlushParallelism(Configuration conf) {
+    return conf.getInt(FLUSH_PARALLELISM, ParquetProperties.DEFAULT_FLUSH_PARALLELISM);
+  }
+
+  public static void setPageCompressionThreads(JobContext jobContext, int threads) {
+    setPageCompressionThreads(getConfiguration(jobContext), threads);
+  }
+
+  public static void setPageCompressionThreads(Configuration conf, int threads) {
+    conf.setInt(PAGE_COMPRESSION_THREADS, threads);
+  }
+
+  private static int getPageCompressionThreads(Configuration conf) {
+    return conf.getInt(PAGE_COMPRESSION_THREADS, ParquetProperties.DEFAULT_PAGE_COMPRESSION_THREADS);
+  }
+
+  public static void setPageCompressionQueueSize(JobContext jobContext, int queueSize) {
+    setPageCompressionQueueSize(getConfiguration(jobContext), queueSize);
+  }
+
+  public static void setPageCompressionQueueSize(Configuration conf, int queueSize) {
+    conf.setInt(PAGE_COMPRESSION_QUEUE_SIZE, queueSize);
+  }
+
+  private static int getPageCompressionQueueSize(Configuration conf) {
+    return conf.getInt(PAGE_COMPRESSION_QUEUE_SIZE, ParquetProperties.DEFAULT_PAGE_COMPRESSION_QUEUE_SIZE);
+  }
+
+  public static void setAdaptiveDictionarySampleSize(JobContext jobContext, int sampleSize) {
+    setAdaptiveDictionarySampleSize(getConfiguration(jobContext), sampleSize);
+  }
+
+  public static void setAdaptiveDictionarySampleSize(Configuration conf, int sampleSize) {
+    conf.setInt(ADAPTIVE_DICTIONARY_SAMPLE_SIZE, sampleSize);
+  }
+
+  private static int getAdaptiveDictionarySampleSize(Configuration conf) {
+    return conf.getInt(ADAPTIVE_DICTIONARY_SAMPLE_SIZE, ParquetProperties.DEFAULT_ADAPTIVE_DICTIONARY_SAMPLE_SIZE);
+  }
+
+  private static double getAdaptiveDictionaryMaxDistinctRatio(Configuration conf) {
+    return conf.getDouble(ADAPTIVE_DICTIONARY_MAX_DISTINCT_RATIO,
+        ParquetProperties.DEFAULT_ADAPTIVE_DICTIONARY_MAX_DISTINCT_RATIO);
+  }
+
+  public static void setBloomFilterColumns(JobContext jobContext, String... columnPaths) {
+    setBloomFilterColumns(getConfiguration(jobContext), columnPaths);
+  }
+
+  public static void setBloomFilterColumns(Configuration conf, String... columnPaths) {
+    conf.setStrings(BLOOM_FILTER_COLUMN_NAMES, columnPaths);
+  }
+
+  private static void setBloomFilterProperties(Configuration conf, ParquetProperties.Builder builder) {
+    String[] columns = conf.getTrimmedStrings(BLOOM_FILTER_COLUMN_NAMES);
+    String[] ndvs = conf.getTrimmedStrings(BLOOM_FILTER_EXPECTED_NDV);
+    if (ndvs.length > 0 && ndvs.length != columns.length) {
+      throw new IllegalArgumentException("The number of expected NDVs " + Arrays.toString(ndvs)
+          + " does not match the number of Bloom filter columns " + Arrays.toString(columns));
+    }
+    for (int i = 0; i < columns.length; ++i) {
+      if (ndvs.length > 0) {
+        builder.withBloomFilterNDV(columns[i], Long.parseLong(ndvs[i]));
+      } else {
+        builder.withBloomFilterEnabled(columns[i], true);
+      }
+    }
+    builder.withBloomFilterFPP(conf.getDouble(BLOOM_FILTER_FPP, ParquetProperties.DEFAULT_BLOOM_FILTER_FPP));
+    builder.withMaxBloomFilterBytes(conf.getInt(BLOOM_FILTER_MAX_BYTES, ParquetProperties.DEFAULT_MAX_BLOOM_FILTER_BYTES));
+  }
+
+  public static void setColumnProperty(JobContext jobContext, String key, String columnPath, String value) {
+    setColumnProperty(getConfiguration(jobContext), key, columnPath, value);
+  }
+
+  /**
+   * Overrides a property for a column.
+   *
+   * @param conf the configuration
+   * @param key one of the keys supporting the column overrides listed at {@link #COLUMN_KEY_SEPARATOR}
+   * @param columnPath the dot separated path of the column or a glob pattern of paths
+   * @param value the value of the property for the column
+   */
+  public static void setColumnProperty(Configuration conf, String key, String columnPath, String value) {
+    conf.set(key + COLUMN_KEY_SEPARATOR + columnPath, value);
+  }
+
+  private static void setColumnProperties(Configuration conf, ParquetProperties.Builder builder) {
+    // sorted so the patterns apply in a deterministic order
+    Map<String, String> overrides = new TreeMap<>();
+    for (Map.Entry<String, String> entry : conf) {
+      if (entry.getKey().contains(COLUMN_KEY_SEPARATOR)) {
+        overrides.put(entry.getKey(), conf.getTrimmed(entry.getKey()));
+      }
+    }
+    for (Map.Entry<String, String> entry : overrides.entrySet()) {
+      String key = entry.getKey();
+      int separator = key.indexOf(COLUMN_KEY_SEPARATOR);
+      String column = key.substring(separator + COLUMN_KEY_SEPARATOR.length());
+      String value = entry.getValue();
+      switch (key.substring(0, separator)) {
+        case ENABLE_DICTIONARY:
+          builder.withDictionaryEncoding(column, Boolean.parseBoolean(value));
+          break;
+        case PAGE_SIZE:
+          builder.withPageSize(column, Integer.parseInt(value));
+          break;
+        case PAGE_ROW_COUNT_LIMIT:
+          builder.withPageRowCountLimit(column, Integer.parseInt(value));
+          break;
+        case COLUMN_INDEX_TRUNCATE_LENGTH:
+          builder.withColumnIndexTruncateLength(column, Integer.parseInt(value));
+          break;
+        case COMPRESSION:
+          builder.withCompressionCodec(column, CompressionCodecName.fromConf(value));
+          break;
+        case COLUMN_ENCODING:
+          builder.withEncoding(column, Encoding.valueOf(value.toUpperCase(Locale.ENGLISH)));
+          break;
+        default:
+          // not a column property of the writer
+          break;
+      }
+    }
+  }
+
   private WriteSupport<T> writeSupport;
   private ParquetOutputCommitter committer;
 
@@ -384,7 +600,7 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
         throws IOException, InterruptedException {
     final WriteSupport<T> writeSupport = getWriteSupport(conf);
 
-    ParquetProperties props = ParquetProperties.builder()
+    ParquetProperties.Builder propsBuilder = ParquetProperties.builder()
         .withPageSize(getPageSize(conf))
         .withDictionaryPageSize(getDictionaryPageSize(conf))
         .withDictionaryEncoding(getEnableDictionary(conf))
@@ -394,7 +610,14 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
         .withMaxRowCountForPageSizeCheck(getMaxRowCountForPageSizeCheck(conf))
         .withColumnIndexTruncateLength(getColumnIndexTruncateLength(conf))
         .withPageRowCountLimit(getPageRowCountLimit(conf))
-        .build();
+        .withFlushParallelism(getFlushParallelism(conf))
+        .withPageCompressionThreads(getPageCompressionThreads(conf))
+        .withPageCompressionQueueSize(getPageCompressionQueueSize(conf))
+        .withAdaptiveDictionarySampleSize(getAdaptiveDictionarySampleSize(conf))
+        .withAdaptiveDictionaryMaxDistinctRatio(getAdaptiveDictionaryMaxDistinctRatio(conf));
+    setBloomFilterProperties(conf, propsBuilder);
+    setColumnProperties(conf, propsBuilder);
+    ParquetProperties props = propsBuilder.build();
 
     long blockSize = getLongBlockSize(conf);
     int maxPaddingSize = getMaxPaddingSize(conf);
@@ -405,6 +628,7 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
       LOG.info("Parquet page size to {}", props.getPageSizeThreshold());
       LOG.info("Parquet dictionary page size to {}", props.getDictionaryPageSizeThreshold());
       LOG.info("Dictionary is {}", (props.isEnableDictionary() ? "on" : "off"));
+      LOG.info("Adaptive dictionary sample size is {}", props.getAdaptiveDictionarySampleSize());
       LOG.info("Validation is {}", (validating ? "on" : "off"));
       LOG.info("Writer version is: {}", props.getWriterVersion());
       LOG.info("Maximum row group padding size is {} bytes", maxPaddingSize);
@@ -413,6 +637,9 @@ public class ParquetOutputFormat<T> extends FileOutputFormat<Void, T> {
       LOG.info("Max row count for page size check is: {}", props.getMaxRowCountForPageSizeCheck());
       LOG.info("Truncate length for column indexes is: {}", props.getColumnIndexTruncateLength());
       LOG.info("Page row count limit to {}", props.getPageRowCountLimit());
+      LOG.info("Flush parallelism is {}", props.getFlushParallelism());
+      LOG.info("Page compression threads: {}", props.getPageCompressionThreads());
+      LOG.info("Bloom filters are written for the columns {}", props.getBloomFilterNDVs().keySet());
     }
 
     WriteContext init = writeSupport.init(conf);
@@ -34,6 +34,7 @@ import org.apache.hadoop.fs.Path;
 
 import org.apache.parquet.ParquetReadOptions;
 import org.apache.parquet.Preconditions;
+import org.apache.parquet.bytes.ByteBufferAllocator;
 import org.apache.parquet.compression.CompressionCodecFactory;
 import org.apache.parquet.filter.UnboundRecordFilter;
 import org.apache.parquet.filter2.compat.FilterCompat;
@@ -280,6 +281,16 @@ public class ParquetReader<T> implements Closeable {
       return this;
     }
 
+    public Builder<T> useBloomFilter(boolean useBloomFilter) {
+      optionsBuilder.useBloomFilter(useBloomFilter);
+      return this;
+    }
+
+    public Builder<T> useBloomFilter() {
+      optionsBuilder.useBloomFilter();
+      return this;
+    }
+
     public Builder<T> withFileRange(long start, long end) {
       optionsBuilder.withRange(start, end);
       return this;
@@ -290,6 +301,71 @@ public class ParquetReader<T> implements Closeable {
       return this;
     }
 
+    public Builder<T> withAllocator(ByteBufferAllocator allocator) {
+      optionsBuilder.withAllocator(allocator);
+      return this;
+    }
+
+    public Builder<T> withPrefetchDepth(int prefetchDepth) {
+      optionsBuilder.withPrefetchDepth(prefetchDepth);
+      return this;
+    }
+
+    public Builder<T> withPrefetchMaxBytes(long prefetchMaxBytes) {
+      optionsBuilder.withPrefetchMaxBytes(prefetchMaxBytes);
+      return this;
+    }
+
+    public Builder<T> withReadParallelism(int readParallelism) {
+      optionsBuilder.withReadParallelism(readParallelism);
+      return this;
+    }
+
+    public Builder<T> withMaxReadGap(int maxReadGap) {
+      optionsBuilder.withMaxReadGap(maxReadGap);
+      return this;
+    }
+
+    public Builder<T> withMaxMergedReadSize(int maxMergedReadSize) {
+      optionsBuilder.withMaxMergedReadSize(maxMergedReadSize);
+      return this;
+    }
+
+    public Builder<T> withDecompressionLookAhead(int decompressionLookAhead) {
+      optionsBuilder.withDecompressionLookAhead(decompressionLookAhead);
+      return this;
+    }
+
+    public Builder<T> withDecompressionMaxBytes(long decompressionMaxBytes) {
+      optionsBuilder.withDecompressionMaxBytes(decompressionMaxBytes);
+      return this;
+    }
+
+    public Builder<T> withDecompressionThreads(int decompressionThreads) {
+      optionsBuilder.withDecompressionThreads(decompressionThreads);
+      return this;
+    }
+
+    public Builder<T> withFooterCache(FooterCache footerCache) {
+      optionsBuilder.withFooterCache(footerCache);
+      return this;
+    }
+
+    public Builder<T> withTailReadSize(int tailReadSize) {
+      optionsBuilder.withTailReadSize(tailReadSize);
+      return this;
+    }
+
+    public Builder<T> withMaxTailReadSize(int maxTailReadSize) {
+      optionsBuilder.withMaxTailReadSize(maxTailReadSize);
+      return this;
+    }
+
+    public Builder<T> withMaxIndexReadSize(int maxIndexReadSize) {
+      optionsBuilder.withMaxIndexReadSize(maxIndexReadSize);
+      return this;
+    }
+
     public Builder<T> set(String key, String value) {
       optionsBuilder.set(key, value);
       return this;
@@ -24,8 +24,10 @@ import java.io.IOException;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 
+import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.column.ParquetProperties.WriterVersion;
+import org.apache.parquet.column.vector.ColumnarWriteBatch;
 import org.apache.parquet.hadoop.api.WriteSupport;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
@@ -281,7 +283,7 @@ public class ParquetWriter<T> implements Closeable {
         file, schema, mode, rowGroupSize, maxPaddingSize, encodingProps.getColumnIndexTruncateLength());
     fileWriter.start();
 
-    this.codecFactory = new CodecFactory(conf, encodingProps.getPageSizeThreshold());
+    this.codecFactory = ParquetOutputFormat.createCodecFactory(conf, encodingProps.getPageSizeThreshold());
     CodecFactory.BytesCompressor compressor =	codecFactory.getCompressor(compressionCodecName);
     this.writer = new InternalParquetRecordWriter<T>(
         fileWriter,
@@ -290,6 +292,7 @@ public class ParquetWriter<T> implements Closeable {
         writeContext.getExtraMetaData(),
         rowGroupSize,
         compressor,
+        codecFactory,
         validating,
         encodingProps);
   }
@@ -302,6 +305,20 @@ public class ParquetWriter<T> implements Closeable {
     }
   }
 
+  /**
+   * Writes a batch of rows given column by column directly to the column writers, bypassing the {@link WriteSupport}
+   * and the record consumer. The batches may be mixed with the records written by {@link #write(Object)}. The size of
+   * the row group is checked after the whole batch so a batch shall hold far fewer rows than a row group.
+   *
+   * @param batch the rows to write; its schema shall be the one of the file
+   * @throws IOException if the row group cannot be written
+   * @throws IllegalArgumentException if the schema of the batch is not the one of the file
+   * @throws IllegalStateException if the columns of the batch do not hold its rows
+   */
+  public void writeBatch(ColumnarWriteBatch batch) throws IOException {
+    writer.writeBatch(batch);
+  }
+
   @Override
   public void close() throws IOException {
     try {
@@ -403,6 +420,19 @@ public class ParquetWriter<T> implements Closeable {
       return self();
     }
 
+    /**
+     * Set the {@link CompressionCodecName compression codec} of a column used by the constructed writer. The other
+     * columns are compressed by the codec of {@link #withCompressionCodec(CompressionCodecName)}.
+     *
+     * @param columnPath the dot separated path of the column or a glob pattern of paths
+     * @param codecName the codec of the column; {@code null} for the codec of the writer
+     * @return this builder for method chaining.
+     */
+    public SELF withCompressionCodec(String columnPath, CompressionCodecName codecName) {
+      encodingPropsBuilder.withCompressionCodec(columnPath, codecName);
+      return self();
+    }
+
     /**
      * Set the Parquet format row group size used by the constructed writer.
      *
@@ -425,6 +455,18 @@ public class ParquetWriter<T> implements Closeable {
       return self();
     }
 
+    /**
+     * Set the Parquet format page size of a column used by the constructed writer.
+     *
+     * @param columnPath the dot separated path of the column or a glob pattern of paths
+     * @param pageSize an integer size in bytes
+     * @return this builder for method chaining.
+     */
+    public SELF withPageSize(String columnPath, int pageSize) {
+      encodingPropsBuilder.withPageSize(columnPath, pageSize);
+      return self();
+    }
+
     /**
      * Sets the Parquet format page row count limit used by the constructed writer.
      *
@@ -436,6 +478,129 @@ public class ParquetWriter<T> implements Closeable {
       return self();
     }
 
+    /**
+     * Sets the Parquet format page row count limit of a column used by the constructed writer.
+     *
+     * @param columnPath the dot separated path of the column or a glob pattern of paths
+     * @param rowCount limit for the number of rows stored in a page of the column
+     * @return this builder for method chaining
+     */
+    public SELF withPageRowCountLimit(String columnPath, int rowCount) {
+      encodingPropsBuilder.withPageRowCountLimit(columnPath, rowCount);
+      return self();
+    }
+
+    /**
+     * Sets the length the min/max values of the column index of a column are truncated to by the constructed writer.
+     *
+     * @param columnPath the dot separated path of the column or a glob pattern of paths
+     * @param length the truncate length
+     * @return this builder for method chaining
+     */
+    public SELF withColumnIndexTruncateLength(String columnPath, int length) {
+      encodingPropsBuilder.withColumnIndexTruncateLength(columnPath, length);
+      return self();
+    }
+
+    /**
+     * Sets the number of columns finalized and compressed concurrently when the constructed writer flushes a row
+     * group. The column chunks are still written to the file in the order of the schema.
+     *
+     * @param parallelism the number of worker threads flushing the columns; 1 to flush them by the writer thread
+     * @return this builder for method chaining
+     */
+    public SELF withFlushParallelism(int parallelism) {
+      encodingPropsBuilder.withFlushParallelism(parallelism);
+      return self();
+    }
+
+    /**
+     * Sets the number of threads compressing the data pages of the constructed writer in the background.
+     * <p>
+     * The pages waiting for their compression are accounted for the row group size at the compression ratio of the
+     * pages of their column chunk compressed before, so the row groups may be a bit smaller or larger than the ones
+     * written without background compression.
+     *
+     * @param threads the number of compression threads; 0 to compress the pages by the writer thread
+     * @return this builder for method chaining
+     */
+    public SELF withPageCompressionThreads(int threads) {
+      encodingPropsBuilder.withPageCompressionThreads(threads);
+      return self();
+    }
+
+    /**
+     * Sets the maximum number of data pages waiting to be compressed in the background by the constructed writer.
+     *
+     * @param queueSize the maximum number of pages waiting to be compressed
+     * @return this builder for method chaining
+     */
+    public SELF withPageCompressionQueueSize(int queueSize) {
+      encodingPropsBuilder.withPageCompressionQueueSize(queueSize);
+      return self();
+    }
+
+    /**
+     * Enables writing a Bloom filter for a column sized for the expected number of distinct values in a column chunk.
+     *
+     * @param columnPath the dot separated path of the column
+     * @param ndv the expected number of distinct values in a column chunk
+     * @return this builder for method chaining
+     */
+    public SELF withBloomFilterNDV(String columnPath, long ndv) {
+      encodingPropsBuilder.withBloomFilterNDV(columnPath, ndv);
+      return self();
+    }
+
+    /**
+     * Enables or disables writing a Bloom filter for a column. The filters have the maximum size unless an expected
+     * number of distinct values is set.
+     *
+     * @param columnPath the dot separated path of the column
+     * @param enabled whether to write Bloom filters for the column
+     * @return this builder for method chaining
+     */
+    public SELF withBloomFilterEnabled(String columnPath, boolean enabled) {
+      encodingPropsBuilder.withBloomFilterEnabled(columnPath, enabled);
+      return self();
+    }
+
+    /**
+     * Sets the expected false positive probability of the Bloom filters written by the constructed writer.
+     *
+     * @param fpp the false positive probability
+     * @return this builder for method chaining
+     */
+    public SELF withBloomFilterFPP(double fpp) {
+      encodingPropsBuilder.withBloomFilterFPP(fpp);
+      return self();
+    }
+
+    /**
+     * Enables the adaptive dictionary mode of the constructed writer: the dictionary encoding of a column is decided
+     * from the number of distinct values in a sample of its first values and the decision is kept for the next row
+     * groups of the file.
+     *
+     * @param sampleSize the number of values to decide from; 0 to disable the adaptive mode
+     * @return this builder for method chaining
+     */
+    public SELF withAdaptiveDictionarySampleSize(int sampleSize) {
+      encodingPropsBuilder.withAdaptiveDictionarySampleSize(sampleSize);
+      return self();
+    }
+
+    /**
+     * Sets the maximum ratio of distinct values in the sample of the adaptive dictionary mode for a column to be
+     * dictionary encoded.
+     *
+     * @param ratio the maximum ratio of the distinct values in the sample
+     * @return this builder for method chaining
+     */
+    public SELF withAdaptiveDictionaryMaxDistinctRatio(double ratio) {
+      encodingPropsBuilder.withAdaptiveDictionaryMaxDistinctRatio(ratio);
+      return self();
+    }
+
     /**
      * Set the Parquet format dictionary page size used by the constructed
      * writer.
@@ -482,6 +647,32 @@ public class ParquetWriter<T> implements Closeable {
       return self();
     }
 
+    /**
+     * Enable or disable dictionary encoding of a column for the constructed writer.
+     *
+     * @param columnPath the dot separated path of the column or a glob pattern of paths
+     * @param enableDictionary whether dictionary encoding should be enabled for the column
+     * @return this builder for method chaining.
+     */
+    public SELF withDictionaryEncoding(String columnPath, boolean enableDictionary) {
+      encodingPropsBuilder.withDictionaryEncoding(columnPath, enableDictionary);
+      return self();
+    }
+
+    /**
+     * Sets the encoding of the values of a column written by the constructed writer when they are not dictionary
+     * encoded.
+     *
+     * @param columnPath the dot separated path of the column or a glob pattern of paths
+     * @param encoding the encoding of the values; {@code null} for the default one of the writer version
+     * @return this builder for method chaining.
+     * @see ParquetProperties.Builder#withEncoding(String, Encoding)
+     */
+    public SELF withEncoding(String columnPath, Encoding encoding) {
+      encodingPropsBuilder.withEncoding(columnPath, encoding);
+      return self();
+    }
+
     /**
      * Enables validation for the constructed writer.
      *
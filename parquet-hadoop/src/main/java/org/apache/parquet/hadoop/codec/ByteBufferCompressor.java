@@ -0,0 +1,85 @@
+/* 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop.codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.parquet.Preconditions;
+import org.apache.parquet.bytes.ByteBufferAllocator;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.compression.CompressionCodecFactory.BytesInputCompressor;
+
+/**
+ * Base class of the compressors working on {@link ByteBuffer}s directly without Hadoop streams. The output buffer is
+ * allocated by the specified allocator and reused for every page so the {@link BytesInput} returned by
+ * {@link #compress(BytesInput)} is only valid until the next invocation.
+ */
+public abstract class ByteBufferCompressor implements BytesInputCompressor {
+
+  private final ByteBufferAllocator allocator;
+  private ByteBuffer output;
+
+  protected ByteBufferCompressor(ByteBufferAllocator allocator) {
+    this.allocator = Preconditions.checkNotNull(allocator, "allocator");
+  }
+
+  @Override
+  public BytesInput compress(BytesInput bytes) throws IOException {
+    ByteBuffer input = bytes.toByteBuffer();
+    int maxSize = maxCompressedLength(input.remaining());
+    if (output == null || output.capacity() < maxSize) {
+      releaseOutput();
+      output = allocator.allocate(maxSize);
+    }
+    output.clear();
+    compress(input, output);
+    output.flip();
+    return BytesInput.from(output);
+  }
+
+  /**
+   * @param uncompressedSize the number of bytes to be compressed
+   * @return the maximum number of bytes {@link #compress(ByteBuffer, ByteBuffer)} may write for the specified input
+   */
+  public abstract int maxCompressedLength(int uncompressedSize);
+
+  /**
+   * Compresses the remaining bytes of {@code input} into {@code output} starting at its position. The positions of
+   * both buffers are advanced by the number of bytes read and written.
+   *
+   * @param input the bytes to be compressed
+   * @param output the buffer to write the compressed bytes to; shall have at least
+   *               {@link #maxCompressedLength(int)} bytes remaining
+   * @throws IOException if the bytes cannot be compressed
+   */
+  public abstract void compress(ByteBuffer input, ByteBuffer output) throws IOException;
+
+  @Override
+  public void release() {
+    releaseOutput();
+  }
+
+  private void releaseOutput() {
+    if (output != null) {
+      allocator.release(output);
+      output = null;
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/* 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop.codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.compression.CompressionCodecFactory.BytesInputDecompressor;
+
+/**
+ * Base class of the decompressors working on {@link ByteBuffer}s directly without Hadoop streams.
+ */
+public abstract class ByteBufferDecompressor implements BytesInputDecompressor {
+
+  @Override
+  public BytesInput decompress(BytesInput bytes, int uncompressedSize) throws IOException {
+    ByteBuffer input = bytes.toByteBuffer();
+    // the decompressed pages are not released so they are left to the garbage collector
+    ByteBuffer output = ByteBuffer.allocate(uncompressedSize);
+    decompress(input, output);
+    output.flip();
+    return BytesInput.from(output);
+  }
+
+  @Override
+  public void decompress(ByteBuffer input, int compressedSize, ByteBuffer output, int uncompressedSize)
+      throws IOException {
+    ByteBuffer compressed = input.slice();
+    compressed.limit(compressedSize);
+    ByteBuffer uncompressed = output.slice();
+    uncompressed.limit(uncompressedSize);
+    decompress(compressed, uncompressed);
+    input.position(input.position() + compressedSize);
+    output.position(output.position() + uncompressedSize);
+  }
+
+  /**
+   * Decompresses the remaining bytes of {@code input} into the remaining space of {@code output}. The positions of
+   * both buffers are advanced to their limits.
+   *
+   * @param input the compressed bytes
+   * @param output the buffer to write the decompressed bytes to; its remaining space shall be the exact size of the
+   *               decompressed bytes
+   * @throws IOException if the bytes cannot be decompressed or the decompressed size does not match
+   */
+  public abstract void decompress(ByteBuffer input, ByteBuffer output) throws IOException;
+
+  @Override
+  public void release() {
+  }
+}
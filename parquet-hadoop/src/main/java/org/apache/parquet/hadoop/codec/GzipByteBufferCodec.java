@@ -0,0 +1,251 @@
+/* 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop.codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.parquet.bytes.ByteBufferAllocator;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+/**
+ * GZIP compression of {@link ByteBuffer}s in the format written by Hadoop's {@code GzipCodec}. The arrays of heap
+ * buffers are passed to {@link Deflater} and {@link Inflater} as they are; as these classes only accept arrays in
+ * Java 8, the content of direct buffers goes through small reused arrays.
+ */
+public final class GzipByteBufferCodec {
+
+  private static final int GZIP_MAGIC = 0x8b1f;
+  private static final int HEADER_SIZE = 10;
+  private static final int TRAILER_SIZE = 8;
+  private static final int FHCRC = 2;
+  private static final int FEXTRA = 4;
+  private static final int FNAME = 8;
+  private static final int FCOMMENT = 16;
+  private static final int CHUNK_SIZE = 64 * 1024;
+
+  private GzipByteBufferCodec() {
+  }
+
+  public static class Compressor extends ByteBufferCompressor {
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private byte[] inputChunk;
+    private byte[] outputChunk;
+
+    public Compressor(ByteBufferAllocator allocator) {
+      this(allocator, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param allocator the allocator for the output buffer
+     * @param level the compression level as of {@link Deflater#setLevel(int)}
+     */
+    public Compressor(ByteBufferAllocator allocator, int level) {
+      super(allocator);
+      this.deflater = new Deflater(level, true);
+    }
+
+    @Override
+    public int maxCompressedLength(int uncompressedSize) {
+      // the bound of zlib's deflate plus the gzip header and trailer
+      return uncompressedSize + (uncompressedSize >>> 3) + (uncompressedSize >>> 6) + 5 + HEADER_SIZE + TRAILER_SIZE;
+    }
+
+    @Override
+    public void compress(ByteBuffer input, ByteBuffer output) throws IOException {
+      ByteOrder order = output.order();
+      output.order(ByteOrder.LITTLE_ENDIAN);
+      // the same header as java.util.zip.GZIPOutputStream writes
+      output.putShort((short) GZIP_MAGIC).put((byte) Deflater.DEFLATED).put((byte) 0).putInt(0).putShort((short) 0);
+
+      deflater.reset();
+      crc.reset();
+      int size = input.remaining();
+      if (input.hasArray()) {
+        int offset = input.arrayOffset() + input.position();
+        crc.update(input.array(), offset, size);
+        deflater.setInput(input.array(), offset, size);
+        deflater.finish();
+        deflate(output, true);
+      } else {
+        crc.update(input.duplicate());
+        if (inputChunk == null) {
+          inputChunk = new byte[CHUNK_SIZE];
+        }
+        ByteBuffer in = input.duplicate();
+        do {
+          int length = Math.min(inputChunk.length, in.remaining());
+          in.get(inputChunk, 0, length);
+          deflater.setInput(inputChunk, 0, length);
+          if (!in.hasRemaining()) {
+            deflater.finish();
+          }
+          deflate(output, !in.hasRemaining());
+        } while (in.hasRemaining());
+      }
+      input.position(input.limit());
+
+      output.putInt((int) crc.getValue()).putInt(size);
+      output.order(order);
+    }
+
+    // deflates until the input is consumed or, if finishing, until all the compressed bytes are written
+    private void deflate(ByteBuffer output, boolean finish) throws IOException {
+      while (finish ? !deflater.finished() : !deflater.needsInput()) {
+        if (!output.hasRemaining()) {
+          throw new IOException("Not enough space for the compressed bytes");
+        }
+        if (output.hasArray()) {
+          int n = deflater.deflate(output.array(), output.arrayOffset() + output.position(), output.remaining());
+          output.position(output.position() + n);
+        } else {
+          if (outputChunk == null) {
+            outputChunk = new byte[CHUNK_SIZE];
+          }
+          int n = deflater.deflate(outputChunk, 0, Math.min(outputChunk.length, output.remaining()));
+          output.put(outputChunk, 0, n);
+        }
+      }
+    }
+
+    @Override
+    public CompressionCodecName getCodecName() {
+      return CompressionCodecName.GZIP;
+    }
+
+    @Override
+    public void release() {
+      super.release();
+      deflater.end();
+    }
+  }
+
+  public static class Decompressor extends ByteBufferDecompressor {
+    private final Inflater inflater = new Inflater(true);
+    private final CRC32 crc = new CRC32();
+    private byte[] inputChunk;
+    private byte[] outputChunk;
+
+    @Override
+    public void decompress(ByteBuffer input, ByteBuffer output) throws IOException {
+      ByteBuffer in = input.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+      // the input may consist of several gzip members
+      while (in.hasRemaining()) {
+        skipHeader(in);
+        int start = output.position();
+        inflate(in, output);
+        if (in.remaining() < TRAILER_SIZE) {
+          throw new IOException("Truncated gzip input");
+        }
+        ByteBuffer written = output.duplicate();
+        written.flip().position(start);
+        crc.reset();
+        crc.update(written);
+        if (in.getInt() != (int) crc.getValue() || in.getInt() != output.position() - start) {
+          throw new IOException("Corrupt gzip input: checksum or size mismatch");
+        }
+      }
+      if (output.hasRemaining()) {
+        throw new IOException("Decompressed " + output.position() + " bytes; expected " + output.limit());
+      }
+      input.position(input.limit());
+    }
+
+    private static void skipHeader(ByteBuffer in) throws IOException {
+      if (in.remaining() < HEADER_SIZE || (in.getShort() & 0xFFFF) != GZIP_MAGIC || in.get() != Deflater.DEFLATED) {
+        throw new IOException("Not in gzip format");
+      }
+      int flags = in.get() & 0xFF;
+      // modification time, extra flags, operating system
+      in.position(in.position() + 6);
+      if ((flags & FEXTRA) != 0) {
+        int length = in.getShort() & 0xFFFF;
+        in.position(in.position() + length);
+      }
+      if ((flags & FNAME) != 0) {
+        while (in.get() != 0) {
+        }
+      }
+      if ((flags & FCOMMENT) != 0) {
+        while (in.get() != 0) {
+        }
+      }
+      if ((flags & FHCRC) != 0) {
+        in.getShort();
+      }
+    }
+
+    // inflates one deflate stream; the input is positioned after the stream
+    private void inflate(ByteBuffer in, ByteBuffer output) throws IOException {
+      inflater.reset();
+      try {
+        while (!inflater.finished()) {
+          if (inflater.needsInput()) {
+            if (!in.hasRemaining()) {
+              throw new IOException("Truncated gzip input");
+            }
+            if (in.hasArray()) {
+              inflater.setInput(in.array(), in.arrayOffset() + in.position(), in.remaining());
+              in.position(in.limit());
+            } else {
+              if (inputChunk == null) {
+                inputChunk = new byte[CHUNK_SIZE];
+              }
+              int length = Math.min(inputChunk.length, in.remaining());
+              in.get(inputChunk, 0, length);
+              inflater.setInput(inputChunk, 0, length);
+            }
+          }
+          int n;
+          if (output.hasArray()) {
+            n = inflater.inflate(output.array(), output.arrayOffset() + output.position(), output.remaining());
+            output.position(output.position() + n);
+          } else {
+            if (outputChunk == null) {
+              outputChunk = new byte[CHUNK_SIZE];
+            }
+            n = inflater.inflate(outputChunk, 0, Math.min(outputChunk.length, output.remaining()));
+            output.put(outputChunk, 0, n);
+          }
+          if (n == 0 && !output.hasRemaining() && !inflater.finished() && !inflater.needsInput()) {
+            throw new IOException("The decompressed bytes exceed the expected size");
+          }
+          if (inflater.needsDictionary()) {
+            throw new IOException("Corrupt gzip input: a preset dictionary is required");
+          }
+        }
+      } catch (DataFormatException e) {
+        throw new IOException("Corrupt gzip input", e);
+      }
+      // give back the bytes following the deflate stream
+      in.position(in.position() - inflater.getRemaining());
+    }
+
+    @Override
+    public void release() {
+      inflater.end();
+    }
+  }
+}
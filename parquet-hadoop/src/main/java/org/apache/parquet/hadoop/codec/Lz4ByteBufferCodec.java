@@ -0,0 +1,279 @@
+/* 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop.codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.parquet.bytes.ByteBufferAllocator;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+/**
+ * Pure Java LZ4 compression of {@link ByteBuffer}s in the format written by Hadoop's {@code Lz4Codec}: the bytes are
+ * stored in blocks starting with the number of raw bytes in the block followed by the LZ4 compressed chunks of the
+ * block, each prefixed by its compressed length. All the integers are big endian.
+ * <p>
+ * The compressor implements the fast, greedy variant of LZ4 with a single hash table; it does not reach the
+ * compression ratio of the high compression mode but its output can be decompressed by any LZ4 decoder.
+ */
+public final class Lz4ByteBufferCodec {
+
+  // the chunk size limit of Hadoop's BlockCompressorStream for the default buffer size of 256KB
+  private static final int MAX_CHUNK_SIZE = 256 * 1024 - (256 * 1024 / 255 + 16);
+
+  private static final int MIN_MATCH = 4;
+  // the last match shall start at least 12 bytes before the end of the input
+  private static final int MF_LIMIT = 12;
+  // the last 5 bytes are always literals
+  private static final int LAST_LITERALS = 5;
+  private static final int MAX_DISTANCE = 65535;
+  private static final int HASH_LOG = 12;
+  private static final int RUN_MASK = 15;
+  // copies shorter than this are done byte by byte
+  private static final int MIN_BULK_COPY = 32;
+
+  private Lz4ByteBufferCodec() {
+  }
+
+  public static class Compressor extends ByteBufferCompressor {
+    private final int[] hashTable = new int[1 << HASH_LOG];
+
+    public Compressor(ByteBufferAllocator allocator) {
+      super(allocator);
+    }
+
+    @Override
+    public int maxCompressedLength(int uncompressedSize) {
+      int chunks = uncompressedSize / MAX_CHUNK_SIZE + 1;
+      return 4 + uncompressedSize + uncompressedSize / 255 + chunks * (4 + 16);
+    }
+
+    @Override
+    public void compress(ByteBuffer input, ByteBuffer output) throws IOException {
+      int ip = input.position();
+      int end = input.limit();
+      int op = output.position();
+      writeInt(output, op, end - ip);
+      op += 4;
+      while (ip < end) {
+        int chunkEnd = Math.min(end, ip + MAX_CHUNK_SIZE);
+        int size = compressChunk(input, ip, chunkEnd, output, op + 4);
+        writeInt(output, op, size);
+        op += 4 + size;
+        ip = chunkEnd;
+      }
+      input.position(end);
+      output.position(op);
+    }
+
+    // compresses the bytes of src from start to end as one LZ4 block and returns its length
+    private int compressChunk(ByteBuffer src, int start, int end, ByteBuffer dst, int dstStart) {
+      int op = dstStart;
+      int anchor = start;
+      int mfLimit = end - MF_LIMIT;
+      int matchLimit = end - LAST_LITERALS;
+      Arrays.fill(hashTable, -1);
+
+      int ip = start;
+      while (ip <= mfLimit) {
+        int sequence = src.getInt(ip);
+        int hash = hash(sequence);
+        int ref = hashTable[hash];
+        hashTable[hash] = ip;
+        if (ref < 0 || ip - ref > MAX_DISTANCE || src.getInt(ref) != sequence) {
+          // skip faster over incompressible bytes
+          ip += 1 + ((ip - anchor) >>> 6);
+          continue;
+        }
+        while (ip > anchor && ref > start && src.get(ip - 1) == src.get(ref - 1)) {
+          --ip;
+          --ref;
+        }
+        int matchLength = MIN_MATCH;
+        while (ip + matchLength < matchLimit && src.get(ip + matchLength) == src.get(ref + matchLength)) {
+          ++matchLength;
+        }
+
+        int literalLength = ip - anchor;
+        int token = op++;
+        op = writeLength(dst, op, literalLength);
+        copy(src, anchor, dst, op, literalLength);
+        op += literalLength;
+        dst.put(op++, (byte) (ip - ref));
+        dst.put(op++, (byte) ((ip - ref) >>> 8));
+        op = writeLength(dst, op, matchLength - MIN_MATCH);
+        dst.put(token, (byte) ((Math.min(literalLength, RUN_MASK) << 4) | Math.min(matchLength - MIN_MATCH, RUN_MASK)));
+
+        ip += matchLength;
+        anchor = ip;
+        if (ip - 2 >= start && ip - 2 <= mfLimit) {
+          hashTable[hash(src.getInt(ip - 2))] = ip - 2;
+        }
+      }
+
+      int literalLength = end - anchor;
+      int token = op++;
+      op = writeLength(dst, op, literalLength);
+      copy(src, anchor, dst, op, literalLength);
+      op += literalLength;
+      dst.put(token, (byte) (Math.min(literalLength, RUN_MASK) << 4));
+      return op - dstStart;
+    }
+
+    private static int hash(int sequence) {
+      return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    // writes the bytes of a length exceeding what fits into the token
+    private static int writeLength(ByteBuffer dst, int op, int length) {
+      if (length >= RUN_MASK) {
+        length -= RUN_MASK;
+        for (; length >= 255; length -= 255) {
+          dst.put(op++, (byte) 255);
+        }
+        dst.put(op++, (byte) length);
+      }
+      return op;
+    }
+
+    private static void writeInt(ByteBuffer dst, int op, int value) {
+      dst.put(op, (byte) (value >>> 24));
+      dst.put(op + 1, (byte) (value >>> 16));
+      dst.put(op + 2, (byte) (value >>> 8));
+      dst.put(op + 3, (byte) value);
+    }
+
+    @Override
+    public CompressionCodecName getCodecName() {
+      return CompressionCodecName.LZ4;
+    }
+  }
+
+  public static class Decompressor extends ByteBufferDecompressor {
+
+    @Override
+    public void decompress(ByteBuffer input, ByteBuffer output) throws IOException {
+      int ip = input.position();
+      int end = input.limit();
+      int op = output.position();
+      int outputEnd = output.limit();
+      try {
+        while (ip < end) {
+          int rawLength = readInt(input, ip);
+          ip += 4;
+          if (rawLength < 0 || rawLength > outputEnd - op) {
+            throw new IOException("The decompressed bytes exceed the expected size");
+          }
+          int blockEnd = op + rawLength;
+          while (op < blockEnd) {
+            int chunkLength = readInt(input, ip);
+            ip += 4;
+            if (chunkLength < 0 || chunkLength > end - ip) {
+              throw new IOException("Truncated LZ4 input");
+            }
+            op = decompressChunk(input, ip, ip + chunkLength, output, op, blockEnd);
+            ip += chunkLength;
+          }
+        }
+      } catch (IndexOutOfBoundsException e) {
+        throw new IOException("Corrupt LZ4 input", e);
+      }
+      if (op != outputEnd) {
+        throw new IOException("Decompressed " + (op - output.position()) + " bytes; expected " + output.remaining());
+      }
+      input.position(end);
+      output.position(op);
+    }
+
+    // decompresses the LZ4 block of src from start to end and returns the position after the written bytes
+    private static int decompressChunk(ByteBuffer src, int ip, int end, ByteBuffer dst, int op, int dstEnd)
+        throws IOException {
+      int dstStart = op;
+      while (true) {
+        int token = src.get(ip++) & 0xFF;
+        int literalLength = token >>> 4;
+        if (literalLength == RUN_MASK) {
+          int b;
+          do {
+            b = src.get(ip++) & 0xFF;
+            literalLength += b;
+          } while (b == 255);
+        }
+        if (literalLength > end - ip || literalLength > dstEnd - op) {
+          throw new IOException("Corrupt LZ4 input: literals out of bounds");
+        }
+        copy(src, ip, dst, op, literalLength);
+        ip += literalLength;
+        op += literalLength;
+        if (ip == end) {
+          // the last sequence has no match
+          return op;
+        }
+
+        int offset = (src.get(ip) & 0xFF) | (src.get(ip + 1) & 0xFF) << 8;
+        ip += 2;
+        int matchLength = token & RUN_MASK;
+        if (matchLength == RUN_MASK) {
+          int b;
+          do {
+            b = src.get(ip++) & 0xFF;
+            matchLength += b;
+          } while (b == 255);
+        }
+        matchLength += MIN_MATCH;
+        int ref = op - offset;
+        if (offset == 0 || ref < dstStart || matchLength > dstEnd - op) {
+          throw new IOException("Corrupt LZ4 input: match out of bounds");
+        }
+        if (offset >= matchLength) {
+          copy(dst, ref, dst, op, matchLength);
+        } else {
+          // the match overlaps the bytes being written
+          for (int i = 0; i < matchLength; ++i) {
+            dst.put(op + i, dst.get(ref + i));
+          }
+        }
+        op += matchLength;
+      }
+    }
+
+    private static int readInt(ByteBuffer src, int ip) {
+      return (src.get(ip) & 0xFF) << 24 | (src.get(ip + 1) & 0xFF) << 16
+          | (src.get(ip + 2) & 0xFF) << 8 | (src.get(ip + 3) & 0xFF);
+    }
+  }
+
+  // copies non-overlapping ranges
+  private static void copy(ByteBuffer src, int srcPos, ByteBuffer dst, int dstPos, int length) {
+    if (src.hasArray() && dst.hasArray()) {
+      System.arraycopy(src.array(), src.arrayOffset() + srcPos, dst.array(), dst.arrayOffset() + dstPos, length);
+    } else if (length < MIN_BULK_COPY) {
+      for (int i = 0; i < length; ++i) {
+        dst.put(dstPos + i, src.get(srcPos + i));
+      }
+    } else {
+      ByteBuffer from = src.duplicate();
+      from.limit(srcPos + length).position(srcPos);
+      ByteBuffer to = dst.duplicate();
+      to.position(dstPos);
+      to.put(from);
+    }
+  }
+}
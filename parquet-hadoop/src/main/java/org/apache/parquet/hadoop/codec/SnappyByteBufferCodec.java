@@ -0,0 +1,124 @@
+/* 
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop.codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.parquet.bytes.ByteBufferAllocator;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.xerial.snappy.Snappy;
+
+/**
+ * Snappy compression of {@link ByteBuffer}s in the raw format written by {@link SnappyCodec}. Direct buffers are
+ * passed to the native library as they are and so are the arrays of heap buffers; if a direct and a heap buffer are
+ * mixed the input is copied to the kind of the output.
+ */
+public final class SnappyByteBufferCodec {
+
+  private SnappyByteBufferCodec() {
+  }
+
+  public static class Compressor extends ByteBufferCompressor {
+    private final Scratch scratch = new Scratch();
+
+    public Compressor(ByteBufferAllocator allocator) {
+      super(allocator);
+    }
+
+    @Override
+    public int maxCompressedLength(int uncompressedSize) {
+      return Snappy.maxCompressedLength(uncompressedSize);
+    }
+
+    @Override
+    public void compress(ByteBuffer input, ByteBuffer output) throws IOException {
+      ByteBuffer in = scratch.sameKind(input, output);
+      int limit = output.limit();
+      int size;
+      if (output.isDirect()) {
+        size = Snappy.compress(in, output);
+      } else {
+        size = Snappy.compress(in.array(), in.arrayOffset() + in.position(), in.remaining(),
+            output.array(), output.arrayOffset() + output.position());
+      }
+      input.position(input.limit());
+      output.limit(limit);
+      output.position(output.position() + size);
+    }
+
+    @Override
+    public CompressionCodecName getCodecName() {
+      return CompressionCodecName.SNAPPY;
+    }
+  }
+
+  public static class Decompressor extends ByteBufferDecompressor {
+    private final Scratch scratch = new Scratch();
+
+    @Override
+    public void decompress(ByteBuffer input, ByteBuffer output) throws IOException {
+      int expectedSize = output.remaining();
+      if (expectedSize == 0 && !input.hasRemaining()) {
+        // Hadoop's SnappyCodec writes nothing for an empty input
+        return;
+      }
+      ByteBuffer in = scratch.sameKind(input, output);
+      // the native library does not check the space available in the output
+      int size = in.isDirect()
+          ? Snappy.uncompressedLength(in)
+          : Snappy.uncompressedLength(in.array(), in.arrayOffset() + in.position(), in.remaining());
+      if (size != expectedSize) {
+        throw new IOException("Invalid decompressed size: " + size + ", expected: " + expectedSize);
+      }
+      if (output.isDirect()) {
+        Snappy.uncompress(in, output);
+      } else {
+        Snappy.uncompress(in.array(), in.arrayOffset() + in.position(), in.remaining(),
+            output.array(), output.arrayOffset() + output.position());
+      }
+      input.position(input.limit());
+      output.limit(output.position() + size);
+      output.position(output.limit());
+    }
+  }
+
+  /**
+   * The native library requires either two direct buffers or two arrays; the input is copied to a reused buffer if it
+   * is of the other kind than the output.
+   */
+  private static class Scratch {
+    private ByteBuffer buffer;
+
+    ByteBuffer sameKind(ByteBuffer input, ByteBuffer output) {
+      if (input.isDirect() == output.isDirect() && (input.isDirect() || input.hasArray())) {
+        return input;
+      }
+      if (buffer == null || buffer.isDirect() != output.isDirect() || buffer.capacity() < input.remaining()) {
+        buffer = output.isDirect()
+            ? ByteBuffer.allocateDirect(input.remaining())
+            : ByteBuffer.allocate(input.remaining());
+      }
+      buffer.clear();
+      buffer.put(input.duplicate());
+      buffer.flip();
+      return buffer;
+    }
+  }
+}
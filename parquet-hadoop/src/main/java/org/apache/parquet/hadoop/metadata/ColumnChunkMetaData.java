@@ -172,6 +172,7 @@ abstract public class ColumnChunkMetaData {
 
   private IndexReference columnIndexReference;
   private IndexReference offsetIndexReference;
+  private IndexReference bloomFilterReference;
 
   protected ColumnChunkMetaData(ColumnChunkProperties columnChunkProperties) {
     this(null, columnChunkProperties);
@@ -274,6 +275,23 @@ abstract public class ColumnChunkMetaData {
     this.offsetIndexReference = offsetIndexReference;
   }
 
+  /**
+   * @return the reference to the Bloom filter
+   */
+  @Private
+  public IndexReference getBloomFilterReference() {
+    return bloomFilterReference;
+  }
+
+  /**
+   * @param bloomFilterReference
+   *          the reference to the Bloom filter
+   */
+  @Private
+  public void setBloomFilterReference(IndexReference bloomFilterReference) {
+    this.bloomFilterReference = bloomFilterReference;
+  }
+
   /**
    * @return all the encodings used in this column
    */
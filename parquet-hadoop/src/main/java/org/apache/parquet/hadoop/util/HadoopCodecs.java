@@ -36,4 +36,8 @@ public class HadoopCodecs {
   public static CompressionCodecFactory newDirectFactory(Configuration conf, ByteBufferAllocator allocator, int sizeHint) {
     return CodecFactory.createDirectCodecFactory(conf, allocator, sizeHint);
   }
+
+  public static CompressionCodecFactory newByteBufferFactory(Configuration conf, ByteBufferAllocator allocator, int sizeHint) {
+    return CodecFactory.createByteBufferCodecFactory(conf, allocator, sizeHint);
+  }
 }
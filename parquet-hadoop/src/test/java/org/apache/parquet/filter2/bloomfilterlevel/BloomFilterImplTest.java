@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.filter2.bloomfilterlevel;
+
+import static org.apache.parquet.filter2.bloomfilterlevel.BloomFilterImpl.canDrop;
+import static org.apache.parquet.filter2.predicate.FilterApi.and;
+import static org.apache.parquet.filter2.predicate.FilterApi.binaryColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.doubleColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.eq;
+import static org.apache.parquet.filter2.predicate.FilterApi.gt;
+import static org.apache.parquet.filter2.predicate.FilterApi.intColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.longColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.or;
+import static org.apache.parquet.schema.MessageTypeParser.parseMessageType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators.BinaryColumn;
+import org.apache.parquet.filter2.predicate.Operators.DoubleColumn;
+import org.apache.parquet.filter2.predicate.Operators.IntColumn;
+import org.apache.parquet.filter2.predicate.Operators.LongColumn;
+import org.apache.parquet.hadoop.BloomFilterReader;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.example.GroupWriteSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BloomFilterImplTest {
+
+  private static final int ROW_COUNT = 20_000;
+  private static final MessageType schema = parseMessageType(
+      "message test { "
+          + "required int64 id; "
+          + "required binary name (UTF8); "
+          + "required int32 bucket; "
+          + "optional double score; "
+          + "} ");
+  private static final LongColumn id = longColumn("id");
+  private static final BinaryColumn name = binaryColumn("name");
+  private static final IntColumn bucket = intColumn("bucket");
+  private static final DoubleColumn score = doubleColumn("score");
+
+  @ClassRule
+  public static final TemporaryFolder temp = new TemporaryFolder();
+
+  private static final Configuration conf = new Configuration();
+  private static Path file;
+
+  // the ids are spread over the row groups so the statistics cannot drop any of them
+  private static long id(int row) {
+    return row * 7919L % ROW_COUNT;
+  }
+
+  private static Binary name(long id) {
+    return Binary.fromString("name-" + id);
+  }
+
+  @BeforeClass
+  public static void prepareFile() throws IOException {
+    file = new Path(new File(temp.getRoot(), "bloom.parquet").toURI());
+    GroupWriteSupport.setSchema(schema, conf);
+    SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+    try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(file)
+        .withConf(conf)
+        .withRowGroupSize(64 * 1024)
+        .withPageSize(4 * 1024)
+        .withDictionaryEncoding(false)
+        .withBloomFilterNDV("id", 5_000)
+        .withBloomFilterEnabled("name", true)
+        .withBloomFilterEnabled("score", true)
+        .build()) {
+      for (int row = 0; row < ROW_COUNT; ++row) {
+        long value = id(row);
+        Group group = factory.newGroup()
+            .append("id", value)
+            .append("name", name(value))
+            .append("bucket", (int) (value % 7));
+        if (value % 2 == 0) {
+          group.append("score", value / 2.0);
+        }
+        writer.write(group);
+      }
+    }
+  }
+
+  private static ParquetFileReader open(FilterPredicate filter) throws IOException {
+    ParquetReadOptions.Builder options = ParquetReadOptions.builder()
+        .useStatsFilter(false)
+        .useDictionaryFilter(false);
+    if (filter != null) {
+      options.withRecordFilter(FilterCompat.get(filter));
+    }
+    return new ParquetFileReader(HadoopInputFile.fromPath(file, conf), options.build());
+  }
+
+  @Test
+  public void testBloomFilterReferences() throws IOException {
+    try (ParquetFileReader reader = open(null)) {
+      assertTrue("The file shall have several row groups", reader.getRowGroups().size() > 1);
+      for (BlockMetaData block : reader.getRowGroups()) {
+        for (ColumnChunkMetaData column : block.getColumns()) {
+          if (column.getPath().toDotString().equals("bucket")) {
+            assertNull(column.getBloomFilterReference());
+            assertNull(reader.readBloomFilter(column));
+          } else {
+            assertNotNull(column.getBloomFilterReference());
+            assertNotNull(reader.readBloomFilter(column));
+          }
+        }
+      }
+      assertFalse(reader.getFooter().getFileMetaData().getKeyValueMetaData().containsKey("parquet.bloom.filter.offset"));
+    }
+  }
+
+  @Test
+  public void testCanDrop() throws IOException {
+    try (ParquetFileReader reader = open(null)) {
+      List<BlockMetaData> blocks = reader.getRowGroups();
+      int rowGroupStart = 0;
+      int dropped = 0;
+      int checked = 0;
+      for (BlockMetaData block : blocks) {
+        List<ColumnChunkMetaData> columns = block.getColumns();
+        BloomFilterReader bloomFilters = reader.getBloomFilterDataReader(block);
+        int rowGroupEnd = rowGroupStart + (int) block.getRowCount();
+        for (int row = 0; row < ROW_COUNT; row += 13) {
+          long value = id(row);
+          boolean contained = row >= rowGroupStart && row < rowGroupEnd;
+          if (contained) {
+            // no false negatives
+            assertFalse(canDrop(eq(id, value), columns, bloomFilters));
+            assertFalse(canDrop(eq(name, name(value)), columns, bloomFilters));
+            assertFalse(canDrop(or(eq(id, -1L), eq(id, value)), columns, bloomFilters));
+            if (value % 2 == 0) {
+              assertFalse(canDrop(eq(score, value / 2.0), columns, bloomFilters));
+            }
+          } else {
+            ++checked;
+            if (canDrop(eq(id, value), columns, bloomFilters)) {
+              ++dropped;
+            }
+          }
+        }
+        rowGroupStart = rowGroupEnd;
+
+        // the columns without Bloom filter and the other predicates cannot be decided
+        assertFalse(canDrop(eq(bucket, 100), columns, bloomFilters));
+        assertFalse(canDrop(gt(id, Long.MAX_VALUE - 1), columns, bloomFilters));
+        assertFalse(canDrop(eq(id, null), columns, bloomFilters));
+        assertTrue(canDrop(eq(longColumn("missing"), 1L), columns, bloomFilters));
+        assertTrue(canDrop(and(eq(bucket, 1), eq(name, Binary.fromString("missing"))), columns, bloomFilters));
+        assertTrue(canDrop(or(eq(id, -1L), eq(id, -2L)), columns, bloomFilters));
+      }
+      assertEquals(ROW_COUNT, rowGroupStart);
+      assertTrue("Too few row groups dropped: " + dropped + "/" + checked, dropped > checked * 0.95);
+    }
+  }
+
+  @Test
+  public void testRowGroupFiltering() throws IOException {
+    int rowGroupCount;
+    try (ParquetFileReader reader = open(null)) {
+      rowGroupCount = reader.getRowGroups().size();
+    }
+    try (ParquetFileReader reader = open(eq(id, id(42)))) {
+      assertEquals(1, reader.getRowGroups().size());
+    }
+    try (ParquetFileReader reader = open(or(eq(name, name(id(42))), eq(name, name(id(ROW_COUNT - 1)))))) {
+      assertEquals(2, reader.getRowGroups().size());
+    }
+    try (ParquetFileReader reader = open(eq(id, -1L))) {
+      assertEquals(0, reader.getRowGroups().size());
+    }
+    ParquetReadOptions options = ParquetReadOptions.builder()
+        .useStatsFilter(false)
+        .useDictionaryFilter(false)
+        .useBloomFilter(false)
+        .withRecordFilter(FilterCompat.get(eq(id, -1L)))
+        .build();
+    try (ParquetFileReader reader = new ParquetFileReader(HadoopInputFile.fromPath(file, conf), options)) {
+      assertEquals(rowGroupCount, reader.getRowGroups().size());
+    }
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.GZIP;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.LZ4;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.SNAPPY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.bytes.ByteBufferAllocator;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.bytes.DirectByteBufferAllocator;
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.util.HadoopCodecs;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Types;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestByteBufferCodecFactory {
+  private static final int[] SIZES = { 0, 1, 17, 1000, 64 * 1024, 600 * 1024 };
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  // half of the bytes are random, the others are repeated sequences
+  private static byte[] generate(int size, long seed) {
+    Random random = new Random(seed);
+    byte[] bytes = new byte[size];
+    for (int i = 0; i < size; ) {
+      int length = Math.min(size - i, 1 + random.nextInt(64));
+      if (random.nextBoolean() && i >= 1024) {
+        System.arraycopy(bytes, i - 1 - random.nextInt(1024), bytes, i, length);
+      } else {
+        for (int j = i; j < i + length; ++j) {
+          bytes[j] = (byte) random.nextInt();
+        }
+      }
+      i += length;
+    }
+    return bytes;
+  }
+
+  private static ByteBuffer toBuffer(byte[] bytes, ByteBufferAllocator allocator) {
+    ByteBuffer buffer = allocator.allocate(bytes.length);
+    buffer.put(bytes);
+    buffer.flip();
+    return buffer;
+  }
+
+  private static byte[] toArray(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return bytes;
+  }
+
+  @Test
+  public void testRoundTrips() throws IOException {
+    for (ByteBufferAllocator allocator : new ByteBufferAllocator[] {
+        new HeapByteBufferAllocator(), new DirectByteBufferAllocator() }) {
+      CodecFactory factory = CodecFactory.createByteBufferCodecFactory(new Configuration(), allocator, 1024);
+      for (CompressionCodecName codec : new CompressionCodecName[] { SNAPPY, GZIP, LZ4 }) {
+        CodecFactory.BytesCompressor compressor = factory.getCompressor(codec);
+        CodecFactory.BytesDecompressor decompressor = factory.getDecompressor(codec);
+        assertEquals(codec, compressor.getCodecName());
+        for (int size : SIZES) {
+          String message = codec + " " + size + " bytes, direct: " + allocator.isDirect();
+          byte[] raw = generate(size, size);
+          byte[] compressed = compressor.compress(BytesInput.from(toBuffer(raw, allocator))).toByteArray();
+          assertArrayEquals(message, raw, decompressor.decompress(BytesInput.from(compressed), size).toByteArray());
+
+          // the compressor works on heap input as well
+          assertArrayEquals(message, compressed, compressor.compress(BytesInput.from(raw)).toByteArray());
+
+          ByteBuffer input = toBuffer(compressed, allocator);
+          ByteBuffer output = allocator.allocate(size);
+          decompressor.decompress(input, compressed.length, output, size);
+          assertEquals(message, compressed.length, input.position());
+          output.flip();
+          assertArrayEquals(message, raw, toArray(output));
+        }
+      }
+      factory.release();
+    }
+  }
+
+  @Test
+  public void testHadoopCompatibility() throws IOException {
+    CodecFactory hadoopFactory = new CodecFactory(new Configuration(), 1024);
+    CodecFactory factory = CodecFactory.createByteBufferCodecFactory(
+        new Configuration(), new DirectByteBufferAllocator(), 1024);
+    for (CompressionCodecName codec : new CompressionCodecName[] { SNAPPY, GZIP }) {
+      for (int size : SIZES) {
+        String message = codec + " " + size + " bytes";
+        byte[] raw = generate(size, 42);
+        BytesInput compressed = BytesInput.copy(factory.getCompressor(codec).compress(BytesInput.from(raw)));
+        assertArrayEquals(message, raw,
+            hadoopFactory.getDecompressor(codec).decompress(compressed, size).toByteArray());
+
+        compressed = BytesInput.copy(hadoopFactory.getCompressor(codec).compress(BytesInput.from(raw)));
+        assertArrayEquals(message, raw, factory.getDecompressor(codec).decompress(compressed, size).toByteArray());
+      }
+    }
+    hadoopFactory.release();
+    factory.release();
+  }
+
+  @Test
+  public void testLz4Format() throws IOException {
+    // one block of 16 raw bytes in one chunk: "abcd" + match(offset 4, length 7) + "hello"
+    byte[] compressed = {
+        0, 0, 0, 16, 0, 0, 0, 13,
+        0x43, 'a', 'b', 'c', 'd', 4, 0,
+        0x50, 'h', 'e', 'l', 'l', 'o' };
+    CodecFactory factory = CodecFactory.createByteBufferCodecFactory(
+        new Configuration(), new HeapByteBufferAllocator(), 1024);
+    assertEquals("abcdabcdabchello", new String(
+        factory.getDecompressor(LZ4).decompress(BytesInput.from(compressed), 16).toByteArray(),
+        StandardCharsets.US_ASCII));
+    factory.release();
+  }
+
+  @Test
+  public void testCorruptInput() throws IOException {
+    CodecFactory factory = CodecFactory.createByteBufferCodecFactory(
+        new Configuration(), new HeapByteBufferAllocator(), 1024);
+    byte[] raw = generate(10000, 7);
+    for (CompressionCodecName codec : new CompressionCodecName[] { SNAPPY, GZIP, LZ4 }) {
+      byte[] compressed = factory.getCompressor(codec).compress(BytesInput.from(raw)).toByteArray();
+      CodecFactory.BytesDecompressor decompressor = factory.getDecompressor(codec);
+      try {
+        decompressor.decompress(BytesInput.from(compressed), raw.length + 1);
+        fail(codec + ": wrong size should be detected");
+      } catch (IOException e) {
+        // expected
+      }
+      try {
+        decompressor.decompress(BytesInput.from(compressed, 0, compressed.length / 2), raw.length);
+        fail(codec + ": truncated input should be detected");
+      } catch (IOException e) {
+        // expected
+      }
+    }
+    factory.release();
+  }
+
+  @Test
+  public void testFileRoundTrip() throws IOException {
+    MessageType schema = Types.buildMessage()
+        .required(INT64).named("id")
+        .required(BINARY).named("value")
+        .named("msg");
+    SimpleGroupFactory groupFactory = new SimpleGroupFactory(schema);
+    for (CompressionCodecName codec : new CompressionCodecName[] { SNAPPY, GZIP, LZ4 }) {
+      File file = temp.newFile();
+      file.delete();
+      Path path = new Path(file.getAbsolutePath());
+      Configuration conf = new Configuration();
+      conf.setBoolean(ParquetOutputFormat.BYTE_BUFFER_CODECS, true);
+      try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+          .withConf(conf)
+          .withType(schema)
+          .withCompressionCodec(codec)
+          .withPageSize(4096)
+          .build()) {
+        for (int i = 0; i < 10000; ++i) {
+          writer.write(groupFactory.newGroup().append("id", (long) i).append("value", "value-" + (i % 100)));
+        }
+      }
+
+      // Hadoop's LZ4 requires the native library so it is read by the built-in codec only
+      for (boolean byteBufferCodecs : codec == LZ4 ? new boolean[] { true } : new boolean[] { true, false }) {
+        ParquetReader.Builder<Group> builder = ParquetReader.builder(new GroupReadSupport(), path);
+        if (byteBufferCodecs) {
+          builder.withCodecFactory(
+              HadoopCodecs.newByteBufferFactory(new Configuration(), new HeapByteBufferAllocator(), 0));
+        }
+        try (ParquetReader<Group> reader = builder.build()) {
+          int i = 0;
+          for (Group group = reader.read(); group != null; group = reader.read(), ++i) {
+            assertEquals(i, group.getLong("id", 0));
+            assertEquals("value-" + (i % 100), group.getString("value", 0));
+          }
+          assertEquals(codec.toString(), 10000, i);
+        }
+      }
+    }
+  }
+}
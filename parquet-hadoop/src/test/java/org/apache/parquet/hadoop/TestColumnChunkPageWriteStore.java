@@ -21,7 +21,9 @@ package org.apache.parquet.hadoop;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isNull;
 import static org.mockito.Matchers.same;
@@ -41,13 +43,16 @@ import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
 
@@ -62,6 +67,8 @@ import org.apache.parquet.column.page.PageReader;
 import org.apache.parquet.column.page.PageWriter;
 import org.apache.parquet.column.statistics.BinaryStatistics;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.column.values.bloomfilter.BlockSplitBloomFilter;
+import org.apache.parquet.hadoop.CodecFactory.BytesCompressor;
 import org.apache.parquet.hadoop.ParquetFileWriter.Mode;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
@@ -257,12 +264,119 @@ public class TestColumnChunkPageWriteStore {
           eq(fakeStats),
           same(ColumnIndexBuilder.getNoOpBuilder()), // Deprecated writePage -> no column index
           same(OffsetIndexBuilder.getNoOpBuilder()), // Deprecated writePage -> no offset index
+          isNull(BlockSplitBloomFilter.class),
           any(),
           any(),
           any());
     }
   }
 
+  @Test
+  public void testPageCompressionQueue() throws IOException {
+    MessageType schema = Types.buildMessage()
+        .required(BINARY).as(UTF8).named("a_string")
+        .optional(INT32).named("an_int")
+        .named("queue_test");
+    ColumnDescriptor v1Column = schema.getColumns().get(0);
+    ColumnDescriptor v2Column = schema.getColumns().get(1);
+    CodecFactory codecFactory = new CodecFactory(conf, pageSize);
+    byte[][][] chunks = new byte[2][][];
+
+    for (int run = 0; run < 2; ++run) {
+      // a queue of one page so the writer waits for the compression threads
+      PageCompressionQueue queue = run == 0 ? null : new PageCompressionQueue(2, 1, codecFactory);
+      ColumnChunkPageWriteStore store = new ColumnChunkPageWriteStore(
+          compressor(GZIP), schema, new HeapByteBufferAllocator(), Integer.MAX_VALUE, queue);
+      // the bytes of a page are overwritten by the next one as the column writers reuse their buffers
+      byte[] page = new byte[1000];
+      for (int p = 0; p < 20; ++p) {
+        Arrays.fill(page, (byte) p);
+        Arrays.fill(page, 0, p * 10, (byte) -p);
+        Statistics<?> stats = Statistics.createStats(v1Column.getPrimitiveType());
+        store.getPageWriter(v1Column).writePage(BytesInput.from(page), 10, 10, stats, RLE, RLE, PLAIN);
+        stats = Statistics.createStats(v2Column.getPrimitiveType());
+        store.getPageWriter(v2Column).writePageV2(10, 1, 10, BytesInput.from(page, 0, 4), BytesInput.from(page, 4, 8),
+            PLAIN, BytesInput.from(page, 12, 988), stats);
+      }
+
+      ParquetFileWriter mockFileWriter = Mockito.mock(ParquetFileWriter.class);
+      store.flushToFileWriter(mockFileWriter);
+      chunks[run] = new byte[2][];
+      for (ColumnDescriptor col : schema.getColumns()) {
+        ArgumentCaptor<BytesInput> bytes = ArgumentCaptor.forClass(BytesInput.class);
+        Mockito.verify(mockFileWriter).writeColumnChunk(eq(col), eq(200L), eq(GZIP), isNull(DictionaryPage.class),
+            bytes.capture(), anyLong(), anyLong(), any(), any(), any(), any(), any(), any(), any());
+        chunks[run][col == v1Column ? 0 : 1] = bytes.getValue().toByteArray();
+        // the pages waiting for compression are no more accounted once collected
+        assertEquals(bytes.getValue().size(), store.getPageWriter(col).getMemSize());
+        assertEquals(bytes.getValue().size(), store.getPageWriter(col).allocatedSize());
+      }
+      if (queue != null) {
+        queue.close();
+      }
+    }
+    assertArrayEquals(chunks[0][0], chunks[1][0]);
+    assertArrayEquals(chunks[0][1], chunks[1][1]);
+    codecFactory.release();
+  }
+
+  @Test
+  public void testCloseWaitsForCompressions() throws Exception {
+    AtomicInteger compressing = new AtomicInteger();
+    AtomicInteger released = new AtomicInteger();
+    AtomicInteger releasedWhileCompressing = new AtomicInteger();
+    CodecFactory codecFactory = new CodecFactory(conf, pageSize) {
+      @Override
+      protected BytesCompressor createCompressor(CompressionCodecName codecName) {
+        BytesCompressor compressor = super.createCompressor(codecName);
+        return new BytesCompressor() {
+          @Override
+          public BytesInput compress(BytesInput bytes) throws IOException {
+            compressing.incrementAndGet();
+            try {
+              Thread.sleep(200);
+              return compressor.compress(bytes);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              throw new IOException(e);
+            } finally {
+              compressing.decrementAndGet();
+            }
+          }
+
+          @Override
+          public CompressionCodecName getCodecName() {
+            return codecName;
+          }
+
+          @Override
+          public void release() {
+            if (compressing.get() > 0) {
+              releasedWhileCompressing.incrementAndGet();
+            }
+            released.incrementAndGet();
+            compressor.release();
+          }
+        };
+      }
+    };
+
+    // the writer fails before collecting its pages, so the queue is closed while the pages are compressed
+    PageCompressionQueue queue = new PageCompressionQueue(2, 4, codecFactory);
+    for (int i = 0; i < 4; ++i) {
+      queue.compress(BytesInput.from(new byte[1000]), GZIP);
+    }
+    for (int i = 0; i < 100 && compressing.get() == 0; ++i) {
+      Thread.sleep(1);
+    }
+    assertTrue("The pages should be compressed in the background", compressing.get() > 0);
+    queue.close();
+    assertEquals(0, releasedWhileCompressing.get());
+    assertEquals(0, compressing.get());
+    assertTrue("The compressors of the workers should be released", released.get() > 0);
+    codecFactory.release();
+  }
+
   private CodecFactory.BytesCompressor compressor(CompressionCodecName codec) {
     return new CodecFactory(conf, pageSize).getCompressor(codec);
   }
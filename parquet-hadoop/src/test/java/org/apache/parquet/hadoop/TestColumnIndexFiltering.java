@@ -32,6 +32,8 @@ import static org.apache.parquet.filter2.predicate.FilterApi.notEq;
 import static org.apache.parquet.filter2.predicate.FilterApi.or;
 import static org.apache.parquet.filter2.predicate.FilterApi.userDefined;
 import static org.apache.parquet.filter2.predicate.LogicalInverter.invert;
+import static org.apache.parquet.format.converter.ParquetMetadataConverter.NO_FILTER;
+import static org.apache.parquet.hadoop.ParquetFileReader.readFooter;
 import static org.apache.parquet.hadoop.ParquetFileWriter.Mode.OVERWRITE;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -39,6 +41,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -49,12 +52,14 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
 import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.parquet.column.ParquetProperties.WriterVersion;
+import org.apache.parquet.example.data.Group;
 import org.apache.parquet.filter2.compat.FilterCompat;
 import org.apache.parquet.filter2.compat.FilterCompat.Filter;
 import org.apache.parquet.filter2.predicate.FilterPredicate;
@@ -65,8 +70,16 @@ import org.apache.parquet.filter2.recordlevel.PhoneBookWriter.Location;
 import org.apache.parquet.filter2.recordlevel.PhoneBookWriter.PhoneNumber;
 import org.apache.parquet.filter2.recordlevel.PhoneBookWriter.User;
 import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.api.ReadSupport;
 import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
 import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -199,6 +212,19 @@ public class TestColumnIndexFiltering {
         .useColumnIndexFilter(useColumnIndexFilter));
   }
 
+  private List<User> readUsers(Filter filter, boolean useColumnIndexFilter,
+      UnaryOperator<ParquetReader.Builder<Group>> readConfigurator) throws IOException {
+    return PhoneBookWriter.readUsers(readConfigurator.apply(ParquetReader.builder(new GroupReadSupport(), file)
+        .withFilter(filter)
+        .useColumnIndexFilter(useColumnIndexFilter)));
+  }
+
+  private List<User> readUsersWithPrefetching(Filter filter, boolean useColumnIndexFilter, int prefetchDepth,
+      long prefetchMaxBytes) throws IOException {
+    return readUsers(filter, useColumnIndexFilter,
+        builder -> builder.withPrefetchDepth(prefetchDepth).withPrefetchMaxBytes(prefetchMaxBytes));
+  }
+
   // Assumes that both lists are in the same order
   private static void assertContains(Stream<User> expected, List<User> actual) {
     Iterator<User> expIt = expected.iterator();
@@ -439,4 +465,203 @@ public class TestColumnIndexFiltering {
         or(eq(longColumn("id"), 1234l),
             userDefined(longColumn("not-existing-long"), new IsDivisibleBy(1))));
   }
+
+  @Test
+  public void testPrefetching() throws IOException {
+    assertEquals(DATA, readUsersWithPrefetching(FilterCompat.NOOP, true, 1, Long.MAX_VALUE));
+    assertEquals(DATA, readUsersWithPrefetching(FilterCompat.NOOP, true, 3, Long.MAX_VALUE));
+    // Nothing fits into the limit so every row group is read synchronously
+    assertEquals(DATA, readUsersWithPrefetching(FilterCompat.NOOP, true, 3, 1));
+
+    Filter filter = FilterCompat.get(eq(binaryColumn("name"), Binary.fromString("miller")));
+    List<User> expected = DATA.stream().filter(user -> "miller".equals(user.getName())).collect(Collectors.toList());
+    assertEquals(expected, readUsersWithPrefetching(filter, true, 2, Long.MAX_VALUE));
+    assertEquals(expected, readUsersWithPrefetching(filter, false, 2, Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testReadParallelism() throws IOException {
+    assertEquals(DATA, readUsers(FilterCompat.NOOP, true, builder -> builder.withReadParallelism(4)));
+
+    Filter filter = FilterCompat.get(eq(binaryColumn("name"), Binary.fromString("miller")));
+    List<User> expected = DATA.stream().filter(user -> "miller".equals(user.getName())).collect(Collectors.toList());
+    assertEquals(expected, readUsers(filter, true, builder -> builder.withReadParallelism(2)));
+    assertEquals(expected, readUsers(filter, true, builder -> builder.withReadParallelism(4).withPrefetchDepth(2)));
+    assertEquals(expected, readUsers(filter, false, builder -> builder.withReadParallelism(4)));
+  }
+
+  @Test
+  public void testMergingReadsWithGaps() throws IOException {
+    assertEquals(DATA, readUsers(FilterCompat.NOOP, true, builder -> builder.withMaxReadGap(1024)));
+
+    Filter filter = FilterCompat.get(eq(binaryColumn("name"), Binary.fromString("miller")));
+    List<User> expected = DATA.stream().filter(user -> "miller".equals(user.getName())).collect(Collectors.toList());
+    assertEquals(expected, readUsers(filter, true, builder -> builder.withMaxReadGap(16)));
+    assertEquals(expected, readUsers(filter, true, builder -> builder.withMaxReadGap(1024 * 1024)));
+    // The merged reads are limited so some of the gaps are not merged
+    assertEquals(expected, readUsers(filter, true,
+        builder -> builder.withMaxReadGap(1024 * 1024).withMaxMergedReadSize(4096)));
+    assertEquals(expected, readUsers(filter, true,
+        builder -> builder.withMaxReadGap(1024).withReadParallelism(4).withPrefetchDepth(1)));
+  }
+
+  @Test
+  public void testMergingReadsWithGapsOfProjection() throws IOException {
+    // name and location.lon are not projected so there is a gap between the id and location.lat chunks
+    MessageType projection = MessageTypeParser.parseMessageType(
+        "message user { required int64 id; optional group location { optional double lat; } }");
+    List<String> expected = DATA.stream()
+        .map(user -> user.getId() + ":" + (user.getLocation() == null ? null : user.getLocation().getLat()))
+        .collect(Collectors.toList());
+
+    long gapSize = 0;
+    int rowGroupCount = 0;
+    for (BlockMetaData block : readFooter(new Configuration(), file, NO_FILTER).getBlocks()) {
+      ColumnChunkMetaData id = block.getColumns().get(0);
+      ColumnChunkMetaData lat = block.getColumns().get(3);
+      assertEquals("location.lat", lat.getPath().toDotString());
+      gapSize += lat.getStartingPos() - (id.getStartingPos() + id.getTotalSize());
+      ++rowGroupCount;
+    }
+    assertTrue("Several row groups are required for the test", rowGroupCount > 1);
+
+    CountingInputFile withoutGaps = new CountingInputFile(HadoopInputFile.fromPath(file, new Configuration()));
+    assertEquals(expected, readProjection(withoutGaps, projection, 0));
+    CountingInputFile withGaps = new CountingInputFile(HadoopInputFile.fromPath(file, new Configuration()));
+    assertEquals(expected, readProjection(withGaps, projection, 1024 * 1024));
+
+    // One read per row group instead of one per projected chunk; the gap bytes are read but not returned as values
+    assertEquals(withoutGaps.reads - rowGroupCount, withGaps.reads);
+    assertEquals(withoutGaps.bytesRead + gapSize, withGaps.bytesRead);
+  }
+
+  private static List<String> readProjection(InputFile inputFile, MessageType projection, int maxReadGap)
+      throws IOException {
+    Configuration conf = new Configuration();
+    conf.set(ReadSupport.PARQUET_READ_SCHEMA, projection.toString());
+    List<String> values = new ArrayList<>();
+    try (ParquetReader<Group> reader = new ParquetReader.Builder<Group>(inputFile) {
+      @Override
+      protected ReadSupport<Group> getReadSupport() {
+        return new GroupReadSupport();
+      }
+    }.withConf(conf).withMaxReadGap(maxReadGap).build()) {
+      for (Group group = reader.read(); group != null; group = reader.read()) {
+        Double lat = null;
+        if (group.getFieldRepetitionCount("location") > 0) {
+          Group location = group.getGroup("location", 0);
+          lat = location.getFieldRepetitionCount("lat") > 0 ? location.getDouble("lat", 0) : null;
+        }
+        values.add(group.getLong("id", 0) + ":" + lat);
+      }
+    }
+    return values;
+  }
+
+  @Test
+  public void testTailRead() throws IOException {
+    Filter filter = FilterCompat.get(eq(binaryColumn("name"), Binary.fromString("miller")));
+    List<User> expected = DATA.stream().filter(user -> "miller".equals(user.getName())).collect(Collectors.toList());
+    // Only the footer length and magic, a part of the footer, the footer with a part of the indexes, the whole file
+    for (int tailReadSize : new int[] { 1, 256, 4096, Integer.MAX_VALUE }) {
+      assertEquals(DATA, readUsers(FilterCompat.NOOP, true,
+          builder -> builder.withTailReadSize(tailReadSize).withMaxTailReadSize(tailReadSize)));
+      assertEquals(expected, readUsers(filter, true,
+          builder -> builder.withTailReadSize(tailReadSize).withMaxTailReadSize(tailReadSize)));
+    }
+    // The tail read size is grown to the size of the footer and indexes read before
+    assertEquals(expected, readUsers(filter, true, builder -> builder.withTailReadSize(1)));
+  }
+
+  @Test
+  public void testBatchedIndexReads() throws IOException {
+    Filter filter = FilterCompat.get(eq(binaryColumn("name"), Binary.fromString("miller")));
+    List<User> expected = DATA.stream().filter(user -> "miller".equals(user.getName())).collect(Collectors.toList());
+    // Every index separately, the indexes of a row group at once, the indexes of all the row groups at once
+    for (int maxIndexReadSize : new int[] { 0, 2048, Integer.MAX_VALUE }) {
+      assertEquals(expected, readUsers(filter, true, builder -> builder.withMaxIndexReadSize(maxIndexReadSize)));
+      assertEquals(expected, readUsers(filter, true,
+          builder -> builder.withMaxIndexReadSize(maxIndexReadSize).withPrefetchDepth(2).withTailReadSize(1024)));
+    }
+  }
+
+  private static class CountingInputFile implements InputFile {
+    private final InputFile file;
+    private int reads;
+    private long bytesRead;
+
+    CountingInputFile(InputFile file) {
+      this.file = file;
+    }
+
+    @Override
+    public long getLength() throws IOException {
+      return file.getLength();
+    }
+
+    @Override
+    public SeekableInputStream newStream() throws IOException {
+      SeekableInputStream stream = file.newStream();
+      return new SeekableInputStream() {
+        @Override
+        public long getPos() throws IOException {
+          return stream.getPos();
+        }
+
+        @Override
+        public void seek(long newPos) throws IOException {
+          stream.seek(newPos);
+        }
+
+        @Override
+        public int read() throws IOException {
+          int b = stream.read();
+          count(b < 0 ? -1 : 1);
+          return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) throws IOException {
+          return count(stream.read(bytes, off, len));
+        }
+
+        @Override
+        public void readFully(byte[] bytes) throws IOException {
+          stream.readFully(bytes);
+          count(bytes.length);
+        }
+
+        @Override
+        public void readFully(byte[] bytes, int start, int len) throws IOException {
+          stream.readFully(bytes, start, len);
+          count(len);
+        }
+
+        @Override
+        public int read(ByteBuffer buf) throws IOException {
+          return count(stream.read(buf));
+        }
+
+        @Override
+        public void readFully(ByteBuffer buf) throws IOException {
+          int len = buf.remaining();
+          stream.readFully(buf);
+          count(len);
+        }
+
+        @Override
+        public void close() throws IOException {
+          stream.close();
+        }
+      };
+    }
+
+    private synchronized int count(int len) {
+      ++reads;
+      if (len > 0) {
+        bytesRead += len;
+      }
+      return len;
+    }
+  }
 }
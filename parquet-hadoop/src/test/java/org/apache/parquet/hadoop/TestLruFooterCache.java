@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import static org.apache.parquet.schema.LogicalTypeAnnotation.stringType;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.format.converter.ParquetMetadataConverter.MetadataFilter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Types;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestLruFooterCache {
+  private static final MessageType SCHEMA = Types.buildMessage()
+      .required(BINARY).as(stringType()).named("str")
+      .named("msg");
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  private Path writeFile(int recordCount) throws IOException {
+    File file = temp.newFile();
+    file.delete();
+    Path path = new Path(file.getAbsolutePath());
+    writeFile(path, recordCount);
+    return path;
+  }
+
+  private static void writeFile(Path path, int recordCount) throws IOException {
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+        .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+        .withType(SCHEMA)
+        .withRowGroupSize(1024)
+        .withPageSize(512)
+        .build()) {
+      for (int i = 0; i < recordCount; ++i) {
+        writer.write(factory.newGroup().append("str", "value-" + i));
+      }
+    }
+  }
+
+  private static List<Long> getStartingPositions(ParquetMetadata footer) {
+    return footer.getBlocks().stream().map(BlockMetaData::getStartingPos).collect(Collectors.toList());
+  }
+
+  private static ParquetMetadata readFooter(Path path, ParquetReadOptions options) throws IOException {
+    try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path, new Configuration()),
+        options)) {
+      return reader.getFooter();
+    }
+  }
+
+  @Test
+  public void testHitsAndMisses() throws IOException {
+    Path path = writeFile(1000);
+    LruFooterCache cache = new LruFooterCache(Long.MAX_VALUE);
+    ParquetReadOptions options = ParquetReadOptions.builder().withFooterCache(cache).build();
+
+    ParquetMetadata footer = readFooter(path, options);
+    assertEquals(0, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.getEntryCount());
+
+    ParquetMetadata cachedFooter = readFooter(path, options);
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertSame(footer.getFileMetaData(), cachedFooter.getFileMetaData());
+    assertEquals(footer.getBlocks(), cachedFooter.getBlocks());
+
+    try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), path)
+        .withFooterCache(cache)
+        .build()) {
+      int i = 0;
+      for (Group group = reader.read(); group != null; group = reader.read(), ++i) {
+        assertEquals("value-" + i, group.getString("str", 0));
+      }
+      assertEquals(1000, i);
+    }
+    assertEquals(2, cache.getHitCount());
+
+    // The footer of the rewritten file is not served from the cache
+    writeFile(path, 2000);
+    assertEquals(2000, readFooter(path, options).getBlocks().stream().mapToLong(BlockMetaData::getRowCount).sum());
+    assertEquals(2, cache.getMissCount());
+    assertEquals(2, cache.getEntryCount());
+  }
+
+  @Test
+  public void testMetadataFilters() throws IOException {
+    Path path = writeFile(10000);
+    List<BlockMetaData> blocks = readFooter(path, ParquetReadOptions.builder().build()).getBlocks();
+    assertEquals("Several row groups are required for the test", true, blocks.size() > 2);
+    long fileLength = HadoopInputFile.fromPath(path, new Configuration()).getLength();
+
+    LruFooterCache cache = new LruFooterCache(Long.MAX_VALUE);
+    readFooter(path, ParquetReadOptions.builder().withFooterCache(cache).build());
+    for (MetadataFilter filter : new MetadataFilter[] {
+        ParquetMetadataConverter.NO_FILTER,
+        ParquetMetadataConverter.SKIP_ROW_GROUPS,
+        ParquetMetadataConverter.range(0, fileLength / 2),
+        ParquetMetadataConverter.range(fileLength / 2, fileLength),
+        ParquetMetadataConverter.offsets(blocks.get(1).getStartingPos(), blocks.get(2).getStartingPos()) }) {
+      ParquetMetadata expected = readFooter(path, ParquetReadOptions.builder().withMetadataFilter(filter).build());
+      ParquetMetadata actual = readFooter(path,
+          ParquetReadOptions.builder().withMetadataFilter(filter).withFooterCache(cache).build());
+      assertEquals(filter.toString(), getStartingPositions(expected), getStartingPositions(actual));
+    }
+    assertEquals(0, cache.getEvictionCount());
+    assertEquals(5, cache.getHitCount());
+  }
+
+  @Test
+  public void testEviction() throws IOException {
+    Path path1 = writeFile(100);
+    Path path2 = writeFile(100);
+    Path path3 = writeFile(100);
+    long footerSize = LruFooterCache.estimateSize(readFooter(path1, ParquetReadOptions.builder().build()));
+
+    // Two footers fit into the cache
+    LruFooterCache cache = new LruFooterCache(footerSize * 2);
+    ParquetReadOptions options = ParquetReadOptions.builder().withFooterCache(cache).build();
+    readFooter(path1, options);
+    readFooter(path2, options);
+    // path1 becomes the most recently used one
+    readFooter(path1, options);
+    readFooter(path3, options);
+    assertEquals(1, cache.getEvictionCount());
+    assertEquals(2, cache.getEntryCount());
+    assertEquals(footerSize * 2, cache.getEstimatedSize());
+
+    assertNotNull(cache.get(FooterCache.Key.of(HadoopInputFile.fromPath(path1, new Configuration()))));
+    assertNull(cache.get(FooterCache.Key.of(HadoopInputFile.fromPath(path2, new Configuration()))));
+    assertNotNull(cache.get(FooterCache.Key.of(HadoopInputFile.fromPath(path3, new Configuration()))));
+
+    // Footers larger than the whole cache are not cached
+    LruFooterCache smallCache = new LruFooterCache(footerSize - 1);
+    readFooter(path1, ParquetReadOptions.builder().withFooterCache(smallCache).build());
+    assertEquals(0, smallCache.getEntryCount());
+    assertEquals(0, smallCache.getEvictionCount());
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import static org.apache.parquet.filter2.predicate.FilterApi.and;
+import static org.apache.parquet.filter2.predicate.FilterApi.binaryColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.eq;
+import static org.apache.parquet.filter2.predicate.FilterApi.gtEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.longColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.lt;
+import static org.apache.parquet.filter2.predicate.FilterApi.or;
+import static org.apache.parquet.schema.LogicalTypeAnnotation.stringType;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.DOUBLE;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.function.LongPredicate;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.vector.BinaryColumnVector;
+import org.apache.parquet.column.vector.ColumnarBatch;
+import org.apache.parquet.column.vector.DoubleColumnVector;
+import org.apache.parquet.column.vector.LongColumnVector;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Types;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestParquetBatchReader {
+  private static final int RECORD_COUNT = 20000;
+  private static final MessageType SCHEMA = Types.buildMessage()
+      .required(INT64).named("id")
+      .optional(BINARY).as(stringType()).named("name")
+      .required(DOUBLE).named("score")
+      .named("msg");
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  private Path writeFile() throws IOException {
+    return writeFile(CompressionCodecName.UNCOMPRESSED);
+  }
+
+  private Path writeFile(CompressionCodecName codec) throws IOException {
+    File file = temp.newFile();
+    file.delete();
+    Path path = new Path(file.getAbsolutePath());
+    SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+    try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+        .withType(SCHEMA)
+        .withRowGroupSize(64 * 1024)
+        .withPageSize(4096)
+        .withCompressionCodec(codec)
+        .build()) {
+      for (int i = 0; i < RECORD_COUNT; ++i) {
+        Group group = factory.newGroup().append("id", (long) i).append("score", i * 0.25);
+        if (i % 10 != 0) {
+          group.append("name", "name-" + (i % 100));
+        }
+        writer.write(group);
+      }
+    }
+    return path;
+  }
+
+  @Test
+  public void testReadAllColumns() throws IOException {
+    Path path = writeFile();
+    try (ParquetBatchReader reader = new ParquetBatchReader(HadoopInputFile.fromPath(path, new Configuration()),
+        ParquetReadOptions.builder().build(), null)) {
+      assertEquals(RECORD_COUNT, reader.getRecordCount());
+      ColumnarBatch batch = reader.newBatch(3000);
+      int row = 0;
+      int batches = 0;
+      for (int rows = reader.readBatch(batch); rows > 0; rows = reader.readBatch(batch)) {
+        ++batches;
+        LongColumnVector ids = (LongColumnVector) batch.getColumn("id");
+        BinaryColumnVector names = (BinaryColumnVector) batch.getColumn("name");
+        DoubleColumnVector scores = (DoubleColumnVector) batch.getColumn("score");
+        for (int i = 0; i < rows; ++i, ++row) {
+          assertEquals(row, ids.getLong(i));
+          assertEquals(row % 10 == 0, names.isNull(i));
+          if (row % 10 != 0) {
+            assertEquals("name-" + (row % 100), names.getBinary(i).toStringUsingUTF8());
+          }
+          assertEquals(row * 0.25, scores.getDouble(i), 0);
+        }
+      }
+      assertEquals(RECORD_COUNT, row);
+      assertTrue("The batches shall not span row groups", batches > RECORD_COUNT / 3000 + 1);
+    }
+  }
+
+  @Test
+  public void testProjection() throws IOException {
+    Path path = writeFile();
+    MessageType projection = Types.buildMessage()
+        .optional(BINARY).as(stringType()).named("name")
+        .named("msg");
+    try (ParquetBatchReader reader = new ParquetBatchReader(HadoopInputFile.fromPath(path, new Configuration()),
+        ParquetReadOptions.builder().build(), projection)) {
+      ColumnarBatch batch = reader.newBatch(1024);
+      assertEquals(1, batch.getColumnCount());
+      int row = 0;
+      int nulls = 0;
+      for (int rows = reader.readBatch(batch); rows > 0; rows = reader.readBatch(batch)) {
+        BinaryColumnVector names = (BinaryColumnVector) batch.getColumn(0);
+        nulls += names.getNullCount();
+        for (int i = 0; i < rows; ++i, ++row) {
+          if (row % 10 != 0) {
+            assertEquals("name-" + (row % 100), names.getBinary(i).toStringUsingUTF8());
+          }
+        }
+      }
+      assertEquals(RECORD_COUNT, row);
+      assertEquals(RECORD_COUNT / 10, nulls);
+    }
+  }
+
+  @Test
+  public void testFilteredRows() throws IOException {
+    Path path = writeFile();
+    FilterPredicate range = and(gtEq(longColumn("id"), 5000L), lt(longColumn("id"), 5100L));
+    testFilteredRows(path, range, id -> id >= 5000 && id < 5100, true);
+    testFilteredRows(path, range, id -> id >= 5000 && id < 5100, false);
+    FilterPredicate points =
+        or(eq(longColumn("id"), 7L), or(eq(longColumn("id"), 12345L), eq(longColumn("id"), 19999L)));
+    testFilteredRows(path, points, id -> id == 7 || id == 12345 || id == 19999, true);
+    // the rows of all the pages of the id column match
+    FilterPredicate names = eq(binaryColumn("name"), Binary.fromString("name-42"));
+    testFilteredRows(path, names, id -> id % 100 == 42, true);
+    testFilteredRows(path, and(names, lt(longColumn("id"), 0L)), id -> false, true);
+  }
+
+  private void testFilteredRows(Path path, FilterPredicate predicate, LongPredicate expected,
+      boolean useColumnIndexFilter) throws IOException {
+    // the filter columns are not projected
+    MessageType projection = Types.buildMessage()
+        .required(DOUBLE).named("score")
+        .named("msg");
+    ParquetReadOptions options = ParquetReadOptions.builder()
+        .withRecordFilter(FilterCompat.get(predicate))
+        .useColumnIndexFilter(useColumnIndexFilter)
+        .build();
+    try (ParquetBatchReader reader = new ParquetBatchReader(HadoopInputFile.fromPath(path, new Configuration()),
+        options, projection)) {
+      ColumnarBatch batch = reader.newBatch(64);
+      long id = next(expected, 0);
+      for (int rows = reader.readBatch(batch); rows > 0; rows = reader.readBatch(batch)) {
+        DoubleColumnVector scores = (DoubleColumnVector) batch.getColumn("score");
+        for (int i = 0; i < rows; ++i) {
+          assertTrue(predicate + ": unexpected row", id < RECORD_COUNT);
+          assertEquals(predicate.toString(), id * 0.25, scores.getDouble(i), 0);
+          id = next(expected, id + 1);
+        }
+      }
+      assertEquals(predicate + ": missing rows", RECORD_COUNT, id);
+    }
+  }
+
+  @Test
+  public void testFilteredRowsOfProjectedFilterColumns() throws IOException {
+    // the pages of the filter columns are decompressed again for the projection
+    Path path = writeFile(CompressionCodecName.SNAPPY);
+    testFilteredRowsOfProjectedFilterColumns(path, and(gtEq(longColumn("id"), 5000L), lt(longColumn("id"), 5100L)),
+        id -> id >= 5000 && id < 5100);
+    testFilteredRowsOfProjectedFilterColumns(path, eq(binaryColumn("name"), Binary.fromString("name-42")),
+        id -> id % 100 == 42);
+    testFilteredRowsOfProjectedFilterColumns(path,
+        or(eq(longColumn("id"), 7L), eq(binaryColumn("name"), Binary.fromString("name-99"))),
+        id -> id == 7 || id % 100 == 99);
+  }
+
+  private void testFilteredRowsOfProjectedFilterColumns(Path path, FilterPredicate predicate, LongPredicate expected)
+      throws IOException {
+    ParquetReadOptions options = ParquetReadOptions.builder()
+        .withRecordFilter(FilterCompat.get(predicate))
+        .build();
+    try (ParquetBatchReader reader = new ParquetBatchReader(HadoopInputFile.fromPath(path, new Configuration()),
+        options, null)) {
+      ColumnarBatch batch = reader.newBatch(64);
+      long id = next(expected, 0);
+      for (int rows = reader.readBatch(batch); rows > 0; rows = reader.readBatch(batch)) {
+        LongColumnVector ids = (LongColumnVector) batch.getColumn("id");
+        BinaryColumnVector names = (BinaryColumnVector) batch.getColumn("name");
+        DoubleColumnVector scores = (DoubleColumnVector) batch.getColumn("score");
+        for (int i = 0; i < rows; ++i) {
+          assertTrue(predicate + ": unexpected row", id < RECORD_COUNT);
+          assertEquals(predicate.toString(), id, ids.getLong(i));
+          assertEquals(id % 10 == 0, names.isNull(i));
+          if (id % 10 != 0) {
+            assertEquals("name-" + (id % 100), names.getBinary(i).toStringUsingUTF8());
+          }
+          assertEquals(predicate.toString(), id * 0.25, scores.getDouble(i), 0);
+          id = next(expected, id + 1);
+        }
+      }
+      assertEquals(predicate + ": missing rows", RECORD_COUNT, id);
+    }
+  }
+
+  // the first row from the specified one matching the predicate; RECORD_COUNT if none
+  private static long next(LongPredicate expected, long from) {
+    long id = from;
+    while (id < RECORD_COUNT && !expected.test(id)) {
+      ++id;
+    }
+    return id;
+  }
+}
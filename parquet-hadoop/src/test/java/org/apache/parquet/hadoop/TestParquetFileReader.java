@@ -0,0 +1,542 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.parquet.hadoop;
+
+import static java.util.Arrays.asList;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED;
+import static org.apache.parquet.schema.LogicalTypeAnnotation.stringType;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.Counters;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.parquet.HadoopReadOptions;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.bytes.ByteBufferAllocator;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.bytes.PooledByteBufferAllocator;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.ParquetProperties.WriterVersion;
+import org.apache.parquet.column.page.DataPage;
+import org.apache.parquet.column.page.DataPageV1;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.column.page.PageReader;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.GroupFactory;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ColumnChunkPageReadStore.ColumnChunkPageReader;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.example.GroupWriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.hadoop.util.counters.BenchmarkCounter;
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.LocalOutputFile;
+import org.apache.parquet.io.SeekableInputStream;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Types;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestParquetFileReader {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void testDecompressionLookAhead() throws IOException {
+    MessageType schema = Types.buildMessage()
+        .required(BINARY).as(stringType()).named("str")
+        .optional(BINARY).as(stringType()).named("optional_str")
+        .named("msg");
+    final int recordCount = 1000;
+    Configuration conf = new Configuration();
+    GroupWriteSupport.setSchema(schema, conf);
+    GroupFactory factory = new SimpleGroupFactory(schema);
+
+    for (CompressionCodecName codec : asList(CompressionCodecName.GZIP, CompressionCodecName.SNAPPY)) {
+      for (WriterVersion version : WriterVersion.values()) {
+        File file = temp.newFile();
+        file.delete();
+        Path path = new Path(file.getAbsolutePath());
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+            .withCompressionCodec(codec)
+            .withWriterVersion(version)
+            .withDictionaryEncoding(false)
+            .withPageRowCountLimit(10)
+            .withRowGroupSize(4096)
+            .withConf(conf)
+            .build()) {
+          for (int i = 0; i < recordCount; ++i) {
+            Group group = factory.newGroup().append("str", "value-" + i);
+            if (i % 3 != 0) {
+              group.append("optional_str", "optional-value-" + i);
+            }
+            writer.write(group);
+          }
+        }
+
+        // Every page is decompressed ahead; a tiny limit falls back to decompressing at reading
+        for (long maxBytes : new long[] { Long.MAX_VALUE, 64 }) {
+          for (int lookAhead : new int[] { 1, 4, 100 }) {
+            try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), path)
+                .withDecompressionLookAhead(lookAhead)
+                .withDecompressionMaxBytes(maxBytes)
+                .withDecompressionThreads(lookAhead == 1 ? 1 : 3)
+                .build()) {
+              int i = 0;
+              for (Group group = reader.read(); group != null; group = reader.read(), ++i) {
+                assertEquals("value-" + i, group.getString("str", 0));
+                assertEquals(i % 3 == 0 ? 0 : 1, group.getFieldRepetitionCount("optional_str"));
+              }
+              assertEquals(codec + " " + version, recordCount, i);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testDecompressionMaxBytesOfReader() throws IOException {
+    CodecFactory codecFactory = new CodecFactory(new Configuration(), 1024);
+    List<DataPage> pages = new ArrayList<>();
+    for (int i = 0; i < 4; ++i) {
+      BytesInput compressed = codecFactory.getCompressor(CompressionCodecName.GZIP)
+          .compress(BytesInput.from(new byte[100]));
+      pages.add(new DataPageV1(BytesInput.copy(compressed), 100, 100, null, Encoding.RLE, Encoding.RLE,
+          Encoding.PLAIN));
+    }
+    // room for two pages for all the row groups together
+    try (DecompressionPipeline.Workers workers = new DecompressionPipeline.Workers(codecFactory, 2, 250, "test")) {
+      ColumnChunkPageReadStore rowGroup = new ColumnChunkPageReadStore(400);
+      ColumnChunkPageReader reader = new ColumnChunkPageReader(
+          codecFactory.getDecompressor(CompressionCodecName.GZIP), pages, null, null, 400,
+          new DecompressionPipeline(workers, 4), CompressionCodecName.GZIP);
+      rowGroup.addColumn(new ColumnDescriptor(new String[] { "a" }, BINARY, 0, 0), reader);
+      // the first page is decompressed at reading and the next two ahead
+      assertEquals(100, reader.readPage().getUncompressedSize());
+
+      DecompressionPipeline nextRowGroup = new DecompressionPipeline(workers, 4);
+      assertFalse(nextRowGroup.reserve(100));
+      // the pages decompressed ahead are given back when the row group is released without reading them
+      rowGroup.releaseBuffers();
+      assertTrue(nextRowGroup.reserve(250));
+      nextRowGroup.release(250);
+    } finally {
+      codecFactory.release();
+    }
+  }
+
+  @Test
+  public void testLocalFiles() throws IOException {
+    MessageType schema = Types.buildMessage()
+        .required(BINARY).as(stringType()).named("str")
+        .named("msg");
+    final int recordCount = 10000;
+    GroupFactory factory = new SimpleGroupFactory(schema);
+    java.nio.file.Path path = temp.newFile().toPath();
+
+    try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(new LocalOutputFile(path))
+        .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+        .withType(schema)
+        .withCompressionCodec(CompressionCodecName.SNAPPY)
+        .withRowGroupSize(16 * 1024)
+        .withPageSize(1024)
+        .build()) {
+      for (int i = 0; i < recordCount; ++i) {
+        writer.write(factory.newGroup().append("str", "value-" + i));
+      }
+    }
+
+    LocalInputFile file = new LocalInputFile(path);
+    try (ParquetFileReader reader = ParquetFileReader.open(file)) {
+      assertTrue("Several row groups are required for the test", reader.getRowGroups().size() > 1);
+    }
+    try (ParquetReader<Group> reader = new ParquetReader.Builder<Group>(file) {
+      @Override
+      protected ReadSupport<Group> getReadSupport() {
+        return new GroupReadSupport();
+      }
+    }.build()) {
+      int i = 0;
+      for (Group group = reader.read(); group != null; group = reader.read(), ++i) {
+        assertEquals("value-" + i, group.getString("str", 0));
+      }
+      assertEquals(recordCount, i);
+    }
+  }
+
+  @Test
+  public void testPooledAllocator() throws IOException, InterruptedException {
+    MessageType schema = Types.buildMessage()
+        .required(BINARY).as(stringType()).named("str")
+        .optional(BINARY).as(stringType()).named("optional_str")
+        .named("msg");
+    final int recordCount = 10000;
+    GroupFactory factory = new SimpleGroupFactory(schema);
+
+    for (CompressionCodecName codec : asList(UNCOMPRESSED, CompressionCodecName.SNAPPY)) {
+      File file = temp.newFile();
+      file.delete();
+      Path path = new Path(file.getAbsolutePath());
+      try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+          .withType(schema)
+          .withCompressionCodec(codec)
+          .withRowGroupSize(16 * 1024)
+          .withPageSize(1024)
+          .build()) {
+        for (int i = 0; i < recordCount; ++i) {
+          Group group = factory.newGroup().append("str", "value-" + i);
+          if (i % 3 != 0) {
+            group.append("optional_str", "optional-value-" + i);
+          }
+          writer.write(group);
+        }
+      }
+
+      for (int prefetchDepth : new int[] { 0, 2 }) {
+        PooledByteBufferAllocator allocator =
+            new PooledByteBufferAllocator(new HeapByteBufferAllocator(), 64 << 20, true);
+        for (int run = 0; run < 3; ++run) {
+          long allocationCount = allocator.getAllocationCount();
+          try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), path)
+              .withAllocator(allocator)
+              .withPrefetchDepth(prefetchDepth)
+              .withReadParallelism(2)
+              .build()) {
+            int i = 0;
+            for (Group group = reader.read(); group != null; group = reader.read(), ++i) {
+              assertEquals("value-" + i, group.getString("str", 0));
+              assertEquals(i % 3 == 0 ? 0 : 1, group.getFieldRepetitionCount("optional_str"));
+              if (prefetchDepth > 0 && i % 500 == 0) {
+                // the prefetching is given time to complete so every run has the same number of buffers in use
+                Thread.sleep(10);
+              }
+            }
+            assertEquals(recordCount, i);
+          }
+          assertEquals("All the buffers should be released", 0, allocator.getOutstandingCount());
+          if (run > 0) {
+            assertEquals("The buffers of the previous runs should be reused", allocationCount,
+                allocator.getAllocationCount());
+          }
+        }
+        assertTrue(allocator.getReuseCount() > 0);
+      }
+    }
+
+    // A reader closed before reading all the prefetched row groups releases them as well
+    File file = temp.newFile();
+    file.delete();
+    Path path = new Path(file.getAbsolutePath());
+    try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+        .withType(schema)
+        .withRowGroupSize(16 * 1024)
+        .build()) {
+      for (int i = 0; i < recordCount; ++i) {
+        writer.write(factory.newGroup().append("str", "value-" + i));
+      }
+    }
+    PooledByteBufferAllocator allocator = new PooledByteBufferAllocator(new HeapByteBufferAllocator(), 64 << 20, true);
+    try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), path)
+        .withAllocator(allocator)
+        .withPrefetchDepth(4)
+        .build()) {
+      assertEquals("value-0", reader.read().getString("str", 0));
+    }
+    // the prefetching task might still be running
+    for (int i = 0; i < 100 && allocator.getOutstandingCount() > 0; ++i) {
+      try {
+        Thread.sleep(10);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    assertEquals("All the buffers should be released", 0, allocator.getOutstandingCount());
+   }
+
+  @Test
+  public void testReleaseBuffersOfFailedReads() throws IOException {
+    MessageType schema = Types.buildMessage()
+        .required(BINARY).as(stringType()).named("a")
+        .required(BINARY).as(stringType()).named("b")
+        .required(BINARY).as(stringType()).named("c")
+        .named("msg");
+    GroupFactory factory = new SimpleGroupFactory(schema);
+    File file = temp.newFile();
+    file.delete();
+    Path path = new Path(file.getAbsolutePath());
+    try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(path).withType(schema).build()) {
+      for (int i = 0; i < 1000; ++i) {
+        writer.write(factory.newGroup().append("a", "a-" + i).append("b", "b-" + i).append("c", "c-" + i));
+      }
+    }
+
+    // b is not projected so a and c are read as separate parts; reading c fails after a has been read
+    Configuration conf = new Configuration();
+    InputFile inputFile = HadoopInputFile.fromPath(path, conf);
+    long failingOffset;
+    try (ParquetFileReader reader = new ParquetFileReader(inputFile, HadoopReadOptions.builder(conf).build())) {
+      failingOffset = reader.getRowGroups().get(0).getColumns().get(2).getStartingPos();
+    }
+    InputFile failingFile = new InputFile() {
+      @Override
+      public long getLength() throws IOException {
+        return inputFile.getLength();
+      }
+
+      @Override
+      public SeekableInputStream newStream() throws IOException {
+        return new DelegatingSeekableInputStream(inputFile.newStream()) {
+          @Override
+          public void readFully(ByteBuffer buf) throws IOException {
+            if (getPos() == failingOffset) {
+              throw new IOException("Test failure reading the column c");
+            }
+            super.readFully(buf);
+          }
+
+          @Override
+          public long getPos() throws IOException {
+            return ((SeekableInputStream) getStream()).getPos();
+          }
+
+          @Override
+          public void seek(long newPos) throws IOException {
+            ((SeekableInputStream) getStream()).seek(newPos);
+          }
+        };
+      }
+    };
+    MessageType projection = Types.buildMessage()
+        .required(BINARY).as(stringType()).named("a")
+        .required(BINARY).as(stringType()).named("c")
+        .named("msg");
+
+    for (int parallelism : new int[] { 1, 2 }) {
+      PooledByteBufferAllocator allocator =
+          new PooledByteBufferAllocator(new HeapByteBufferAllocator(), 64 << 20, true);
+      ParquetReadOptions options = HadoopReadOptions.builder(conf)
+          .withAllocator(allocator)
+          .withReadParallelism(parallelism)
+          .build();
+      try (ParquetFileReader reader = new ParquetFileReader(failingFile, options)) {
+        reader.setRequestedSchema(projection);
+        try {
+          reader.readNextRowGroup();
+          fail("Reading the column c should fail");
+        } catch (IOException e) {
+          // expected
+        }
+      }
+      assertEquals("All the buffers should be released", 0, allocator.getOutstandingCount());
+    }
+  }
+
+  @Test
+  public void testTotalBytesOfSkippedPrefetchedRowGroups() throws IOException {
+    MessageType schema = Types.buildMessage()
+        .required(BINARY).as(stringType()).named("str")
+        .named("msg");
+    GroupFactory factory = new SimpleGroupFactory(schema);
+    File file = temp.newFile();
+    file.delete();
+    Path path = new Path(file.getAbsolutePath());
+    try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+        .withType(schema)
+        .withRowGroupSize(16 * 1024)
+        .build()) {
+      for (int i = 0; i < 10000; ++i) {
+        writer.write(factory.newGroup().append("str", "value-" + i));
+      }
+    }
+
+    Counters counters = new Counters();
+    BenchmarkCounter.initCounterFromReporter(new Reporter() {
+      @Override
+      public void setStatus(String status) {
+      }
+
+      @Override
+      public Counters.Counter getCounter(Enum<?> name) {
+        return counters.findCounter(name);
+      }
+
+      @Override
+      public Counters.Counter getCounter(String group, String name) {
+        return counters.findCounter(group, name);
+      }
+
+      @Override
+      public void incrCounter(Enum<?> key, long amount) {
+        counters.incrCounter(key, amount);
+      }
+
+      @Override
+      public void incrCounter(String group, String counter, long amount) {
+        counters.incrCounter(group, counter, amount);
+      }
+
+      @Override
+      public InputSplit getInputSplit() {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public float getProgress() {
+        return 0;
+      }
+
+      @Override
+      public void progress() {
+      }
+    }, new Configuration());
+    try {
+      Configuration conf = new Configuration();
+      ParquetReadOptions options = HadoopReadOptions.builder(conf).withPrefetchDepth(2).build();
+      long expectedTotalBytes = 0;
+      try (ParquetFileReader reader = new ParquetFileReader(HadoopInputFile.fromPath(path, conf), options)) {
+        assertTrue(reader.getRowGroups().size() > 4);
+        // every second row group is skipped after it has been prefetched
+        for (int i = 0; reader.readNextRowGroup() != null; i += 2) {
+          expectedTotalBytes += reader.getRowGroups().get(i).getColumns().get(0).getTotalSize();
+          reader.skipNextRowGroup();
+        }
+      }
+      assertEquals(expectedTotalBytes, BenchmarkCounter.getTotalBytes());
+    } finally {
+      BenchmarkCounter.initCounterFromReporter(Reporter.NULL, new Configuration());
+    }
+  }
+
+  @Test
+  public void testInterruptWhileDecompressingAhead() throws IOException, InterruptedException {
+    MessageType schema = Types.buildMessage()
+        .required(BINARY).as(stringType()).named("str")
+        .named("msg");
+    final int recordCount = 1000;
+    GroupFactory factory = new SimpleGroupFactory(schema);
+    File file = temp.newFile();
+    file.delete();
+    Path path = new Path(file.getAbsolutePath());
+    try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+        .withType(schema)
+        .withCompressionCodec(CompressionCodecName.GZIP)
+        .withDictionaryEncoding(false)
+        .withPageRowCountLimit(10)
+        .withRowGroupSize(4096)
+        .build()) {
+      for (int i = 0; i < recordCount; ++i) {
+        writer.write(factory.newGroup().append("str", "value-" + i));
+      }
+    }
+
+    // The workers are slow so pages are still being decompressed ahead when the reader thread is interrupted
+    Configuration conf = new Configuration();
+    AtomicInteger decompressing = new AtomicInteger();
+    AtomicInteger releasedWhileDecompressing = new AtomicInteger();
+    CodecFactory codecFactory = new CodecFactory(conf, 0) {
+      @Override
+      protected BytesDecompressor createDecompressor(CompressionCodecName codecName) {
+        BytesDecompressor decompressor = super.createDecompressor(codecName);
+        return new BytesDecompressor() {
+          @Override
+          public BytesInput decompress(BytesInput bytes, int uncompressedSize) throws IOException {
+            decompressing.incrementAndGet();
+            try {
+              if (Thread.currentThread().getName().startsWith("parquet-decompression")) {
+                Thread.sleep(200);
+              }
+              return decompressor.decompress(bytes, uncompressedSize);
+            } catch (InterruptedException e) {
+              throw new IOException(e);
+            } finally {
+              decompressing.decrementAndGet();
+            }
+          }
+
+          @Override
+          public void decompress(ByteBuffer input, int compressedSize, ByteBuffer output, int uncompressedSize)
+              throws IOException {
+            decompressor.decompress(input, compressedSize, output, uncompressedSize);
+          }
+
+          @Override
+          public void release() {
+            decompressor.release();
+          }
+        };
+      }
+    };
+    ByteBufferAllocator allocator = new HeapByteBufferAllocator() {
+      @Override
+      public void release(ByteBuffer buffer) {
+        if (decompressing.get() > 0) {
+          releasedWhileDecompressing.incrementAndGet();
+        }
+        super.release(buffer);
+      }
+    };
+    ParquetReadOptions options = HadoopReadOptions.builder(conf)
+        .withCodecFactory(codecFactory)
+        .withAllocator(allocator)
+        .withDecompressionLookAhead(4)
+        .build();
+    try (ParquetFileReader reader = new ParquetFileReader(HadoopInputFile.fromPath(path, conf), options)) {
+      assertTrue("Several row groups are required for the test", reader.getRowGroups().size() > 1);
+      ColumnDescriptor column = schema.getColumns().get(0);
+      PageReader pageReader = reader.readNextRowGroup().getPageReader(column);
+      assertNotNull(pageReader.readPage());
+      for (int i = 0; i < 100 && decompressing.get() == 0; ++i) {
+        Thread.sleep(1);
+      }
+      assertTrue("Pages should be decompressed ahead", decompressing.get() > 0);
+
+      Thread.currentThread().interrupt();
+      PageReadStore rowGroup = reader.readNextRowGroup();
+      assertTrue("The interrupt status should be kept", Thread.interrupted());
+      assertEquals("No buffer should be released while being decompressed", 0, releasedWhileDecompressing.get());
+      assertNotNull(rowGroup.getPageReader(column).readPage());
+    } finally {
+      Thread.interrupted();
+    }
+  }
+}
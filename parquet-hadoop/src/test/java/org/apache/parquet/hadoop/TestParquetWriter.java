@@ -36,6 +36,8 @@ import static org.apache.parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESS
 import static org.apache.parquet.schema.LogicalTypeAnnotation.stringType;
 import static org.apache.parquet.schema.MessageTypeParser.parseMessageType;
 import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
 
 import java.io.File;
 import java.io.IOException;
@@ -43,6 +45,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.Callable;
 
 import org.apache.hadoop.conf.Configuration;
@@ -58,6 +61,7 @@ import org.junit.Test;
 
 import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.ParquetProperties.WriterVersion;
+import org.apache.parquet.column.vector.ColumnarWriteBatch;
 import org.apache.parquet.example.data.Group;
 import org.apache.parquet.example.data.GroupFactory;
 import org.apache.parquet.example.data.simple.SimpleGroupFactory;
@@ -65,7 +69,9 @@ import org.apache.parquet.hadoop.example.GroupReadSupport;
 import org.apache.parquet.hadoop.example.GroupWriteSupport;
 import org.apache.parquet.hadoop.metadata.BlockMetaData;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.MessageType;
 import org.junit.rules.TemporaryFolder;
@@ -207,4 +213,344 @@ public class TestParquetWriter {
       assertEquals("Number of written records should be equal to the read one", recordCount, readRecordCount);
     }
   }
+
+  @Test
+  public void testFlushParallelism() throws IOException {
+    final int columnCount = 20;
+    Types.MessageTypeBuilder builder = Types.buildMessage();
+    for (int c = 0; c < columnCount; ++c) {
+      builder.optional(BINARY).as(stringType()).named("str_" + c);
+    }
+    MessageType schema = builder.named("msg");
+    final int recordCount = 5000;
+    GroupFactory factory = new SimpleGroupFactory(schema);
+
+    for (CompressionCodecName codec : asList(CompressionCodecName.GZIP, CompressionCodecName.SNAPPY)) {
+      for (WriterVersion version : WriterVersion.values()) {
+        byte[] expected = null;
+        for (int parallelism : new int[] { 1, 4 }) {
+          File file = temp.newFile();
+          file.delete();
+          Path path = new Path(file.getAbsolutePath());
+          try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+              .withType(schema)
+              .withCompressionCodec(codec)
+              .withWriterVersion(version)
+              .withFlushParallelism(parallelism)
+              .withRowGroupSize(64 * 1024)
+              .withPageSize(1024)
+              .build()) {
+            for (int i = 0; i < recordCount; ++i) {
+              Group group = factory.newGroup();
+              for (int c = 0; c < columnCount; ++c) {
+                if ((i + c) % 7 != 0) {
+                  group.append("str_" + c, "value-" + (i % (c + 10)) + "-" + c);
+                }
+              }
+              writer.write(group);
+            }
+          }
+
+          try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), path).build()) {
+            int i = 0;
+            for (Group group = reader.read(); group != null; group = reader.read(), ++i) {
+              for (int c = 0; c < columnCount; ++c) {
+                if ((i + c) % 7 != 0) {
+                  assertEquals("value-" + (i % (c + 10)) + "-" + c, group.getString("str_" + c, 0));
+                } else {
+                  assertEquals(0, group.getFieldRepetitionCount("str_" + c));
+                }
+              }
+            }
+            assertEquals(recordCount, i);
+          }
+
+          // the column chunks are written in the same order with the same content whatever the parallelism is
+          byte[] bytes = java.nio.file.Files.readAllBytes(file.toPath());
+          if (expected == null) {
+            expected = bytes;
+            assertTrue("Several row groups are required for the test",
+                readFooter(new Configuration(), path, NO_FILTER).getBlocks().size() > 1);
+          } else {
+            Assert.assertArrayEquals(codec + " " + version, expected, bytes);
+          }
+        }
+      }
+    }
+  }
+
+
+  @Test
+  public void testPageCompressionThreads() throws IOException {
+    final int columnCount = 20;
+    Types.MessageTypeBuilder builder = Types.buildMessage();
+    for (int c = 0; c < columnCount; ++c) {
+      builder.optional(BINARY).as(stringType()).named("str_" + c);
+    }
+    MessageType schema = builder.named("msg");
+    final int recordCount = 5000;
+    GroupFactory factory = new SimpleGroupFactory(schema);
+
+    for (CompressionCodecName codec : asList(CompressionCodecName.GZIP, CompressionCodecName.SNAPPY)) {
+      for (WriterVersion version : WriterVersion.values()) {
+        byte[] expected = null;
+        int expectedRowGroups = 0;
+        for (int compressionThreads : new int[] { 0, 1, 3 }) {
+          for (int parallelism : new int[] { 1, 4 }) {
+            File file = temp.newFile();
+            file.delete();
+            Path path = new Path(file.getAbsolutePath());
+            try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+                .withType(schema)
+                .withCompressionCodec(codec)
+                .withWriterVersion(version)
+                .withFlushParallelism(parallelism)
+                .withPageCompressionThreads(compressionThreads)
+                .withPageCompressionQueueSize(4)
+                .withRowGroupSize(64 * 1024)
+                .withPageSize(1024)
+                .build()) {
+              for (int i = 0; i < recordCount; ++i) {
+                Group group = factory.newGroup();
+                for (int c = 0; c < columnCount; ++c) {
+                  if ((i + c) % 7 != 0) {
+                    group.append("str_" + c, "value-" + (i % (c + 10)) + "-" + c);
+                  }
+                }
+                writer.write(group);
+              }
+            }
+
+            try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), path).build()) {
+              int i = 0;
+              for (Group group = reader.read(); group != null; group = reader.read(), ++i) {
+                for (int c = 0; c < columnCount; ++c) {
+                  if ((i + c) % 7 != 0) {
+                    assertEquals("value-" + (i % (c + 10)) + "-" + c, group.getString("str_" + c, 0));
+                  } else {
+                    assertEquals(0, group.getFieldRepetitionCount("str_" + c));
+                  }
+                }
+              }
+              assertEquals(recordCount, i);
+            }
+
+            int rowGroups = readFooter(new Configuration(), path, NO_FILTER).getBlocks().size();
+            if (compressionThreads == 0) {
+              expectedRowGroups = rowGroups;
+              assertTrue("Several row groups are required for the test", rowGroups > 1);
+              continue;
+            }
+            // the pages waiting for their compression are estimated at the compression ratio of the pages before
+            // them, so the row groups are about as large as without background compression
+            assertTrue(codec + " " + version + ": " + rowGroups + " row groups instead of " + expectedRowGroups,
+                Math.abs(rowGroups - expectedRowGroups) <= 1);
+
+            // the column chunks are written in the same order with the same content whatever the number of
+            // compression threads and the parallelism are
+            byte[] bytes = java.nio.file.Files.readAllBytes(file.toPath());
+            if (expected == null) {
+              expected = bytes;
+            } else {
+              Assert.assertArrayEquals(codec + " " + version + " " + compressionThreads + " " + parallelism,
+                  expected, bytes);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testColumnCompressionCodecs() throws IOException {
+    MessageType schema = Types.buildMessage()
+        .required(INT64).named("id")
+        .required(BINARY).as(stringType()).named("text")
+        .required(BINARY).named("payload")
+        .named("msg");
+    final int recordCount = 5000;
+    GroupFactory factory = new SimpleGroupFactory(schema);
+    Random random = new Random(42);
+    byte[][] payloads = new byte[recordCount][];
+    for (int i = 0; i < recordCount; ++i) {
+      payloads[i] = new byte[32];
+      random.nextBytes(payloads[i]);
+    }
+
+    for (int parallelism : new int[] { 1, 2 }) {
+      for (int compressionThreads : new int[] { 0, 2 }) {
+        File file = temp.newFile();
+        file.delete();
+        Path path = new Path(file.getAbsolutePath());
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+            .withType(schema)
+            .withCompressionCodec(CompressionCodecName.SNAPPY)
+            .withCompressionCodec("text", CompressionCodecName.GZIP)
+            .withCompressionCodec("pay*", CompressionCodecName.UNCOMPRESSED)
+            .withFlushParallelism(parallelism)
+            .withPageCompressionThreads(compressionThreads)
+            .withRowGroupSize(64 * 1024)
+            .withPageSize(1024)
+            .build()) {
+          for (int i = 0; i < recordCount; ++i) {
+            writer.write(factory.newGroup()
+                .append("id", (long) i)
+                .append("text", "text-" + i % 100)
+                .append("payload", Binary.fromConstantByteArray(payloads[i])));
+          }
+        }
+
+        ParquetMetadata footer = readFooter(new Configuration(), path, NO_FILTER);
+        assertTrue("Several row groups are required for the test", footer.getBlocks().size() > 1);
+        for (BlockMetaData block : footer.getBlocks()) {
+          List<ColumnChunkMetaData> columns = block.getColumns();
+          assertEquals(CompressionCodecName.SNAPPY, columns.get(0).getCodec());
+          assertEquals(CompressionCodecName.GZIP, columns.get(1).getCodec());
+          assertEquals(CompressionCodecName.UNCOMPRESSED, columns.get(2).getCodec());
+          assertEquals(columns.get(2).getTotalUncompressedSize(), columns.get(2).getTotalSize());
+        }
+        try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), path).build()) {
+          int i = 0;
+          for (Group group = reader.read(); group != null; group = reader.read(), ++i) {
+            assertEquals(i, group.getLong("id", 0));
+            assertEquals("text-" + i % 100, group.getString("text", 0));
+            assertEquals(Binary.fromConstantByteArray(payloads[i]), group.getBinary("payload", 0));
+          }
+          assertEquals(recordCount, i);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testBatchWrites() throws IOException {
+    MessageType schema = Types.buildMessage()
+        .required(INT64).named("id")
+        .optional(BINARY).as(stringType()).named("str")
+        .repeated(INT32).named("ints")
+        .named("msg");
+    final int batchSize = 500;
+    final int recordCount = 20000;
+    GroupFactory factory = new SimpleGroupFactory(schema);
+    File file = temp.newFile();
+    file.delete();
+    Path path = new Path(file.getAbsolutePath());
+
+    ColumnarWriteBatch batch = new ColumnarWriteBatch(schema);
+    long[] ids = new long[batchSize];
+    Binary[] strs = new Binary[batchSize];
+    long[] nulls = new long[(batchSize + 63) / 64];
+    int[] ints = new int[batchSize * 2];
+    int[] repetitionLevels = new int[batchSize * 2];
+    int[] definitionLevels = new int[batchSize * 2];
+    try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(path)
+        .withType(schema)
+        .withRowGroupSize(64 * 1024)
+        .withPageSize(1024)
+        .build()) {
+      for (int start = 0; start < recordCount; start += batchSize) {
+        // every fourth batch is written record by record
+        if (start / batchSize % 4 == 3) {
+          for (int i = start; i < start + batchSize; ++i) {
+            Group group = factory.newGroup().append("id", (long) i);
+            if (i % 3 != 0) {
+              group.append("str", "str-" + i);
+            }
+            for (int j = 0; j < i % 3; ++j) {
+              group.append("ints", i + j);
+            }
+            writer.write(group);
+          }
+          continue;
+        }
+        Arrays.fill(nulls, 0);
+        int entries = 0;
+        for (int i = 0; i < batchSize; ++i) {
+          int row = start + i;
+          ids[i] = row;
+          if (row % 3 != 0) {
+            strs[i] = Binary.fromString("str-" + row);
+          } else {
+            nulls[i >>> 6] |= 1L << i;
+          }
+          if (row % 3 == 0) {
+            repetitionLevels[entries] = 0;
+            definitionLevels[entries++] = 0;
+          }
+          for (int j = 0; j < row % 3; ++j) {
+            ints[entries] = row + j;
+            repetitionLevels[entries] = j == 0 ? 0 : 1;
+            definitionLevels[entries++] = 1;
+          }
+        }
+        writer.writeBatch(batch.setRowCount(batchSize)
+            .setValues(0, ids, null)
+            .setValues(1, strs, nulls)
+            .setValues(2, entries, ints, repetitionLevels, definitionLevels));
+      }
+    }
+
+    try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path, new Configuration()))) {
+      assertTrue("Several row groups are required for the test", reader.getRowGroups().size() > 1);
+      ColumnChunkMetaData idColumn = reader.getRowGroups().get(0).getColumns().get(0);
+      assertEquals(0L, ((Long) idColumn.getStatistics().genericGetMin()).longValue());
+    }
+    try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), path).build()) {
+      int i = 0;
+      for (Group group = reader.read(); group != null; group = reader.read(), ++i) {
+        assertEquals(i, group.getLong("id", 0));
+        assertEquals(i % 3 == 0 ? 0 : 1, group.getFieldRepetitionCount("str"));
+        if (i % 3 != 0) {
+          assertEquals("str-" + i, group.getString("str", 0));
+        }
+        assertEquals(i % 3, group.getFieldRepetitionCount("ints"));
+        for (int j = 0; j < i % 3; ++j) {
+          assertEquals(i + j, group.getInteger("ints", j));
+        }
+      }
+      assertEquals(recordCount, i);
+    }
+  }
+
+  @Test
+  public void testColumnProperties() throws Exception {
+    MessageType schema = Types.buildMessage()
+        .required(INT64).named("id")
+        .requiredGroup()
+          .required(BINARY).as(stringType()).named("name")
+          .required(BINARY).as(stringType()).named("email")
+        .named("user")
+        .named("msg");
+    File file = temp.newFile();
+    file.delete();
+    Configuration conf = new Configuration();
+    GroupWriteSupport.setSchema(schema, conf);
+    conf.set(ParquetOutputFormat.WRITER_VERSION, PARQUET_2_0.toString());
+    ParquetOutputFormat.setColumnProperty(conf, ParquetOutputFormat.ENABLE_DICTIONARY, "user.*", "false");
+    ParquetOutputFormat.setColumnProperty(conf, ParquetOutputFormat.COLUMN_ENCODING, "user.*", "delta_length_byte_array");
+    ParquetOutputFormat.setColumnProperty(conf, ParquetOutputFormat.COLUMN_ENCODING, "user.email", "plain");
+    ParquetOutputFormat.setColumnProperty(conf, ParquetOutputFormat.PAGE_ROW_COUNT_LIMIT, "id", "100");
+    ParquetOutputFormat.setColumnProperty(conf, ParquetOutputFormat.COMPRESSION, "user.name", "gzip");
+
+    GroupFactory factory = new SimpleGroupFactory(schema);
+    org.apache.hadoop.mapreduce.RecordWriter<Void, Group> writer = new ParquetOutputFormat<Group>(
+        new GroupWriteSupport()).getRecordWriter(conf, new Path(file.getAbsolutePath()), UNCOMPRESSED);
+    for (int i = 0; i < 1000; ++i) {
+      Group group = factory.newGroup().append("id", (long) i % 10);
+      group.addGroup("user").append("name", "name-" + i % 10).append("email", "email-" + i % 10);
+      writer.write(null, group);
+    }
+    writer.close(null);
+
+    try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(new Path(file.getAbsolutePath()), conf))) {
+      List<ColumnChunkMetaData> columns = reader.getRowGroups().get(0).getColumns();
+      assertTrue(columns.get(0).getEncodings().contains(RLE_DICTIONARY));
+      assertTrue(columns.get(1).getEncodings().contains(Encoding.DELTA_LENGTH_BYTE_ARRAY));
+      assertTrue(columns.get(2).getEncodings().contains(PLAIN));
+      assertEquals(10, reader.readOffsetIndex(columns.get(0)).getPageCount());
+      assertEquals(1, reader.readOffsetIndex(columns.get(1)).getPageCount());
+      assertEquals(UNCOMPRESSED, columns.get(0).getCodec());
+      assertEquals(CompressionCodecName.GZIP, columns.get(1).getCodec());
+    }
+  }
 }